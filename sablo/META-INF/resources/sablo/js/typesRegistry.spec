@@ -10,6 +10,7 @@
 	     "getCurrentFormUrl": { "returns": "string" },
 	     
          "addComponentClientSideSpecs": { "parameters": [ { "name":"componentSpecificationsFromServer", "type": "object" } ] },
-         "setServiceClientSideSpecs": { "parameters": [ { "name":"serviceSpecificationsFromServer", "type": "object" } ] }
+         "setServiceClientSideSpecs": { "parameters": [ { "name":"serviceSpecificationsFromServer", "type": "object" } ] },
+         "loadClientSideSpecBundles": { "parameters": [ { "name":"bundles", "type": "object" } ] }
 	}
 }
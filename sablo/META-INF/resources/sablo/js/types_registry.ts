@@ -29,6 +29,7 @@ namespace sablo.typesRegistry {
         private typeFactoryRegistry: ITypeFactoryRegistry = new TypeFactoryRegistry();
         private types: ObjectOfIType = {}; // simple (don't need a factory to create more specific sub-types) global types that need client-side conversion
         private disablePushToServerWatches: boolean = false; // only needed by Servoy form desiner - it will block all push to server watch creation
+        private fetchedClientSideSpecBundles: { [hash: string]: IWebObjectTypesFromServer } = {}; // bundles that were fetched over HTTP but not yet loaded
 
         constructor(private readonly logger: sablo.ILogService) {}
 
@@ -111,6 +112,64 @@ namespace sablo.typesRegistry {
             }
         }
 
+        /**
+         * The server sent identifiers of client side spec bundles (see ClientSideTypeBundle.java) instead of the client side specs themselves. Their content is
+         * normally already here - as $webSocket fetches them (see getClientSideSpecBundlesToFetch/fetchClientSideSpecBundles) before handling the message that calls this.
+         */
+        loadClientSideSpecBundles(bundles: IClientSideSpecBundleIdentifier[]) {
+            for (const bundle of bundles) {
+                let content = this.fetchedClientSideSpecBundles[bundle.h];
+                if (!content) {
+                    this.logger.warn("[typesRegistry] Client side spec bundle '" + bundle.n + "' was not fetched before it was needed; loading it synchronously...");
+                    const request = new XMLHttpRequest();
+                    request.open("GET", TypesRegistry.getClientSideSpecBundleURL(bundle), false);
+                    request.send();
+                    if (request.status != 200) {
+                        this.logger.error("[typesRegistry] Cannot load client side spec bundle '" + bundle.n + "'; HTTP status: " + request.status);
+                        continue;
+                    }
+                    content = JSON.parse(request.responseText);
+                }
+                delete this.fetchedClientSideSpecBundles[bundle.h];
+
+                if (bundle.s) this.setServiceClientSideSpecs(content);
+                else this.addComponentClientSideSpecs(content);
+            }
+        }
+
+        /** Returns the bundles that the given (not yet parsed) message from server needs (and that were not yet fetched). */
+        getClientSideSpecBundlesToFetch(messageData: string): IClientSideSpecBundleIdentifier[] {
+            const toFetch: IClientSideSpecBundleIdentifier[] = [];
+            if (messageData.indexOf("loadClientSideSpecBundles") < 0) return toFetch; // most messages don't; avoid parsing those twice
+
+            const serviceApis = JSON.parse(messageData.substring(messageData.indexOf('{'))).serviceApis;
+            if (serviceApis) for (const serviceCall of serviceApis) {
+                if (serviceCall.name == "$typesRegistry" && serviceCall.call == "loadClientSideSpecBundles") {
+                    for (const bundle of serviceCall.args[0] as IClientSideSpecBundleIdentifier[]) {
+                        if (!this.fetchedClientSideSpecBundles[bundle.h]) toFetch.push(bundle);
+                    }
+                }
+            }
+            return toFetch;
+        }
+
+        /** Fetches the given bundles over HTTP (the browser normally has them in it's cache already). The returned promise is never rejected. */
+        fetchClientSideSpecBundles(bundles: IClientSideSpecBundleIdentifier[]): Promise<void> {
+            return Promise.all(bundles.map((bundle) =>
+                fetch(TypesRegistry.getClientSideSpecBundleURL(bundle), { credentials: "same-origin" })
+                    .then((response) => {
+                        if (!response.ok) throw new Error("HTTP status " + response.status);
+                        return response.json();
+                    })
+                    .then((content) => { this.fetchedClientSideSpecBundles[bundle.h] = content; })
+                    .catch((reason) => { this.logger.error("[typesRegistry] Cannot fetch client side spec bundle '" + bundle.n + "': " + reason); })
+            )).then(() => undefined);
+        }
+
+        private static getClientSideSpecBundleURL(bundle: IClientSideSpecBundleIdentifier): string {
+            return "sablo/typebundles/" + bundle.h + ".json";
+        }
+
         getComponentSpecification(componentSpecName: string): IWebObjectSpecification {
             return this.componentSpecifications[componentSpecName];
         }
@@ -391,6 +450,13 @@ namespace sablo.typesRegistry {
         [specName: string]: IWebObjectSpecificationFromServer;
     }
 
+    /** What the server sends to identify a client side spec bundle; see org.sablo.specification.ClientSideTypeBundle.writeIdentifier(JSONWriter). */
+    export interface IClientSideSpecBundleIdentifier {
+        n: string; // name
+        h: string; // content hash
+        s?: boolean; // true for the bundle that contains all services
+    }
+
     /** This type definition must match what the server sends; see org.sablo.specification.ClientSideTypeCache.buildClientSideTypesFor(WebObjectSpecification) javadoc and impl. */
     interface IWebObjectSpecificationFromServer {
 
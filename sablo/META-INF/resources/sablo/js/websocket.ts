@@ -214,6 +214,36 @@ webSocketModule.factory('$propertyWatchUtils', function ($typesRegistry: sablo.I
 		}
 	}
 
+	// messages that came in while the client side spec bundles needed by a previous message were being fetched; they are handled in order after that
+	let messagesWaitingForClientSideSpecBundles: any[] = undefined;
+
+	let handleMessageWhenClientSideSpecsAreAvailable = function(message) {
+		if (messagesWaitingForClientSideSpecBundles) {
+			messagesWaitingForClientSideSpecBundles.push(message);
+			return;
+		}
+
+		let typesRegistryInternal = $typesRegistry as any as sablo.typesRegistry.TypesRegistry;
+		let bundlesToFetch = typesRegistryInternal.getClientSideSpecBundlesToFetch(message.data);
+		if (bundlesToFetch.length == 0) handleMessage(message);
+		else {
+			if ($log.debugEnabled) $log.debug("sbl * Fetching " + bundlesToFetch.length + " client side spec bundle(s) before handling the message...");
+			messagesWaitingForClientSideSpecBundles = [message];
+			typesRegistryInternal.fetchClientSideSpecBundles(bundlesToFetch).then(function() {
+				let waitingMessages = messagesWaitingForClientSideSpecBundles;
+				messagesWaitingForClientSideSpecBundles = undefined;
+				for (let i = 0; i < waitingMessages.length; i++) {
+					if (messagesWaitingForClientSideSpecBundles) {
+						// one of the waiting messages needs other bundles; keep the rest of them waiting as well
+						messagesWaitingForClientSideSpecBundles = messagesWaitingForClientSideSpecBundles.concat(waitingMessages.slice(i));
+						break;
+					}
+					handleMessageWhenClientSideSpecsAreAvailable(waitingMessages[i]);
+				}
+			});
+		}
+	}
+
 	let handleMessage = function(message) {
 		let obj;
 		let responseValue;
@@ -295,6 +325,10 @@ webSocketModule.factory('$propertyWatchUtils', function ($typesRegistry: sablo.I
 				$services.updateServiceScopes(obj.msg.services);
 			}
 
+			if (obj.msg && obj.msg.dataPushBatch) {
+				dataPushBatchSupported = true; // the server announced (when this window connected) that it handles formService.dataPushBatch
+			}
+
 			if (obj.serviceApis) {
 				// normal service api calls
 				for (let index in obj.serviceApis) {
@@ -503,12 +537,16 @@ webSocketModule.factory('$propertyWatchUtils', function ($typesRegistry: sablo.I
 	}
 
 	let sendMessageObject = function(obj) {
+		sendPendingDataPushes(); // keep the order of messages; anything sent now might depend on the data that was pushed before it
 		if ($sabloUtils.getCurrentEventLevelForServer()) {
 			obj.prio = $sabloUtils.getCurrentEventLevelForServer();
 		}
-		let msg = JSON.stringify(obj)
+		sendMessage(JSON.stringify(obj));
+	}
+
+	let sendMessage = function(msg: string) {
 		if (isConnected()) {
-			if ($log.debugLevel === $log.SPAM) $log.debug("sbl * Sending message to server: " + JSON.stringify(obj, null, "  "));
+			if ($log.debugLevel === $log.SPAM) $log.debug("sbl * Sending message to server: " + msg);
 			websocket.send(msg)
 		}
 		else
@@ -528,7 +566,37 @@ webSocketModule.factory('$propertyWatchUtils', function ($typesRegistry: sablo.I
         });        
     }
 
+	// async formService.dataPush calls that are made in the same tick (for example when many fields change at once) are sent to the server
+	// as a single formService.dataPushBatch call; the server then applies all of them in one event and sends back the resulting changes only once;
+	// only done if the server announced that it supports it (older servers or form services that do not know dataPushBatch just get dataPush calls)
+	let dataPushBatchSupported = false;
+	let pendingDataPushes: { pushes: string[], prio: number } = undefined;
+
+	let queueDataPush = function(argsObject) {
+		const prio = $sabloUtils.getCurrentEventLevelForServer();
+		if (pendingDataPushes && pendingDataPushes.prio !== prio) sendPendingDataPushes();
+		if (!pendingDataPushes) {
+			pendingDataPushes = { pushes: [], prio: prio };
+			Promise.resolve().then(sendPendingDataPushes); // after the code that is currently running, but still in the same tick
+		}
+		pendingDataPushes.pushes.push(JSON.stringify(argsObject)); // stringify now, as the pushed values might still be changed before the batch is sent
+	}
+
+	let sendPendingDataPushes = function() {
+		if (!pendingDataPushes) return;
+		const batch = pendingDataPushes;
+		pendingDataPushes = undefined;
+
+		const args = (batch.pushes.length == 1 ? batch.pushes[0] : '{"pushes":[' + batch.pushes.join(',') + ']}');
+		sendMessage('{"service":"formService","methodname":"' + (batch.pushes.length == 1 ? 'dataPush' : 'dataPushBatch') + '","args":' + args
+			+ (batch.prio ? ',"prio":' + batch.prio : '') + '}');
+	}
+
 	let callService = function(serviceName, methodName, argsObject, async) {
+		if (async && dataPushBatchSupported && serviceName === 'formService' && methodName === 'dataPush') {
+			queueDataPush(argsObject);
+			return;
+		}
 		let cmd = {
 				service : serviceName,
 				methodname : methodName,
@@ -768,7 +836,7 @@ webSocketModule.factory('$propertyWatchUtils', function ($typesRegistry: sablo.I
 				}
 			}
 			websocket.onmessage = function(message) {
-				handleHeartbeat(message) || handleMessage(message);
+				handleHeartbeat(message) || handleMessageWhenClientSideSpecsAreAvailable(message);
 			}
 
 			// todo should we just merge $websocket and $services into $sablo that just has all
@@ -19,10 +19,12 @@ import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -40,24 +42,32 @@ import org.json.JSONWriter;
 import org.sablo.specification.PropertyDescription;
 import org.sablo.specification.PropertyDescription.PDAndComputedPushToServer;
 import org.sablo.specification.PropertyDescriptionBuilder;
+import org.sablo.specification.SharedToJSONValueCache;
+import org.sablo.specification.SharedToJSONValueCache.DesignValueJSON;
+import org.sablo.specification.VisibilityAndProtectionIndex.ProtectingProperty;
 import org.sablo.specification.WebComponentSpecProvider;
 import org.sablo.specification.WebObjectFunctionDefinition;
 import org.sablo.specification.WebObjectSpecification;
 import org.sablo.specification.WebObjectSpecification.PushToServerEnum;
 import org.sablo.specification.property.BrowserConverterContext;
+import org.sablo.specification.property.ChangeAwareMap;
+import org.sablo.specification.property.CustomJSONObjectType;
 import org.sablo.specification.property.IBrowserConverterContext;
 import org.sablo.specification.property.IClassPropertyType;
 import org.sablo.specification.property.IGranularProtectionChecker;
 import org.sablo.specification.property.IPropertyType;
+import org.sablo.specification.property.IPropertyTypeWithInternedValues;
 import org.sablo.specification.property.IPushToServerSpecialType;
 import org.sablo.specification.property.ISmartPropertyValue;
 import org.sablo.specification.property.IWrapperType;
 import org.sablo.specification.property.WrappingContext;
 import org.sablo.specification.property.types.AggregatedPropertyType;
 import org.sablo.specification.property.types.EnabledPropertyType;
-import org.sablo.specification.property.types.ProtectedConfig;
 import org.sablo.specification.property.types.VisiblePropertyType;
 import org.sablo.util.ValueReference;
+import org.sablo.websocket.CurrentWindow;
+import org.sablo.websocket.IWindow;
+import org.sablo.websocket.LastSentValueDigests;
 import org.sablo.websocket.TypedData;
 import org.sablo.websocket.TypedDataWithChangeInfo;
 import org.sablo.websocket.utils.JSONUtils;
@@ -85,16 +95,16 @@ public abstract class BaseWebObject implements IWebObjectContext
 	protected final WebObjectSpecification specification;
 
 	/**
-	 * model properties to interact with webcomponent values, maps name to value
+	 * model properties to interact with webcomponent values, maps name to value; values of properties declared in the spec are kept in an array indexed by their spec slot
 	 */
-	protected final Map<String, Object> properties = new HashMap<>();
+	protected final Map<String, Object> properties;
 
 	/**
 	 * default model properties that are not send to the browser or template (design) values that were sent to browser as template values but have not (yet) changed at runtime;
 	 * the common thing for these is that they either don't have to be sent initially to client
 	 * or they have already been sent to client as template-to-json; they will not be written afterwards when a fullToJSON happens or when a changesToJSON happens
 	 */
-	protected final Map<String, Object> defaultAndTemplatePropertiesUnwrapped = new HashMap<>();
+	protected final Map<String, Object> defaultAndTemplatePropertiesUnwrapped;
 
 	/**
 	 * the event handlers
@@ -107,6 +117,8 @@ public abstract class BaseWebObject implements IWebObjectContext
 
 	protected final String name;
 
+	private volatile Object designKey;
+
 	private boolean propertiesInitialized; // we want to be able to convert all initial property values from sablo to web component before 'attaching' them if they are instances of ISmartPropertyValue; so we wait for all to be set and then trigger onPropertyChanged on all of them
 
 	public BaseWebObject(String name, WebObjectSpecification specification)
@@ -127,6 +139,9 @@ public abstract class BaseWebObject implements IWebObjectContext
 		changes = new Changes();
 
 		if (specification == null) throw new IllegalStateException("Cannot work without a specification for: " + name);
+
+		properties = new SpecIndexedPropertyMap(specification);
+		defaultAndTemplatePropertiesUnwrapped = new SpecIndexedPropertyMap(specification);
 	}
 
 	/**
@@ -158,14 +173,20 @@ public abstract class BaseWebObject implements IWebObjectContext
 	public class Changes
 	{
 		/**
-		 * Keeps track of properties that have changed content.
+		 * Keeps track of properties (by spec slot) that have changed content.
+		 */
+		private final BitSet propertiesWithChangedContent = new BitSet();
+
+		/**
+		 * Keeps track of properties (by spec slot) that have changed by reference (a different (!=) value was assigned to them).
 		 */
-		private final Set<String> propertiesWithChangedContent = new HashSet<>(3);
+		private final BitSet propertiesChangedByRef = new BitSet();
 
 		/**
-		 * Keeps track of properties that have changed by reference (a different (!=) value was assigned to them).
+		 * Same as {@link #propertiesWithChangedContent} and {@link #propertiesChangedByRef} but for properties that are not declared in the spec (so they have no slot); rarely used so created only when needed.
 		 */
-		private final Set<String> propertiesChangedByRef = new HashSet<>(3);
+		private Set<String> otherPropertiesWithChangedContent;
+		private Set<String> otherPropertiesChangedByRef;
 
 		private boolean shouldNotReceiveChanges = false;
 
@@ -178,13 +199,79 @@ public abstract class BaseWebObject implements IWebObjectContext
 		{
 			propertiesChangedByRef.clear();
 			propertiesWithChangedContent.clear();
+			otherPropertiesChangedByRef = null;
+			otherPropertiesWithChangedContent = null;
+		}
+
+		private boolean isChangedContent(int slot, String key)
+		{
+			return slot >= 0 ? propertiesWithChangedContent.get(slot) : otherPropertiesWithChangedContent != null && otherPropertiesWithChangedContent.contains(key);
+		}
+
+		private boolean isChangedByRef(int slot, String key)
+		{
+			return slot >= 0 ? propertiesChangedByRef.get(slot) : otherPropertiesChangedByRef != null && otherPropertiesChangedByRef.contains(key);
+		}
+
+		private boolean addChangedContent(int slot, String key)
+		{
+			if (slot >= 0)
+			{
+				if (propertiesWithChangedContent.get(slot)) return false;
+				propertiesWithChangedContent.set(slot);
+				return true;
+			}
+			if (otherPropertiesWithChangedContent == null) otherPropertiesWithChangedContent = new HashSet<>(3);
+			return otherPropertiesWithChangedContent.add(key);
+		}
+
+		private boolean addChangedByRef(int slot, String key)
+		{
+			if (slot >= 0)
+			{
+				if (propertiesChangedByRef.get(slot)) return false;
+				propertiesChangedByRef.set(slot);
+				return true;
+			}
+			if (otherPropertiesChangedByRef == null) otherPropertiesChangedByRef = new HashSet<>(3);
+			return otherPropertiesChangedByRef.add(key);
+		}
+
+		private boolean removeChangedContent(int slot, String key)
+		{
+			if (slot >= 0)
+			{
+				if (!propertiesWithChangedContent.get(slot)) return false;
+				propertiesWithChangedContent.clear(slot);
+				return true;
+			}
+			return otherPropertiesWithChangedContent != null && otherPropertiesWithChangedContent.remove(key);
+		}
+
+		private boolean removeChangedByRef(int slot, String key)
+		{
+			if (slot >= 0)
+			{
+				if (!propertiesChangedByRef.get(slot)) return false;
+				propertiesChangedByRef.clear(slot);
+				return true;
+			}
+			return otherPropertiesChangedByRef != null && otherPropertiesChangedByRef.remove(key);
+		}
+
+		private boolean hasChanges()
+		{
+			return !propertiesChangedByRef.isEmpty() || !propertiesWithChangedContent.isEmpty() ||
+				(otherPropertiesChangedByRef != null && !otherPropertiesChangedByRef.isEmpty()) ||
+				(otherPropertiesWithChangedContent != null && !otherPropertiesWithChangedContent.isEmpty());
 		}
 
 		public boolean clearChangedStatusForProperty(String key)
 		{
-			boolean somethingHappened = propertiesChangedByRef.remove(key); // whether or not we will add or remove it from a changes map (if it is already there or can't be removed, it will be false)
+			int slot = specification.getPropertySlot(key);
+			boolean somethingHappened = removeChangedByRef(slot, key); // whether or not we will add or remove it from a changes map (if it is already there or can't be removed, it will be false)
 			// remove it from any of the 2 changes map (it can't be in both)
-			somethingHappened = propertiesWithChangedContent.remove(key) || somethingHappened;
+			somethingHappened = removeChangedContent(slot, key) || somethingHappened;
 
 			if (somethingHappened && dirtyPropertyListener != null) dirtyPropertyListener.propertyFlaggedAsDirty(key, false, false);
 
@@ -205,10 +292,11 @@ public abstract class BaseWebObject implements IWebObjectContext
 		{
 			checkIfChangeCameInWhenItShouldnt(); // this can change the "changes" ref. that is why below we always use changes. instead of directly the properties
 
+			int slot = specification.getPropertySlot(key);
 			boolean somethingHappened = false;
-			if (!changes.propertiesWithChangedContent.contains(key) && !changes.propertiesChangedByRef.contains(key))
+			if (!changes.isChangedByRef(slot, key))
 			{
-				somethingHappened = changes.propertiesWithChangedContent.add(key);
+				somethingHappened = changes.addChangedContent(slot, key);
 			} // else don't add it in the changes map as it's already in the ref. changed map; it will be fully sent to client
 
 			if (somethingHappened) makeSureItIsInPropertiesMapAndNotInDefaultAndTemplateMap(key);
@@ -221,11 +309,12 @@ public abstract class BaseWebObject implements IWebObjectContext
 		{
 			checkIfChangeCameInWhenItShouldnt(); // this can change the "changes" ref. that is why below we always use changes. instead of directly the properties
 
-			boolean somethingHappened = changes.propertiesChangedByRef.add(key); // whether or not we will add it to a changes map (if it is already there or can't be removed, it will be false)
+			int slot = specification.getPropertySlot(key);
+			boolean somethingHappened = changes.addChangedByRef(slot, key); // whether or not we will add it to a changes map (if it is already there or can't be removed, it will be false)
 			if (somethingHappened)
 			{
 				// we just added it to be sent fully; remove it from contents changed so that it will not be sent twice
-				changes.propertiesWithChangedContent.remove(key);
+				changes.removeChangedContent(slot, key);
 				makeSureItIsInPropertiesMapAndNotInDefaultAndTemplateMap(key);
 			}
 
@@ -247,49 +336,91 @@ public abstract class BaseWebObject implements IWebObjectContext
 
 		public boolean isChanged()
 		{
-			for (String propertyName : propertiesWithChangedContent)
+			for (int slot = propertiesWithChangedContent.nextSetBit(0); slot >= 0; slot = propertiesWithChangedContent.nextSetBit(slot + 1))
+			{
+				if (isVisibleOrVisibilityProperty(specification.getPropertyNameForSlot(slot))) return true;
+			}
+			for (int slot = propertiesChangedByRef.nextSetBit(0); slot >= 0; slot = propertiesChangedByRef.nextSetBit(slot + 1))
+			{
+				if (isVisibleOrVisibilityProperty(specification.getPropertyNameForSlot(slot))) return true;
+			}
+			if (otherPropertiesWithChangedContent != null)
 			{
-				if (isVisible(propertyName) || isVisibilityProperty(propertyName))
+				for (String propertyName : otherPropertiesWithChangedContent)
 				{
-					return true;
+					if (isVisibleOrVisibilityProperty(propertyName)) return true;
 				}
 			}
-			for (String propertyName : propertiesChangedByRef)
+			if (otherPropertiesChangedByRef != null)
 			{
-				if (isVisible(propertyName) || isVisibilityProperty(propertyName))
+				for (String propertyName : otherPropertiesChangedByRef)
 				{
-					return true;
+					if (isVisibleOrVisibilityProperty(propertyName)) return true;
 				}
 			}
 
 			return false;
 		}
 
+		private boolean isVisibleOrVisibilityProperty(String propertyName)
+		{
+			return isVisible(propertyName) || isVisibilityProperty(propertyName);
+		}
+
 		/**
 		 * Get the changes of this component, clear changes. It does not write them to JSON just returns the java content + prop. types + change types.
 		 * When the component is not visible, only the visibility-properties are returned and cleared from the changes.
 		 */
 		public TypedDataWithChangeInfo getAndClearChanges()
 		{
-			if (propertiesChangedByRef.isEmpty() && propertiesWithChangedContent.isEmpty())
+			if (!hasChanges())
 			{
 				return EMPTY_PROPERTIES_WITH_CHANGE_INFO;
 			}
 
-			Map<String, Object> changesMap = null;
-			PropertyDescriptionBuilder changeTypes = null;
-			Set<String> propertiesWithContentUpdateOnly = null;
+			ChangesCollector collector = new ChangesCollector();
 
-			// add all changes to an array to iterate on all
-			int idxStartChangedByRef = propertiesWithChangedContent.size();
-			ArrayList<String> allChangedPropertyNames = new ArrayList<String>(idxStartChangedByRef + propertiesChangedByRef.size());
-			allChangedPropertyNames.addAll(propertiesWithChangedContent);
-			allChangedPropertyNames.addAll(propertiesChangedByRef);
+			// content changes first, then by-ref changes; the bits are iterated directly (clearing a bit while iterating is fine as we only look at higher slots after that)
+			for (int slot = propertiesWithChangedContent.nextSetBit(0); slot >= 0; slot = propertiesWithChangedContent.nextSetBit(slot + 1))
+			{
+				collector.collect(specification.getPropertyNameForSlot(slot), true);
+			}
+			if (otherPropertiesWithChangedContent != null)
+			{
+				for (String propertyName : otherPropertiesWithChangedContent.toArray(new String[otherPropertiesWithChangedContent.size()]))
+				{
+					collector.collect(propertyName, true);
+				}
+			}
+			for (int slot = propertiesChangedByRef.nextSetBit(0); slot >= 0; slot = propertiesChangedByRef.nextSetBit(slot + 1))
+			{
+				collector.collect(specification.getPropertyNameForSlot(slot), false);
+			}
+			if (otherPropertiesChangedByRef != null)
+			{
+				for (String propertyName : otherPropertiesChangedByRef.toArray(new String[otherPropertiesChangedByRef.size()]))
+				{
+					collector.collect(propertyName, false);
+				}
+			}
 
-			for (int i = 0; i < allChangedPropertyNames.size(); i++)
+			if (collector.changesMap == null)
 			{
-				String propertyName = allChangedPropertyNames.get(i);
-				if (isVisible(propertyName) || isVisibilityProperty(propertyName))
+				return EMPTY_PROPERTIES_WITH_CHANGE_INFO;
+			}
+
+			// the spec itself describes the types of the changed properties (it is only used via getProperty(name)), so no PropertyDescription needs to be built for each flush
+			return new TypedDataWithChangeInfo(collector.changesMap, specification, collector.propertiesWithContentUpdateOnly);
+		}
+
+		private class ChangesCollector
+		{
+			private Map<String, Object> changesMap;
+			private Set<String> propertiesWithContentUpdateOnly;
+
+			private void collect(String propertyName, boolean contentUpdateOnly)
+			{
+				if (isVisibleOrVisibilityProperty(propertyName))
 				{
 					clearChangedStatusForProperty(propertyName);
 					if (changesMap == null)
@@ -297,16 +428,7 @@ public abstract class BaseWebObject implements IWebObjectContext
 						changesMap = new HashMap<>();
 					}
 					changesMap.put(propertyName, properties.get(propertyName));
-					PropertyDescription t = specification.getProperty(propertyName);
-					if (t != null)
-					{
-						if (changeTypes == null)
-						{
-							changeTypes = AggregatedPropertyType.newAggregatedPropertyBuilder();
-						}
-						changeTypes.withProperty(propertyName, t);
-					}
-					if (i < idxStartChangedByRef)
+					if (contentUpdateOnly)
 					{
 						// this is a property with content updates only
 						if (propertiesWithContentUpdateOnly == null) propertiesWithContentUpdateOnly = new HashSet<>();
@@ -314,13 +436,6 @@ public abstract class BaseWebObject implements IWebObjectContext
 					}
 				}
 			}
-
-			if (changesMap == null)
-			{
-				return EMPTY_PROPERTIES_WITH_CHANGE_INFO;
-			}
-
-			return new TypedDataWithChangeInfo(changesMap, changeTypes != null ? changeTypes.build() : null, propertiesWithContentUpdateOnly);
 		}
 
 	}
@@ -404,24 +519,10 @@ public abstract class BaseWebObject implements IWebObjectContext
 	 */
 	public boolean isVisible(String property)
 	{
-		for (PropertyDescription prop : specification.getProperties(VisiblePropertyType.INSTANCE))
+		for (PropertyDescription prop : specification.getVisibilityAndProtectionIndex().getVisibilityPropertiesFor(property))
 		{
-			if (Boolean.FALSE.equals(getProperty(prop.getName())))
-			{
-				Object config = prop.getConfig();
-				if (config instanceof ProtectedConfig && ((ProtectedConfig)config).getForEntries() != null)
-				{
-					Collection<String> forEntries = (((ProtectedConfig)config).getForEntries()).getEntries();
-					if (forEntries != null && forEntries.size() > 0 && (property == null || !forEntries.contains(property)))
-					{
-						// specific visibility-property, not for this property
-						continue;
-					}
-				}
-
-				// general visibility-property or specific for this property
-				return false;
-			}
+			// general visibility-property or specific for this property
+			if (Boolean.FALSE.equals(getProperty(prop.getName()))) return false;
 		}
 
 		return true;
@@ -429,25 +530,13 @@ public abstract class BaseWebObject implements IWebObjectContext
 
 	public final void setVisible(boolean visible)
 	{
-		boolean set = false;
-		for (PropertyDescription prop : specification.getProperties(VisiblePropertyType.INSTANCE))
+		PropertyDescription[] generalVisibilityProperties = specification.getVisibilityAndProtectionIndex().getGeneralVisibilityProperties();
+		for (PropertyDescription prop : generalVisibilityProperties)
 		{
-			Object config = prop.getConfig();
-			if (config instanceof ProtectedConfig && ((ProtectedConfig)config).getForEntries() != null)
-			{
-				Collection<String> forEntries = (((ProtectedConfig)config).getForEntries()).getEntries();
-				if (forEntries != null && forEntries.size() > 0)
-				{
-					// specific enable-property, skip
-					continue;
-				}
-			}
-
 			setProperty(prop.getName(), Boolean.valueOf(visible));
-			set = true;
 		}
 
-		if (!set)
+		if (generalVisibilityProperties.length == 0)
 		{
 			log.warn("Could not set component '" + getName() + "' visibility to " + visible + ", no visibility property found");
 		}
@@ -467,35 +556,14 @@ public abstract class BaseWebObject implements IWebObjectContext
 	 */
 	protected void checkForProtectedPropertiesThatMightBlockUpdatesOn(String property)
 	{
-		for (PropertyDescription prop : specification.getProperties().values())
+		for (ProtectingProperty protecting : specification.getVisibilityAndProtectionIndex().getProtectingPropertiesFor(property))
 		{
-			if (prop.getType().isProtecting())
+			String protectingPropertyName = protecting.propertyDescription.getName();
+			if (protecting.blockingOn.equals(getProperty(protectingPropertyName)))
 			{
-				Object config = prop.getConfig();
-
-				// visible default true, so block on false by default
-				// protected default false, so block on true by default
-				boolean blockingOn = Boolean.FALSE.equals(prop.getType().defaultValue(prop));
-				if (config instanceof ProtectedConfig)
-				{
-					blockingOn = ((ProtectedConfig)config).getBlockingOn();
-				}
-
-				if (Boolean.valueOf(blockingOn).equals(getProperty(prop.getName())))
-				{
-					if (config instanceof ProtectedConfig && ((ProtectedConfig)config).getForEntries() != null)
-					{
-						Collection<String> forEntries = (((ProtectedConfig)config).getForEntries()).getEntries();
-						if (forEntries != null && forEntries.size() > 0 && (property == null || !forEntries.contains(property)))
-						{
-							// specific enable-property, not for this property
-							continue;
-						}
-					}
-					// general protected property or specific for this property
-					throw new IllegalChangeFromClientException(prop.getName(), "Changes from client for property '" + property +
-						"' are not allowed when the value of property '" + prop.getName() + "' is " + blockingOn, getName(), property);
-				}
+				// general protected property or specific for this property
+				throw new IllegalChangeFromClientException(protectingPropertyName, "Changes from client for property '" + property +
+					"' are not allowed when the value of property '" + protectingPropertyName + "' is " + protecting.blockingOn, getName(), property);
 			}
 		}
 
@@ -624,6 +692,14 @@ public abstract class BaseWebObject implements IWebObjectContext
 		boolean dirty = false;
 
 		Object oldWrappedValue = getRawPropertyValue(propertyName);
+		if (oldWrappedValue instanceof ChangeAwareMap && isKeyDiffOnReplaceEnabled(propertyName) && properties.get(propertyName) == oldWrappedValue &&
+			ChangeAwareMap.canReplaceContents(oldWrappedValue, propertyValue))
+		{
+			// keep the current custom object value and only update what is different in it; the changed keys will be sent to the client as granular updates
+			dirty = ChangeAwareMap.replaceContentsOf(oldWrappedValue, propertyValue);
+			if (dirty) onPropertyChange(propertyName, oldWrappedValue, oldWrappedValue);
+			return dirty;
+		}
 		Object wrappedValue = wrapPropertyValue(propertyName, oldWrappedValue, propertyValue);
 
 		Map<String, Object> map = properties;
@@ -682,6 +758,16 @@ public abstract class BaseWebObject implements IWebObjectContext
 		return dirty;
 	}
 
+	/**
+	 * @return true if {@link #setProperty(String, Object)} with a plain map for a custom object property that already has a value should just update the keys
+	 * that are different in that value (see {@link ChangeAwareMap#replaceContents(Map)}) instead of replacing it. By default it is
+	 * {@link CustomJSONObjectType#DIFF_KEYS_ON_REPLACE}.
+	 */
+	protected boolean isKeyDiffOnReplaceEnabled(String propertyName)
+	{
+		return CustomJSONObjectType.DIFF_KEYS_ON_REPLACE;
+	}
+
 	/**
 	 * Gets the current value from the properties, if not set then it could fall-back to default properties value from spec - if possible.
 	 * DO NOT USE THIS METHOD; when possible please use {@link #getProperty(String)}, {@link #getProperties()} or {@link #getAllPropertyNames(boolean)} instead.
@@ -816,6 +902,16 @@ public abstract class BaseWebObject implements IWebObjectContext
 			checkIfAccessIsAllowedDisregardingProtection(propertyName, e, propertyValue);
 		}
 
+		LastSentValueDigests lastSentValueDigests = getLastSentValueDigests();
+		if (lastSentValueDigests != null)
+		{
+			// the client has a new value now, it's no longer the one that was last sent to it
+			int rootPropertyEnd = propertyName.length();
+			if (propertyName.indexOf('.') >= 0) rootPropertyEnd = propertyName.indexOf('.');
+			if (propertyName.indexOf('[') >= 0) rootPropertyEnd = Math.min(rootPropertyEnd, propertyName.indexOf('['));
+			lastSentValueDigests.forget(this, propertyName.substring(0, rootPropertyEnd));
+		}
+
 		doPutBrowserProperty(propertyName, propertyValue);
 	}
 
@@ -936,7 +1032,11 @@ public abstract class BaseWebObject implements IWebObjectContext
 				}, this);
 			}
 		}
-		if (propertyChangeSupport != null) propertyChangeSupport.firePropertyChange(propertyName, oldWrappedValue, newWrappedValue);
+		if (propertyChangeSupport != null)
+		{
+			// the same value with new contents (see isKeyDiffOnReplaceEnabled(...)) is fired with an unknown (null) old value, otherwise listeners would not be called
+			propertyChangeSupport.firePropertyChange(propertyName, oldWrappedValue != newWrappedValue ? oldWrappedValue : null, newWrappedValue);
+		}
 	}
 
 	public boolean markPropertyAsChangedByRef(String key)
@@ -979,12 +1079,16 @@ public abstract class BaseWebObject implements IWebObjectContext
 	protected boolean writeComponentProperties(JSONWriter w, IToJSONConverter<IBrowserConverterContext> converter, String nodeName) throws JSONException
 	{
 		TypedData<Map<String, Object>> typedProperties = getProperties();
-		if (typedProperties.content.isEmpty())
+		Object currentDesignKey = designKey;
+		Map<String, JSONString> designValuesJSON = (currentDesignKey != null && converter instanceof FullValueToJSONConverter)
+			? getDesignValuesJSON(currentDesignKey, converter) : Collections.emptyMap();
+		if (typedProperties.content.isEmpty() && designValuesJSON.isEmpty())
 		{
 			return false;
 		}
 
 		w.key(nodeName).object();
+		writeJSONValues(w, designValuesJSON);
 
 		// only write properties that are visible, always write visibility properties
 		Map<String, Object> data = new HashMap<>();
@@ -1003,6 +1107,12 @@ public abstract class BaseWebObject implements IWebObjectContext
 			}
 		}
 
+		LastSentValueDigests lastSentValueDigests = getLastSentValueDigests();
+		if (lastSentValueDigests != null)
+		{
+			writeJSONValues(w, takeOutSeparatelyWrittenValues(converter, data, lastSentValueDigests, false));
+		}
+
 		// here converter is always a full-value-to-json type (full value or initial value, so not changes); so don't give a second parameter as this should be used in any case (we don't want to send changes)
 		writeProperties(converter, null, w, new TypedData<Map<String, Object>>(data, typedProperties.contentType));
 		w.endObject();
@@ -1010,6 +1120,137 @@ public abstract class BaseWebObject implements IWebObjectContext
 		return true;
 	}
 
+	/**
+	 * Identifies the design (for example a form element of a form design) that the default and template values of this web object come from
+	 * (see {@link #setDefaultProperty(String, Object)}); all web objects of this specification with an equal design key must get the same default/template values.<br/><br/>
+	 *
+	 * If set, the full value JSON of this web object (for example in requestData) also contains those default/template values that are of a type with
+	 * context independent JSON (see {@link SharedToJSONValueCache}). Their JSON is written only once for all web objects of the same design and spec, so
+	 * requestData only writes the runtime values of each client. An embedder can then leave these values out of the templates that it sends to each client.
+	 * If not set (the default), default/template values are not sent, as before.
+	 */
+	public void setDesignKey(Object designKey)
+	{
+		this.designKey = designKey;
+	}
+
+	public Object getDesignKey()
+	{
+		return designKey;
+	}
+
+	/**
+	 * Gives the full value JSON of the default/template values (of a design, see {@link #setDesignKey(Object)}) that do not have a runtime value;
+	 * it comes from the {@link SharedToJSONValueCache} of the specification, except for values that were changed for this web object only.
+	 */
+	private Map<String, JSONString> getDesignValuesJSON(Object currentDesignKey, IToJSONConverter<IBrowserConverterContext> converter) throws JSONException
+	{
+		if (defaultAndTemplatePropertiesUnwrapped.isEmpty()) return Collections.emptyMap();
+
+		Map<String, DesignValueJSON> sharedDesignValuesJSON = specification.getSharedToJSONValueCache().getDesignValuesJSON(currentDesignKey,
+			() -> writeDesignValues(converter));
+		Map<String, JSONString> designValuesJSON = new HashMap<>();
+		for (Entry<String, Object> entry : defaultAndTemplatePropertiesUnwrapped.entrySet())
+		{
+			String propertyName = entry.getKey();
+			if (entry.getValue() == null || properties.containsKey(propertyName)) continue; // nothing to send or the runtime value is sent instead
+
+			PropertyDescription pd = specification.getProperty(propertyName);
+			if (!SharedToJSONValueCache.isCacheable(pd)) continue; // not sent, as before
+
+			if (!isVisibilityProperty(propertyName) && !isVisible(propertyName))
+			{
+				// will be sent as changed when component becomes visible
+				markPropertyAsChangedByRef(propertyName);
+				continue;
+			}
+
+			DesignValueJSON shared = sharedDesignValuesJSON.get(propertyName);
+			JSONString json = (shared != null ? shared.getJSONFor(entry.getValue()) : null);
+			if (json == null) json = writeFullValueJSON(converter, propertyName, entry.getValue(), pd); // this web object got another value than it's design
+			if (json != null) designValuesJSON.put(propertyName, json);
+		}
+		return designValuesJSON;
+	}
+
+	private Map<String, DesignValueJSON> writeDesignValues(IToJSONConverter<IBrowserConverterContext> converter) throws JSONException
+	{
+		Map<String, DesignValueJSON> designValuesJSON = new HashMap<>();
+		for (Entry<String, Object> entry : defaultAndTemplatePropertiesUnwrapped.entrySet())
+		{
+			PropertyDescription pd = specification.getProperty(entry.getKey());
+			if (entry.getValue() != null && SharedToJSONValueCache.isCacheable(pd))
+			{
+				JSONString json = writeFullValueJSON(converter, entry.getKey(), entry.getValue(), pd);
+				if (json != null) designValuesJSON.put(entry.getKey(), new DesignValueJSON(entry.getValue(), json));
+			}
+		}
+		return designValuesJSON;
+	}
+
+	private JSONString writeFullValueJSON(IToJSONConverter<IBrowserConverterContext> converter, String propertyName, Object unwrappedValue,
+		PropertyDescription pd) throws JSONException
+	{
+		EmbeddableJSONWriter ejw = new EmbeddableJSONWriter(true); // that 'true' is a workaround for allowing directly a value instead of object or array
+		converter.toJSONValue(ejw, null, wrapPropertyValue(propertyName, null, unwrappedValue), pd, new BrowserConverterContext(this, pd.getPushToServer()));
+		return ejw.isEmpty() ? null : new JSONUtils.JSONStringWrapper(ejw.toJSONString());
+	}
+
+	/**
+	 * Writes separately the simple values (see {@link LastSentValueDigests}) from "data"; it removes them from "data" and returns their JSON.<br/>
+	 * Simple values that the client already has are left out if skipValuesAlreadyOnClient is true.
+	 */
+	private Map<String, JSONString> takeOutSeparatelyWrittenValues(IToJSONConverter<IBrowserConverterContext> converter, Map<String, Object> data,
+		LastSentValueDigests lastSentValueDigests, boolean skipValuesAlreadyOnClient) throws JSONException
+	{
+		Map<String, JSONString> separatelyWrittenValues = new HashMap<>();
+		Iterator<Entry<String, Object>> it = data.entrySet().iterator();
+		while (it.hasNext())
+		{
+			Entry<String, Object> entry = it.next();
+			String propertyName = entry.getKey();
+			PropertyDescription pd = specification.getProperty(propertyName);
+			if (!LastSentValueDigests.isSimpleValue(pd, entry.getValue()))
+			{
+				lastSentValueDigests.forget(this, propertyName); // it will be sent normally
+				continue;
+			}
+
+			EmbeddableJSONWriter ejw = new EmbeddableJSONWriter(true); // that 'true' is a workaround for allowing directly a value instead of object or array
+			converter.toJSONValue(ejw, null, entry.getValue(), pd, new BrowserConverterContext(this, pd.getPushToServer()));
+			if (ejw.isEmpty())
+			{
+				// just let writeProperties deal with it
+				lastSentValueDigests.forget(this, propertyName);
+				continue;
+			}
+			JSONString json = new JSONUtils.JSONStringWrapper(ejw.toJSONString());
+
+			it.remove();
+			if (lastSentValueDigests.checkAlreadySentOrRemember(this, propertyName, LastSentValueDigests.digest(json.toJSONString())) &&
+				skipValuesAlreadyOnClient)
+			{
+				continue; // the client already has exactly this value
+			}
+			separatelyWrittenValues.put(propertyName, json);
+		}
+		return separatelyWrittenValues;
+	}
+
+	private static void writeJSONValues(JSONWriter w, Map<String, JSONString> jsonValues) throws JSONException
+	{
+		for (Entry<String, JSONString> entry : jsonValues.entrySet())
+		{
+			w.key(entry.getKey()).value(entry.getValue());
+		}
+	}
+
+	private static LastSentValueDigests getLastSentValueDigests()
+	{
+		IWindow window = CurrentWindow.safeGet();
+		return window != null ? window.getLastSentValueDigests() : null;
+	}
+
 	@SuppressWarnings({ "unchecked", "rawtypes" })
 	private Object wrapPropertyValue(String propertyName, Object oldValue, Object newValue)
 	{
@@ -1023,6 +1264,7 @@ public abstract class BaseWebObject implements IWebObjectContext
 				((IClassPropertyType< ? >)type).getTypeClass());
 			return null;
 		}
+		if (type instanceof IPropertyTypeWithInternedValues && object != null) object = ((IPropertyTypeWithInternedValues)type).intern(object); // share equal immutable values between web objects
 		return object;
 
 	}
@@ -1116,12 +1358,22 @@ public abstract class BaseWebObject implements IWebObjectContext
 			return false;
 		}
 
+		Map<String, JSONString> simpleValuesToWrite = null;
+		LastSentValueDigests lastSentValueDigests = getLastSentValueDigests();
+		if (lastSentValueDigests != null)
+		{
+			// leave out the simple values that the client already has
+			simpleValuesToWrite = takeOutSeparatelyWrittenValues(FullValueToJSONConverter.INSTANCE, changesToWrite.content, lastSentValueDigests, true);
+			if (simpleValuesToWrite.isEmpty() && changesToWrite.content.isEmpty()) return false;
+		}
+
 		if (keyInParent != null)
 		{
 			w.key(keyInParent).object();
 		}
 
 		w.key(nodeName).object();
+		if (simpleValuesToWrite != null) writeJSONValues(w, simpleValuesToWrite);
 		// converter here is always ChangesToJSONConverter except for some unit tests
 		writeProperties(converter, FullValueToJSONConverter.INSTANCE, w, changesToWrite);
 		w.endObject();
@@ -19,7 +19,9 @@ package org.sablo;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 
 import org.json.JSONException;
 import org.json.JSONWriter;
@@ -38,6 +40,16 @@ public abstract class Container extends WebComponent
 	private Map<String, WebComponent> components = new HashMap<>();
 	protected boolean changed;
 
+	/**
+	 * Child components that marked themselves as changed since the last {@link #writeAllComponentsChanges(JSONWriter, String, IToJSONConverter)}; only these need to be asked for changes then.
+	 */
+	private Set<WebComponent> changedComponents = new LinkedHashSet<>();
+
+	/**
+	 * Set by {@link #markAsChanged()} when it is not known which child components changed; then all of them are asked for changes.
+	 */
+	private boolean allComponentsMayHaveChanged;
+
 	private IWindow alreadyRegisteredToWindow;
 
 	public Container(String name, WebObjectSpecification spec)
@@ -51,12 +63,54 @@ public abstract class Container extends WebComponent
 	}
 
 	/**
-	 * Called when it changes or any of it's children change.
+	 * Called when it changes or any of it's children change. As it does not say which child changed, all child components will be asked for changes
+	 * when writing them; prefer {@link #markAsChanged(WebComponent)} when the changed child is known.
 	 */
 	protected void markAsChanged()
 	{
-		changed = true;
-		if (parent != null) parent.markAsChanged();
+		allComponentsMayHaveChanged = true;
+		markContainerAsChanged();
+	}
+
+	/**
+	 * Called when the given child component has changes.
+	 */
+	protected void markAsChanged(WebComponent changedChild)
+	{
+		changedComponents.add(changedChild);
+		markContainerAsChanged();
+	}
+
+	private void markContainerAsChanged()
+	{
+		if (!changed)
+		{
+			changed = true;
+			markAsChangedInWindow();
+		}
+		if (parent != null) parent.markAsChanged(this);
+	}
+
+	private void markAsChangedInWindow()
+	{
+		// so that the window only needs to look at containers that do have changes when sending changes to the client
+		if (alreadyRegisteredToWindow != null) alreadyRegisteredToWindow.markContainerAsChanged(this);
+	}
+
+	@Override
+	public boolean markPropertyAsChangedByRef(String key)
+	{
+		boolean modified = super.markPropertyAsChangedByRef(key);
+		if (modified) markAsChangedInWindow();
+		return modified;
+	}
+
+	@Override
+	protected boolean markPropertyContentsUpdated(String key)
+	{
+		boolean modified = super.markPropertyContentsUpdated(key);
+		if (modified) markAsChangedInWindow();
+		return modified;
 	}
 
 	public boolean isChanged()
@@ -72,12 +126,13 @@ public abstract class Container extends WebComponent
 			old.parent = null;
 		}
 		component.parent = this;
-		if (component.hasChanges()) markAsChanged();
+		if (component.hasChanges()) markAsChanged(component);
 	}
 
 	public void remove(WebComponent component)
 	{
 		components.remove(component.getName());
+		changedComponents.remove(component);
 		component.parent = null;
 	}
 
@@ -98,6 +153,8 @@ public abstract class Container extends WebComponent
 			component.dispose();
 		}
 		components = new HashMap<>();
+		changedComponents = new LinkedHashSet<>();
+		allComponentsMayHaveChanged = false;
 	}
 
 	@Override
@@ -113,9 +170,25 @@ public abstract class Container extends WebComponent
 		// converter here is always ChangesToJSONConverter except for some unit tests
 		changed = false; // do this first just in case one of the writeOwnChanges below triggers another change to set the flag again (which should not happen normally but it will get logged as a warning by code in BaseWebObject if it does)
 		boolean contentHasBeenWritten = this.writeOwnChanges(w, keyInParent, "", converter);
-		for (WebComponent wc : getComponents())
+		if (allComponentsMayHaveChanged)
+		{
+			// markAsChanged() was called without saying which child changed; ask all of them
+			allComponentsMayHaveChanged = false;
+			changedComponents.clear();
+			for (WebComponent wc : getComponents())
+			{
+				contentHasBeenWritten = wc.writeOwnChanges(w, contentHasBeenWritten ? null : keyInParent, wc.getName(), converter) || contentHasBeenWritten;
+			}
+		}
+		else if (!changedComponents.isEmpty())
 		{
-			contentHasBeenWritten = wc.writeOwnChanges(w, contentHasBeenWritten ? null : keyInParent, wc.getName(), converter) || contentHasBeenWritten;
+			// only the child components that marked themselves as changed can have something to send; clear the set first for the same reason as above
+			WebComponent[] componentsToWrite = changedComponents.toArray(new WebComponent[changedComponents.size()]);
+			changedComponents.clear();
+			for (WebComponent wc : componentsToWrite)
+			{
+				contentHasBeenWritten = wc.writeOwnChanges(w, contentHasBeenWritten ? null : keyInParent, wc.getName(), converter) || contentHasBeenWritten;
+			}
 		}
 		if (contentHasBeenWritten) w.endObject();
 	}
@@ -131,6 +204,8 @@ public abstract class Container extends WebComponent
 		}
 
 		changed = false; // do this first just in case one of the writeComponentProperties below triggers another change to set the flag again (which should not happen normally but if it does we should not loose that change by just clearing the changed flag afterwards)
+		changedComponents.clear();
+		allComponentsMayHaveChanged = false;
 		boolean contentHasBeenWritten = writeComponentProperties(w, converter, "");
 		for (WebComponent wc : getComponents())
 		{
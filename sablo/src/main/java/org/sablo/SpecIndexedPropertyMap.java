@@ -0,0 +1,328 @@
+/*
+ * Copyright (C) 2026 Servoy BV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.sablo;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+import org.sablo.specification.WebObjectSpecification;
+
+/**
+ * The values of the top-level properties of a {@link BaseWebObject}, kept in an array indexed by {@link WebObjectSpecification#getPropertySlot(String)}.<br/>
+ * Keys that are not declared in the spec are kept in a (lazily created) HashMap. The array is also created only when the first value is put in it.<br/><br/>
+ *
+ * It implements the whole Map API, so code that used the old HashMap works the same way. Iteration order is slot order and then the order of the other keys.
+ * It is not thread-safe (just like the HashMap that it replaces).
+ *
+ * @author agent
+ */
+final class SpecIndexedPropertyMap extends AbstractMap<String, Object>
+{
+
+	/**
+	 * Marks slots that are present in the map but hold a null value; empty slots are null in the array.
+	 */
+	private static final Object NULL_VALUE = new Object();
+
+	private final WebObjectSpecification specification;
+
+	private Object[] slotValues;
+	private int slotValueCount;
+	private HashMap<String, Object> otherValues;
+	private int modCount;
+
+	private EntrySet entrySet;
+
+	SpecIndexedPropertyMap(WebObjectSpecification specification)
+	{
+		this.specification = specification;
+	}
+
+	private int slotOf(Object key)
+	{
+		return key instanceof String ? specification.getPropertySlot((String)key) : -1;
+	}
+
+	private static Object mask(Object value)
+	{
+		return value == null ? NULL_VALUE : value;
+	}
+
+	private static Object unmask(Object value)
+	{
+		return value == NULL_VALUE ? null : value;
+	}
+
+	@Override
+	public int size()
+	{
+		return slotValueCount + (otherValues != null ? otherValues.size() : 0);
+	}
+
+	@Override
+	public boolean isEmpty()
+	{
+		return size() == 0;
+	}
+
+	@Override
+	public boolean containsKey(Object key)
+	{
+		int slot = slotOf(key);
+		if (slot >= 0) return slotValues != null && slotValues[slot] != null;
+		return otherValues != null && otherValues.containsKey(key);
+	}
+
+	@Override
+	public Object get(Object key)
+	{
+		int slot = slotOf(key);
+		if (slot >= 0) return slotValues != null ? unmask(slotValues[slot]) : null;
+		return otherValues != null ? otherValues.get(key) : null;
+	}
+
+	@Override
+	public Object put(String key, Object value)
+	{
+		int slot = slotOf(key);
+		if (slot >= 0)
+		{
+			if (slotValues == null) slotValues = new Object[specification.getPropertySlotCount()];
+			Object old = slotValues[slot];
+			slotValues[slot] = mask(value);
+			if (old == null)
+			{
+				slotValueCount++;
+				modCount++;
+			}
+			return unmask(old);
+		}
+
+		if (otherValues == null) otherValues = new HashMap<>(4);
+		int oldSize = otherValues.size();
+		Object old = otherValues.put(key, value);
+		if (oldSize != otherValues.size()) modCount++;
+		return old;
+	}
+
+	@Override
+	public Object remove(Object key)
+	{
+		int slot = slotOf(key);
+		if (slot >= 0) return slotValues != null ? removeSlot(slot) : null;
+
+		if (otherValues == null || !otherValues.containsKey(key)) return null;
+		modCount++;
+		return otherValues.remove(key);
+	}
+
+	private Object removeSlot(int slot)
+	{
+		Object old = slotValues[slot];
+		if (old != null)
+		{
+			slotValues[slot] = null;
+			slotValueCount--;
+			modCount++;
+		}
+		return unmask(old);
+	}
+
+	@Override
+	public void clear()
+	{
+		if (slotValues != null) Arrays.fill(slotValues, null);
+		slotValueCount = 0;
+		if (otherValues != null) otherValues.clear();
+		modCount++;
+	}
+
+	@Override
+	public Set<Entry<String, Object>> entrySet()
+	{
+		if (entrySet == null) entrySet = new EntrySet();
+		return entrySet;
+	}
+
+	private class EntrySet extends AbstractSet<Entry<String, Object>>
+	{
+
+		@Override
+		public Iterator<Entry<String, Object>> iterator()
+		{
+			return new EntryIterator();
+		}
+
+		@Override
+		public int size()
+		{
+			return SpecIndexedPropertyMap.this.size();
+		}
+
+		@Override
+		public void clear()
+		{
+			SpecIndexedPropertyMap.this.clear();
+		}
+
+	}
+
+	private class SlotEntry implements Entry<String, Object>
+	{
+
+		private final int slot;
+
+		private SlotEntry(int slot)
+		{
+			this.slot = slot;
+		}
+
+		@Override
+		public String getKey()
+		{
+			return specification.getPropertyNameForSlot(slot);
+		}
+
+		@Override
+		public Object getValue()
+		{
+			return unmask(slotValues[slot]);
+		}
+
+		@Override
+		public Object setValue(Object value)
+		{
+			Object old = slotValues[slot];
+			if (old == null) throw new IllegalStateException("Entry was removed from the map: " + getKey()); //$NON-NLS-1$
+			slotValues[slot] = mask(value);
+			return unmask(old);
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			if (!(o instanceof Entry)) return false;
+			Entry< ? , ? > e = (Entry< ? , ? >)o;
+			return Objects.equals(getKey(), e.getKey()) && Objects.equals(getValue(), e.getValue());
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+		}
+
+		@Override
+		public String toString()
+		{
+			return getKey() + "=" + getValue(); //$NON-NLS-1$
+		}
+
+	}
+
+	private class EntryIterator implements Iterator<Entry<String, Object>>
+	{
+
+		private int nextSlot = -1;
+		private int lastReturnedSlot = -1;
+		private Iterator<Entry<String, Object>> otherValuesIterator;
+		private boolean lastReturnedWasOther;
+		private int expectedModCount = modCount;
+
+		private EntryIterator()
+		{
+			advanceSlot();
+		}
+
+		private void advanceSlot()
+		{
+			nextSlot++;
+			if (slotValues != null)
+			{
+				while (nextSlot < slotValues.length && slotValues[nextSlot] == null)
+					nextSlot++;
+				if (nextSlot < slotValues.length) return;
+			}
+			nextSlot = -1;
+		}
+
+		private Iterator<Entry<String, Object>> getOtherValuesIterator()
+		{
+			if (otherValuesIterator == null && otherValues != null) otherValuesIterator = otherValues.entrySet().iterator();
+			return otherValuesIterator;
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			if (nextSlot >= 0) return true;
+			Iterator<Entry<String, Object>> it = getOtherValuesIterator();
+			return it != null && it.hasNext();
+		}
+
+		@Override
+		public Entry<String, Object> next()
+		{
+			if (expectedModCount != modCount) throw new ConcurrentModificationException();
+
+			if (nextSlot >= 0)
+			{
+				lastReturnedSlot = nextSlot;
+				lastReturnedWasOther = false;
+				advanceSlot();
+				return new SlotEntry(lastReturnedSlot);
+			}
+
+			Iterator<Entry<String, Object>> it = getOtherValuesIterator();
+			if (it == null) throw new NoSuchElementException();
+			Entry<String, Object> e = it.next();
+			lastReturnedSlot = -1;
+			lastReturnedWasOther = true;
+			return e;
+		}
+
+		@Override
+		public void remove()
+		{
+			if (expectedModCount != modCount) throw new ConcurrentModificationException();
+
+			if (lastReturnedWasOther)
+			{
+				otherValuesIterator.remove();
+				lastReturnedWasOther = false;
+			}
+			else if (lastReturnedSlot >= 0)
+			{
+				removeSlot(lastReturnedSlot);
+				lastReturnedSlot = -1;
+			}
+			else throw new IllegalStateException();
+
+			modCount++;
+			expectedModCount = modCount;
+		}
+
+	}
+
+}
@@ -66,7 +66,7 @@ public class WebComponent extends BaseWebObject
 	public boolean markPropertyAsChangedByRef(String key)
 	{
 		boolean modified = super.markPropertyAsChangedByRef(key);
-		if (modified && parent != null) parent.markAsChanged();
+		if (modified && parent != null) parent.markAsChanged(this);
 		return modified;
 	}
 
@@ -74,7 +74,7 @@ public class WebComponent extends BaseWebObject
 	protected boolean markPropertyContentsUpdated(String key)
 	{
 		boolean modified = super.markPropertyContentsUpdated(key);
-		if (modified && parent != null) parent.markAsChanged();
+		if (modified && parent != null) parent.markAsChanged(this);
 		return modified;
 	}
 
@@ -33,6 +33,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 
+import org.sablo.specification.ClientSideTypeBundle;
 import org.sablo.specification.WebComponentSpecProvider;
 import org.sablo.specification.WebServiceSpecProvider;
 import org.sablo.websocket.GetHttpSessionConfigurator;
@@ -115,6 +116,9 @@ public abstract class WebEntry implements Filter, IContributionFilter, IContribu
 		HttpServletRequest request = (HttpServletRequest)servletRequest;
 		HttpServletResponse response = (HttpServletResponse)servletResponse;
 
+		// only works if this filter's mapping covers ClientSideTypeBundle.URL_PATH (relative to the client's page); otherwise clients never get the bundles
+		if (ClientSideTypeBundle.ENABLED && ClientSideTypeBundle.serve(request, response)) return;
+
 		if ("GET".equalsIgnoreCase(request.getMethod()))
 		{
 			// make sure a session is created. when a sablo client is created, that one should set the timeout to 0
@@ -141,6 +141,15 @@ public class WebsocketSessionWindows implements IWindow
 		}
 	}
 
+	@Override
+	public void markContainerAsChanged(Container container)
+	{
+		for (IWindow window : session.getWindows())
+		{
+			window.markContainerAsChanged(container);
+		}
+	}
+
 	@Override
 	public void onOpen(java.util.Map<String, List<String>> requestParams)
 	{
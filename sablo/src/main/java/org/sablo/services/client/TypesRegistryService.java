@@ -16,6 +16,9 @@
 
 package org.sablo.services.client;
 
+import java.util.List;
+
+import org.sablo.specification.ClientSideTypeBundle;
 import org.sablo.websocket.IClientService;
 import org.sablo.websocket.utils.JSONUtils.EmbeddableJSONWriter;
 
@@ -45,4 +48,17 @@ public class TypesRegistryService
 		clientService.executeAsyncServiceCall("setServiceClientSideSpecs", new Object[] { toBeSent });
 	}
 
+	/**
+	 * Tells the browser to load (over HTTP, if it doesn't already have them cached) and use the given client side spec bundles.
+	 */
+	public void loadClientSideSpecBundles(List<ClientSideTypeBundle> bundles)
+	{
+		EmbeddableJSONWriter toBeSent = new EmbeddableJSONWriter();
+		toBeSent.array();
+		for (ClientSideTypeBundle bundle : bundles)
+			bundle.writeIdentifier(toBeSent);
+		toBeSent.endArray();
+		clientService.executeAsyncServiceCall("loadClientSideSpecBundles", new Object[] { toBeSent });
+	}
+
 }
@@ -27,13 +27,15 @@ import org.sablo.WebComponent;
 import org.sablo.specification.PropertyDescription.PDAndComputedPushToServer;
 import org.sablo.specification.property.BrowserConverterContext;
 import org.sablo.specification.property.IBrowserConverterContext;
+import org.sablo.util.CloseableJSONStringer;
+import org.sablo.util.JSONEngine;
 import org.sablo.websocket.CurrentWindow;
 import org.sablo.websocket.IEventDispatchAwareServerService;
 import org.sablo.websocket.IWebsocketEndpoint;
 import org.sablo.websocket.utils.JSONUtils;
-import org.sablo.websocket.utils.JSONUtils.EmbeddableJSONWriter;
 import org.sablo.websocket.utils.JSONUtils.FullValueToJSONConverter;
 import org.sablo.websocket.utils.JSONUtils.IToJSONConverter;
+import org.sablo.websocket.utils.JSONUtils.JSONStringWrapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -57,6 +59,13 @@ public class FormServiceHandler implements IEventDispatchAwareServerService
 	 */
 	public static final int EVENT_LEVEL_INITIAL_FORM_DATA_REQUEST = 1000;
 
+	/**
+	 * System property "sablo.client.datapush.batch"; if true, browser windows are told when they connect that they can send the dataPush calls of one tick
+	 * as a single "dataPushBatch" call (see {@link #dataPushBatch(JSONObject)}). Off by default: a form service that does not pass "dataPushBatch" on to this class
+	 * would not apply those pushes.
+	 */
+	public static final boolean DATA_PUSH_BATCH_ENABLED = Boolean.parseBoolean(System.getProperty("sablo.client.datapush.batch", "false"));
+
 	protected FormServiceHandler()
 	{
 	}
@@ -77,6 +86,12 @@ public class FormServiceHandler implements IEventDispatchAwareServerService
 				break;
 			}
 
+			case "dataPushBatch" :
+			{
+				dataPushBatch(args);
+				break;
+			}
+
 			case "executeEvent" :
 			{
 				dataPush(args);
@@ -146,15 +161,15 @@ public class FormServiceHandler implements IEventDispatchAwareServerService
 			return null;
 		}
 
-		EmbeddableJSONWriter initialFormDataWriter = new EmbeddableJSONWriter();
-
-		initialFormDataWriter.array().object();
-		boolean dataWasWritten = form.writeAllComponentsProperties(initialFormDataWriter, getInitialRequestDataConverter());
-		initialFormDataWriter.endObject().endArray();
-
-		if (!dataWasWritten) initialFormDataWriter = null;
+		try (CloseableJSONStringer initialFormDataWriter = JSONEngine.getEngine().newWriter())
+		{
+			initialFormDataWriter.array().object();
+			boolean dataWasWritten = form.writeAllComponentsProperties(initialFormDataWriter, getInitialRequestDataConverter());
+			initialFormDataWriter.endObject().endArray();
 
-		return initialFormDataWriter;
+			// the pooled buffer is reused after this method returns, so copy the content out
+			return dataWasWritten ? new JSONStringWrapper(initialFormDataWriter.toString()) : null;
+		}
 	}
 
 	protected IToJSONConverter<IBrowserConverterContext> getInitialRequestDataConverter()
@@ -162,6 +177,33 @@ public class FormServiceHandler implements IEventDispatchAwareServerService
 		return FullValueToJSONConverter.INSTANCE;
 	}
 
+	/**
+	 * Applies in one go (so in one event and with one resulting flush of changes to the client) multiple pushes that the client did in a short time.
+	 * Each element of the "pushes" array has the same content as the arguments of a "dataPush" call; they are applied in order.<br/>
+	 * A push that fails (for example one that is rejected because it changes a protected property) is logged; the ones after it are still applied, just like
+	 * when the client sends them one by one.
+	 */
+	protected void dataPushBatch(JSONObject obj) throws JSONException
+	{
+		JSONArray pushes = obj.getJSONArray("pushes");
+		for (int i = 0; i < pushes.length(); i++)
+		{
+			JSONObject push = pushes.optJSONObject(i);
+			if (push != null)
+			{
+				try
+				{
+					dataPush(push);
+				}
+				catch (RuntimeException e)
+				{
+					log.error("dataPushBatch: cannot apply push at index " + i + ": " + push, e);
+				}
+			}
+			else log.warn("dataPushBatch with an invalid push at index " + i + ": " + pushes.opt(i));
+		}
+	}
+
 	protected void dataPush(JSONObject obj) throws JSONException
 	{
 		JSONObject changes = obj.getJSONObject("changes");
@@ -196,19 +238,15 @@ public class FormServiceHandler implements IEventDispatchAwareServerService
 					Object oldValue = oldvalues.opt(key);
 					Object currentValue = webComponent.getProperty(key);
 					PDAndComputedPushToServer propertyDescAndPushToServer = webComponent.getSpecification().computePushToServerForPropertyPathAndGetPD(key);
-					oldValue = propertyDescAndPushToServer.pd != null
-						? JSONUtils.fromJSON(null, oldValue, propertyDescAndPushToServer.pd,
-							new BrowserConverterContext(webComponent, propertyDescAndPushToServer.pushToServer), null)
-						: null;
-					if (oldValue != null && currentValue != null && !JSONUtils.areJSONEqual(oldValue, currentValue)) // areJSONEqual will compare correctly JSONObject and JSONArray instances which do not implement equals correctly; and just use object equals for other types of values
+					if (propertyDescAndPushToServer.pd == null || oldValue == JSONObject.NULL) oldValue = null;
+
+					// compares the JSON directly to the current value (also for custom arrays/objects), without creating a new value from it (except for types like dates)
+					if (oldValue != null && currentValue != null && !JSONUtils.isBrowserValueEqualTo(oldValue, currentValue, propertyDescAndPushToServer.pd,
+						new BrowserConverterContext(webComponent, propertyDescAndPushToServer.pushToServer)))
 					{
-						if (!(oldValue instanceof Number && currentValue instanceof Number &&
-							((Number)oldValue).doubleValue() == ((Number)currentValue).doubleValue()))
-						{
-							log.trace("skipping setting key " + key + " to the the value " + changes.get(key) +
-								" because the the current value in the component " + currentValue + " is not equals to old value the browser has " + oldValue);
-							continue;
-						}
+						log.trace("skipping setting key " + key + " to the the value " + changes.get(key) +
+							" because the the current value in the component " + currentValue + " is not equals to old value the browser has " + oldValue);
+						continue;
 					}
 				}
 				webComponent.putBrowserProperty(key, changes.get(key));
@@ -0,0 +1,211 @@
+/*
+ * Copyright (C) 2026 Servoy BV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.sablo.specification;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.json.JSONWriter;
+
+/**
+ * The client side specs (see {@link ClientSideTypeCache#buildClientSideTypesFor(WebObjectSpecification)}) of a group of components or services
+ * (all the ones of a package or all services), as one JSON object (keys are spec names) that is served over HTTP with a content hash in it's URL.<br/><br/>
+ *
+ * When bundles are enabled (system property "sablo.client.type.bundles") the websocket only tells the browser which bundles it needs (name and hash);
+ * the browser gets them through {@link #getURL()} before handling the message that needs them. As the URL changes when the content changes, the browser
+ * can cache them for as long as it wants - so each browser gets the client side specs of a package only once instead of each window of each session getting them
+ * over the websocket.
+ *
+ * @author agent
+ */
+@SuppressWarnings("nls")
+public final class ClientSideTypeBundle
+{
+
+	/**
+	 * System property "sablo.client.type.bundles"; see {@link #URL_PATH} for what the web application's filter mapping then needs to cover.
+	 */
+	public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("sablo.client.type.bundles", "false"));
+
+	/**
+	 * Bundles are served (see {@link #serve(HttpServletRequest, HttpServletResponse)}) for any request path that contains this followed by "hash.json".<br/>
+	 * So when {@link #ENABLED}, the filter that calls {@link #serve(HttpServletRequest, HttpServletResponse)} (see {@link org.sablo.WebEntry}) must be mapped
+	 * to URLs that cover this path relative to the page of the client; otherwise the browser cannot load the bundles and will not get the client side specs.
+	 */
+	public static final String URL_PATH = "sablo/typebundles/";
+
+	private static final String NAME_KEY = "n";
+	private static final String HASH_KEY = "h";
+	private static final String SERVICES_KEY = "s";
+
+	private static final Map<String, ClientSideTypeBundle> servedBundles = new ConcurrentHashMap<>();
+
+	private final String name;
+	private final boolean services;
+	private final String hash;
+	private final byte[] content;
+	private final Set<String> specNames;
+	private int users; // how many create(...) calls returned this bundle and were not yet disposed; only changed inside servedBundles.compute(...) for it's hash
+
+	private ClientSideTypeBundle(String name, boolean services, String hash, byte[] content, Set<String> specNames)
+	{
+		this.name = name;
+		this.services = services;
+		this.hash = hash;
+		this.content = content;
+		this.specNames = specNames;
+	}
+
+	/**
+	 * Creates a bundle and makes it available via {@link #serve(HttpServletRequest, HttpServletResponse)}. If a bundle with the same content is already served
+	 * (for example the one of an unchanged package from the previous spec generation) that one is returned instead; each call needs a matching {@link #dispose()}.
+	 *
+	 * @param name the package name for component bundles; just used for logging/debugging purposes client side.
+	 * @param services true if this is the bundle with the client side specs of all services, false if it is the bundle of a component package.
+	 * @param json the JSON object that has as keys the spec names and as values the client side specs of those.
+	 * @param specNames the names of the specs that are in this bundle.
+	 */
+	static ClientSideTypeBundle create(String name, boolean services, String json, Collection<String> specNames)
+	{
+		byte[] content = json.getBytes(StandardCharsets.UTF_8);
+		return servedBundles.compute(hash(content), (hash, served) -> {
+			ClientSideTypeBundle bundle = (served != null ? served
+				: new ClientSideTypeBundle(name, services, hash, content, Collections.unmodifiableSet(new HashSet<>(specNames))));
+			bundle.users++;
+			return bundle;
+		});
+	}
+
+	/**
+	 * Stops serving this bundle (the specs it was created from are no longer valid) once all that created it disposed it.
+	 */
+	void dispose()
+	{
+		servedBundles.computeIfPresent(hash, (h, served) -> (served == this && --users == 0 ? null : served));
+	}
+
+	private static String hash(byte[] content)
+	{
+		try
+		{
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+			StringBuilder sb = new StringBuilder(32);
+			for (int i = 0; i < 16; i++)
+			{
+				sb.append(Character.forDigit((digest[i] >> 4) & 0xF, 16)).append(Character.forDigit(digest[i] & 0xF, 16));
+			}
+			return sb.toString();
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			throw new RuntimeException(e); // every java platform is required to support SHA-256
+		}
+	}
+
+	public String getName()
+	{
+		return name;
+	}
+
+	public String getHash()
+	{
+		return hash;
+	}
+
+	public boolean isServicesBundle()
+	{
+		return services;
+	}
+
+	public boolean containsSpec(String specName)
+	{
+		return specNames.contains(specName);
+	}
+
+	public Set<String> getSpecNames()
+	{
+		return specNames;
+	}
+
+	/**
+	 * @return the URL (relative to the page of the client) from where this bundle can be loaded.
+	 */
+	public String getURL()
+	{
+		return URL_PATH + hash + ".json";
+	}
+
+	/**
+	 * Writes what the browser needs to know about this bundle in order to load it: { "n": name, "h": hash, "s": true } ("s" only for the services bundle).
+	 */
+	public void writeIdentifier(JSONWriter w)
+	{
+		w.object().key(NAME_KEY).value(name).key(HASH_KEY).value(hash);
+		if (services) w.key(SERVICES_KEY).value(true);
+		w.endObject();
+	}
+
+	/**
+	 * Serves the bundle that the given request asks for (if it is a GET for {@link #URL_PATH}hash.json).
+	 *
+	 * @return true if the request was for a bundle (and the response was written - the bundle, a 304 or a 404), false if the request is not for a bundle.
+	 */
+	public static boolean serve(HttpServletRequest request, HttpServletResponse response) throws IOException
+	{
+		if (!"GET".equalsIgnoreCase(request.getMethod())) return false;
+
+		String uri = request.getRequestURI();
+		int pathIdx = (uri != null ? uri.lastIndexOf(URL_PATH) : -1);
+		if (pathIdx < 0 || !uri.endsWith(".json")) return false;
+
+		String requestedHash = uri.substring(pathIdx + URL_PATH.length(), uri.length() - ".json".length());
+		ClientSideTypeBundle bundle = servedBundles.get(requestedHash);
+		if (bundle == null)
+		{
+			response.sendError(HttpServletResponse.SC_NOT_FOUND);
+			return true;
+		}
+
+		// the content of an URL never changes (the hash is part of it), so the browser can keep it as long as it wants
+		String eTag = '"' + bundle.hash + '"';
+		response.setHeader("Cache-Control", "public, max-age=31536000, immutable");
+		response.setHeader("ETag", eTag);
+		if (eTag.equals(request.getHeader("If-None-Match")))
+		{
+			response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			return true;
+		}
+
+		response.setContentType("application/json");
+		response.setCharacterEncoding("UTF-8");
+		response.setContentLength(bundle.content.length);
+		response.getOutputStream().write(bundle.content);
+		return true;
+	}
+
+}
@@ -16,20 +16,33 @@
 
 package org.sablo.specification;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.sablo.specification.property.CustomJSONObjectType;
 import org.sablo.specification.property.ICustomType;
 import org.sablo.specification.property.IPropertyType;
 import org.sablo.specification.property.IPropertyWithClientSideConversions;
 import org.sablo.websocket.utils.JSONUtils.EmbeddableJSONWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
- * In order to not re-compute all types used by a component spec client-side each time a component is sent to client we keep this cache.
+ * In order to not re-compute all types used by a component spec client-side each time a component is sent to client we keep this cache.<br/>
+ * Spec readers create a new one (with all client side specs already computed) for each generation of specs and publish it together with the {@link SpecProviderState},
+ * so reads never wait for or see half-filled contents.
  *
  * @author acostescu
  */
@@ -37,6 +50,8 @@ import org.sablo.websocket.utils.JSONUtils.EmbeddableJSONWriter;
 public class ClientSideTypeCache
 {
 
+	private static final Logger log = LoggerFactory.getLogger(ClientSideTypeCache.class.getCanonicalName());
+
 	private static final String PROPERTIES_KEY = "p";
 	private static final String FACTORY_TYPE_DETAILS = "ftd"; // currently only factory type "custom object" will send to client specific sub-property types or information for each custom object type; on client, a type factory will be aware of those and will be able to create then specific custom object types as defined in the .spec files
 	private static final String HANDLERS_KEY = "h";
@@ -46,32 +61,206 @@ public class ClientSideTypeCache
 	public static final String PROPERTY_TYPE = "t";
 	public static final String PROPERTY_PUSH_TO_SERVER_VALUE = "s";
 
-	private final HashMap<String, EmbeddableJSONWriter> webObjectClientTypeCache = new HashMap<>();
+	/**
+	 * If true, the client side specs of a new generation of specs are computed on all available processors.
+	 */
+	private static final boolean PRECOMPUTE_IN_PARALLEL = Boolean.parseBoolean(System.getProperty("sablo.client.side.types.parallel.precompute", "false"));
+
+	// client side specs computed when this cache was created (for a spec generation); it is never changed, just replaced (by clear(...)), so reads need no locking
+	private volatile Map<String, CachedClientSideSpec> precomputedClientSideSpecs;
+	// specs that were not precomputed (specs that are not part of the spec generation this cache was created for)
+	private final ConcurrentHashMap<String, CachedClientSideSpec> otherClientSideSpecs = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String, Optional<ClientSideTypeBundle>> packageBundleCache = new ConcurrentHashMap<>(); // package name -> bundle (empty if nothing in that package needs client side specs)
+	private int bundlesGeneration; // guarded by 'this'; incremented each time the bundles are cleared, so that a bundle that was being built meanwhile is not cached
+	private boolean disposed; // guarded by 'this'
+
+	/**
+	 * Creates an empty cache; client side specs will be computed and cached when they are first needed.
+	 */
+	public ClientSideTypeCache()
+	{
+		precomputedClientSideSpecs = Collections.emptyMap();
+	}
+
+	/**
+	 * Creates a cache that already has the client side specs of all the given specs (a new generation of specs, for example after a (re)load).
+	 *
+	 * @param previousGeneration if not null, client side specs of the given specs that did not change (same instance) are reused from it.
+	 */
+	public ClientSideTypeCache(Collection<WebObjectSpecification> webObjectSpecs, ClientSideTypeCache previousGeneration)
+	{
+		Map<String, CachedClientSideSpec> previousClientSideSpecs = (previousGeneration != null ? previousGeneration.precomputedClientSideSpecs : null);
+
+		Stream<WebObjectSpecification> specs = (PRECOMPUTE_IN_PARALLEL ? webObjectSpecs.parallelStream() : webObjectSpecs.stream());
+		List<CachedClientSideSpec> computed = specs.map(spec -> {
+			CachedClientSideSpec previous = (previousClientSideSpecs != null ? previousClientSideSpecs.get(spec.getName()) : null);
+			if (previous != null && previous.spec == spec) return previous;
+			try
+			{
+				return new CachedClientSideSpec(spec, buildClientSideTypesFor(spec));
+			}
+			catch (RuntimeException e)
+			{
+				log.error("Cannot compute the client side spec of '" + spec.getName() + "'; it will be retried when it is needed.", e);
+				return null;
+			}
+		}).filter(Objects::nonNull).collect(Collectors.toList());
+
+		Map<String, CachedClientSideSpec> clientSideSpecs = new HashMap<>((int)(computed.size() / 0.75f) + 1);
+		for (CachedClientSideSpec c : computed)
+			clientSideSpecs.put(c.spec.getName(), c);
+		precomputedClientSideSpecs = Collections.unmodifiableMap(clientSideSpecs);
+	}
 
 	public void clear()
 	{
 		// clear all currently cached client side types (probably one or more of the component specs have changed)
-		webObjectClientTypeCache.clear();
+		synchronized (this)
+		{
+			precomputedClientSideSpecs = Collections.emptyMap();
+		}
+		otherClientSideSpecs.clear();
+		clearBundles();
 	}
 
 	public void clear(String specName)
 	{
-		webObjectClientTypeCache.remove(specName);
+		synchronized (this)
+		{
+			if (precomputedClientSideSpecs.containsKey(specName))
+			{
+				Map<String, CachedClientSideSpec> clientSideSpecs = new HashMap<>(precomputedClientSideSpecs);
+				clientSideSpecs.remove(specName);
+				precomputedClientSideSpecs = Collections.unmodifiableMap(clientSideSpecs);
+			}
+		}
+		otherClientSideSpecs.remove(specName);
+		clearBundles(); // the package of that spec changed (we don't know which package that is; bundles are cheap to create from the cached client side specs)
 	}
 
+	/**
+	 * Clears this cache and stops serving it's bundles; to be called when this cache belongs to a spec generation that was replaced by a new one.
+	 * Bundles that are requested afterwards from this cache are no longer created (see {@link #getClientSideSpecBundleFor(WebObjectSpecification, SpecProviderState)}).
+	 */
+	public void dispose()
+	{
+		synchronized (this)
+		{
+			disposed = true;
+		}
+		clear();
+	}
 
+	public synchronized boolean isDisposed()
+	{
+		return disposed;
+	}
+
+	private void clearBundles()
+	{
+		List<ClientSideTypeBundle> toDispose = new ArrayList<>();
+		synchronized (this)
+		{
+			bundlesGeneration++;
+			for (Optional<ClientSideTypeBundle> bundle : packageBundleCache.values())
+				bundle.ifPresent(toDispose::add);
+			packageBundleCache.clear();
+		}
+		for (ClientSideTypeBundle bundle : toDispose)
+			bundle.dispose();
+	}
+
+	/**
+	 * Gives the bundle with the client side specs of all components of the package that the given component is part of (see {@link ClientSideTypeBundle}).
+	 *
+	 * @param specProviderState the current state of the component spec provider (that contains the given spec).
+	 * @return the bundle or null if none of the components in that package need client side specs or if this cache was disposed (see {@link #isDisposed()}).
+	 */
+	public ClientSideTypeBundle getClientSideSpecBundleFor(WebObjectSpecification webObjectSpec, SpecProviderState specProviderState)
+	{
+		String packageName = webObjectSpec.getPackageName();
+		while (true)
+		{
+			Optional<ClientSideTypeBundle> bundle = packageBundleCache.get(packageName);
+			if (bundle != null) return bundle.orElse(null);
+
+			int generation;
+			synchronized (this)
+			{
+				if (disposed) return null;
+				generation = bundlesGeneration;
+			}
+
+			// built outside of the lock; the bundle is only cached if nothing was cleared meanwhile (otherwise it might have been built from outdated client side specs)
+			Optional<ClientSideTypeBundle> newBundle = createBundle(packageName, specProviderState);
+			synchronized (this)
+			{
+				if (generation == bundlesGeneration && !disposed)
+				{
+					bundle = packageBundleCache.putIfAbsent(packageName, newBundle);
+					if (bundle == null) return newBundle.orElse(null);
+				}
+			}
+
+			// another thread was faster or the bundles were cleared meanwhile; nothing else would dispose this one
+			newBundle.ifPresent(ClientSideTypeBundle::dispose);
+			if (bundle != null) return bundle.orElse(null);
+		}
+	}
+
+	private Optional<ClientSideTypeBundle> createBundle(String packageName, SpecProviderState specProviderState)
+	{
+		// sorted so that the content (and so the hash/URL) of a bundle stays the same as long as the specs do - even after server restarts
+		TreeMap<String, EmbeddableJSONWriter> clientSideSpecs = new TreeMap<>();
+		for (String specName : specProviderState.getWebObjectsInPackage(packageName))
+		{
+			WebObjectSpecification spec = specProviderState.getWebObjectSpecification(specName);
+			EmbeddableJSONWriter clientSideSpec = (spec != null ? getClientSideSpecFor(spec) : null);
+			if (clientSideSpec != null) clientSideSpecs.put(specName, clientSideSpec);
+		}
+
+		if (clientSideSpecs.isEmpty()) return Optional.empty();
+
+		EmbeddableJSONWriter bundleJSON = new EmbeddableJSONWriter();
+		bundleJSON.object();
+		for (Entry<String, EmbeddableJSONWriter> e : clientSideSpecs.entrySet())
+			bundleJSON.key(e.getKey()).value(e.getValue());
+		bundleJSON.endObject();
+		return Optional.of(ClientSideTypeBundle.create(packageName, false, bundleJSON.toJSONString(), clientSideSpecs.keySet()));
+	}
+
+	/**
+	 * Gives the client side spec of the given web object (see {@link #buildClientSideTypesFor(WebObjectSpecification)}); it can be called from any thread.
+	 *
+	 * @return the client side spec or null if the given web object has nothing that needs to be known client side.
+	 */
 	public EmbeddableJSONWriter getClientSideSpecFor(WebObjectSpecification webObjectSpec)
 	{
-		EmbeddableJSONWriter cachedClSideTs;
 		String webObjectName = webObjectSpec.getName();
-		if (!webObjectClientTypeCache.containsKey(webObjectName))
+		CachedClientSideSpec cached = precomputedClientSideSpecs.get(webObjectName);
+		if (cached == null || cached.spec != webObjectSpec)
 		{
-			cachedClSideTs = buildClientSideTypesFor(webObjectSpec);
-			webObjectClientTypeCache.put(webObjectName, cachedClSideTs);
+			cached = otherClientSideSpecs.get(webObjectName);
+			if (cached == null || cached.spec != webObjectSpec)
+			{
+				// a spec that is not part of the spec generation that this cache was created for; if two threads compute it at the same time, one of them is simply dropped
+				cached = new CachedClientSideSpec(webObjectSpec, buildClientSideTypesFor(webObjectSpec));
+				otherClientSideSpecs.put(webObjectName, cached);
+			}
 		}
-		else cachedClSideTs = webObjectClientTypeCache.get(webObjectName);
+		return cached.clientSideSpec;
+	}
 
-		return cachedClSideTs;
+	private static final class CachedClientSideSpec
+	{
+		private final WebObjectSpecification spec;
+		private final EmbeddableJSONWriter clientSideSpec;
+
+		private CachedClientSideSpec(WebObjectSpecification spec, EmbeddableJSONWriter clientSideSpec)
+		{
+			this.spec = spec;
+			this.clientSideSpec = clientSideSpec;
+		}
 	}
 
 	/**
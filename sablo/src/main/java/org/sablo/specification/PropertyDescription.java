@@ -23,6 +23,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.json.JSONObject;
 import org.sablo.specification.IYieldingType.YieldDescriptionArguments;
@@ -31,7 +32,10 @@ import org.sablo.specification.property.CustomJSONArrayType;
 import org.sablo.specification.property.CustomJSONObjectType;
 import org.sablo.specification.property.CustomJSONPropertyType;
 import org.sablo.specification.property.ICustomType;
+import org.sablo.specification.property.IPropertyConverterForBrowser;
 import org.sablo.specification.property.IPropertyType;
+import org.sablo.specification.property.ISupportsGranularUpdates;
+import org.sablo.specification.property.types.ObjectPropertyType;
 import org.sablo.websocket.utils.PropertyUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -68,6 +72,13 @@ public class PropertyDescription
 	private final Map<String, PropertyDescription> properties;
 	private final boolean hasDefault;
 
+	private volatile ChildPropertyIndexes childPropertyIndexes;
+
+	// how values of this property are converted when written to the browser; resolved once from the type as that is needed for each value that is written
+	private final IPropertyConverterForBrowser< ? > browserConverter;
+	private final boolean convertedByClassOfValueFirst;
+	private final boolean supportsGranularUpdates;
+
 	// only call from builder or child classes
 	PropertyDescription(String name, IPropertyType< ? > type, Object config, Map<String, PropertyDescription> properties, Object defaultValue,
 		Object initialValue, boolean hasDefault, List<Object> values, PushToServerEnum pushToServer, JSONObject tags, boolean optional, String deprecated)
@@ -120,6 +131,35 @@ public class PropertyDescription
 			this.deprecated = deprecated;
 		}
 		setDocumentation((String)getTag(DOCUMENTATION_TAG_FOR_PROP_OR_KEY_FOR_HANDLERS));
+
+		this.browserConverter = (this.type instanceof IPropertyConverterForBrowser ? (IPropertyConverterForBrowser< ? >)this.type : null);
+		this.convertedByClassOfValueFirst = (this.type instanceof ObjectPropertyType);
+		this.supportsGranularUpdates = (this.type instanceof ISupportsGranularUpdates);
+	}
+
+	/**
+	 * @return the type of this property if it is a {@link IPropertyConverterForBrowser} (this includes wrapper types), null otherwise.
+	 */
+	public IPropertyConverterForBrowser< ? > getBrowserConverter()
+	{
+		return browserConverter;
+	}
+
+	/**
+	 * @return true if the type of this property is 'object'; in that case, when writing a value to the browser, a type registered for the java class of that
+	 * value is used first (if available) instead of the property type.
+	 */
+	public boolean isConvertedByClassOfValueFirst()
+	{
+		return convertedByClassOfValueFirst;
+	}
+
+	/**
+	 * @return true if the type of this property is a {@link ISupportsGranularUpdates} (so it can write only the changes of a value to the browser).
+	 */
+	public boolean supportsGranularUpdates()
+	{
+		return supportsGranularUpdates;
 	}
 
 	/**
@@ -134,6 +174,7 @@ public class PropertyDescription
 
 	/**
 	 * Returns all properties in this property description that are of given type or, if includingYieldingTypes is true, that can yield to given type.<br/>
+	 * The result is computed only once for each type and it is shared, so it is unmodifiable; callers that need to change it must copy it first.
 	 *
 	 * @param includingYieldingTypes if you have for example a DataproviderPropertyType that is configured with forFoundset -> it will actually be of type FoundsetLinkedPropertyType which is a yielding
 	 * type that yields to DataproviderPropertyType; if this arg is true then types that yield to the given type will also be included
@@ -145,44 +186,97 @@ public class PropertyDescription
 			return Collections.emptyList();
 		}
 
-		List<PropertyDescription> filtered = new ArrayList<>(4);
-		for (PropertyDescription pd : properties.values())
-		{
-			IPropertyType< ? > propType = pd.getType();
-
-			if (typeOfProperty.getClass().isAssignableFrom(propType.getClass()) || (includingYieldingTypes && propType instanceof IYieldingType &&
-				typeOfProperty.getClass().isAssignableFrom(((IYieldingType< ? , ? >)propType).getPossibleYieldType().getClass())))
-			{
-				filtered.add(pd);
-			}
-		}
-		return filtered;
+		ChildPropertyIndexes indexes = getChildPropertyIndexes();
+		return getOrFilterProperties(includingYieldingTypes ? indexes.byTypeIncludingYielding : indexes.byType, null, typeOfProperty.getClass(),
+			includingYieldingTypes);
 	}
 
+	/**
+	 * @see #getTaggedProperties(String, IPropertyType)
+	 */
 	public Collection<PropertyDescription> getTaggedProperties(String tag)
 	{
 		return getTaggedProperties(tag, null);
 	}
 
+	/**
+	 * Returns all properties in this property description that have the given tag and, if pt is not null, are of given type.<br/>
+	 * The result is computed only once for each tag and type and it is shared, so it is unmodifiable; callers that need to change it must copy it first.
+	 */
 	public Collection<PropertyDescription> getTaggedProperties(String tag, IPropertyType< ? > pt)
 	{
-		if (properties == null)
+		if (properties == null || tag == null)
 		{
 			return Collections.emptyList();
 		}
 
-		List<PropertyDescription> filtered = new ArrayList<>(4);
+		Map<String, Map<Class< ? >, Collection<PropertyDescription>>> byTagAndType = getChildPropertyIndexes().byTagAndType;
+		Map<Class< ? >, Collection<PropertyDescription>> byType = byTagAndType.get(tag);
+		if (byType == null)
+		{
+			byType = new ConcurrentHashMap<>(4);
+			Map<Class< ? >, Collection<PropertyDescription>> existing = byTagAndType.putIfAbsent(tag, byType);
+			if (existing != null) byType = existing;
+		}
+
+		// IPropertyType.class stands for "any type" (as all types are assignable to it)
+		return getOrFilterProperties(byType, tag, pt != null ? pt.getClass() : IPropertyType.class, false);
+	}
+
+	/**
+	 * Looks in the given cache first; this is called very often, so it avoids the lambda that computeIfAbsent would need for each call.
+	 */
+	private Collection<PropertyDescription> getOrFilterProperties(Map<Class< ? >, Collection<PropertyDescription>> cache, String tag, Class< ? > typeClass,
+		boolean includingYieldingTypes)
+	{
+		Collection<PropertyDescription> filtered = cache.get(typeClass);
+		if (filtered == null)
+		{
+			filtered = filterProperties(tag, typeClass, includingYieldingTypes);
+			Collection<PropertyDescription> existing = cache.putIfAbsent(typeClass, filtered);
+			if (existing != null) filtered = existing;
+		}
+		return filtered;
+	}
+
+	private Collection<PropertyDescription> filterProperties(String tag, Class< ? > typeClass, boolean includingYieldingTypes)
+	{
+		List<PropertyDescription> filtered = null;
 		for (PropertyDescription pd : properties.values())
 		{
-			if (pd.hasTag(tag))
+			if (tag != null && !pd.hasTag(tag)) continue;
+
+			IPropertyType< ? > propType = pd.getType();
+			if (typeClass == IPropertyType.class || typeClass.isAssignableFrom(propType.getClass()) || (includingYieldingTypes && propType instanceof IYieldingType &&
+				typeClass.isAssignableFrom(((IYieldingType< ? , ? >)propType).getPossibleYieldType().getClass())))
 			{
-				if (pt == null || pt.getClass().isAssignableFrom(pd.getType().getClass()))
-				{
-					filtered.add(pd);
-				}
+				if (filtered == null) filtered = new ArrayList<>(4);
+				filtered.add(pd);
 			}
 		}
-		return filtered;
+		return filtered != null ? Collections.unmodifiableList(filtered) : Collections.emptyList();
+	}
+
+	private ChildPropertyIndexes getChildPropertyIndexes()
+	{
+		// child properties do not change after this PD is created (specs are re-created when they are reloaded), so racing threads build equivalent indexes
+		ChildPropertyIndexes indexes = childPropertyIndexes;
+		if (indexes == null)
+		{
+			indexes = new ChildPropertyIndexes();
+			childPropertyIndexes = indexes;
+		}
+		return indexes;
+	}
+
+	/**
+	 * Lazily filled results of {@link PropertyDescription#getProperties(IPropertyType, boolean)} and {@link PropertyDescription#getTaggedProperties(String, IPropertyType)}.
+	 */
+	private static class ChildPropertyIndexes
+	{
+		private final Map<Class< ? >, Collection<PropertyDescription>> byType = new ConcurrentHashMap<>(4);
+		private final Map<Class< ? >, Collection<PropertyDescription>> byTypeIncludingYielding = new ConcurrentHashMap<>(4);
+		private final Map<String, Map<Class< ? >, Collection<PropertyDescription>>> byTagAndType = new ConcurrentHashMap<>(4);
 	}
 
 	public boolean hasChildProperties()
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2026 Servoy BV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.sablo.specification;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+
+import org.json.JSONString;
+import org.sablo.BaseWebObject;
+import org.sablo.specification.property.IPropertyType;
+import org.sablo.specification.property.IPropertyWithContextIndependentToJSON;
+
+/**
+ * Keeps the already written full value JSON of the default/template values of web objects of one {@link WebObjectSpecification}, for each component design
+ * (see {@link BaseWebObject#setDesignKey(Object)}). All web objects of a design (for example the same form element of a form that is shown in many clients)
+ * have the same default/template values, so their JSON is written only once and then spliced into the full value JSON (requestData) of each of them.<br/><br/>
+ *
+ * Only values of types that directly implement {@link IPropertyWithContextIndependentToJSON} are cached; runtime values are never cached.
+ * This cache is kept by the specification itself, so it is discarded when specs are reloaded; the JSON of a design is discarded when it's design key is no
+ * longer used (weakly referenced).
+ *
+ * @author agent
+ */
+public class SharedToJSONValueCache
+{
+
+	private static final ClassValue<Boolean> DIRECTLY_CONTEXT_INDEPENDENT = new ClassValue<Boolean>()
+	{
+		@Override
+		protected Boolean computeValue(Class< ? > typeClass)
+		{
+			return Boolean.valueOf(Arrays.asList(typeClass.getInterfaces()).contains(IPropertyWithContextIndependentToJSON.class));
+		}
+	};
+
+	private final Map<Object, Map<String, DesignValueJSON>> jsonByDesign = Collections.synchronizedMap(new WeakHashMap<>());
+
+	/**
+	 * @return true if the full value JSON of values of the given property only depends on the value, so it can be shared between web objects.
+	 */
+	public static boolean isCacheable(PropertyDescription pd)
+	{
+		IPropertyType< ? > type = (pd != null ? pd.getType() : null);
+		return type != null && DIRECTLY_CONTEXT_INDEPENDENT.get(type.getClass()).booleanValue();
+	}
+
+	/**
+	 * Gives the JSON of the (cacheable) default/template values of the given design; the first time it is needed, it is written by the given supplier.
+	 *
+	 * @return property name -> the default/template value and it's full value JSON; the map must not be modified.
+	 */
+	public Map<String, DesignValueJSON> getDesignValuesJSON(Object designKey, Supplier<Map<String, DesignValueJSON>> writeDesignValues)
+	{
+		Map<String, DesignValueJSON> json = jsonByDesign.get(designKey);
+		if (json == null)
+		{
+			// written outside of the lock; if two web objects of the same design write it at the same time, one of them is simply dropped
+			json = Collections.unmodifiableMap(writeDesignValues.get());
+			Map<String, DesignValueJSON> previous = jsonByDesign.putIfAbsent(designKey, json);
+			if (previous != null) json = previous;
+		}
+		return json;
+	}
+
+	/**
+	 * A default/template value of a design together with it's full value JSON.
+	 */
+	public static final class DesignValueJSON
+	{
+		private final Object value;
+		private final JSONString json;
+
+		public DesignValueJSON(Object value, JSONString json)
+		{
+			this.value = value;
+			this.json = json;
+		}
+
+		/**
+		 * @return the JSON if it was written for the given value (so if the web object that asks still has the design value), null otherwise.
+		 */
+		public JSONString getJSONFor(Object currentValue)
+		{
+			return (currentValue == value || (currentValue != null && currentValue.equals(value))) ? json : null;
+		}
+	}
+
+}
@@ -43,15 +43,35 @@ public class SpecProviderState
 	private final Map<String, PackageSpecification<WebLayoutSpecification>> cachedLayoutDescriptions;
 	private final Map<String, WebObjectSpecification> allWebObjectSpecifications;
 	private final List<IPackageReader> packageReaders;
+	private final ClientSideTypeCache clientSideTypeCache;
 
 	public SpecProviderState(Map<String, PackageSpecification<WebObjectSpecification>> cachedComponentOrServiceDescriptions,
 		Map<String, PackageSpecification<WebLayoutSpecification>> cachedLayoutDescriptions, Map<String, WebObjectSpecification> allWebObjectSpecifications,
 		List<IPackageReader> packageReaders)
+	{
+		this(cachedComponentOrServiceDescriptions, cachedLayoutDescriptions, allWebObjectSpecifications, packageReaders, null);
+	}
+
+	/**
+	 * @param clientSideTypeCache the client side types of this generation of specs; if null, an empty one (that computes them when needed) is used.
+	 */
+	public SpecProviderState(Map<String, PackageSpecification<WebObjectSpecification>> cachedComponentOrServiceDescriptions,
+		Map<String, PackageSpecification<WebLayoutSpecification>> cachedLayoutDescriptions, Map<String, WebObjectSpecification> allWebObjectSpecifications,
+		List<IPackageReader> packageReaders, ClientSideTypeCache clientSideTypeCache)
 	{
 		this.cachedComponentOrServiceDescriptions = Collections.unmodifiableMap(new HashMap<>(cachedComponentOrServiceDescriptions));
 		this.cachedLayoutDescriptions = Collections.unmodifiableMap(new HashMap<>(cachedLayoutDescriptions));
 		this.allWebObjectSpecifications = Collections.unmodifiableMap(new HashMap<>(allWebObjectSpecifications));
 		this.packageReaders = Collections.unmodifiableList(new ArrayList<>(packageReaders));
+		this.clientSideTypeCache = (clientSideTypeCache != null ? clientSideTypeCache : new ClientSideTypeCache());
+	}
+
+	/**
+	 * The client side specs of the component/service specs in this state.
+	 */
+	public ClientSideTypeCache getClientSideTypeCache()
+	{
+		return clientSideTypeCache;
 	}
 
 	/**
@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2026 Servoy BV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.sablo.specification;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.sablo.specification.property.types.ProtectedConfig;
+import org.sablo.specification.property.types.VisiblePropertyType;
+
+/**
+ * For one {@link WebObjectSpecification}, it knows which 'visible' and which 'protecting' (visible/protected/enabled...) properties govern each of the other properties
+ * (see the "for" entries of {@link ProtectedConfig}).<br/>
+ * It is computed once per spec (see {@link WebObjectSpecification#getVisibilityAndProtectionIndex()}) so that checking the visibility/protection
+ * of a property of a web object doesn't have to scan (and filter) all properties of the spec each time.<br/><br/>
+ *
+ * The arrays that it returns are shared; do not modify them.
+ *
+ * @author agent
+ */
+public final class VisibilityAndProtectionIndex
+{
+
+	private static final PropertyDescription[] NO_PROPERTIES = new PropertyDescription[0];
+	private static final ProtectingProperty[] NO_PROTECTING_PROPERTIES = new ProtectingProperty[0];
+
+	/**
+	 * A 'protecting' property together with the value that it blocks changes from client on.
+	 */
+	public static final class ProtectingProperty
+	{
+		public final PropertyDescription propertyDescription;
+		public final Boolean blockingOn;
+
+		private ProtectingProperty(PropertyDescription propertyDescription, boolean blockingOn)
+		{
+			this.propertyDescription = propertyDescription;
+			this.blockingOn = Boolean.valueOf(blockingOn);
+		}
+	}
+
+	private final PropertyDescription[] generalVisibilityProperties;
+	private final Map<String, PropertyDescription[]> visibilityPropertiesByGovernedProperty;
+
+	private final ProtectingProperty[] generalProtectingProperties;
+	private final Map<String, ProtectingProperty[]> protectingPropertiesByGovernedProperty;
+
+	VisibilityAndProtectionIndex(PropertyDescription spec)
+	{
+		Collection<PropertyDescription> allProperties = spec.getProperties().values();
+
+		// visibility; the general ones are the ones that do not have specific "for" entries
+		List<PropertyDescription> generalVisibility = new ArrayList<>(2);
+		Map<String, List<PropertyDescription>> specificVisibility = new HashMap<>();
+		for (PropertyDescription prop : spec.getProperties(VisiblePropertyType.INSTANCE))
+		{
+			Collection<String> forEntries = getForEntries(prop);
+			if (forEntries == null) generalVisibility.add(prop);
+			else for (String governed : forEntries)
+				specificVisibility.computeIfAbsent(governed, k -> new ArrayList<>(2)).add(prop);
+		}
+		generalVisibilityProperties = generalVisibility.toArray(NO_PROPERTIES);
+		visibilityPropertiesByGovernedProperty = new HashMap<>();
+		specificVisibility.forEach((governed, specific) -> {
+			Set<PropertyDescription> all = new LinkedHashSet<>(generalVisibility);
+			all.addAll(specific);
+			visibilityPropertiesByGovernedProperty.put(governed, all.toArray(NO_PROPERTIES));
+		});
+
+		// protection; keep the order in which they are declared, so that the same blocking property is reported as before when more of them block a property
+		List<ProtectingProperty> allProtecting = new ArrayList<>(4);
+		List<ProtectingProperty> generalProtecting = new ArrayList<>(4);
+		Set<String> specificallyProtected = new LinkedHashSet<>();
+		for (PropertyDescription prop : allProperties)
+		{
+			if (prop.getType().isProtecting())
+			{
+				Object config = prop.getConfig();
+
+				// visible default true, so block on false by default
+				// protected default false, so block on true by default
+				boolean blockingOn = Boolean.FALSE.equals(prop.getType().defaultValue(prop));
+				if (config instanceof ProtectedConfig)
+				{
+					blockingOn = ((ProtectedConfig)config).getBlockingOn();
+				}
+
+				ProtectingProperty protecting = new ProtectingProperty(prop, blockingOn);
+				allProtecting.add(protecting);
+
+				Collection<String> forEntries = getForEntries(prop);
+				if (forEntries == null) generalProtecting.add(protecting);
+				else specificallyProtected.addAll(forEntries);
+			}
+		}
+		generalProtectingProperties = generalProtecting.toArray(NO_PROTECTING_PROPERTIES);
+		protectingPropertiesByGovernedProperty = new HashMap<>();
+		for (String governed : specificallyProtected)
+		{
+			List<ProtectingProperty> forGoverned = new ArrayList<>(allProtecting.size());
+			for (ProtectingProperty protecting : allProtecting)
+			{
+				Collection<String> forEntries = getForEntries(protecting.propertyDescription);
+				if (forEntries == null || forEntries.contains(governed)) forGoverned.add(protecting);
+			}
+			protectingPropertiesByGovernedProperty.put(governed, forGoverned.toArray(NO_PROTECTING_PROPERTIES));
+		}
+	}
+
+	/**
+	 * @return null if this property is general (it has no "for" entries), otherwise the names of properties that it is meant for.
+	 */
+	private static Collection<String> getForEntries(PropertyDescription prop)
+	{
+		Object config = prop.getConfig();
+		if (config instanceof ProtectedConfig && ((ProtectedConfig)config).getForEntries() != null)
+		{
+			Collection<String> forEntries = (((ProtectedConfig)config).getForEntries()).getEntries();
+			if (forEntries != null && forEntries.size() > 0) return forEntries;
+		}
+		return null;
+	}
+
+	/**
+	 * @return the 'visible' properties that are not specific to some properties - so they give the visibility of the whole web object.
+	 */
+	public PropertyDescription[] getGeneralVisibilityProperties()
+	{
+		return generalVisibilityProperties;
+	}
+
+	/**
+	 * @param property the property to get the visibility properties for; if null, only the general ones will be returned.
+	 * @return the 'visible' properties that, if false, make the given property invisible.
+	 */
+	public PropertyDescription[] getVisibilityPropertiesFor(String property)
+	{
+		PropertyDescription[] specific = (property != null ? visibilityPropertiesByGovernedProperty.get(property) : null);
+		return specific != null ? specific : generalVisibilityProperties;
+	}
+
+	/**
+	 * @param property the property to get the protecting properties for; if null, only the general ones will be returned.
+	 * @return the 'protecting' properties that can block changes from client for the given property (in the order they are declared in).
+	 */
+	public ProtectingProperty[] getProtectingPropertiesFor(String property)
+	{
+		ProtectingProperty[] specific = (property != null ? protectingPropertiesByGovernedProperty.get(property) : null);
+		return specific != null ? specific : generalProtectingProperties;
+	}
+
+}
@@ -19,6 +19,7 @@ package org.sablo.specification;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -26,6 +27,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -235,6 +237,28 @@ public class WebObjectSpecification extends PropertyDescription
 
 	private SourceOfCodeExtractedDocs sourceOfCodeExtractedDocs = SourceOfCodeExtractedDocs.NOT_YET_PARSED;
 
+	private volatile SharedToJSONValueCache sharedToJSONValueCache;
+
+	private volatile PropertySlots propertySlots;
+
+	private volatile VisibilityAndProtectionIndex visibilityAndProtectionIndex;
+
+	/**
+	 * Resolved property paths, keyed by the path with all array indexes replaced by "[]" (so "columns[17].width" is cached as "columns[].width").
+	 * Only paths that resolve to a PD are cached; recursive custom types can still resolve paths of any depth, so it is limited to {@link #MAX_RESOLVED_PROPERTY_PATHS} entries.
+	 */
+	private final ConcurrentHashMap<String, PDAndComputedPushToServer> resolvedPropertyPaths = new ConcurrentHashMap<>();
+
+	/**
+	 * Resolved property paths keyed by the exact path that was requested; this allows repeated pushes to the same key to be resolved without even
+	 * normalizing the key. It is limited to {@link #MAX_EXACT_RESOLVED_PROPERTY_PATHS} entries as there is one for each array index that was used.
+	 */
+	private final ConcurrentHashMap<String, PDAndComputedPushToServer> exactResolvedPropertyPaths = new ConcurrentHashMap<>();
+
+	private static final int MAX_RESOLVED_PROPERTY_PATHS = 1024;
+
+	private static final int MAX_EXACT_RESOLVED_PROPERTY_PATHS = 1024;
+
 	public static enum SourceOfCodeExtractedDocs
 	{
 		NOT_YET_PARSED, DEDICATED_DOC_SCRIPT_FILE, NG1_CLIENT_AND_SERVER_SIDE_SCRIPT, TITANIUM_CLIENT_AND_SERVER_SIDE_SCRIPT
@@ -997,6 +1021,173 @@ public class WebObjectSpecification extends PropertyDescription
 		return replacement;
 	}
 
+	/**
+	 * Gives the cache of the full value JSON of default/template values that is shared between all web objects of the same design of this specification (see {@link SharedToJSONValueCache}).
+	 * As it is kept here, it will be discarded when specs are reloaded.
+	 */
+	public SharedToJSONValueCache getSharedToJSONValueCache()
+	{
+		SharedToJSONValueCache cache = sharedToJSONValueCache;
+		if (cache == null)
+		{
+			synchronized (this)
+			{
+				cache = sharedToJSONValueCache;
+				if (cache == null)
+				{
+					cache = new SharedToJSONValueCache();
+					sharedToJSONValueCache = cache;
+				}
+			}
+		}
+		return cache;
+	}
+
+	/**
+	 * Gives the stable (for this spec instance) index of the given top-level property; web objects use it to keep their property values and change flags
+	 * in arrays/bit sets instead of hash based collections.
+	 *
+	 * @return the slot of that property or -1 if the property is not declared in this spec.
+	 */
+	public int getPropertySlot(String propertyName)
+	{
+		Integer slot = getPropertySlots().slotByName.get(propertyName);
+		return slot != null ? slot.intValue() : -1;
+	}
+
+	/**
+	 * @return the name of the top-level property that has the given slot. See {@link #getPropertySlot(String)}.
+	 */
+	public String getPropertyNameForSlot(int slot)
+	{
+		return getPropertySlots().names[slot];
+	}
+
+	/**
+	 * @return the number of slots (top-level properties) in this spec. See {@link #getPropertySlot(String)}.
+	 */
+	public int getPropertySlotCount()
+	{
+		return getPropertySlots().names.length;
+	}
+
+	/**
+	 * Gives which visibility/protecting properties of this spec govern which other properties; it is computed only once per spec.
+	 */
+	public VisibilityAndProtectionIndex getVisibilityAndProtectionIndex()
+	{
+		// no locking: a concurrent first call just builds a second index from the same (never changing) properties and one of them is dropped
+		VisibilityAndProtectionIndex index = visibilityAndProtectionIndex;
+		if (index == null)
+		{
+			index = new VisibilityAndProtectionIndex(this);
+			visibilityAndProtectionIndex = index;
+		}
+		return index;
+	}
+
+	/**
+	 * Same as {@link PropertyDescription#computePushToServerForPropertyPathAndGetPD(String)} but the result is cached per (normalized) property path,
+	 * as this is called for each property value that the browser pushes.
+	 */
+	@Override
+	public PDAndComputedPushToServer computePushToServerForPropertyPathAndGetPD(String propname)
+	{
+		PDAndComputedPushToServer resolved = exactResolvedPropertyPaths.get(propname);
+		if (resolved != null) return resolved;
+
+		String normalizedPropertyPath = normalizeArrayIndexes(propname);
+		if (normalizedPropertyPath == null) return super.computePushToServerForPropertyPathAndGetPD(propname); // malformed index; not something to cache
+
+		resolved = resolvedPropertyPaths.get(normalizedPropertyPath);
+		if (resolved == null)
+		{
+			resolved = super.computePushToServerForPropertyPathAndGetPD(normalizedPropertyPath);
+			if (resolved.pd == null) return resolved; // do not cache paths that were not found; they could be anything
+
+			if (resolvedPropertyPaths.size() < MAX_RESOLVED_PROPERTY_PATHS) resolvedPropertyPaths.put(normalizedPropertyPath, resolved);
+		}
+		if (exactResolvedPropertyPaths.size() < MAX_EXACT_RESOLVED_PROPERTY_PATHS) exactResolvedPropertyPaths.put(propname, resolved);
+
+		return resolved;
+	}
+
+	/**
+	 * Replaces all array indexes in a property path with an empty index, for example "columns[17].width" with "columns[].width".
+	 *
+	 * @return the normalized path (the same String instance if there are no indexes in it) or null if one of the indexes is not a valid int.
+	 */
+	private static String normalizeArrayIndexes(String propertyPath)
+	{
+		int openBracket = propertyPath.indexOf('[');
+		if (openBracket < 0) return propertyPath;
+
+		StringBuilder normalized = null;
+		int copiedUpTo = 0;
+		while (openBracket >= 0)
+		{
+			int closeBracket = propertyPath.indexOf(']', openBracket);
+			if (closeBracket < 0) return null;
+
+			if (closeBracket > openBracket + 1)
+			{
+				if (!isIntIndex(propertyPath, openBracket + 1, closeBracket)) return null;
+				if (normalized == null) normalized = new StringBuilder(propertyPath.length());
+				normalized.append(propertyPath, copiedUpTo, openBracket + 1);
+				copiedUpTo = closeBracket;
+			}
+			openBracket = propertyPath.indexOf('[', closeBracket);
+		}
+		if (normalized == null) return propertyPath;
+
+		normalized.append(propertyPath, copiedUpTo, propertyPath.length());
+		return normalized.toString();
+	}
+
+	/**
+	 * @return true if the given part of the string would be parsed successfully by Integer.parseInt(...).
+	 */
+	private static boolean isIntIndex(String s, int start, int end)
+	{
+		int i = start;
+		char c = s.charAt(i);
+		if (c == '-' || c == '+') i++;
+		if (i == end || end - i > 9) return false; // no digits or it might not fit in an int
+
+		for (; i < end; i++)
+		{
+			c = s.charAt(i);
+			if (c < '0' || c > '9') return false;
+		}
+		return true;
+	}
+
+	private PropertySlots getPropertySlots()
+	{
+		// the property names are fixed once the spec is created, so slots built by a racing thread are in the same order as these
+		PropertySlots slots = propertySlots;
+		if (slots == null)
+		{
+			slots = new PropertySlots(getAllPropertiesNames());
+			propertySlots = slots;
+		}
+		return slots;
+	}
+
+	private static class PropertySlots
+	{
+		private final String[] names;
+		private final Map<String, Integer> slotByName;
+
+		private PropertySlots(Collection<String> propertyNames)
+		{
+			names = propertyNames.toArray(new String[propertyNames.size()]);
+			slotByName = new HashMap<>(Math.max(4, (int)(names.length / 0.75f) + 1));
+			for (int i = 0; i < names.length; i++)
+				slotByName.put(names[i], Integer.valueOf(i));
+		}
+	}
+
 	public void setReplacement(String replacement)
 	{
 		this.replacement = replacement;
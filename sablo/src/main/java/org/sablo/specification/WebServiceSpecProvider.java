@@ -41,14 +41,28 @@ public class WebServiceSpecProvider extends BaseSpecProvider
 
 	private static volatile WebServiceSpecProvider instance;
 
-	private EmbeddableJSONWriter[] clientSideTypesWithConversionsOnAllServices; // array with 1 item (so that we can make a difference if it's not yet cached (null) or if it is cached (array[1] that can contain either null if there is nothing to be sent or something))
+	private volatile EmbeddableJSONWriter[] clientSideTypesWithConversionsOnAllServices; // array with 1 item (so that we can make a difference if it's not yet cached (null) or if it is cached (array[1] that can contain either null if there is nothing to be sent or something))
+	private volatile ClientSideTypeBundle[] clientSideSpecsBundle; // same as above, but as a bundle that is served over HTTP
+	private int clientSideSpecsGeneration; // guarded by 'this'; incremented on each reload so that what was computed from the previous specs is not cached
 
 	private static SpecReloadSubject specReloadSubject = new SpecReloadSubject()
 	{
 		@Override
 		void fireWebObjectSpecificationReloaded(Collection<String> specNames)
 		{
-			if (instance != null) instance.clientSideTypesWithConversionsOnAllServices = null;
+			WebServiceSpecProvider provider = instance;
+			if (provider != null)
+			{
+				ClientSideTypeBundle[] oldBundle;
+				synchronized (provider)
+				{
+					provider.clientSideSpecsGeneration++;
+					provider.clientSideTypesWithConversionsOnAllServices = null;
+					oldBundle = provider.clientSideSpecsBundle;
+					provider.clientSideSpecsBundle = null;
+				}
+				if (oldBundle != null && oldBundle[0] != null) oldBundle[0].dispose();
+			}
 			super.fireWebObjectSpecificationReloaded(specNames);
 		}
 	};
@@ -156,34 +170,89 @@ public class WebServiceSpecProvider extends BaseSpecProvider
 
 	public EmbeddableJSONWriter getClientSideSpecs()
 	{
-		if (clientSideTypesWithConversionsOnAllServices == null)
+		EmbeddableJSONWriter[] cached = clientSideTypesWithConversionsOnAllServices;
+		while (cached == null)
 		{
+			int generation;
+			synchronized (this)
+			{
+				generation = clientSideSpecsGeneration;
+			}
+
 			// find any types that have client-side conversions that are used by services
 			// and cache them
+			EmbeddableJSONWriter[] computed = new EmbeddableJSONWriter[1]; // create the cache so that we don't re-search next time (that is why it's an array of 1 when cached val is there; the item in it could be null or not
+			computed[0] = computeClientSideSpecs(getSpecProviderState(), null);
 
-			WebObjectSpecification[] allServices = getSpecProviderState().getAllWebObjectSpecifications();
-			boolean hasClientSideTypes = false;
-			EmbeddableJSONWriter toBeSent = new EmbeddableJSONWriter();
-			if (allServices != null && allServices.length > 0)
+			synchronized (this)
 			{
-				toBeSent.object(); // keys are spec names, values are objects so: { serviceNameFromSpec: { /* see comment from ClientSideTypeCache.getClientSideTypesFor() */ } , ... }
-				for (WebObjectSpecification serviceSpec : allServices)
+				// if specs were reloaded meanwhile, what was computed might be outdated; compute it again
+				if (generation == clientSideSpecsGeneration)
 				{
-					EmbeddableJSONWriter clSideTypesForThisComponent = ClientSideTypeCache.buildClientSideTypesFor(serviceSpec);
-					if (clSideTypesForThisComponent != null)
-					{
-						// normally scriptingName (camel-case instead of dashes) does include package name (to make it unique) and it is also what is used to find service and service specs. client-side...
-						toBeSent.key(serviceSpec.getScriptingName()).value(clSideTypesForThisComponent);
-						hasClientSideTypes = true;
-					}
+					if (clientSideTypesWithConversionsOnAllServices == null) clientSideTypesWithConversionsOnAllServices = computed;
+					cached = clientSideTypesWithConversionsOnAllServices; // if two threads compute this at the same time, one of them is simply dropped
+				}
+			}
+		}
+		return cached[0];
+	}
+
+	private static EmbeddableJSONWriter computeClientSideSpecs(SpecProviderState specProviderState, Collection<String> serviceNames)
+	{
+		WebObjectSpecification[] allServices = specProviderState.getAllWebObjectSpecifications();
+		boolean hasClientSideTypes = false;
+		EmbeddableJSONWriter toBeSent = new EmbeddableJSONWriter();
+		if (allServices != null && allServices.length > 0)
+		{
+			toBeSent.object(); // keys are spec names, values are objects so: { serviceNameFromSpec: { /* see comment from ClientSideTypeCache.getClientSideTypesFor() */ } , ... }
+			for (WebObjectSpecification serviceSpec : allServices)
+			{
+				EmbeddableJSONWriter clSideTypesForThisComponent = specProviderState.getClientSideTypeCache().getClientSideSpecFor(serviceSpec);
+				if (clSideTypesForThisComponent != null)
+				{
+					// normally scriptingName (camel-case instead of dashes) does include package name (to make it unique) and it is also what is used to find service and service specs. client-side...
+					toBeSent.key(serviceSpec.getScriptingName()).value(clSideTypesForThisComponent);
+					hasClientSideTypes = true;
 				}
-				toBeSent.endObject();
+				if (serviceNames != null) serviceNames.add(serviceSpec.getScriptingName());
+			}
+			toBeSent.endObject();
+		}
+		return (hasClientSideTypes ? toBeSent : null);
+	}
+
+	/**
+	 * Same as {@link #getClientSideSpecs()} but as a bundle that the browser can load (and cache) via HTTP. See {@link ClientSideTypeBundle}.
+	 */
+	public ClientSideTypeBundle getClientSideSpecsBundle()
+	{
+		ClientSideTypeBundle[] bundle = clientSideSpecsBundle;
+		while (bundle == null)
+		{
+			int generation;
+			synchronized (this)
+			{
+				generation = clientSideSpecsGeneration;
 			}
 
-			clientSideTypesWithConversionsOnAllServices = new EmbeddableJSONWriter[1]; // create the cache so that we don't re-search next time (that is why it's an array of 1 when cached val is there; the item in it could be null or not
-			if (hasClientSideTypes) clientSideTypesWithConversionsOnAllServices[0] = toBeSent;
+			// computed from one spec provider state so that the service names match the content
+			ClientSideTypeBundle[] created = new ClientSideTypeBundle[1];
+			Collection<String> serviceNames = new ArrayList<>();
+			EmbeddableJSONWriter clientSideSpecs = computeClientSideSpecs(getSpecProviderState(), serviceNames);
+			if (clientSideSpecs != null) created[0] = ClientSideTypeBundle.create("services", true, clientSideSpecs.toJSONString(), serviceNames);
+
+			synchronized (this)
+			{
+				// if specs were reloaded meanwhile, the created bundle might be outdated and the reload would not dispose it; create it again
+				if (generation == clientSideSpecsGeneration)
+				{
+					if (clientSideSpecsBundle == null) clientSideSpecsBundle = created;
+					bundle = clientSideSpecsBundle;
+				}
+			}
+			if (bundle != created && created[0] != null) created[0].dispose(); // outdated or another thread was faster
 		}
-		return clientSideTypesWithConversionsOnAllServices[0];
+		return bundle[0];
 	}
 
 }
@@ -27,6 +27,11 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.sablo.specification.Package.DuplicateEntityException;
 import org.sablo.specification.Package.IPackageReader;
@@ -40,6 +45,12 @@ class WebSpecReader
 {
 	private static final Logger log = LoggerFactory.getLogger(WebSpecReader.class.getCanonicalName());
 
+	/**
+	 * How many packages can be read/parsed at the same time when (re)loading packages; 1 (the default) means that they are read one after the other on the calling thread.
+	 * Only set this higher if all the {@link IPackageReader} implementations in use are thread-safe, as they will then be called from multiple threads at the same time.
+	 */
+	private static final int PACKAGE_LOADING_THREADS = Integer.parseInt(System.getProperty("sablo.package.loading.threads", "1"));
+
 	private final Map<String, PackageSpecification<WebObjectSpecification>> cachedComponentOrServiceDescriptions = new HashMap<>(); // component, services NOT layouts
 	private final Map<String, PackageSpecification<WebLayoutSpecification>> cachedLayoutDescriptions = new TreeMap<>(); // only for layouts
 
@@ -48,8 +59,9 @@ class WebSpecReader
 	private final Map<String, List<IPackageReader>> allPackages = new HashMap<>();
 	private final Set<String> packagesWithGloballyDefinedTypes = new HashSet<>(); // packageNames of packages that have globally defined types
 	private final IDefaultComponentPropertiesProvider defaultComponentPropertiesProvider;
+	private final int packageLoadingThreads;
 
-	private final ClientSideTypeCache clientSideTypeCache;
+	private volatile ClientSideTypeCache clientSideTypeCache;
 
 	private final List<IPackageReader> activePackageReaders;
 
@@ -59,18 +71,26 @@ class WebSpecReader
 
 	private long lastLoadTimestamp;
 
-	private SpecProviderState specProviderState;
+	private volatile SpecProviderState specProviderState;
 
 
 	WebSpecReader(IPackageReader[] packageReaders, String attributeName, SpecReloadSubject specReloadSubject,
 		IDefaultComponentPropertiesProvider defaultComponentPropertiesProvider)
+	{
+		this(packageReaders, attributeName, specReloadSubject, defaultComponentPropertiesProvider, PACKAGE_LOADING_THREADS);
+	}
+
+	/**
+	 * @param packageLoadingThreads how many packages can be read/parsed at the same time; 1 means that they are read one after the other on the calling thread.
+	 */
+	WebSpecReader(IPackageReader[] packageReaders, String attributeName, SpecReloadSubject specReloadSubject,
+		IDefaultComponentPropertiesProvider defaultComponentPropertiesProvider, int packageLoadingThreads)
 	{
 		this.activePackageReaders = new ArrayList<>(Arrays.asList(packageReaders));
 		this.attributeName = attributeName;
 		this.specReloadSubject = specReloadSubject;
 		this.defaultComponentPropertiesProvider = defaultComponentPropertiesProvider;
-		this.clientSideTypeCache = new ClientSideTypeCache();
-
+		this.packageLoadingThreads = packageLoadingThreads;
 		load();
 	}
 
@@ -85,7 +105,6 @@ class WebSpecReader
 		{
 			lastLoadTimestamp = System.currentTimeMillis();
 
-			clientSideTypeCache.clear();
 			cachedComponentOrServiceDescriptions.clear();
 			cachedLayoutDescriptions.clear();
 			allWebObjectSpecifications.clear();
@@ -107,6 +126,7 @@ class WebSpecReader
 				{
 					p.dispose();
 				}
+				publishSpecProviderState();
 			}
 		}
 
@@ -115,8 +135,22 @@ class WebSpecReader
 		HashSet<String> allSpecs = new HashSet<>(allWebObjectSpecifications.keySet());
 		allSpecs.addAll(allLayoutSpecifications.keySet());
 		specReloadSubject.removeOtherSpecReloadListeners(allSpecs);
+	}
 
-		specProviderState = null;
+	/**
+	 * Computes the client side types of the current specs and then makes them available together with a new {@link SpecProviderState}.
+	 * Until then, other threads keep using the previous state and client side types.
+	 */
+	private void publishSpecProviderState()
+	{
+		ClientSideTypeCache previousClientSideTypeCache = clientSideTypeCache;
+		ClientSideTypeCache newClientSideTypeCache = new ClientSideTypeCache(allWebObjectSpecifications.values(), previousClientSideTypeCache);
+
+		specProviderState = new SpecProviderState(cachedComponentOrServiceDescriptions, cachedLayoutDescriptions, allWebObjectSpecifications,
+			activePackageReaders, newClientSideTypeCache);
+		clientSideTypeCache = newClientSideTypeCache;
+
+		if (previousClientSideTypeCache != null) previousClientSideTypeCache.dispose(); // stops serving it's bundles
 	}
 
 	/**
@@ -131,7 +165,6 @@ class WebSpecReader
 		synchronized (this)
 		{
 			boolean shouldReloadAllDueToGlobalTypeChanges = false;
-			specProviderState = null;
 
 			lastLoadTimestamp = System.currentTimeMillis();
 
@@ -211,6 +244,7 @@ class WebSpecReader
 					{
 						p.dispose();
 					}
+					if (shouldStillFireReloadListeners) publishSpecProviderState(); // else load() already did it
 				}
 			}
 		}
@@ -242,7 +276,6 @@ class WebSpecReader
 			for (String specName : removedWebObjectPackageSpecs.getSpecifications().keySet())
 		{
 			allWebObjectSpecifications.remove(specName);
-			clientSideTypeCache.clear(specName);
 			if (removedOrReloadedSpecs != null) removedOrReloadedSpecs.add(specName);
 		}
 
@@ -251,11 +284,12 @@ class WebSpecReader
 
 	private boolean cacheWebObjectSpecs(List<Package> packages, List<String> removedOrReloadedSpecs)
 	{
+		Map<Package, ParsedPackage> parsedPackages = parseInParallel(packages);
 		for (Package p : packages)
 		{
 			try
 			{
-				if (cache(p, removedOrReloadedSpecs)) return true;
+				if (cache(p, parsedPackages.get(p), removedOrReloadedSpecs)) return true;
 			}
 			catch (Exception e)
 			{
@@ -266,7 +300,145 @@ class WebSpecReader
 		return false;
 	}
 
-	private boolean cache(Package p, List<String> removedOrReloadedSpecs) throws IOException
+	/**
+	 * Reads and parses the specs of the given packages in parallel (on a bounded pool); the results are then added to the caches by {@link #cache(Package, ParsedPackage, List)}
+	 * one package at a time, in the original order, so duplicate/conflict detection and error reporting are the same as when loading them one by one.<br/><br/>
+	 *
+	 * Only packages that {@link #cache(Package, ParsedPackage, List)} will certainly parse are parsed here: the ones with a package name that is not yet known and
+	 * that is not used by any of the other given packages. The others (duplicates, replacements) are still parsed while caching, only if needed - as before.
+	 * Each package is parsed by a single thread, as package readers are not required to be thread-safe.
+	 */
+	private Map<Package, ParsedPackage> parseInParallel(List<Package> packages)
+	{
+		Map<Package, ParsedPackage> parsedPackages = new HashMap<>();
+		if (packageLoadingThreads <= 1 || packages.size() < 2) return parsedPackages;
+
+		List<String> packageNames = new ArrayList<>(packages.size());
+		Map<String, Integer> packageNameCounts = new HashMap<>();
+		for (Package p : packages)
+		{
+			String packageName;
+			try
+			{
+				packageName = p.getPackageName();
+			}
+			catch (RuntimeException e)
+			{
+				packageName = null; // it will fail the same way when it is cached; leave it to be parsed there
+			}
+			packageNames.add(packageName);
+			if (packageName != null) packageNameCounts.merge(packageName, Integer.valueOf(1), (c1, c2) -> Integer.valueOf(c1.intValue() + c2.intValue()));
+		}
+
+		List<Package> toParse = new ArrayList<>(packages.size());
+		for (int i = 0; i < packages.size(); i++)
+		{
+			String packageName = packageNames.get(i);
+			if (packageName != null && packageNameCounts.get(packageName).intValue() == 1 && !allPackages.containsKey(packageName) &&
+				!cachedComponentOrServiceDescriptions.containsKey(packageName) && !cachedLayoutDescriptions.containsKey(packageName))
+				toParse.add(packages.get(i));
+		}
+		if (toParse.size() < 2) return parsedPackages;
+
+		AtomicInteger threadCount = new AtomicInteger();
+		// the provider is only used from this thread (as when loading packages one by one); the pool threads get what it gave here
+		Map<String, PropertyDescription> defaultComponentProperties = (defaultComponentPropertiesProvider != null
+			? defaultComponentPropertiesProvider.getDefaultComponentProperties() : null);
+		IDefaultComponentPropertiesProvider defaultComponentPropertiesForPool = (defaultComponentPropertiesProvider != null ? () -> defaultComponentProperties
+			: null);
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(packageLoadingThreads, toParse.size()), (runnable) -> {
+			Thread t = new Thread(runnable, "sablo-package-loader-" + threadCount.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+		try
+		{
+			List<Future<ParsedPackage>> futures = new ArrayList<>(toParse.size());
+			for (Package p : toParse)
+			{
+				futures.add(executor.submit(() -> new ParsedPackage(p, attributeName, defaultComponentPropertiesForPool)));
+			}
+
+			// wait for all of them even if interrupted, so that no package reader is still in use by the pool when caching starts
+			boolean interrupted = false;
+			for (int i = 0; i < futures.size(); i++)
+			{
+				while (true)
+				{
+					try
+					{
+						parsedPackages.put(toParse.get(i), futures.get(i).get());
+						break;
+					}
+					catch (InterruptedException e)
+					{
+						interrupted = true;
+					}
+					catch (ExecutionException e)
+					{
+						// unexpected (ParsedPackage keeps the exceptions that parsing would throw); this package will be parsed again when it is cached
+						log.warn("Cannot parse package in parallel: " + toParse.get(i).getName(), e.getCause());
+						break;
+					}
+				}
+			}
+			if (interrupted) Thread.currentThread().interrupt();
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+
+		return parsedPackages;
+	}
+
+	/**
+	 * The web object and layout specs of a package; they are read exactly like {@link #cache(Package, ParsedPackage, List)} would read them, including
+	 * the exception that it would get while doing that.
+	 */
+	private static class ParsedPackage
+	{
+		private PackageSpecification<WebObjectSpecification> webObjectPackageSpecification;
+		private PackageSpecification<WebLayoutSpecification> layoutPackageSpecification;
+		private Exception exception;
+
+		private ParsedPackage(Package p, String attributeName, IDefaultComponentPropertiesProvider defaultComponentPropertiesProvider)
+		{
+			try
+			{
+				webObjectPackageSpecification = p.getWebObjectDescriptions(attributeName, defaultComponentPropertiesProvider);
+				layoutPackageSpecification = p.getLayoutDescriptions();
+			}
+			catch (IOException | RuntimeException e)
+			{
+				exception = e;
+			}
+		}
+
+		private PackageSpecification<WebObjectSpecification> getWebObjectPackageSpecification() throws IOException
+		{
+			if (webObjectPackageSpecification == null) rethrow();
+			return webObjectPackageSpecification;
+		}
+
+		private PackageSpecification<WebLayoutSpecification> getLayoutPackageSpecification() throws IOException
+		{
+			if (layoutPackageSpecification == null) rethrow();
+			return layoutPackageSpecification;
+		}
+
+		private void rethrow() throws IOException
+		{
+			if (exception instanceof IOException) throw (IOException)exception;
+			throw (RuntimeException)exception;
+		}
+	}
+
+	/**
+	 * @param parsedPackage the already parsed specs of the package (see {@link #parseInParallel(List)}) or null if they should be parsed now, when needed.
+	 */
+	private boolean cache(Package p, ParsedPackage parsedPackage, List<String> removedOrReloadedSpecs) throws IOException
 	{
 		List<IPackageReader> list = allPackages.get(p.getPackageName());
 		if (list == null)
@@ -324,8 +496,8 @@ class WebSpecReader
 		// cache component or service specs if available
 		if (!cachedComponentOrServiceDescriptions.containsKey(p.getPackageName()))
 		{
-			PackageSpecification<WebObjectSpecification> webObjectPackageSpecification = p.getWebObjectDescriptions(attributeName,
-				defaultComponentPropertiesProvider);
+			PackageSpecification<WebObjectSpecification> webObjectPackageSpecification = parsedPackage != null
+				? parsedPackage.getWebObjectPackageSpecification() : p.getWebObjectDescriptions(attributeName, defaultComponentPropertiesProvider);
 			if (webObjectPackageSpecification.getSpecifications().size() > 0)
 			{
 				cachedComponentOrServiceDescriptions.put(webObjectPackageSpecification.getPackageName(), webObjectPackageSpecification);
@@ -348,7 +520,8 @@ class WebSpecReader
 		// cache layout specs if available
 		if (!cachedLayoutDescriptions.containsKey(p.getPackageName()))
 		{
-			PackageSpecification<WebLayoutSpecification> layoutPackageSpecification = p.getLayoutDescriptions();
+			PackageSpecification<WebLayoutSpecification> layoutPackageSpecification = parsedPackage != null
+				? parsedPackage.getLayoutPackageSpecification() : p.getLayoutDescriptions();
 			if (layoutPackageSpecification.getSpecifications().size() > 0)
 			{
 				cachedLayoutDescriptions.put(layoutPackageSpecification.getPackageName(), layoutPackageSpecification);
@@ -370,21 +543,19 @@ class WebSpecReader
 		return false;
 	}
 
+	/**
+	 * The client side types of the current generation of specs (the same as {@link #getSpecProviderState()}.getClientSideTypeCache()).
+	 */
 	public ClientSideTypeCache getClientSideTypeCache()
 	{
-		return clientSideTypeCache; // TODO do we need to create a copy similar to what getSpecProviderState() does?
+		return clientSideTypeCache;
 	}
 
 	/**
 	 * Get the current state of spec providers, returns an immutable state.
 	 */
-	public synchronized SpecProviderState getSpecProviderState()
+	public SpecProviderState getSpecProviderState()
 	{
-		if (specProviderState == null)
-		{
-			specProviderState = new SpecProviderState(cachedComponentOrServiceDescriptions, cachedLayoutDescriptions, allWebObjectSpecifications,
-				activePackageReaders);
-		}
 		return specProviderState;
 	}
 
@@ -18,9 +18,7 @@
 package org.sablo.specification.property;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.ListIterator;
 
 /**
  * NOTE: this class can be used for keeping track of changes in any array-like structure, not just in the viewport of Servoy foundsets.
@@ -68,7 +66,10 @@ import java.util.ListIterator;
  * Then each gap between these SORTED unchanged intervals can be translated into one insert or delete as needed
  * + one update as needed (or one delete as needed followed by one insert as needed). The old and new indexes
  * of each unchanged interval have all the information that is needed to generate the equivalent sequence of
- * operations.
+ * operations.<br/><br/>
+ *
+ * The unchanged intervals are kept in an {@link UnchangedIntervalTree}, so that processing an operation only needs to visit the intervals that it
+ * overlaps (the following ones are shifted lazily) - which matters for big arrays with lots of small changes.
  *
  * @author acostescu
  * @see UnchangedInterval
@@ -77,7 +78,9 @@ import java.util.ListIterator;
 public class ArrayGranularChangeKeeper
 {
 
-	private final LinkedList<UnchangedInterval> unchangedIntervals = new LinkedList<>(); // this list will/should remain SORTED all the time (due to code that handles how operations are applied to it)
+	private final UnchangedIntervalTree unchangedIntervals = new UnchangedIntervalTree(); // this will/should remain SORTED all the time (due to code that handles how operations are applied to it)
+	private final List<UnchangedInterval> affectedIntervals = new ArrayList<>();
+	private final IntervalSequenceModifier modifier = new IntervalSequenceModifier();
 	private int initialViewportEnd;
 	private int currentViewportEnd;
 	private int viewportStart;
@@ -91,7 +94,7 @@ public class ArrayGranularChangeKeeper
 	{
 		unchangedIntervals.clear();
 		UnchangedInterval wholeUnchangedInterval = new UnchangedInterval(newViewportStart, newViewportEnd, newViewportStart, newViewportEnd);
-		unchangedIntervals.add(wholeUnchangedInterval);
+		unchangedIntervals.addLast(wholeUnchangedInterval);
 
 		numberOfUnchangedIndexes = wholeUnchangedInterval.getUnchangedIndexesCount();
 
@@ -112,13 +115,43 @@ public class ArrayGranularChangeKeeper
 			throw new IllegalArgumentException(
 				"Cannot process operation outside of viewport bounds (" + viewportStart + ", " + currentViewportEnd + "): " + operation);
 
-		// update unchanged intervals
-		ListIterator<UnchangedInterval> listIterator = unchangedIntervals.listIterator();
-		IntervalSequenceModifier modifier = new IntervalSequenceModifier(listIterator);
-		numberOfUnchangedIndexes = 0;
-		while (listIterator.hasNext())
+		// update unchanged intervals; only the ones that overlap the operation are affected (the ones after it just get shifted in case of insert/delete)
+		int operationSize = operation.endIndex - operation.startIndex + 1;
+		int lastAffectedStartIndex;
+		int shiftOfFollowingIntervals;
+		if (operation.type == ArrayOperation.INSERT)
+		{
+			lastAffectedStartIndex = operation.startIndex - 1; // so only the interval that contains startIndex
+			shiftOfFollowingIntervals = operationSize;
+		}
+		else
+		{
+			lastAffectedStartIndex = operation.endIndex;
+			shiftOfFollowingIntervals = (operation.type == ArrayOperation.DELETE ? -operationSize : 0);
+		}
+
+		unchangedIntervals.takeOutAffected(operation.startIndex, lastAffectedStartIndex, shiftOfFollowingIntervals, affectedIntervals);
+		int i = 0;
+		try
 		{
-			numberOfUnchangedIndexes += listIterator.next().applyOperation(operation, modifier);
+			for (; i < affectedIntervals.size(); i++)
+			{
+				UnchangedInterval affectedInterval = affectedIntervals.get(i);
+				int unchangedIndexesBefore = affectedInterval.getUnchangedIndexesCount();
+				modifier.setCurrentInterval(affectedInterval);
+				int unchangedIndexesAfter = affectedInterval.applyOperation(operation, modifier);
+				modifier.addResultingIntervals();
+				numberOfUnchangedIndexes += unchangedIndexesAfter - unchangedIndexesBefore;
+			}
+		}
+		finally
+		{
+			// if something went wrong, keep the intervals that were not processed
+			if (i < affectedIntervals.size()) modifier.resultingIntervals.addAll(affectedIntervals.subList(i, affectedIntervals.size()));
+
+			unchangedIntervals.putBackAffected(modifier.resultingIntervals);
+			affectedIntervals.clear();
+			modifier.resultingIntervals.clear();
 		}
 
 		// adjust size
@@ -207,21 +240,39 @@ public class ArrayGranularChangeKeeper
 	protected static class IntervalSequenceModifier
 	{
 
-		private final ListIterator<UnchangedInterval> listIterator;
+		private final List<UnchangedInterval> resultingIntervals = new ArrayList<>();
+		private final List<UnchangedInterval> addedIntervals = new ArrayList<>(2);
+		private UnchangedInterval currentInterval;
+		private boolean currentIntervalDiscarded;
+
+		private IntervalSequenceModifier()
+		{
+		}
+
+		private void setCurrentInterval(UnchangedInterval currentInterval)
+		{
+			this.currentInterval = currentInterval;
+			currentIntervalDiscarded = false;
+			addedIntervals.clear();
+		}
 
-		private IntervalSequenceModifier(ListIterator<UnchangedInterval> listIterator)
+		private void addResultingIntervals()
 		{
-			this.listIterator = listIterator;
+			if (!currentIntervalDiscarded) resultingIntervals.add(currentInterval);
+			resultingIntervals.addAll(addedIntervals);
+			currentInterval = null;
+			addedIntervals.clear();
 		}
 
 		protected void discardCurrentInterval()
 		{
-			listIterator.remove();
+			if (currentIntervalDiscarded || !addedIntervals.isEmpty()) throw new IllegalStateException();
+			currentIntervalDiscarded = true;
 		}
 
 		protected void addOneMoreIntervalAfter(UnchangedInterval unchangedInterval)
 		{
-			listIterator.add(unchangedInterval);
+			addedIntervals.add(unchangedInterval);
 		}
 
 	}
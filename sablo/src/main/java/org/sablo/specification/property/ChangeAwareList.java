@@ -19,9 +19,13 @@ package org.sablo.specification.property;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
 import java.util.Set;
 
 import org.sablo.IChangeListener;
@@ -42,6 +46,11 @@ public class ChangeAwareList<ET, WT> implements List<ET>, ISmartPropertyValue
 	public static final Set<String> GRANULAR_UPDATE_OP = new HashSet<>();
 	private static final Set<String> FULL_UPDATE_BY_REF_OP = null; // do not change the value; it needs to be null to work well with ArrayGranularChangeKeeper impl.
 
+	/**
+	 * If {@link #replaceContents(List)} would need more element inserts + removes then this, it just replaces all contents (and the full array will be sent to the browser).
+	 */
+	private static final int MAX_EDITS_FOR_REPLACE_CONTENTS_DIFF = Integer.parseInt(System.getProperty("sablo.array.replace.max.diff.edits", "500")); //$NON-NLS-1$ //$NON-NLS-2$
+
 	// TODO this class should keep a kind of pks to avoid a scenario where server and browser get modified at the same time
 	// and a granular update ends up doing incorrect modifications (as it's being applied in wrong place); for now we just drop
 	// the browser changes when this happens through the 'version' mechanism
@@ -52,6 +61,12 @@ public class ChangeAwareList<ET, WT> implements List<ET>, ISmartPropertyValue
 
 	protected List<IndexChangeListener> changeHandlers = new ArrayList<>();
 
+	/**
+	 * The same change listeners as in {@link #changeHandlers}, by element; keys are compared by reference (elements are mutable, so they can't be used as
+	 * normal map keys - for example a ChangeAwareMap element can change it's contents and so it's hashCode).
+	 */
+	private final Map<Object, IndexChangeListener> changeHandlersByElement = new IdentityHashMap<>();
+
 	// TODO in order to have fine-grained add/remove operations as well in the future we would need a list of change operations that can be add/remove/change instead
 	protected IChangeListener changeMonitor;
 	protected IWebObjectContext webObjectContext;
@@ -226,22 +241,32 @@ public class ChangeAwareList<ET, WT> implements List<ET>, ISmartPropertyValue
 		}
 
 		private void markElementRemoved(int i)
+		{
+			markElementsRemoved(i, i);
+		}
+
+		private void markElementsRemoved(int startIdx, int endIdx)
 		{
 			changeInstanceIfCurrentlyImmutable(); // this can change the "changes" ref. that is why below we always use changes. instead of directly the properties
 
 			boolean hadViewportChanges = changes.granularUpdatesKeeper.hasChanges();
-			changes.granularUpdatesKeeper.processOperation(new ArrayOperation(i, i, ArrayOperation.DELETE));
+			changes.granularUpdatesKeeper.processOperation(new ArrayOperation(startIdx, endIdx, ArrayOperation.DELETE));
 
 			if (!hadViewportChanges && !changes.allChanged && changeMonitor != null)
 				changeMonitor.valueChanged();
 		}
 
 		private void markElementInserted(int i)
+		{
+			markElementsInserted(i, i);
+		}
+
+		private void markElementsInserted(int startIdx, int endIdx)
 		{
 			changeInstanceIfCurrentlyImmutable(); // this can change the "changes" ref. that is why below we always use changes. instead of directly the properties
 
 			boolean hadViewportChanges = changes.granularUpdatesKeeper.hasChanges();
-			changes.granularUpdatesKeeper.processOperation(new ArrayOperation(i, i, ArrayOperation.INSERT));
+			changes.granularUpdatesKeeper.processOperation(new ArrayOperation(startIdx, endIdx, ArrayOperation.INSERT));
 
 			if (!hadViewportChanges && !changes.allChanged && changeMonitor != null)
 				changeMonitor.valueChanged();
@@ -300,7 +325,7 @@ public class ChangeAwareList<ET, WT> implements List<ET>, ISmartPropertyValue
 	public WT setInWrappedBaseList(int index, WT value, boolean markChanged)
 	{
 		WT tmp = getWrappedBaseListForReadOnly().set(index, value);
-		if (tmp != value)
+		if (!isSameElementAfterSet(tmp, value))
 		{
 			if (markChanged) changes.markElementChangedByRef(index);
 			detachIfNeeded(index, tmp, false);
@@ -352,25 +377,19 @@ public class ChangeAwareList<ET, WT> implements List<ET>, ISmartPropertyValue
 	// should be changes to use wrapped as well; either way, it should be the same (currently this works as we don't have any wrapper type with 'smart' values for which the wrapped value differs from the unwrapped value)
 	protected void attachToBaseObject(final int i, WT el, boolean insert, boolean dueToFullArrayAttach)
 	{
-		if (insert)
-		{
-			// an insert happened in array; update change handler indexes if needed
-			for (ChangeAwareList<ET, WT>.IndexChangeListener ch : changeHandlers)
-			{
-				if (ch.attachedToIdx >= i) ch.attachedToIdx++;
-			}
-		}
-
+		// note: change listeners do not keep the index of their element (that would need updating all following listeners on each insert/remove);
+		// they find it when the element reports a change, so there is nothing to do here for the other elements of the list when an insert happens
 		if (el instanceof ISmartPropertyValue)
 		{
 			if (CustomJSONPropertyType.log.isDebugEnabled()) CustomJSONPropertyType.log.debug("[CAL] Checking to ATTACH idx " + i);
 
-			ChangeAwareList<ET, WT>.IndexChangeListener changeHandler = getChangeHandler(el);
-			if (changeHandler == null || dueToFullArrayAttach) // hmm I think if dueToFullArrayAttach is true then changeHandler would always be null (as elements would not be attached either...) but just in case
+			IndexChangeListener changeHandler = changeHandlersByElement.get(el);
+			if (changeHandler == null)
 			{
 				// new value, so attach it and give it a change handler
 				changeHandler = new IndexChangeListener(i, el);
 				changeHandlers.add(changeHandler);
+				changeHandlersByElement.put(el, changeHandler);
 				((ISmartPropertyValue)el).attachToBaseObject(changeHandler, webObjectContext);
 			}
 			else
@@ -378,57 +397,88 @@ public class ChangeAwareList<ET, WT> implements List<ET>, ISmartPropertyValue
 				// note: if we already have a change handler for this value, that means that the value was already in the list before being added;
 				// that can happen when array operations such as splice are performed on the array from JS (for example a splice that remove one element
 				// from JS does copy elements after the removed one 1 by one to lower index; so it first attaches an already attached value to a lower index, then detaches it from it's previous index.
-				// we want in this case to not trigger either attach or detach - as basically the element is still in the array, but we must adjust change handler indexes
-
-				// just adjust the index of the change handler
-				changeHandler.attachedToIdx = i;
+				// we want in this case to not trigger either attach or detach - as basically the element is still in the array; we just count where it is
+				changeHandler.occurrences++;
+				changeHandler.lastKnownIdx = i;
 				if (CustomJSONPropertyType.log.isDebugEnabled())
 					CustomJSONPropertyType.log.debug("[CAL] SKIPPING ATTACH due to el. already being added in the list (splice?) for idx " + i);
 			}
 		}
 	}
 
-	private ChangeAwareList<ET, WT>.IndexChangeListener getChangeHandler(WT el)
-	{
-		// we have to iterate here to find the change handler for the value; we cannot change "changeHandlers" into a map of "value -> change handler" to enhance searching because
-		// the values are mutable and can change hashCode, so they ("el") cannot be used as keys in a map (for example EL could be a ChangeAwareMap that can change contents so it can change hashcode)
-		for (IndexChangeListener ch : changeHandlers)
-			if (el == ch.forValue) return ch;
-
-		return null;
-	}
-
+	/**
+	 * Listens for changes in one (smart) element of the list. It does not keep track of the index of that element on each insert/remove in the list; it finds that index
+	 * only when the element reports a change (starting from the index where it was last known to be, so that is quick if not much changed in the list meanwhile).
+	 * (it is still named IndexChangeListener for subclasses that use it)
+	 */
 	protected class IndexChangeListener implements IChangeListener
 	{
 
 		private final Object forValue;
-		private int attachedToIdx;
+		private int lastKnownIdx;
+		private int occurrences = 1; // how many times the element is in the list (normally 1, but it can be more temporarily, for example while a splice is being done from JS)
 
 		public IndexChangeListener(int attachedToIdx, Object forValue)
 		{
-			this.attachedToIdx = attachedToIdx;
+			this.lastKnownIdx = attachedToIdx;
 			this.forValue = forValue;
 		}
 
 		@Override
 		public void valueChanged()
 		{
-			if (this.attachedToIdx != -1) changes.markElementContentsUpdated(attachedToIdx);
+			if (occurrences > 0)
+			{
+				int idx = indexOfByReference(getWrappedBaseListForReadOnly(), forValue, lastKnownIdx);
+				if (idx >= 0)
+				{
+					lastKnownIdx = idx;
+					changes.markElementContentsUpdated(idx);
+				}
+			}
 		}
 
 		public void disable()
 		{
-			this.attachedToIdx = -1;
+			this.occurrences = 0;
 		}
 
 		@Override
 		public String toString()
 		{
-			return "IndexChangeListener:" + attachedToIdx;
+			return "IndexChangeListener:" + lastKnownIdx;
 		}
 
 	}
 
+	/**
+	 * Searches by reference for the given element, starting at startIdx and going in both directions from there (as it is usually close to that index).
+	 */
+	private static <X> int indexOfByReference(List<X> list, Object elToSearchFor, int startIdx)
+	{
+		int size = list.size();
+		if (size == 0) return -1;
+
+		if (!(list instanceof RandomAccess))
+		{
+			int i = 0;
+			for (X el : list)
+			{
+				if (el == elToSearchFor) return i;
+				i++;
+			}
+			return -1;
+		}
+
+		int start = Math.max(0, Math.min(startIdx, size - 1));
+		for (int d = 0; start - d >= 0 || start + d < size; d++)
+		{
+			if (start - d >= 0 && list.get(start - d) == elToSearchFor) return start - d;
+			if (d > 0 && start + d < size && list.get(start + d) == elToSearchFor) return start + d;
+		}
+		return -1;
+	}
+
 	@Override
 	public void detach()
 	{
@@ -453,55 +503,30 @@ public class ChangeAwareList<ET, WT> implements List<ET>, ISmartPropertyValue
 		{
 			if (CustomJSONPropertyType.log.isDebugEnabled()) CustomJSONPropertyType.log.debug("[CAL] Checking to DETACH idx " + idx);
 
-			// if the wrapper list still has this el then don't call detach on it.
-			if (dueToFullArrayDetach || (!containsByReference(getWrappedBaseList(), el)))
-			{
-				Iterator<IndexChangeListener> it = changeHandlers.iterator();
-				while (it.hasNext())
-				{
-					IndexChangeListener ch = it.next();
-					if (ch.forValue == el || ch.attachedToIdx == idx)
-					{
-						ch.disable();
-						it.remove();
-					}
-				}
-
-				((ISmartPropertyValue)el).detach();
-			}
-			else
+			IndexChangeListener changeHandler = changeHandlersByElement.get(el);
+			if (changeHandler != null && !dueToFullArrayDetach && --changeHandler.occurrences > 0)
 			{
 				// it is still in the list after being removed from idx;
 				// that can happen when array operations such as splice are performed on the array from JS (for example a splice that remove one element
 				// from JS does copy elements after the removed one 1 by one to lower index; so it first sets an already attached value to a lower index, then removes/replaces it from it's previous index.
-				// we want in this case to not trigger either attach or detach - as basically the element is still in the array, but we must adjust change handler indexes;
-				// so we do nothing in this case as the
+				// we want in this case to not trigger either attach or detach - as basically the element is still in the array
 				if (CustomJSONPropertyType.log.isDebugEnabled())
 					CustomJSONPropertyType.log.debug("[CAL] SKIPPING DETACH of still present element at idx " + idx);
 			}
-		}
-
-		if (remove)
-		{
-			// other change handler indexes might need to be updated
-			for (ChangeAwareList<ET, WT>.IndexChangeListener ch : changeHandlers)
+			else
 			{
-				if (ch.attachedToIdx > idx) ch.attachedToIdx--;
+				if (changeHandler != null)
+				{
+					changeHandler.disable();
+					changeHandlersByElement.remove(el);
+					changeHandlers.remove(changeHandler);
+				}
+
+				((ISmartPropertyValue)el).detach();
 			}
 		}
 	}
 
-	/**
-	 * Search by reference, not using .equals(), because list.contains() would match similar maps/arrays/... even if the references are different.
-	 * When we don't want that, when we are only interested in references then we use this method.
-	 */
-	private static <X> boolean containsByReference(List<X> list, X elToSearchFor)
-	{
-		for (X el : list)
-			if (elToSearchFor == el) return true;
-		return false;
-	}
-
 	protected void detachIfNeeded(int idx, WT el, boolean remove)
 	{
 		if (changeMonitor != null) detach(idx, el, remove, false);
@@ -550,9 +575,10 @@ public class ChangeAwareList<ET, WT> implements List<ET>, ISmartPropertyValue
 			@Override
 			public void remove()
 			{
+				WT oldWV = getWrappedBaseList().get(i);
 				it.remove();
 				changes.markElementRemoved(i);
-				detachIfNeeded(i, getWrappedBaseList().get(i), true);
+				detachIfNeeded(i, oldWV, true);
 				i--;
 			}
 		};
@@ -603,23 +629,22 @@ public class ChangeAwareList<ET, WT> implements List<ET>, ISmartPropertyValue
 	@Override
 	public boolean addAll(Collection< ? extends ET> c)
 	{
-		if (c.size() > 0)
-		{
-			for (ET el : c)
-				add(el);
-			return true;
-		}
-		return false;
+		return addAll(baseList.size(), c);
 	}
 
 	@Override
 	public boolean addAll(int index, Collection< ? extends ET> c)
 	{
-		if (c.size() > 0)
+		int oldSize = baseList.size();
+		baseList.addAll(index, c);
+		int added = baseList.size() - oldSize;
+		if (added > 0)
 		{
-			int j = index;
-			for (ET el : c)
-				add(j++, el);
+			// one (range) insert operation instead of one for each element
+			changes.markElementsInserted(index, index + added - 1);
+			List<WT> wrappedBaseList = getWrappedBaseList();
+			for (int i = index; i < index + added; i++)
+				attachToBaseObjectIfNeeded(i, wrappedBaseList.get(i), true);
 			return true;
 		}
 		return false;
@@ -628,25 +653,31 @@ public class ChangeAwareList<ET, WT> implements List<ET>, ISmartPropertyValue
 	@Override
 	public boolean removeAll(Collection< ? > c)
 	{
-		boolean changed = false;
-		for (Object o : c)
-			changed = changed || remove(o);
-
-		return changed;
+		return removeAllThatAreOrAreNotIn(c, true);
 	}
 
 	@Override
 	public boolean retainAll(Collection< ? > c)
 	{
-		int i;
+		return removeAllThatAreOrAreNotIn(c, false);
+	}
+
+	private boolean removeAllThatAreOrAreNotIn(Collection< ? > c, boolean removeIfContained)
+	{
+		// go from the end and remove consecutive elements as one range, so that indexes of elements that still need checking do not change
 		boolean changed = false;
-		for (i = baseList.size() - 1; i >= 0; i--)
+		int i = baseList.size() - 1;
+		while (i >= 0)
 		{
-			if (!c.contains(get(i)))
+			if (c.contains(baseList.get(i)) == removeIfContained)
 			{
-				remove(i);
+				int rangeEnd = i;
+				while (i > 0 && c.contains(baseList.get(i - 1)) == removeIfContained)
+					i--;
+				removeRange(i, rangeEnd + 1);
 				changed = true;
 			}
+			i--;
 		}
 		return changed;
 	}
@@ -655,9 +686,82 @@ public class ChangeAwareList<ET, WT> implements List<ET>, ISmartPropertyValue
 	public void clear()
 	{
 		int initialSize = baseList.size();
-		for (int i = initialSize - 1; i >= 0; i--)
-			remove(i);
-		if (initialSize > 0) changes.markAllChanged();
+		if (initialSize > 0)
+		{
+			removeRange(0, initialSize);
+			changes.markAllChanged();
+		}
+	}
+
+	/**
+	 * Removes the elements from fromIndex (inclusive) to toIndex (exclusive) and registers that as one (range) delete operation.
+	 */
+	protected void removeRange(int fromIndex, int toIndex)
+	{
+		if (fromIndex >= toIndex) return;
+
+		List<WT> wrappedBaseList = getWrappedBaseList();
+		List<WT> oldWVs = new ArrayList<>(wrappedBaseList.subList(fromIndex, toIndex));
+		for (int i = toIndex - 1; i >= fromIndex; i--)
+			baseList.remove(i);
+		changes.markElementsRemoved(fromIndex, toIndex - 1);
+		for (int i = 0; i < oldWVs.size(); i++)
+			detachIfNeeded(fromIndex + i, oldWVs.get(i), true);
+	}
+
+	/**
+	 * Changes the contents of this list to be the same as newContent, but (unlike creating a new list with that content) it does that through a minimal set of
+	 * element inserts/removes/changes - computed based on what is already in the list. So only those (granular) changes will be sent to the browser, not the full array.<br/><br/>
+	 *
+	 * Elements are matched by reference; elements that are not 'smart' values ({@link ISmartPropertyValue}) are also matched via equals(), in which case the
+	 * element that is already in the list is kept.<br/>
+	 * If the two lists are too different (see system property "sablo.array.replace.max.diff.edits"), all contents are replaced and the full array will be sent instead.
+	 *
+	 * @param newContent the new contents of this list.
+	 * @return true if this list changed, false if it already had the given content.
+	 */
+	public boolean replaceContents(List< ? extends ET> newContent)
+	{
+		List<ET> oldContent = (baseList instanceof RandomAccess ? baseList : new ArrayList<>(baseList));
+		List< ? extends ET> newC = (newContent instanceof RandomAccess ? newContent : new ArrayList<>(newContent));
+
+		int[] hunks = ListDiff.computeHunks(oldContent, newC, ChangeAwareList::isSameElement, MAX_EDITS_FOR_REPLACE_CONTENTS_DIFF);
+		if (hunks == null)
+		{
+			clear(); // old content is not empty here; this also marks the list as needing a full send
+			addAll(newC);
+			return true;
+		}
+
+		// apply the hunks from last to first, so that old indexes of the previous hunks are still valid
+		for (int h = hunks.length - ListDiff.HUNK_SIZE; h >= 0; h -= ListDiff.HUNK_SIZE)
+		{
+			int oldStart = hunks[h];
+			int oldEnd = hunks[h + 1];
+			int newStart = hunks[h + 2];
+			int newEnd = hunks[h + 3];
+
+			int replaced = Math.min(oldEnd - oldStart, newEnd - newStart);
+			for (int i = 0; i < replaced; i++)
+				set(oldStart + i, newC.get(newStart + i));
+
+			if (oldEnd - oldStart > replaced) removeRange(oldStart + replaced, oldEnd);
+			else if (newEnd - newStart > replaced) addAll(oldStart + replaced, newC.subList(newStart + replaced, newEnd));
+		}
+		return hunks.length > 0;
+	}
+
+	private static boolean isSameElement(Object oldEl, Object newEl)
+	{
+		return oldEl == newEl || (!(oldEl instanceof ISmartPropertyValue) && !(newEl instanceof ISmartPropertyValue) && Objects.equals(oldEl, newEl));
+	}
+
+	/**
+	 * Elements are compared by reference, except for {@link PrimitiveList} base lists; those box their elements again on each get(), so they are compared by value.
+	 */
+	private boolean isSameElementAfterSet(WT oldWV, WT newWV)
+	{
+		return oldWV == newWV || (baseList instanceof PrimitiveList && Objects.equals(oldWV, newWV));
 	}
 
 	@Override
@@ -673,7 +777,7 @@ public class ChangeAwareList<ET, WT> implements List<ET>, ISmartPropertyValue
 		ET tmp = baseList.set(index, element);
 		WT newWV = getWrappedBaseList().get(index);
 
-		if (oldWV != newWV)
+		if (!isSameElementAfterSet(oldWV, newWV))
 		{
 			changes.markElementChangedByRef(index);
 			detachIfNeeded(index, oldWV, false);
@@ -734,6 +838,7 @@ public class ChangeAwareList<ET, WT> implements List<ET>, ISmartPropertyValue
 	{
 
 		protected final ListIterator<ET> it;
+		private int lastReturnedIdx = -1;
 
 		public ChangeAwareListIterator(ListIterator<ET> it)
 		{
@@ -749,7 +854,9 @@ public class ChangeAwareList<ET, WT> implements List<ET>, ISmartPropertyValue
 		@Override
 		public ET next()
 		{
-			return it.next();
+			ET el = it.next();
+			lastReturnedIdx = it.previousIndex();
+			return el;
 		}
 
 		@Override
@@ -761,7 +868,9 @@ public class ChangeAwareList<ET, WT> implements List<ET>, ISmartPropertyValue
 		@Override
 		public ET previous()
 		{
-			return it.previous();
+			ET el = it.previous();
+			lastReturnedIdx = it.nextIndex();
+			return el;
 		}
 
 		@Override
@@ -779,21 +888,24 @@ public class ChangeAwareList<ET, WT> implements List<ET>, ISmartPropertyValue
 		@Override
 		public void remove()
 		{
-			int i = it.previousIndex() + 1;
-			it.remove();
+			int i = lastReturnedIdx;
+			WT oldWV = (i >= 0 ? getWrappedBaseList().get(i) : null);
+			it.remove(); // throws IllegalStateException if next()/previous() was not called before
+			lastReturnedIdx = -1;
 			changes.markElementRemoved(i);
-			detachIfNeeded(i, getWrappedBaseList().get(i), true);
+			detachIfNeeded(i, oldWV, true);
 		}
 
 		@Override
 		public void set(ET e)
 		{
-			int i = it.previousIndex() + 1;
+			int i = lastReturnedIdx;
+			if (i < 0) throw new IllegalStateException();
 			WT oldWV = getWrappedBaseList().get(i);
 			it.set(e);
 			WT newWV = getWrappedBaseList().get(i);
 
-			if (oldWV != newWV)
+			if (!isSameElementAfterSet(oldWV, newWV))
 			{
 				changes.markElementChangedByRef(i);
 				detachIfNeeded(i, oldWV, false);
@@ -806,6 +918,7 @@ public class ChangeAwareList<ET, WT> implements List<ET>, ISmartPropertyValue
 		{
 			int i = it.nextIndex();
 			it.add(e);
+			lastReturnedIdx = -1;
 			changes.markElementInserted(i);
 			attachToBaseObjectIfNeeded(i, getWrappedBaseList().get(i), true);
 		}
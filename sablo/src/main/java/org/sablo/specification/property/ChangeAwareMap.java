@@ -22,7 +22,9 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -421,6 +423,90 @@ public class ChangeAwareMap<ET, WT> extends AbstractMap<String, ET> implements I
 		return tmp;
 	}
 
+	/**
+	 * Changes the contents of this map to be the same as newContent, but (unlike creating a new map with that content) it only marks as changed the keys whose values
+	 * are different; so only those keys are sent to the browser, not the full object. Values are compared by reference; values that are not 'smart' values
+	 * ({@link ISmartPropertyValue}) are also compared via equals(), in which case the value that is already in the map is kept.<br/>
+	 * Child custom objects/arrays that are replaced with plain maps/lists are updated in the same way (recursively).<br/><br/>
+	 *
+	 * Keys that are not present in newContent are removed; as the browser has no granular operation for removing a key, that will send the full object.
+	 *
+	 * @param newContent the new contents of this map.
+	 * @return true if this map changed, false if it already had the given content.
+	 */
+	public boolean replaceContents(Map<String, ? extends ET> newContent)
+	{
+		boolean changed = false;
+		for (Map.Entry<String, ? extends ET> e : newContent.entrySet())
+		{
+			String key = e.getKey();
+			ET newValue = e.getValue();
+			ET oldValue = baseMap.get(key);
+
+			if ((oldValue != null || baseMap.containsKey(key)) && (oldValue == newValue ||
+				(!(oldValue instanceof ISmartPropertyValue) && !(newValue instanceof ISmartPropertyValue) && Objects.equals(oldValue, newValue)))) continue;
+
+			if (canReplaceContents(oldValue, newValue))
+			{
+				changed = replaceContentsOf(oldValue, newValue) || changed;
+			}
+			else if (oldValue instanceof ChangeAwareList && newValue instanceof List && !(newValue instanceof ChangeAwareList))
+			{
+				changed = replaceListContents((ChangeAwareList< ? , ? >)oldValue, (List< ? >)newValue) || changed;
+			}
+			else
+			{
+				put(key, newValue);
+				changed = true;
+			}
+		}
+
+		if (!newContent.keySet().containsAll(baseMap.keySet()))
+		{
+			Iterator<Map.Entry<String, ET>> it = entrySet().iterator();
+			while (it.hasNext())
+			{
+				if (!newContent.containsKey(it.next().getKey()))
+				{
+					it.remove();
+					changed = true;
+				}
+			}
+		}
+		return changed;
+	}
+
+	/**
+	 * @return true if {@link #replaceContents(Map)} of currentValue can be used with newValue: currentValue is a ChangeAwareMap and newValue is a plain map
+	 * (not a ChangeAwareMap) that has only String keys.
+	 */
+	public static boolean canReplaceContents(Object currentValue, Object newValue)
+	{
+		if (!(currentValue instanceof ChangeAwareMap) || !(newValue instanceof Map) || newValue instanceof ChangeAwareMap) return false;
+		for (Object key : ((Map< ? , ? >)newValue).keySet())
+		{
+			if (!(key instanceof String)) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Calls {@link #replaceContents(Map)} on currentValue with newValue. Only use it if {@link #canReplaceContents(Object, Object)} returned true for them.
+	 */
+	@SuppressWarnings("unchecked")
+	public static boolean replaceContentsOf(Object currentValue, Object newValue)
+	{
+		// keys were checked by canReplaceContents(...); the element type is not known at runtime, values just end up in put(...) like any other value set from java
+		return ((ChangeAwareMap<Object, ? >)currentValue).replaceContents((Map<String, Object>)newValue);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static boolean replaceListContents(ChangeAwareList< ? , ? > currentValue, List< ? > newValue)
+	{
+		// the element type is not known at runtime; values just end up in set(...)/add(...) like any other value set from java
+		return ((ChangeAwareList<Object, ? >)currentValue).replaceContents((List<Object>)newValue);
+	}
+
 	@Override
 	public Set<java.util.Map.Entry<String, ET>> entrySet()
 	{
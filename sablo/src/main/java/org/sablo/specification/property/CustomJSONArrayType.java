@@ -16,6 +16,7 @@
 
 package org.sablo.specification.property;
 
+import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -101,6 +102,37 @@ public class CustomJSONArrayType<ET, WT> extends CustomJSONPropertyType<Object>
 		return (IPropertyType<ET>)getCustomJSONTypeDefinition().getType();
 	}
 
+	/**
+	 * Gives a list with the elements of the given native array of primitives. An int[], long[], double[] or boolean[] of this array's element type is kept unboxed
+	 * in a {@link PrimitiveList} (as these arrays can be big); other ones (byte[], char[], ...) are boxed into an ArrayList.
+	 */
+	@SuppressWarnings("unchecked")
+	private List<ET> primitiveArrayToList(Object array)
+	{
+		// the values in the array are what the element type expects (a server side int[] for an int[] property); ET is their boxed type
+		if (PrimitiveList.isSupportedElementType(getElementType()))
+		{
+			List<ET> primitiveList = (List<ET>)PrimitiveList.wrapPrimitiveArray(array);
+			if (primitiveList != null) return primitiveList;
+		}
+		int length = Array.getLength(array);
+		List<ET> list = new ArrayList<ET>(length);
+		for (int i = 0; i < length; i++)
+			list.add((ET)Array.get(array, i));
+		return list;
+	}
+
+	/**
+	 * @return a list that keeps values of this array's element type unboxed (see {@link PrimitiveList#newInstanceFor(IPropertyType, int)}) or null if that type
+	 * does not have primitive values.
+	 */
+	@SuppressWarnings("unchecked")
+	private PrimitiveList<WT> newPrimitiveList(int initialCapacity)
+	{
+		// element types with primitive values are never wrapper types, so WT is the type's own (boxed) value type - which is what the PrimitiveList keeps
+		return getElementType() instanceof IWrapperType< ? , ? > ? null : (PrimitiveList<WT>)PrimitiveList.newInstanceFor(getElementType(), initialCapacity);
+	}
+
 	private List<ET> wrapList(Object value, PropertyDescription pd, IWrappingContext dataConverterContext)
 	{
 		// this type will wrap (if needed; that means it will end up as a normal list if element type is not wrapped type
@@ -119,8 +151,9 @@ public class CustomJSONArrayType<ET, WT> extends CustomJSONPropertyType<Object>
 			List<ET> baseList;
 			if (value.getClass().isArray())
 			{
-				// native array
-				baseList = Arrays.asList((ET[])value);
+				// native array; arrays of objects are used directly (so changes to the list are written through to that array)
+				if (value.getClass().getComponentType().isPrimitive()) baseList = primitiveArrayToList(value);
+				else baseList = Arrays.asList((ET[])value);
 			}
 			else if (value instanceof List< ? >)
 			{
@@ -291,6 +324,32 @@ public class CustomJSONArrayType<ET, WT> extends CustomJSONPropertyType<Object>
 		}
 	}
 
+	/**
+	 * Compares a full value that the browser sent for this type (for example the old value of a dataPush) to the current value of the property, without
+	 * creating a new list from it; elements are compared via {@link JSONUtils#isBrowserValueEqualTo(Object, Object, PropertyDescription, IBrowserConverterContext)}.
+	 *
+	 * @return null if browserJSONValue is not a full value (for example it is a no-op or it only has updates) or currentValue is not a ChangeAwareList, so they
+	 * cannot be compared; otherwise whether or not they are equal.
+	 */
+	public Boolean isFullValueFromBrowserEqualTo(Object browserJSONValue, Object currentValue, IBrowserConverterContext dataConverterContext)
+	{
+		JSONArray browserElements = (browserJSONValue instanceof JSONObject ? ((JSONObject)browserJSONValue).optJSONArray(VALUE) : null);
+		if (browserElements == null || !(currentValue instanceof ChangeAwareList)) return null;
+
+		List< ? > currentElements = (ChangeAwareList< ? , ? >)currentValue;
+		if (browserElements.length() != currentElements.size()) return Boolean.FALSE;
+
+		PropertyDescription elementPD = getCustomJSONTypeDefinition();
+		IBrowserConverterContext elementDataConverterContext = dataConverterContext == null ? null
+			: dataConverterContext.newInstanceWithPushToServer(
+				BrowserConverterContext.getPushToServerValue(dataConverterContext).combineWithChild(elementPD.getPushToServerAsDeclaredInSpecFile()));
+		for (int i = 0; i < browserElements.length(); i++)
+		{
+			if (!JSONUtils.isBrowserValueEqualTo(browserElements.opt(i), currentElements.get(i), elementPD, elementDataConverterContext)) return Boolean.FALSE;
+		}
+		return Boolean.TRUE;
+	}
+
 	private ChangeAwareList<ET, WT> fullValueReplaceFromBrowser(ChangeAwareList<ET, WT> previousChangeAwareList, PropertyDescription pd,
 		IBrowserConverterContext elementDataConverterContext, JSONArray array, ValueReference<Boolean> returnValueAdjustedIncommingValue)
 	{
@@ -298,12 +357,16 @@ public class CustomJSONArrayType<ET, WT> extends CustomJSONPropertyType<Object>
 			((IPushToServerSpecialType)getCustomJSONTypeDefinition().getType()).shouldAlwaysAllowIncommingJSON()) ||
 			PushToServerEnum.allow.compareTo(elementDataConverterContext.getComputedPushToServerValue()) <= 0)
 		{
-			List<WT> list = new ArrayList<WT>();
+			// numbers/booleans are kept unboxed as these arrays can be big; they are also converted directly where possible (instead of through the element type for each element)
+			PrimitiveList<WT> primitiveList = newPrimitiveList(array.length());
+			List<WT> list = (primitiveList != null ? primitiveList : new ArrayList<WT>());
 			List<WT> previousWrappedBaseList = (previousChangeAwareList != null ? previousChangeAwareList.getWrappedBaseListForReadOnly() : null);
 			List<Integer> adjustedNewValueIndexes = new ArrayList<>();
 
 			for (int i = 0; i < array.length(); i++)
 			{
+				if (primitiveList != null && primitiveList.addJSONValueIfExact(array.opt(i))) continue;
+
 				WT oldVal = null;
 				if (previousWrappedBaseList != null && previousWrappedBaseList.size() > i)
 				{
@@ -421,13 +484,25 @@ public class CustomJSONArrayType<ET, WT> extends CustomJSONPropertyType<Object>
 		writer.key(CONTENT_VERSION).value(contentVersion);
 
 		writer.key(VALUE).array();
-		for (TY element : listToWrite)
+		if (!(listToWrite instanceof PrimitiveList && isDefaultConverter(toJSONConverterForFullValue) &&
+			((PrimitiveList< ? >)listToWrite).writeElements(writer, 0, listToWrite.size() - 1)))
 		{
-			toJSONConverterForFullValue.toJSONValue(writer, null, element, elementPD, dataConverterContext);
+			for (TY element : listToWrite)
+			{
+				toJSONConverterForFullValue.toJSONValue(writer, null, element, elementPD, dataConverterContext);
+			}
 		}
 		writer.endArray();
 	}
 
+	/**
+	 * True if the given converter writes primitive values (numbers/booleans) just like their types do.
+	 */
+	private static boolean isDefaultConverter(IToJSONConverter<IBrowserConverterContext> toJSONConverter)
+	{
+		return toJSONConverter.getClass() == JSONUtils.FullValueToJSONConverter.class || toJSONConverter.getClass() == JSONUtils.ChangesToJSONConverter.class;
+	}
+
 	private void addGranularOperation(JSONWriter w, ArrayOperation op, List<WT> wrappedBaseListReadOnly, IBrowserConverterContext dataConverterContext)
 	{
 		w.object();
@@ -444,17 +519,22 @@ public class CustomJSONArrayType<ET, WT> extends CustomJSONPropertyType<Object>
 			// inserts and updates have to write new data to JSON
 			w.key(GRANULAR_UPDATE_DATA).array();
 
-			for (int i = op.startIndex; i <= op.endIndex; i++)
+			// primitive elements can only be changed by reference, never have content updates
+			if (!(wrappedBaseListReadOnly instanceof PrimitiveList &&
+				((PrimitiveList< ? >)wrappedBaseListReadOnly).writeElements(w, op.startIndex, op.endIndex)))
 			{
-				if (op.type == ArrayOperation.CHANGE && ChangeAwareList.GRANULAR_UPDATE_OP.equals(op.cellNames))
-				{
-					JSONUtils.changesToBrowserJSONValue(w, null, wrappedBaseListReadOnly.get(i), getCustomJSONTypeDefinition(),
-						dataConverterContext);
-				}
-				else // this has to be a change-by-reference or an insert - both should send the full value of that element
+				for (int i = op.startIndex; i <= op.endIndex; i++)
 				{
-					JSONUtils.toBrowserJSONFullValue(w, null, wrappedBaseListReadOnly.get(i), getCustomJSONTypeDefinition(),
-						dataConverterContext);
+					if (op.type == ArrayOperation.CHANGE && ChangeAwareList.GRANULAR_UPDATE_OP.equals(op.cellNames))
+					{
+						JSONUtils.changesToBrowserJSONValue(w, null, wrappedBaseListReadOnly.get(i), getCustomJSONTypeDefinition(),
+							dataConverterContext);
+					}
+					else // this has to be a change-by-reference or an insert - both should send the full value of that element
+					{
+						JSONUtils.toBrowserJSONFullValue(w, null, wrappedBaseListReadOnly.get(i), getCustomJSONTypeDefinition(),
+							dataConverterContext);
+					}
 				}
 			}
 			w.endArray();
@@ -58,6 +58,13 @@ public class CustomJSONObjectType<ET, WT> extends CustomJSONPropertyType<Map<Str
 	protected static final String INITIALIZE = "in";
 	protected static final String NO_OP = "n";
 
+	/**
+	 * When true, setting a new (plain java Map) value to a custom object property of a component/service that already has a custom object value will not
+	 * replace the old value; it will instead update only the keys that differ in the old value (see {@link ChangeAwareMap#replaceContents(Map)}), so only those
+	 * keys are sent to the browser instead of the full object.
+	 */
+	public static final boolean DIFF_KEYS_ON_REPLACE = Boolean.parseBoolean(System.getProperty("sablo.custom.object.replace.diff.keys", "false"));
+
 	protected static Set<String> angularAutoAddedKeysToIgnore = new HashSet<>();
 
 	{
@@ -66,6 +73,8 @@ public class CustomJSONObjectType<ET, WT> extends CustomJSONPropertyType<Map<Str
 
 	protected Map<String, IWrapperType<ET, WT>> wrapperChildProps;
 
+	private volatile CustomObjectChildWriters childWriters;
+
 
 	/**
 	 * Creates a new type that handles objects of the given key types (with their own set of default value, config object)
@@ -312,6 +321,36 @@ public class CustomJSONObjectType<ET, WT> extends CustomJSONPropertyType<Map<Str
 		}
 	}
 
+	/**
+	 * Compares a full value that the browser sent for this type (for example the old value of a dataPush) to the current value of the property, without
+	 * creating a new map from it; child values are compared via {@link JSONUtils#isBrowserValueEqualTo(Object, Object, PropertyDescription, IBrowserConverterContext)}.
+	 *
+	 * @return null if browserJSONValue is not a full value (for example it is a no-op or it only has updates) or currentValue is not a ChangeAwareMap, so they
+	 * cannot be compared; otherwise whether or not they are equal.
+	 */
+	public Boolean isFullValueFromBrowserEqualTo(Object browserJSONValue, Object currentValue, IBrowserConverterContext dataConverterContext)
+	{
+		JSONObject browserChildren = (browserJSONValue instanceof JSONObject ? ((JSONObject)browserJSONValue).optJSONObject(VALUE) : null);
+		if (browserChildren == null || !(currentValue instanceof ChangeAwareMap)) return null;
+
+		Map<String, ? > currentChildren = ((ChangeAwareMap< ? , ? >)currentValue).getBaseMap(); // AbstractMap lookups in the ChangeAwareMap itself would iterate over all entries
+		if (browserChildren.length() != currentChildren.size()) return Boolean.FALSE;
+
+		PushToServerEnum pushToServer = BrowserConverterContext.getPushToServerValue(dataConverterContext);
+		for (String key : browserChildren.keySet())
+		{
+			Object currentChild = currentChildren.get(key);
+			if (currentChild == null && !currentChildren.containsKey(key)) return Boolean.FALSE;
+
+			PropertyDescription childPD = getCustomJSONTypeDefinition().getProperty(key);
+			IBrowserConverterContext childDataConverterContext = dataConverterContext == null ? null
+				: dataConverterContext.newInstanceWithPushToServer(
+					pushToServer.combineWithChild(childPD != null ? childPD.getPushToServerAsDeclaredInSpecFile() : PushToServerEnum.reject));
+			if (!JSONUtils.isBrowserValueEqualTo(browserChildren.opt(key), currentChild, childPD, childDataConverterContext)) return Boolean.FALSE;
+		}
+		return Boolean.TRUE;
+	}
+
 	protected ChangeAwareMap<ET, WT> fullValueReplaceFromBrowser(ChangeAwareMap<ET, WT> previousChangeAwareMap, PropertyDescription pd,
 		IBrowserConverterContext dataConverterContext, JSONObject clientReceivedJSON, ValueReference<Boolean> returnValueAdjustedIncommingValue)
 	{
@@ -428,14 +467,14 @@ public class CustomJSONObjectType<ET, WT> extends CustomJSONPropertyType<Map<Str
 				writer.key(CONTENT_VERSION).value(changeAwareMap.increaseContentVersion());
 
 
+				CustomObjectChildWriters children = getChildWriters();
+				IBrowserConverterContext[] childContexts = CustomObjectChildWriters.newContextsArray();
 				writer.key(VALUE).object();
 				for (Entry<String, WT> e : wrappedBaseMap.entrySet())
 				{
-					PropertyDescription childPD = getCustomJSONTypeDefinition().getProperty(e.getKey());
-					toJSONConverterForFullValue.toJSONValue(writer, e.getKey(), wrappedBaseMap.get(e.getKey()),
-						childPD,
-						dataConverterContext == null ? null : dataConverterContext.newInstanceWithPushToServer(
-							pushToServer.combineWithChild(childPD != null ? childPD.getPushToServerAsDeclaredInSpecFile() : PushToServerEnum.reject)));
+					CustomObjectChildWriters.Child child = children.getChild(e.getKey());
+					toJSONConverterForFullValue.toJSONValue(writer, e.getKey(), e.getValue(), child.pd,
+						CustomObjectChildWriters.getChildContext(child, dataConverterContext, pushToServer, childContexts));
 				}
 				writer.endObject();
 			}
@@ -479,30 +518,42 @@ public class CustomJSONObjectType<ET, WT> extends CustomJSONPropertyType<Map<Str
 		Set<String> keysWithUpdates, boolean keysWithUpdatedContent)
 	{
 		PushToServerEnum pushToServer = BrowserConverterContext.getPushToServerValue(dataConverterContext);
+		CustomObjectChildWriters children = getChildWriters();
+		IBrowserConverterContext[] childContexts = CustomObjectChildWriters.newContextsArray();
 
 		for (String k : keysWithUpdates)
 		{
 			writer.object().key(KEY).value(k);
-			PropertyDescription childPD = getCustomJSONTypeDefinition().getProperty(k);
+			CustomObjectChildWriters.Child child = children.getChild(k);
+			IBrowserConverterContext childContext = CustomObjectChildWriters.getChildContext(child, dataConverterContext, pushToServer, childContexts);
 			if (keysWithUpdatedContent)
 			{
 				// this method is only called when the custom object is requested to send updates (not full values); so we can assume that we can send only changes if possible (this method will never be expected to fully send properties, no matter how they changed)
 				// the value of these keys has changed content inside it - let it send only changes (if it is change aware of course)
-				JSONUtils.changesToBrowserJSONValue(writer, VALUE, wrappedBaseMap.get(k), childPD,
-					dataConverterContext == null ? null : dataConverterContext.newInstanceWithPushToServer(
-						pushToServer.combineWithChild(childPD != null ? childPD.getPushToServerAsDeclaredInSpecFile() : PushToServerEnum.reject)));
+				JSONUtils.changesToBrowserJSONValue(writer, VALUE, wrappedBaseMap.get(k), child.pd, childContext);
 			}
 			else
 			{
 				// the value has changed completely by reference; send it's full contents
-				JSONUtils.toBrowserJSONFullValue(writer, VALUE, wrappedBaseMap.get(k), childPD,
-					dataConverterContext == null ? null : dataConverterContext.newInstanceWithPushToServer(
-						pushToServer.combineWithChild(childPD != null ? childPD.getPushToServerAsDeclaredInSpecFile() : PushToServerEnum.reject)));
+				JSONUtils.toBrowserJSONFullValue(writer, VALUE, wrappedBaseMap.get(k), child.pd, childContext);
 			}
 			writer.endObject();
 		}
 	}
 
+	private CustomObjectChildWriters getChildWriters()
+	{
+		// the definition can be set after this type is created; if two threads create this at the same time, one of them is simply dropped
+		PropertyDescription definition = getCustomJSONTypeDefinition();
+		CustomObjectChildWriters writers = childWriters;
+		if (writers == null || !writers.isFor(definition))
+		{
+			writers = new CustomObjectChildWriters(definition);
+			childWriters = writers;
+		}
+		return writers;
+	}
+
 	@Override
 	public boolean shouldAlwaysAllowIncommingJSON()
 	{
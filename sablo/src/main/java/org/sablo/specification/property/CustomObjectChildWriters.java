@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2026 Servoy BV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.sablo.specification.property;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.sablo.specification.PropertyDescription;
+import org.sablo.specification.WebObjectSpecification.PushToServerEnum;
+
+/**
+ * What {@link CustomJSONObjectType} needs in order to write the child values of a custom object to the browser, resolved once per custom type definition
+ * instead of once for each written key of each written value (the child property descriptions and their computed push to server levels).<br/><br/>
+ *
+ * Custom object values in big custom arrays are written very often, so the per key work when writing them should be as small as possible.
+ *
+ * @author agent
+ */
+final class CustomObjectChildWriters
+{
+
+	private static final PushToServerEnum[] PUSH_TO_SERVER_VALUES = PushToServerEnum.values();
+
+	private static final Child UNDECLARED_CHILD = new Child(null);
+
+	private final PropertyDescription definition;
+	private final Map<String, Child> children;
+
+	CustomObjectChildWriters(PropertyDescription definition)
+	{
+		this.definition = definition;
+
+		Map<String, PropertyDescription> childPDs = (definition != null ? definition.getProperties() : null);
+		if (childPDs != null && !childPDs.isEmpty())
+		{
+			children = new HashMap<>((int)(childPDs.size() / 0.75f) + 1);
+			for (Entry<String, PropertyDescription> e : childPDs.entrySet())
+				children.put(e.getKey(), new Child(e.getValue()));
+		}
+		else children = Collections.emptyMap();
+	}
+
+	/**
+	 * @return true if this was created for the given custom type definition.
+	 */
+	boolean isFor(PropertyDescription customTypeDefinition)
+	{
+		return definition == customTypeDefinition;
+	}
+
+	/**
+	 * @return the resolved child for the given key; keys that are not declared in the custom type definition all get a child without a property description
+	 * that always rejects push to server.
+	 */
+	Child getChild(String key)
+	{
+		Child child = children.get(key);
+		return child != null ? child : UNDECLARED_CHILD;
+	}
+
+	/**
+	 * Gives the converter context to be used for a child value. Children that end up with the same computed push to server level share the context
+	 * (it is created only once per written custom object value and stored in contextsOfWrittenValue).
+	 *
+	 * @param contextsOfWrittenValue an array created by {@link #newContextsArray()} that is used for only one written custom object value.
+	 */
+	static IBrowserConverterContext getChildContext(Child child, IBrowserConverterContext parentContext, PushToServerEnum parentPushToServer,
+		IBrowserConverterContext[] contextsOfWrittenValue)
+	{
+		if (parentContext == null) return null;
+
+		PushToServerEnum childPushToServer = child.getComputedPushToServer(parentPushToServer);
+		IBrowserConverterContext childContext = contextsOfWrittenValue[childPushToServer.ordinal()];
+		if (childContext == null)
+		{
+			childContext = parentContext.newInstanceWithPushToServer(childPushToServer);
+			contextsOfWrittenValue[childPushToServer.ordinal()] = childContext;
+		}
+		return childContext;
+	}
+
+	static IBrowserConverterContext[] newContextsArray()
+	{
+		return new IBrowserConverterContext[PUSH_TO_SERVER_VALUES.length];
+	}
+
+	static final class Child
+	{
+
+		final PropertyDescription pd;
+
+		// computed lazily - per parent push to server level; if two threads compute the same value at the same time one of them is simply dropped
+		private final PushToServerEnum[] computedPushToServerByParent = new PushToServerEnum[PUSH_TO_SERVER_VALUES.length];
+
+		private Child(PropertyDescription pd)
+		{
+			this.pd = pd;
+		}
+
+		PushToServerEnum getComputedPushToServer(PushToServerEnum parentPushToServer)
+		{
+			PushToServerEnum computed = computedPushToServerByParent[parentPushToServer.ordinal()];
+			if (computed == null)
+			{
+				computed = parentPushToServer.combineWithChild(pd != null ? pd.getPushToServerAsDeclaredInSpecFile() : PushToServerEnum.reject);
+				computedPushToServerByParent[parentPushToServer.ordinal()] = computed;
+			}
+			return computed;
+		}
+
+	}
+
+}
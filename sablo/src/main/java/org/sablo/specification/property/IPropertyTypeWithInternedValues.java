@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2026 Servoy BV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.sablo.specification.property;
+
+/**
+ * A property type whose values are immutable, so equal values can be shared between all web objects that use them (instead of each web object
+ * keeping its own identical instance).
+ *
+ * @author agent
+ */
+public interface IPropertyTypeWithInternedValues<T>
+{
+
+	/**
+	 * @return an instance equal to the given value that is shared with anyone else that interned an equal value (or the given value itself).
+	 */
+	T intern(T value);
+
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright (C) 2026 Servoy BV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.sablo.specification.property;
+
+import org.sablo.specification.SharedToJSONValueCache;
+
+/**
+ * Marker interface for property types whose full value JSON (for an immutable value) only depends on that value - not on the web object,
+ * the converter context, the session/locale or the time. The JSON of such default/template values can be shared between all web objects of the same design (see {@link SharedToJSONValueCache}).<br/><br/>
+ *
+ * It only applies to the type classes that declare it directly, not to subclasses of those classes (as they might override the way they write to JSON).
+ *
+ * @author agent
+ */
+public interface IPropertyWithContextIndependentToJSON
+{
+
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2026 Servoy BV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.sablo.specification.property;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+/**
+ * Computes a minimal edit script (Myers' O((N+M)D) algorithm) that transforms one list into another.<br/><br/>
+ *
+ * The result is given as "hunks" - each hunk being a range of elements of the old list that have to be replaced with a range of elements of the new list;
+ * everything that is not part of a hunk is considered to be the same in both lists.
+ *
+ * @author agent
+ */
+final class ListDiff
+{
+
+	/**
+	 * Number of ints that describe one hunk in the array returned by {@link #computeHunks(List, List, BiPredicate, int)}: oldStart, oldEnd (exclusive), newStart, newEnd (exclusive).
+	 */
+	static final int HUNK_SIZE = 4;
+
+	private ListDiff()
+	{
+	}
+
+	/**
+	 * Computes the hunks that transform oldList into newList. Both lists should be RandomAccess, as elements are accessed by index.
+	 *
+	 * @param sameElement decides if an element of the old list (first arg.) can be kept in place of an element of the new list (second arg.).
+	 * @param maxEdits if transforming the lists needs more then this number of element inserts + deletes, the diff is abandoned and null is returned. This limit
+	 * does not apply when, after the common prefix and suffix, only a single insert or a single delete is left; that is always returned as one hunk as it costs
+	 * nothing to compute.
+	 *
+	 * @return the hunks, in ascending order, HUNK_SIZE ints for each hunk; it is empty if the lists are the same. Null if more then maxEdits would be needed
+	 * (except for the single insert/delete case described above).
+	 */
+	static <T> int[] computeHunks(List< ? extends T> oldList, List< ? extends T> newList, BiPredicate<T, T> sameElement, int maxEdits)
+	{
+		int oldSize = oldList.size();
+		int newSize = newList.size();
+
+		// common prefix and suffix are trivial - and usually most of the list when only a few things changed
+		int prefix = 0;
+		while (prefix < oldSize && prefix < newSize && sameElement.test(oldList.get(prefix), newList.get(prefix)))
+			prefix++;
+		int suffix = 0;
+		while (suffix < oldSize - prefix && suffix < newSize - prefix &&
+			sameElement.test(oldList.get(oldSize - 1 - suffix), newList.get(newSize - 1 - suffix)))
+			suffix++;
+
+		int n = oldSize - prefix - suffix;
+		int m = newSize - prefix - suffix;
+		if (n == 0 && m == 0) return new int[0];
+		if (n == 0 || m == 0) return new int[] { prefix, prefix + n, prefix, prefix + m };
+		if (Math.min(n + m, maxEdits) < Math.abs(n - m)) return null; // can't be done with less then |n - m| edits
+
+		int limit = Math.min(n + m, maxEdits);
+		int offset = limit + 1;
+		int[] v = new int[2 * limit + 3]; // furthest reaching x on each diagonal k (index k + offset)
+		List<int[]> trace = new ArrayList<>(); // for each d, v as it was before step d (only diagonals -d..d)
+
+		for (int d = 0; d <= limit; d++)
+		{
+			int[] vBeforeStep = new int[2 * d + 1];
+			System.arraycopy(v, offset - d, vBeforeStep, 0, 2 * d + 1);
+			trace.add(vBeforeStep);
+
+			for (int k = -d; k <= d; k += 2)
+			{
+				int x = (k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1])) ? v[offset + k + 1] : v[offset + k - 1] + 1;
+				int y = x - k;
+				while (x < n && y < m && sameElement.test(oldList.get(prefix + x), newList.get(prefix + y)))
+				{
+					x++;
+					y++;
+				}
+				v[offset + k] = x;
+
+				if (x >= n && y >= m) return hunksFromTrace(trace, n, m, prefix);
+			}
+		}
+
+		return null;
+	}
+
+	private static int[] hunksFromTrace(List<int[]> trace, int n, int m, int prefix)
+	{
+		// walk back through the trace and remember matching (diagonal) positions; the gaps between them are the hunks
+		int[] hunks = new int[HUNK_SIZE * 4];
+		int hunkCount = 0;
+
+		int x = n;
+		int y = m;
+		int gapEndX = n;
+		int gapEndY = m;
+		for (int d = trace.size() - 1; d > 0; d--)
+		{
+			int[] vBeforeStep = trace.get(d);
+			int k = x - y;
+			int prevK = (k == -d || (k != d && vBeforeStep[k - 1 + d] < vBeforeStep[k + 1 + d])) ? k + 1 : k - 1;
+			int prevX = vBeforeStep[prevK + d];
+			int prevY = prevX - prevK;
+			int snakeStartX = (prevK == k + 1) ? prevX : prevX + 1; // after the insert (down) or delete (right) move
+
+			if (snakeStartX < x)
+			{
+				// x - snakeStartX elements match before (x, y); so a gap ends here
+				if (gapEndX > x || gapEndY > y) hunks = addHunk(hunks, hunkCount++, x, gapEndX, y, gapEndY, prefix);
+				gapEndX = snakeStartX;
+				gapEndY = snakeStartX - k;
+			}
+			x = prevX;
+			y = prevY;
+		}
+		// d == 0 is the leading snake from (0, 0)
+		if (x > 0)
+		{
+			if (gapEndX > x || gapEndY > y) hunks = addHunk(hunks, hunkCount++, x, gapEndX, y, gapEndY, prefix);
+			gapEndX = 0;
+			gapEndY = 0;
+		}
+		if (gapEndX > 0 || gapEndY > 0) hunks = addHunk(hunks, hunkCount++, 0, gapEndX, 0, gapEndY, prefix);
+
+		// hunks were added from last to first; reverse them
+		int[] result = new int[hunkCount * HUNK_SIZE];
+		for (int i = 0; i < hunkCount; i++)
+			System.arraycopy(hunks, (hunkCount - 1 - i) * HUNK_SIZE, result, i * HUNK_SIZE, HUNK_SIZE);
+		return result;
+	}
+
+	private static int[] addHunk(int[] hunks, int hunkIdx, int oldStart, int oldEnd, int newStart, int newEnd, int prefix)
+	{
+		int[] h = hunks;
+		if ((hunkIdx + 1) * HUNK_SIZE > h.length)
+		{
+			h = new int[h.length * 2];
+			System.arraycopy(hunks, 0, h, 0, hunks.length);
+		}
+		int i = hunkIdx * HUNK_SIZE;
+		h[i] = prefix + oldStart;
+		h[i + 1] = prefix + oldEnd;
+		h[i + 2] = prefix + newStart;
+		h[i + 3] = prefix + newEnd;
+		return h;
+	}
+
+}
@@ -0,0 +1,541 @@
+/*
+ * Copyright (C) 2026 Servoy BV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.sablo.specification.property;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONWriter;
+import org.sablo.specification.property.types.BooleanPropertyType;
+import org.sablo.specification.property.types.DoublePropertyType;
+import org.sablo.specification.property.types.IntPropertyType;
+import org.sablo.specification.property.types.LongPropertyType;
+
+/**
+ * A list of int/long/double/boolean values that keeps them in a primitive array instead of boxing each element; it is used as the base list of custom
+ * arrays of such element types, which can be very big (for example data of charting components). It can also write it's elements to JSON (and add elements
+ * from JSON) directly, without going through the element type's conversions for each element.<br/><br/>
+ *
+ * Null elements are supported. As the list must give back exactly what was put in it, if a value that the primitive array cannot represent exactly is added
+ * (for example a Double in an int list) the list will keep all it's elements as objects from then on (as an ArrayList would).<br/><br/>
+ *
+ * As elements are boxed again by each get(), two gets of the same element do not necessarily give the same instance; compare elements using equals().
+ *
+ * @author agent
+ */
+public abstract class PrimitiveList<T> extends AbstractList<T> implements RandomAccess
+{
+
+	protected int size;
+
+	private BitSet nulls; // indexes of null elements
+	private List<T> objects; // non-null after a value was stored that can't be kept in the primitive array; then all elements are in here
+
+	/**
+	 * Creates an empty primitive list for elements of the given type, if the type is one that has primitive values.
+	 *
+	 * @return the new list or null if elements of the given type do not have primitive values.
+	 */
+	public static PrimitiveList< ? > newInstanceFor(IPropertyType< ? > elementType, int initialCapacity)
+	{
+		if (elementType == IntPropertyType.INSTANCE) return new OfInt(new int[initialCapacity], 0);
+		if (elementType == LongPropertyType.INSTANCE) return new OfLong(new long[initialCapacity], 0);
+		if (elementType == DoublePropertyType.INSTANCE) return new OfDouble(new double[initialCapacity], 0);
+		if (elementType == BooleanPropertyType.INSTANCE) return new OfBoolean(new boolean[initialCapacity], 0);
+		return null;
+	}
+
+	/**
+	 * @return true if {@link #newInstanceFor(IPropertyType, int)} can create a primitive list for the given element type.
+	 */
+	public static boolean isSupportedElementType(IPropertyType< ? > elementType)
+	{
+		return elementType == IntPropertyType.INSTANCE || elementType == LongPropertyType.INSTANCE || elementType == DoublePropertyType.INSTANCE ||
+			elementType == BooleanPropertyType.INSTANCE;
+	}
+
+	/**
+	 * Creates a list with the contents of the given native array (int[], long[], double[] or boolean[]).
+	 *
+	 * @return the new list or null if the given value is not one of the supported primitive arrays.
+	 */
+	public static PrimitiveList< ? > wrapPrimitiveArray(Object array)
+	{
+		if (array instanceof int[]) return new OfInt(((int[])array).clone(), ((int[])array).length);
+		if (array instanceof long[]) return new OfLong(((long[])array).clone(), ((long[])array).length);
+		if (array instanceof double[]) return new OfDouble(((double[])array).clone(), ((double[])array).length);
+		if (array instanceof boolean[]) return new OfBoolean(((boolean[])array).clone(), ((boolean[])array).length);
+		return null;
+	}
+
+	protected PrimitiveList(int size)
+	{
+		this.size = size;
+	}
+
+	protected abstract int capacity();
+
+	protected abstract void grow(int minCapacity);
+
+	/**
+	 * Same as System.arraycopy() on the primitive array (source and destination are the same).
+	 */
+	protected abstract void move(int srcIdx, int destIdx, int length);
+
+	protected abstract T load(int idx);
+
+	/**
+	 * Stores the given non-null value at the given index if it is of the exact type that the primitive array keeps.
+	 * @return true if it was stored, false if it can't be represented exactly by the primitive array.
+	 */
+	protected abstract boolean storeIfExact(int idx, Object value);
+
+	/**
+	 * Converts the given JSON value (as received from the browser) into what the element type's fromJSON would give and stores it - if that can be done
+	 * quickly and exactly.
+	 * @return true if it was stored, false otherwise.
+	 */
+	protected abstract boolean storeJSONValueIfExact(int idx, Object jsonValue);
+
+	protected abstract void writeElement(JSONWriter writer, int idx) throws JSONException;
+
+	protected abstract void discardPrimitiveValues();
+
+	@Override
+	public int size()
+	{
+		return objects != null ? objects.size() : size;
+	}
+
+	@Override
+	public T get(int index)
+	{
+		if (objects != null) return objects.get(index);
+		checkIndex(index);
+		return (nulls != null && nulls.get(index)) ? null : load(index);
+	}
+
+	@Override
+	public T set(int index, T element)
+	{
+		if (objects != null) return objects.set(index, element);
+
+		T old = get(index);
+		store(index, element);
+		return old;
+	}
+
+	@Override
+	public void add(int index, T element)
+	{
+		if (objects != null)
+		{
+			objects.add(index, element);
+			return;
+		}
+		if (index < 0 || index > size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size); //$NON-NLS-1$ //$NON-NLS-2$
+
+		modCount++;
+		makeRoomAt(index);
+		store(index, element);
+	}
+
+	/**
+	 * Appends the given JSON value (as received from the browser) if that can be done without going through the element type's fromJSON conversion.
+	 *
+	 * @return true if it was added, false if the caller needs to convert it and add it normally.
+	 */
+	public boolean addJSONValueIfExact(Object jsonValue)
+	{
+		if (objects != null) return false;
+		if (jsonValue == null || jsonValue == JSONObject.NULL)
+		{
+			add(size, null);
+			return true;
+		}
+
+		makeRoomAt(size);
+		if (storeJSONValueIfExact(size - 1, jsonValue))
+		{
+			modCount++;
+			if (nulls != null) nulls.clear(size - 1);
+			return true;
+		}
+		size--;
+		return false;
+	}
+
+	@Override
+	public T remove(int index)
+	{
+		if (objects != null) return objects.remove(index);
+
+		T old = get(index);
+		modCount++;
+		move(index + 1, index, size - index - 1);
+		size--;
+		if (nulls != null && !nulls.isEmpty())
+		{
+			// shift the null flags after index one position to the left, in place (ascending, so each bit is moved before it is overwritten)
+			nulls.clear(index);
+			for (int i = nulls.nextSetBit(index + 1); i >= 0; i = nulls.nextSetBit(i + 1))
+			{
+				nulls.clear(i);
+				nulls.set(i - 1);
+			}
+		}
+		return old;
+	}
+
+	@Override
+	public void clear()
+	{
+		modCount++;
+		if (objects != null) objects.clear();
+		size = 0;
+		nulls = null;
+	}
+
+	/**
+	 * Writes the elements from fromIndex to toIndex (both inclusive) to the given writer, each as a separate JSON value, the same way the element type would write them.
+	 *
+	 * @return false if nothing was written because this list keeps it's elements as objects; then the caller has to write them one by one via the element type.
+	 */
+	public boolean writeElements(JSONWriter writer, int fromIndex, int toIndex) throws JSONException
+	{
+		if (objects != null) return false;
+
+		for (int i = fromIndex; i <= toIndex; i++)
+		{
+			if (nulls != null && nulls.get(i)) writer.value(null);
+			else writeElement(writer, i);
+		}
+		return true;
+	}
+
+	private void makeRoomAt(int index)
+	{
+		if (size == capacity()) grow(Math.max(size + 1, size + (size >> 1)));
+		move(index, index + 1, size - index);
+		size++;
+		if (nulls != null && !nulls.isEmpty() && index < size - 1)
+		{
+			// shift the null flags from index on one position to the right, in place (descending, so each bit is moved before it is overwritten)
+			for (int i = nulls.previousSetBit(size - 2); i >= index; i = nulls.previousSetBit(i - 1))
+			{
+				nulls.clear(i);
+				nulls.set(i + 1);
+			}
+		}
+	}
+
+	private void store(int index, T element)
+	{
+		if (element == null)
+		{
+			if (nulls == null) nulls = new BitSet();
+			nulls.set(index);
+		}
+		else if (storeIfExact(index, element))
+		{
+			if (nulls != null) nulls.clear(index);
+		}
+		else
+		{
+			// from now on keep elements as they are
+			List<T> asObjects = new ArrayList<>(Math.max(size, 10));
+			for (int i = 0; i < size; i++)
+				asObjects.add(i == index ? element : get(i));
+			objects = asObjects;
+			nulls = null;
+			discardPrimitiveValues();
+		}
+	}
+
+	private void checkIndex(int index)
+	{
+		if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	public static final class OfInt extends PrimitiveList<Integer>
+	{
+
+		private int[] values;
+
+		private OfInt(int[] values, int size)
+		{
+			super(size);
+			this.values = values;
+		}
+
+		@Override
+		protected int capacity()
+		{
+			return values.length;
+		}
+
+		@Override
+		protected void grow(int minCapacity)
+		{
+			values = Arrays.copyOf(values, minCapacity);
+		}
+
+		@Override
+		protected void move(int srcIdx, int destIdx, int length)
+		{
+			System.arraycopy(values, srcIdx, values, destIdx, length);
+		}
+
+		@Override
+		protected Integer load(int idx)
+		{
+			return Integer.valueOf(values[idx]);
+		}
+
+		@Override
+		protected boolean storeIfExact(int idx, Object value)
+		{
+			if (!(value instanceof Integer)) return false;
+			values[idx] = ((Integer)value).intValue();
+			return true;
+		}
+
+		@Override
+		protected boolean storeJSONValueIfExact(int idx, Object jsonValue)
+		{
+			return storeIfExact(idx, jsonValue);
+		}
+
+		@Override
+		protected void writeElement(JSONWriter writer, int idx) throws JSONException
+		{
+			writer.value(values[idx]);
+		}
+
+		@Override
+		protected void discardPrimitiveValues()
+		{
+			values = new int[0];
+		}
+
+	}
+
+	public static final class OfLong extends PrimitiveList<Long>
+	{
+
+		private long[] values;
+
+		private OfLong(long[] values, int size)
+		{
+			super(size);
+			this.values = values;
+		}
+
+		@Override
+		protected int capacity()
+		{
+			return values.length;
+		}
+
+		@Override
+		protected void grow(int minCapacity)
+		{
+			values = Arrays.copyOf(values, minCapacity);
+		}
+
+		@Override
+		protected void move(int srcIdx, int destIdx, int length)
+		{
+			System.arraycopy(values, srcIdx, values, destIdx, length);
+		}
+
+		@Override
+		protected Long load(int idx)
+		{
+			return Long.valueOf(values[idx]);
+		}
+
+		@Override
+		protected boolean storeIfExact(int idx, Object value)
+		{
+			if (!(value instanceof Long)) return false;
+			values[idx] = ((Long)value).longValue();
+			return true;
+		}
+
+		@Override
+		protected boolean storeJSONValueIfExact(int idx, Object jsonValue)
+		{
+			// the JSON parser gives Integer for small numbers; LongPropertyType converts those to Long without any loss
+			if (!(jsonValue instanceof Long) && !(jsonValue instanceof Integer)) return false;
+			values[idx] = ((Number)jsonValue).longValue();
+			return true;
+		}
+
+		@Override
+		protected void writeElement(JSONWriter writer, int idx) throws JSONException
+		{
+			writer.value(values[idx]);
+		}
+
+		@Override
+		protected void discardPrimitiveValues()
+		{
+			values = new long[0];
+		}
+
+	}
+
+	public static final class OfDouble extends PrimitiveList<Double>
+	{
+
+		private double[] values;
+
+		private OfDouble(double[] values, int size)
+		{
+			super(size);
+			this.values = values;
+		}
+
+		@Override
+		protected int capacity()
+		{
+			return values.length;
+		}
+
+		@Override
+		protected void grow(int minCapacity)
+		{
+			values = Arrays.copyOf(values, minCapacity);
+		}
+
+		@Override
+		protected void move(int srcIdx, int destIdx, int length)
+		{
+			System.arraycopy(values, srcIdx, values, destIdx, length);
+		}
+
+		@Override
+		protected Double load(int idx)
+		{
+			return Double.valueOf(values[idx]);
+		}
+
+		@Override
+		protected boolean storeIfExact(int idx, Object value)
+		{
+			if (!(value instanceof Double)) return false;
+			values[idx] = ((Double)value).doubleValue();
+			return true;
+		}
+
+		@Override
+		protected boolean storeJSONValueIfExact(int idx, Object jsonValue)
+		{
+			// DoublePropertyType converts any number to it's double value
+			if (!(jsonValue instanceof Number)) return false;
+			values[idx] = ((Number)jsonValue).doubleValue();
+			return true;
+		}
+
+		@Override
+		protected void writeElement(JSONWriter writer, int idx) throws JSONException
+		{
+			double d = values[idx];
+			// same as DoublePropertyType; JSON has no NaN/Infinity
+			if (Double.isNaN(d) || Double.isInfinite(d)) writer.value(null);
+			else writer.value(d);
+		}
+
+		@Override
+		protected void discardPrimitiveValues()
+		{
+			values = new double[0];
+		}
+
+	}
+
+	public static final class OfBoolean extends PrimitiveList<Boolean>
+	{
+
+		private boolean[] values;
+
+		private OfBoolean(boolean[] values, int size)
+		{
+			super(size);
+			this.values = values;
+		}
+
+		@Override
+		protected int capacity()
+		{
+			return values.length;
+		}
+
+		@Override
+		protected void grow(int minCapacity)
+		{
+			values = Arrays.copyOf(values, minCapacity);
+		}
+
+		@Override
+		protected void move(int srcIdx, int destIdx, int length)
+		{
+			System.arraycopy(values, srcIdx, values, destIdx, length);
+		}
+
+		@Override
+		protected Boolean load(int idx)
+		{
+			return Boolean.valueOf(values[idx]);
+		}
+
+		@Override
+		protected boolean storeIfExact(int idx, Object value)
+		{
+			if (!(value instanceof Boolean)) return false;
+			values[idx] = ((Boolean)value).booleanValue();
+			return true;
+		}
+
+		@Override
+		protected boolean storeJSONValueIfExact(int idx, Object jsonValue)
+		{
+			return storeIfExact(idx, jsonValue);
+		}
+
+		@Override
+		protected void writeElement(JSONWriter writer, int idx) throws JSONException
+		{
+			writer.value(values[idx]);
+		}
+
+		@Override
+		protected void discardPrimitiveValues()
+		{
+			values = new boolean[0];
+		}
+
+	}
+
+}
@@ -421,6 +421,15 @@ public class UnchangedInterval
 		return newEndIndex;
 	}
 
+	/**
+	 * Shifts the new indexes of this interval; it is used for intervals that are after an insert or delete (so they are not otherwise affected by it).
+	 */
+	void shiftNewIndexes(int delta)
+	{
+		newStartIndex += delta;
+		newEndIndex += delta;
+	}
+
 	public int getUnchangedIndexesCount()
 	{
 		if (isPartiallyChanged())
@@ -0,0 +1,271 @@
+/*
+ * Copyright (C) 2026 Servoy BV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.sablo.specification.property;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * The SORTED sequence of {@link UnchangedInterval}s of an {@link ArrayGranularChangeKeeper}, kept in a randomized balanced binary tree (treap) that is ordered
+ * by the new indexes of the intervals.<br/><br/>
+ *
+ * An insert/delete only needs to shift the new indexes of all intervals that follow it; that shift is stored lazily on the root of the subtree that
+ * holds all those intervals and it is pushed down only when that part of the tree is visited. So applying an operation only touches the intervals that
+ * it really overlaps, plus O(log n) nodes.
+ *
+ * @author agent
+ */
+final class UnchangedIntervalTree implements Iterable<UnchangedInterval>
+{
+
+	private static final class Node
+	{
+		private final UnchangedInterval interval;
+		private final int priority;
+		private Node left;
+		private Node right;
+		private int pendingShift; // to be applied to the new indexes of all intervals in this subtree (including this node's interval)
+
+		private Node(UnchangedInterval interval, int priority)
+		{
+			this.interval = interval;
+			this.priority = priority;
+		}
+	}
+
+	private Node root;
+	private int size;
+	private int randomSeed = 0x2545F491;
+
+	// results of split(...) and removeLast(...); kept in fields so that no pair objects need to be allocated
+	private Node splitLeft;
+	private Node splitRight;
+	private Node removedNode;
+
+	void clear()
+	{
+		root = null;
+		size = 0;
+	}
+
+	int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Adds an interval that is after all other intervals from this tree.
+	 */
+	void addLast(UnchangedInterval interval)
+	{
+		root = merge(root, newNode(interval));
+		size++;
+	}
+
+	/**
+	 * Takes out of the tree the intervals that are affected by an operation on new indexes [startIndex, ...]; those are the interval that contains
+	 * startIndex (if any) and all intervals that start between startIndex and lastAffectedStartIndex. The intervals that start after lastAffectedStartIndex
+	 * are shifted by shiftOfFollowingIntervals.<br/>
+	 * The resulting intervals for the removed ones must be given back via {@link #putBackAffected(List)}, before any other call.
+	 *
+	 * @param affectedIntervals the removed intervals will be added here, in order.
+	 */
+	void takeOutAffected(int startIndex, int lastAffectedStartIndex, int shiftOfFollowingIntervals, List<UnchangedInterval> affectedIntervals)
+	{
+		split(root, startIndex);
+		Node before = splitLeft;
+		split(splitRight, lastAffectedStartIndex + 1);
+		Node affected = splitLeft;
+		Node after = splitRight;
+
+		// the last interval that starts before startIndex can still contain it
+		if (before != null && getLast(before).getNewEnd() >= startIndex)
+		{
+			before = removeLast(before);
+			affectedIntervals.add(removedNode.interval);
+			size--;
+			removedNode = null;
+		}
+		size -= addInOrder(affected, affectedIntervals);
+
+		if (after != null) after.pendingShift += shiftOfFollowingIntervals;
+
+		// keep the two remaining parts in root and splitRight until putBackAffected(...) is called
+		root = before;
+		splitLeft = null;
+		splitRight = after;
+	}
+
+	/**
+	 * Puts the resulting intervals (in order) in the place of the ones that were taken out via {@link #takeOutAffected(int, int, int, List)}.
+	 */
+	void putBackAffected(List<UnchangedInterval> resultingIntervals)
+	{
+		Node t = root;
+		for (UnchangedInterval interval : resultingIntervals)
+		{
+			t = merge(t, newNode(interval));
+			size++;
+		}
+		root = merge(t, splitRight);
+		splitRight = null;
+	}
+
+	@Override
+	public Iterator<UnchangedInterval> iterator()
+	{
+		return new Iterator<UnchangedInterval>()
+		{
+			private final ArrayDeque<Node> stack = new ArrayDeque<>();
+
+			{
+				pushLeftSpine(root);
+			}
+
+			private void pushLeftSpine(Node n)
+			{
+				while (n != null)
+				{
+					push(n);
+					stack.push(n);
+					n = n.left;
+				}
+			}
+
+			@Override
+			public boolean hasNext()
+			{
+				return !stack.isEmpty();
+			}
+
+			@Override
+			public UnchangedInterval next()
+			{
+				if (stack.isEmpty()) throw new NoSuchElementException();
+				Node n = stack.pop();
+				pushLeftSpine(n.right);
+				return n.interval;
+			}
+		};
+	}
+
+	private Node newNode(UnchangedInterval interval)
+	{
+		// xorshift; we just need some well distributed priorities, not real randomness
+		int x = randomSeed;
+		x ^= x << 13;
+		x ^= x >>> 17;
+		x ^= x << 5;
+		randomSeed = x;
+		return new Node(interval, x);
+	}
+
+	private static void push(Node n)
+	{
+		if (n.pendingShift != 0)
+		{
+			n.interval.shiftNewIndexes(n.pendingShift);
+			if (n.left != null) n.left.pendingShift += n.pendingShift;
+			if (n.right != null) n.right.pendingShift += n.pendingShift;
+			n.pendingShift = 0;
+		}
+	}
+
+	/**
+	 * Splits the given subtree in intervals that start before newIndex (in splitLeft) and the others (in splitRight).
+	 */
+	private void split(Node n, int newIndex)
+	{
+		if (n == null)
+		{
+			splitLeft = splitRight = null;
+			return;
+		}
+
+		push(n);
+		if (n.interval.getNewStart() < newIndex)
+		{
+			split(n.right, newIndex);
+			n.right = splitLeft;
+			splitLeft = n;
+		}
+		else
+		{
+			split(n.left, newIndex);
+			n.left = splitRight;
+			splitRight = n;
+		}
+	}
+
+	/**
+	 * Merges two subtrees where all intervals of a are before all intervals of b.
+	 */
+	private static Node merge(Node a, Node b)
+	{
+		if (a == null) return b;
+		if (b == null) return a;
+
+		if (a.priority > b.priority)
+		{
+			push(a);
+			a.right = merge(a.right, b);
+			return a;
+		}
+		push(b);
+		b.left = merge(a, b.left);
+		return b;
+	}
+
+	private static UnchangedInterval getLast(Node n)
+	{
+		push(n);
+		while (n.right != null)
+		{
+			n = n.right;
+			push(n);
+		}
+		return n.interval;
+	}
+
+	/**
+	 * Removes the last node of the given subtree (it will be in removedNode) and returns the remaining subtree.
+	 */
+	private Node removeLast(Node n)
+	{
+		push(n);
+		if (n.right == null)
+		{
+			removedNode = n;
+			return n.left;
+		}
+		n.right = removeLast(n.right);
+		return n;
+	}
+
+	private static int addInOrder(Node n, List<UnchangedInterval> intervals)
+	{
+		if (n == null) return 0;
+
+		push(n);
+		int count = addInOrder(n.left, intervals);
+		intervals.add(n.interval);
+		return count + 1 + addInOrder(n.right, intervals);
+	}
+
+}
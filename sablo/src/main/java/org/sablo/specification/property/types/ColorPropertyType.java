@@ -21,10 +21,14 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONString;
 import org.json.JSONWriter;
 import org.sablo.specification.PropertyDescription;
 import org.sablo.specification.property.IBrowserConverterContext;
 import org.sablo.specification.property.IClassPropertyType;
+import org.sablo.specification.property.IPropertyTypeWithInternedValues;
+import org.sablo.specification.property.IPropertyWithContextIndependentToJSON;
 import org.sablo.util.ValueReference;
 import org.sablo.websocket.utils.JSONUtils;
 
@@ -32,7 +36,8 @@ import org.sablo.websocket.utils.JSONUtils;
  * @author jcompagner
  *
  */
-public class ColorPropertyType extends DefaultPropertyType<Color> implements IClassPropertyType<Color>
+public class ColorPropertyType extends DefaultPropertyType<Color> implements IClassPropertyType<Color>, IPropertyWithContextIndependentToJSON,
+	IPropertyTypeWithInternedValues<Color>
 {
 
 	private static final Map<String, String> basicCssColors = new HashMap<String, String>();
@@ -64,6 +69,8 @@ public class ColorPropertyType extends DefaultPropertyType<Color> implements ICl
 	public static final ColorPropertyType INSTANCE = new ColorPropertyType();
 	public static final String TYPE_NAME = "color";
 
+	private final InternedValues<Color> internedValues = new InternedValues<>((c) -> JSONObject.quote(getStringValue(c)));
+
 	protected ColorPropertyType()
 	{
 		super(true);
@@ -90,7 +97,7 @@ public class ColorPropertyType extends DefaultPropertyType<Color> implements ICl
 			}
 			try
 			{
-				retval = Color.decode(ss);
+				retval = intern(Color.decode(ss));
 			}
 			catch (NumberFormatException e)
 			{
@@ -123,7 +130,9 @@ public class ColorPropertyType extends DefaultPropertyType<Color> implements ICl
 		if (c != null)
 		{
 			JSONUtils.addKeyIfPresent(writer, key);
-			writer.value(getStringValue(c));
+			JSONString json = internedValues.getJSON(c);
+			if (json != null) writer.value(json);
+			else writer.value(getStringValue(c));
 		}
 		return writer;
 	}
@@ -153,6 +162,12 @@ public class ColorPropertyType extends DefaultPropertyType<Color> implements ICl
 		return val;
 	}
 
+	@Override
+	public Color intern(Color value)
+	{
+		return internedValues.intern(value);
+	}
+
 	@Override
 	public Class<Color> getTypeClass()
 	{
@@ -19,10 +19,14 @@ import java.awt.Font;
 
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.json.JSONString;
+import org.json.JSONStringer;
 import org.json.JSONWriter;
 import org.sablo.specification.PropertyDescription;
 import org.sablo.specification.property.IBrowserConverterContext;
 import org.sablo.specification.property.IClassPropertyType;
+import org.sablo.specification.property.IPropertyTypeWithInternedValues;
+import org.sablo.specification.property.IPropertyWithContextIndependentToJSON;
 import org.sablo.util.ValueReference;
 import org.sablo.websocket.utils.JSONUtils;
 
@@ -30,12 +34,15 @@ import org.sablo.websocket.utils.JSONUtils;
  * @author jcompagner
  *
  */
-public class FontPropertyType extends DefaultPropertyType<Font> implements IClassPropertyType<Font>
+public class FontPropertyType extends DefaultPropertyType<Font> implements IClassPropertyType<Font>, IPropertyWithContextIndependentToJSON,
+	IPropertyTypeWithInternedValues<Font>
 {
 
 	public static final FontPropertyType INSTANCE = new FontPropertyType();
 	public static final String TYPE_NAME = "font";
 
+	private final InternedValues<Font> internedValues = new InternedValues<>((font) -> writeFont(new JSONStringer(), font).toString());
+
 	protected FontPropertyType()
 	{
 	}
@@ -75,13 +82,20 @@ public class FontPropertyType extends DefaultPropertyType<Font> implements IClas
 		else if (fontFamily.endsWith(", Verdana, Arial")) fontFamily = fontFamily.substring(0, (fontFamily.length() - ", Verdana, Arial".length()));
 		Font font = Font.getFont(fontFamily);
 		if (font == null) font = Font.decode(fontFamily);
-		return font.deriveFont(style, size);
+		return intern(font.deriveFont(style, size));
 	}
 
 	@Override
 	public JSONWriter toJSON(JSONWriter w, String key, Font font, PropertyDescription pd, IBrowserConverterContext dataConverterContext) throws JSONException
 	{
 		JSONUtils.addKeyIfPresent(w, key);
+		JSONString json = internedValues.getJSON(font);
+		if (json != null) return w.value(json);
+		return writeFont(w, font);
+	}
+
+	private static JSONWriter writeFont(JSONWriter w, Font font) throws JSONException
+	{
 		w.object();
 		if (font.isBold())
 		{
@@ -110,6 +124,12 @@ public class FontPropertyType extends DefaultPropertyType<Font> implements IClas
 		return null;
 	}
 
+	@Override
+	public Font intern(Font value)
+	{
+		return internedValues.intern(value);
+	}
+
 	@Override
 	public Class<Font> getTypeClass()
 	{
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2026 Servoy BV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.sablo.specification.property.types;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.json.JSONString;
+
+/**
+ * A bounded set of canonical instances of immutable property values (colors, fonts), each with its JSON representation (computed once, when first needed).<br/>
+ * Many web objects usually have the same few values for such properties; interning them avoids keeping lots of identical instances in memory and
+ * writing the same JSON over and over again.<br/><br/>
+ *
+ * When the maximum number of values is reached, new values are no longer interned - they are just used as they are.
+ *
+ * @author agent
+ */
+@SuppressWarnings("nls")
+public class InternedValues<T>
+{
+
+	public static final int DEFAULT_MAX_VALUES = Integer.parseInt(System.getProperty("sablo.interned.values.max", "4096"));
+
+	private final ConcurrentHashMap<T, InternedValue<T>> values = new ConcurrentHashMap<>();
+	private final Function<T, String> toJSONString;
+	private final int maxValues;
+
+	/**
+	 * @param toJSONString gives the JSON text of a value; it is called at most once per interned value.
+	 */
+	public InternedValues(Function<T, String> toJSONString)
+	{
+		this(toJSONString, DEFAULT_MAX_VALUES);
+	}
+
+	public InternedValues(Function<T, String> toJSONString, int maxValues)
+	{
+		this.toJSONString = toJSONString;
+		this.maxValues = maxValues;
+	}
+
+	/**
+	 * @return the canonical instance that is equal to the given value; the value itself if it is the first one of its kind or if it can't be interned anymore.
+	 */
+	public T intern(T value)
+	{
+		if (value == null) return null;
+
+		InternedValue<T> interned = values.get(value);
+		if (interned == null)
+		{
+			if (values.size() >= maxValues) return value;
+			InternedValue<T> newInterned = new InternedValue<>(value);
+			interned = values.putIfAbsent(value, newInterned);
+			if (interned == null) interned = newInterned;
+		}
+		return interned.value;
+	}
+
+	/**
+	 * @return the JSON of the given value if that value (or an equal one) was interned, null otherwise.
+	 */
+	public JSONString getJSON(T value)
+	{
+		InternedValue<T> interned = (value != null ? values.get(value) : null);
+		return interned != null ? interned.getJSON(toJSONString) : null;
+	}
+
+	public int size()
+	{
+		return values.size();
+	}
+
+	private static class InternedValue<T> implements JSONString
+	{
+
+		private final T value;
+		private volatile String json;
+
+		private InternedValue(T value)
+		{
+			this.value = value;
+		}
+
+		private JSONString getJSON(Function<T, String> toJSONString)
+		{
+			// the value is immutable so its JSON text is always the same; computing it twice at the same time only wastes a bit of work
+			if (json == null) json = toJSONString.apply(value);
+			return this;
+		}
+
+		@Override
+		public String toJSONString()
+		{
+			return json;
+		}
+
+	}
+
+}
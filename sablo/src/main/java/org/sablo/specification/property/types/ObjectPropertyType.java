@@ -82,23 +82,197 @@ public class ObjectPropertyType extends DefaultPropertyType<Object> implements
 	public <ContextObject> JSONWriter toJSONValueImpl(IToJSONConverter<ContextObject> toJSONConverter, JSONWriter w, String key, Object value,
 		PropertyDescription valueType, ContextObject contextObject) throws JSONException, IllegalArgumentException
 	{
-		IJSONStringWithClientSideType jsonValue = getJSONAndClientSideType(toJSONConverter, value, valueType,
-			contextObject);
+		// if it returns false there was an error writing the value, which should already be reported in log (getJSONAndClientSideType does it); we write nothing for this value then
+		writeJSONAndClientSideType(toJSONConverter, w, key, value, valueType, contextObject);
+		return w;
+	}
+
+	/**
+	 * Writes to "w" the same thing that writing the result of {@link #getJSONAndClientSideType(IToJSONConverter, Object, PropertyDescription, Object)} would write (including
+	 * the client side type - if any - as { _T: ..., _V: ... }).<br/>
+	 * If the client side type can be known before writing the value (see {@link #getClientSideTypeBeforeWriting(IToJSONConverter, Object, PropertyDescription, Object)}) the value
+	 * is written directly to "w"; otherwise it will be written separately first and then copied into "w".
+	 *
+	 * @return false if the value could not be written (nothing, not even the key was written then); true otherwise.
+	 */
+	public <ContextObject> boolean writeJSONAndClientSideType(IToJSONConverter<ContextObject> toJSONConverter, JSONWriter w, String key, Object sabloValue,
+		PropertyDescription propertyDescription, ContextObject contextObject) throws JSONException
+	{
+		Object converted = sabloValue;
+		PropertyDescription pd = propertyDescription;
+		if (converted instanceof JSONWritable)
+		{
+			TypedData<Map<String, Object>> dm = ((JSONWritable)converted).toMap();
+			converted = dm.content;
+			pd = dm.contentType;
+		}
+
+		JSONString type = getClientSideTypeBeforeWriting(toJSONConverter, converted, pd, contextObject);
+		if (type == JSONUtils.CLIENT_SIDE_TYPE_UNKNOWN_BEFORE_WRITING)
+		{
+			IJSONStringWithClientSideType valueAndType = getJSONAndClientSideType(toJSONConverter, converted, pd, contextObject);
+			if (valueAndType == null) return false;
 
-		if (jsonValue != null)
+			JSONUtils.writeValueWithClientType(w, key, valueAndType);
+		}
+		else if (type != null)
+		{
+			Object value = converted;
+			PropertyDescription valuePD = pd;
+			JSONUtils.writeConvertedValueWithClientType(w, key, type, () -> {
+				writeKnownValue(toJSONConverter, w, value, valuePD, contextObject);
+				return null;
+			});
+		}
+		else
 		{
 			JSONUtils.addKeyIfPresent(w, key);
+			writeKnownValue(toJSONConverter, w, converted, pd, contextObject);
+		}
+		return true;
+	}
+
+	/**
+	 * Gives - without writing anything - the client side type that {@link #getJSONAndClientSideType(IToJSONConverter, Object, PropertyDescription, Object)} would give for that value.
+	 *
+	 * @return {@link JSONUtils#CLIENT_SIDE_TYPE_UNKNOWN_BEFORE_WRITING} if that can only be known while writing the value (nested values of types with dynamic client side types,
+	 * nested {@link JSONWritable} values or unsupported values).
+	 */
+	public <ContextObject> JSONString getClientSideTypeBeforeWriting(IToJSONConverter<ContextObject> toJSONConverter, Object sabloValue,
+		PropertyDescription propertyDescription, ContextObject contextObject)
+	{
+		Object converted = sabloValue;
+
+		if (converted == null || converted == JSONObject.NULL || converted instanceof JSONArray || converted instanceof JSONObject ||
+			converted instanceof JSONString || converted instanceof Number || converted instanceof Boolean || converted instanceof CharSequence)
+		{
+			return null;
+		}
+		else if (converted instanceof List || converted instanceof Object[])
+		{
+			List< ? > lst;
+			if (converted instanceof Object[]) lst = Arrays.asList((Object[])converted);
+			else lst = (List< ? >)converted;
 
-			if (jsonValue.getClientSideType() != null)
+			boolean unknownChildType = false;
+			for (int i = 0; i < lst.size(); i++)
 			{
-				JSONUtils.writeConvertedValueWithClientType(w, null, jsonValue.getClientSideType(), () -> {
-					w.value(jsonValue);
-					return null;
-				});
+				JSONString elType = toJSONConverter.getClientSideTypeBeforeWriting(lst.get(i), getArrayElementType(propertyDescription, i), contextObject,
+					false);
+				if (elType == JSONUtils.CLIENT_SIDE_TYPE_UNKNOWN_BEFORE_WRITING) unknownChildType = true;
+				else if (elType != null) return OBJECT_TYPE_JSON_STRING;
 			}
-			else w.value(jsonValue);
-		} // else there was an error writing the value, which should already be reported in log (getJSONAndClientSideType does it); we write nothing for this value then
-		return w;
+			return unknownChildType ? JSONUtils.CLIENT_SIDE_TYPE_UNKNOWN_BEFORE_WRITING : null;
+		}
+		else if (converted instanceof Map)
+		{
+			boolean unknownChildType = false;
+			for (Entry< ? , ? > entry : ((Map< ? , ? >)converted).entrySet())
+			{
+				String key = (String)entry.getKey();
+				PropertyDescription subPropType = (propertyDescription != null ? propertyDescription.getProperty(key) : null);
+				JSONString subPropValueType = toJSONConverter.getClientSideTypeBeforeWriting(entry.getValue(), subPropType, contextObject, false);
+				if (subPropValueType == JSONUtils.CLIENT_SIDE_TYPE_UNKNOWN_BEFORE_WRITING) unknownChildType = true;
+				else if (subPropValueType != null) return OBJECT_TYPE_JSON_STRING;
+			}
+			return unknownChildType ? JSONUtils.CLIENT_SIDE_TYPE_UNKNOWN_BEFORE_WRITING : null;
+		}
+		else if (converted instanceof Date)
+		{
+			return OBJECT_TYPE_JSON_STRING;
+		}
+
+		// JSONWritable (its toMap() should only be called once) or unsupported values (that will write nothing)
+		return JSONUtils.CLIENT_SIDE_TYPE_UNKNOWN_BEFORE_WRITING;
+	}
+
+	/**
+	 * Writes the value directly to "w", for values that {@link #getClientSideTypeBeforeWriting(IToJSONConverter, Object, PropertyDescription, Object)} did not
+	 * return {@link JSONUtils#CLIENT_SIDE_TYPE_UNKNOWN_BEFORE_WRITING} for. It writes the same thing as {@link #getJSONAndClientSideType(IToJSONConverter, Object, PropertyDescription, Object)}.
+	 */
+	private <ContextObject> void writeKnownValue(IToJSONConverter<ContextObject> toJSONConverter, JSONWriter w, Object converted,
+		PropertyDescription propertyDescription, ContextObject contextObject) throws JSONException
+	{
+		if (converted == null || converted == JSONObject.NULL)
+		{
+			w.value(null); // null is allowed
+		}
+		else if (converted instanceof JSONArray || converted instanceof JSONObject || converted instanceof JSONString)
+		{
+			w.value(converted);
+		}
+		else if (converted instanceof List || converted instanceof Object[])
+		{
+			List< ? > lst;
+			if (converted instanceof Object[]) lst = Arrays.asList((Object[])converted);
+			else lst = (List< ? >)converted;
+
+			w.array();
+			for (int i = 0; i < lst.size(); i++)
+			{
+				if (!toJSONConverter.toJSONValueWithClientType(w, null, lst.get(i), getArrayElementType(propertyDescription, i), contextObject, false))
+				{
+					w.value(null);
+				}
+			}
+			w.endArray();
+		}
+		else if (converted instanceof Map)
+		{
+			w.object();
+			for (Entry< ? , ? > entry : ((Map< ? , ? >)converted).entrySet())
+			{
+				String key = (String)entry.getKey();
+				PropertyDescription subPropType = (propertyDescription != null ? propertyDescription.getProperty(key) : null);
+				toJSONConverter.toJSONValueWithClientType(w, key, entry.getValue(), subPropType, contextObject, false);
+			}
+			w.endObject();
+		}
+		else if (converted instanceof Integer || converted instanceof Long)
+		{
+			w.value(((Number)converted).longValue());
+		}
+		else if (converted instanceof Boolean)
+		{
+			w.value(((Boolean)converted).booleanValue());
+		}
+		else if (converted instanceof Number)
+		{
+			double convertedDouble = ((Number)converted).doubleValue();
+			if (Double.isNaN(convertedDouble) || Double.isInfinite(convertedDouble))
+			{
+				w.value(null);
+			}
+			else
+			{
+				w.value(convertedDouble);
+			}
+		}
+		else if (converted instanceof CharSequence)
+		{
+			w.value(converted.toString());
+		}
+		else if (converted instanceof Date)
+		{
+			writeDate(w, (Date)converted);
+		}
+	}
+
+	private static void writeDate(JSONWriter w, Date date) throws JSONException
+	{
+		if (dateType == null)
+		{
+			dateType = (DatePropertyType)TypesRegistry.getType(DatePropertyType.TYPE_NAME);
+			EmbeddableJSONWriter cltw = new EmbeddableJSONWriter(true);
+			dateType.writeClientSideTypeName(cltw, null, null); // we rely here on the fact that the currently registered date type knows how to handle null PD
+			dateTypeClientSideType = cltw;
+		}
+
+		JSONUtils.writeConvertedValueWithClientType(w, null, dateTypeClientSideType,
+			() -> {
+				dateType.toJSON(w, null, date, null, null); // we rely here on the fact that the currently registered date type knows how to handle null PD or context
+				return null;
+			});
 	}
 
 	@Override
@@ -255,21 +429,8 @@ public class ObjectPropertyType extends DefaultPropertyType<Object> implements
 		}
 		else if (converted instanceof Date)
 		{
-			if (dateType == null)
-			{
-				dateType = (DatePropertyType)TypesRegistry.getType(DatePropertyType.TYPE_NAME);
-				EmbeddableJSONWriter cltw = new EmbeddableJSONWriter(true);
-				dateType.writeClientSideTypeName(cltw, null, null); // we rely here on the fact that the currently registered date type knows how to handle null PD
-				dateTypeClientSideType = cltw;
-			}
-
 			type = OBJECT_TYPE_JSON_STRING; // as client side will remember the type from server, give it 'object' not directly 'date' because client side might want to assign later non-dates to this 'object' property and we do not want client to server conversion to fail with exception because it uses date converter...
-
-			JSONUtils.writeConvertedValueWithClientType(w, null, dateTypeClientSideType,
-				() -> {
-					dateType.toJSON(w, null, (Date)converted, null, null); // we rely here on the fact that the currently registered date type knows how to handle null PD or context
-					return null;
-				});
+			writeDate(w, (Date)converted);
 		}
 		else
 		{
@@ -299,7 +460,24 @@ public class ObjectPropertyType extends DefaultPropertyType<Object> implements
 	public JSONString toJSONWithDynamicClientSideType(JSONWriter writer, Object sabloValue, PropertyDescription propertyDescription,
 		IBrowserConverterContext dataConverterContext) throws JSONException
 	{
-		IJSONStringWithClientSideType valueAndType = getJSONAndClientSideType(FullValueToJSONConverter.INSTANCE, sabloValue, propertyDescription,
+		Object converted = sabloValue;
+		PropertyDescription pd = propertyDescription;
+		if (converted instanceof JSONWritable)
+		{
+			TypedData<Map<String, Object>> dm = ((JSONWritable)converted).toMap();
+			converted = dm.content;
+			pd = dm.contentType;
+		}
+
+		JSONString type = getClientSideTypeBeforeWriting(FullValueToJSONConverter.INSTANCE, converted, pd, dataConverterContext);
+		if (type != JSONUtils.CLIENT_SIDE_TYPE_UNKNOWN_BEFORE_WRITING)
+		{
+			// no need to write it separately first, we already know the type
+			writeKnownValue(FullValueToJSONConverter.INSTANCE, writer, converted, pd, dataConverterContext);
+			return type;
+		}
+
+		IJSONStringWithClientSideType valueAndType = getJSONAndClientSideType(FullValueToJSONConverter.INSTANCE, converted, pd,
 			dataConverterContext);
 		if (valueAndType != null)
 		{
@@ -15,12 +15,13 @@
  */
 package org.sablo.specification.property.types;
 
+import org.sablo.specification.property.IPropertyWithContextIndependentToJSON;
 
 /**
  * @author jcompagner
  *
  */
-public class StringPropertyType extends DefaultPropertyType<String>
+public class StringPropertyType extends DefaultPropertyType<String> implements IPropertyWithContextIndependentToJSON
 {
 
 	public static final StringPropertyType INSTANCE = new StringPropertyType();
@@ -15,12 +15,13 @@
  */
 package org.sablo.specification.property.types;
 
+import org.sablo.specification.property.IPropertyWithContextIndependentToJSON;
 
 /**
  * @author jcompagner
  *
  */
-public class StyleClassPropertyType extends DefaultPropertyType<String>
+public class StyleClassPropertyType extends DefaultPropertyType<String> implements IPropertyWithContextIndependentToJSON
 {
 
 	public static final StyleClassPropertyType INSTANCE = new StyleClassPropertyType();
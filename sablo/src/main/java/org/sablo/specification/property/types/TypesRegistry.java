@@ -16,10 +16,11 @@
 package org.sablo.specification.property.types;
 
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.sablo.specification.property.CustomJSONArrayType;
 import org.sablo.specification.property.CustomJSONArrayTypeFactory;
@@ -42,9 +43,51 @@ public class TypesRegistry
 
 	private static final Logger log = LoggerFactory.getLogger(TypesRegistry.class.getCanonicalName());
 
-	private static Map<String, IPropertyType< ? >> types = new HashMap<>();
-	private static Map<String, IPropertyTypeFactory< ? , ? >> typeFactories = new HashMap<>();
-	private static Map<Class< ? >, IClassPropertyType< ? >> typesByClass = new LinkedHashMap<>(30);
+	// types can be registered at runtime (for example when specs are (re)loaded) while other threads look them up
+	private static final Map<String, IPropertyType< ? >> types = new ConcurrentHashMap<>();
+	private static final Map<String, IPropertyTypeFactory< ? , ? >> typeFactories = new ConcurrentHashMap<>();
+
+	/**
+	 * The class types are replaced as a whole (copy on write) whenever a new one is registered, together with the cache of resolved lookups.
+	 */
+	private static volatile ClassTypes classTypes = new ClassTypes(new LinkedHashMap<>(30));
+
+	private static final class ClassTypes
+	{
+
+		private final Map<Class< ? >, IClassPropertyType< ? >> typesByClass; // lookup for super-classes/interfaces uses this (registration) order
+
+		/**
+		 * The type to use for each class that was looked up (empty if none is registered for it or for any of it's super-classes/interfaces).
+		 */
+		private final ClassValue<Optional<IClassPropertyType< ? >>> resolvedTypes = new ClassValue<Optional<IClassPropertyType< ? >>>()
+		{
+			@Override
+			protected Optional<IClassPropertyType< ? >> computeValue(Class< ? > clz)
+			{
+				IClassPropertyType< ? > type = typesByClass.get(clz);
+				// clz could be a concrete type, but the registered type is a interface class type.
+				if (type == null)
+				{
+					for (Entry<Class< ? >, IClassPropertyType< ? >> entry : typesByClass.entrySet())
+					{
+						if (entry.getKey().isAssignableFrom(clz))
+						{
+							type = entry.getValue();
+							break;
+						}
+					}
+				}
+				return Optional.ofNullable(type);
+			}
+		};
+
+		private ClassTypes(Map<Class< ? >, IClassPropertyType< ? >> typesByClass)
+		{
+			this.typesByClass = typesByClass;
+		}
+
+	}
 
 
 	static
@@ -83,7 +126,7 @@ public class TypesRegistry
 
 	public static IPropertyType< ? > getType(String name, boolean failIfNull)
 	{
-		IPropertyType< ? > type = types.get(name);
+		IPropertyType< ? > type = (name != null ? types.get(name) : null);
 		if (type == null && failIfNull) throw new RuntimeException("Type '" + name + "' not found in supported types: " + printTypes());
 		return type;
 	}
@@ -95,26 +138,14 @@ public class TypesRegistry
 
 	public static <ParamT> IPropertyType< ? > createNewType(String name, ParamT params)
 	{
-		IPropertyTypeFactory<ParamT, ? > typeFactory = (IPropertyTypeFactory<ParamT, ? >)typeFactories.get(name);
+		IPropertyTypeFactory<ParamT, ? > typeFactory = (name != null ? (IPropertyTypeFactory<ParamT, ? >)typeFactories.get(name) : null);
 		if (typeFactory == null) throw new RuntimeException("Type factory for type '" + name + "' not found in " + printTypeFactories());
 		return typeFactory.createType(params);
 	}
 
 	public static IClassPropertyType< ? > getType(Class< ? > clz)
 	{
-		IClassPropertyType< ? > type = typesByClass.get(clz);
-		// clz could be a concrete type, but the registered type is a interface class type.
-		if (type == null)
-		{
-			for (Entry<Class< ? >, IClassPropertyType< ? >> entry : typesByClass.entrySet())
-			{
-				if (entry.getKey().isAssignableFrom(clz))
-				{
-					return entry.getValue();
-				}
-			}
-		}
-		return type;
+		return classTypes.resolvedTypes.get(clz).orElse(null);
 	}
 
 	public static String printTypes()
@@ -165,7 +196,13 @@ public class TypesRegistry
 		}
 		if (type instanceof IClassPropertyType)
 		{
-			previous = typesByClass.put(((IClassPropertyType< ? >)type).getTypeClass(), (IClassPropertyType< ? >)type);
+			synchronized (TypesRegistry.class)
+			{
+				// new snapshot, so that the previously resolved lookups are discarded as well
+				Map<Class< ? >, IClassPropertyType< ? >> typesByClass = new LinkedHashMap<>(classTypes.typesByClass);
+				previous = typesByClass.put(((IClassPropertyType< ? >)type).getTypeClass(), (IClassPropertyType< ? >)type);
+				classTypes = new ClassTypes(typesByClass);
+			}
 			if (previous != null)
 			{
 				log.trace(
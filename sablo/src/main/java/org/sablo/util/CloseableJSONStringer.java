@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2026 Servoy BV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.sablo.util;
+
+/**
+ * A {@link DebugFriendlyJSONStringer} that is used in try-with-resources blocks, so that implementations (see {@link PooledJSONStringer}) can give back
+ * what they used after writing. This one simply writes, as org.json's JSONStringer does, into it's own StringWriter; {@link #close()} does nothing.
+ *
+ * @author agent
+ * @see JSONEngine#newWriter()
+ */
+public class CloseableJSONStringer extends DebugFriendlyJSONStringer implements AutoCloseable
+{
+
+	public CloseableJSONStringer()
+	{
+		super();
+	}
+
+	/**
+	 * Writes to the given buffer instead of the StringWriter that JSONStringer would normally use.
+	 */
+	protected CloseableJSONStringer(ReusableStringWriter buffer)
+	{
+		super(buffer);
+	}
+
+	/**
+	 * Checks if what was written so far contains the given string.
+	 */
+	public boolean contentContains(String str)
+	{
+		return writer.toString().contains(str);
+	}
+
+	@Override
+	public void close()
+	{
+		// nothing to give back
+	}
+
+}
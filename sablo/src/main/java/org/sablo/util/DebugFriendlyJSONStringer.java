@@ -27,6 +27,20 @@ import org.json.JSONStringer;
 public class DebugFriendlyJSONStringer extends JSONStringer
 {
 
+	public DebugFriendlyJSONStringer()
+	{
+		super();
+	}
+
+	/**
+	 * Writes to the given buffer instead of the StringWriter that JSONStringer would normally use.
+	 */
+	protected DebugFriendlyJSONStringer(ReusableStringWriter buffer)
+	{
+		super();
+		this.writer = buffer;
+	}
+
 	@Override
 	public String toString()
 	{
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2026 Servoy BV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.sablo.util;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Parses the JSON messages that come from the browser and gives the writers that are used for the JSON messages that are sent to the browser.<br/><br/>
+ *
+ * This default implementation parses using org.json (new JSONObject(String)) and writes using {@link PooledJSONStringer}. The engine that is used
+ * can be chosen through the "sablo.json.engine" system property ("default" or "streaming" - see {@link StreamingJSONEngine}) or it can be replaced
+ * programmatically via {@link #setEngine(JSONEngine)}.<br/>
+ * Any implementation must give the same JSONObject contents and write the same JSON text as this one does (for valid JSON).
+ *
+ * @author agent
+ */
+@SuppressWarnings("nls")
+public class JSONEngine
+{
+
+	private static final Logger log = LoggerFactory.getLogger(JSONEngine.class.getCanonicalName());
+
+	public static final String DEFAULT = "default";
+	public static final String STREAMING = "streaming";
+
+	private static volatile JSONEngine engine = createEngine(System.getProperty("sablo.json.engine", DEFAULT));
+
+	/**
+	 * @return the engine that is currently in use.
+	 */
+	public static JSONEngine getEngine()
+	{
+		return engine;
+	}
+
+	/**
+	 * Replaces the engine that is used; null goes back to the default one.
+	 */
+	public static void setEngine(JSONEngine newEngine)
+	{
+		engine = (newEngine != null ? newEngine : new JSONEngine());
+	}
+
+	/**
+	 * @param name one of {@link #DEFAULT} or {@link #STREAMING}; anything else will log a warning and give the default engine.
+	 */
+	public static JSONEngine createEngine(String name)
+	{
+		if (STREAMING.equals(name)) return new StreamingJSONEngine();
+		if (!DEFAULT.equals(name)) log.warn("Unknown sablo.json.engine '" + name + "'; using the default one.");
+		return new JSONEngine();
+	}
+
+	/**
+	 * Parses a JSON object (for example a message that was received from the browser).
+	 *
+	 * @throws JSONException if the given text is not a JSON object.
+	 */
+	public JSONObject parseObject(String text) throws JSONException
+	{
+		return new JSONObject(text);
+	}
+
+	/**
+	 * Gives a new writer; it has to be closed (use it in a try-with-resources) on the thread that created it, after it's content was used.
+	 */
+	public CloseableJSONStringer newWriter()
+	{
+		return new PooledJSONStringer();
+	}
+
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright (C) 2026 Servoy BV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.sablo.util;
+
+import java.util.Arrays;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONString;
+import org.json.JSONWriter;
+
+/**
+ * A {@link CloseableJSONStringer} that writes into a {@link ReusableStringWriter} taken from the current thread's pool.<br/>
+ * It must be used in a try-with-resources (or closed in a finally block) on the thread that created it; after {@link #close()} the content is no longer available,
+ * so get what you need (via {@link #toString()}) before that.<br/><br/>
+ *
+ * It writes exactly the same output as JSONWriter (and it throws the same exceptions for misplaced keys/values), but it writes directly into the buffer
+ * (strings are quoted in place, no intermediate String/StringWriter instances) and it does not keep a JSONObject for each nesting level.
+ * The only difference is that it does not check for duplicate keys in an object.
+ *
+ * @author agent
+ */
+@SuppressWarnings("nls")
+public class PooledJSONStringer extends CloseableJSONStringer
+{
+
+	private static final int MAX_DEPTH = 200;
+
+	private final ReusableStringWriter buffer;
+
+	private boolean[] nestingIsObject = new boolean[16];
+	private int top;
+	private boolean comma;
+
+	public PooledJSONStringer()
+	{
+		this(ReusableStringWriter.acquire());
+	}
+
+	private PooledJSONStringer(ReusableStringWriter buffer)
+	{
+		super(buffer);
+		this.buffer = buffer;
+	}
+
+	/**
+	 * Checks if what was written so far contains the given string; it does not copy the buffer's content like toString() does.
+	 */
+	@Override
+	public boolean contentContains(String str)
+	{
+		return buffer.contains(str);
+	}
+
+	/**
+	 * Gives the underlying buffer back to the current thread's pool.
+	 */
+	@Override
+	public void close()
+	{
+		ReusableStringWriter.release(buffer);
+	}
+
+	@Override
+	public JSONWriter array() throws JSONException
+	{
+		if (mode == 'i' || mode == 'o' || mode == 'a')
+		{
+			if (comma && mode == 'a') buffer.write(',');
+			push(false);
+			buffer.write('[');
+			comma = false;
+			return this;
+		}
+		throw new JSONException("Misplaced array.");
+	}
+
+	@Override
+	public JSONWriter object() throws JSONException
+	{
+		if (mode == 'i') mode = 'o';
+		if (mode == 'o' || mode == 'a')
+		{
+			if (comma && mode == 'a') buffer.write(',');
+			push(true);
+			buffer.write('{');
+			comma = false;
+			return this;
+		}
+		throw new JSONException("Misplaced object.");
+	}
+
+	@Override
+	public JSONWriter endArray() throws JSONException
+	{
+		return end('a', ']');
+	}
+
+	@Override
+	public JSONWriter endObject() throws JSONException
+	{
+		return end('k', '}');
+	}
+
+	private JSONWriter end(char expectedMode, char c) throws JSONException
+	{
+		if (mode != expectedMode) throw new JSONException(expectedMode == 'a' ? "Misplaced endArray." : "Misplaced endObject.");
+
+		top--;
+		mode = (top == 0) ? 'd' : (nestingIsObject[top - 1] ? 'k' : 'a');
+		buffer.write(c);
+		comma = true;
+		return this;
+	}
+
+	private void push(boolean isObject) throws JSONException
+	{
+		if (top >= MAX_DEPTH) throw new JSONException("Nesting too deep.");
+		if (top == nestingIsObject.length) nestingIsObject = Arrays.copyOf(nestingIsObject, top << 1);
+
+		nestingIsObject[top++] = isObject;
+		mode = isObject ? 'k' : 'a';
+	}
+
+	@Override
+	public JSONWriter key(String string) throws JSONException
+	{
+		if (string == null) throw new JSONException("Null key.");
+		if (mode == 'k')
+		{
+			if (comma) buffer.write(',');
+			writeQuoted(string);
+			buffer.write(':');
+			comma = false;
+			mode = 'o';
+			return this;
+		}
+		throw new JSONException("Misplaced key.");
+	}
+
+	private void beforeValue() throws JSONException
+	{
+		if (mode == 'o' || mode == 'a')
+		{
+			if (comma && mode == 'a') buffer.write(',');
+		}
+		else throw new JSONException("Value out of sequence.");
+	}
+
+	private JSONWriter afterValue()
+	{
+		if (mode == 'o') mode = 'k';
+		comma = true;
+		return this;
+	}
+
+	@Override
+	public JSONWriter value(boolean b) throws JSONException
+	{
+		beforeValue();
+		buffer.write(b ? "true" : "false");
+		return afterValue();
+	}
+
+	@Override
+	public JSONWriter value(long l) throws JSONException
+	{
+		beforeValue();
+		buffer.write(Long.toString(l));
+		return afterValue();
+	}
+
+	@Override
+	public JSONWriter value(double d) throws JSONException
+	{
+		return value(Double.valueOf(d));
+	}
+
+	@Override
+	public JSONWriter value(Object value) throws JSONException
+	{
+		if (value instanceof String)
+		{
+			beforeValue();
+			writeQuoted((String)value);
+			return afterValue();
+		}
+		if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte)
+		{
+			return value(((Number)value).longValue());
+		}
+		if (value instanceof Boolean)
+		{
+			return value(((Boolean)value).booleanValue());
+		}
+		if (value == null || value == JSONObject.NULL)
+		{
+			beforeValue();
+			buffer.write("null");
+			return afterValue();
+		}
+
+		String jsonValue = null;
+		if (value instanceof JSONString) jsonValue = ((JSONString)value).toJSONString();
+		if (jsonValue == null) jsonValue = JSONObject.valueToString(value); // anything else (or bad JSONString values) as JSONWriter would do it
+
+		beforeValue();
+		buffer.write(jsonValue);
+		return afterValue();
+	}
+
+	/**
+	 * Same as JSONObject.quote(String) but it writes directly to the buffer.
+	 */
+	private void writeQuoted(String string)
+	{
+		int len = string.length();
+		if (len == 0)
+		{
+			buffer.write("\"\"");
+			return;
+		}
+
+		char b;
+		char c = 0;
+		buffer.write('"');
+		for (int i = 0; i < len; i++)
+		{
+			b = c;
+			c = string.charAt(i);
+			switch (c)
+			{
+				case '\\' :
+				case '"' :
+					buffer.write('\\');
+					buffer.write(c);
+					break;
+				case '/' :
+					if (b == '<') buffer.write('\\');
+					buffer.write(c);
+					break;
+				case '\b' :
+					buffer.write("\\b");
+					break;
+				case '\t' :
+					buffer.write("\\t");
+					break;
+				case '\n' :
+					buffer.write("\\n");
+					break;
+				case '\f' :
+					buffer.write("\\f");
+					break;
+				case '\r' :
+					buffer.write("\\r");
+					break;
+				default :
+					if (c < ' ' || (c >= '\u0080' && c < '\u00a0') || (c >= '\u2000' && c < '\u2100'))
+					{
+						String hhhh = Integer.toHexString(c);
+						buffer.write("\\u");
+						buffer.write("0000", 0, 4 - hhhh.length());
+						buffer.write(hhhh);
+					}
+					else buffer.write(c);
+			}
+		}
+		buffer.write('"');
+	}
+
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (C) 2026 Servoy BV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.sablo.util;
+
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * A non-synchronized char buffer Writer (unlike StringWriter which is backed by a synchronized StringBuffer) that can be reset and reused.<br/><br/>
+ *
+ * Instances are meant to be thread-confined; use {@link #acquire()} and {@link #release(ReusableStringWriter)} (always on the same thread and in a try/finally)
+ * to get/give back one from the pool of the current thread. This avoids allocating (and growing) big char arrays for each message that is sent to the client.
+ *
+ * @author agent
+ */
+public class ReusableStringWriter extends Writer
+{
+
+	private static final int INITIAL_CAPACITY = 1024;
+
+	/**
+	 * Max. number of buffers kept in the pool of each thread. Nested writers (for example EmbeddableJSONWriter used while writing a message) need more then one.
+	 */
+	private static final int MAX_POOLED_PER_THREAD = 4;
+
+	/**
+	 * Buffers that grew bigger then this (number of chars) will not be kept in the pool - so that a huge message does not keep a huge array allocated per thread forever.
+	 */
+	private static final int MAX_RETAINED_CAPACITY = Integer.parseInt(System.getProperty("sablo.json.writer.buffer.max.retained.chars", "1048576")); //$NON-NLS-1$ //$NON-NLS-2$
+
+	private static final ThreadLocal<ArrayDeque<ReusableStringWriter>> POOL = ThreadLocal
+		.withInitial(() -> new ArrayDeque<ReusableStringWriter>(MAX_POOLED_PER_THREAD));
+
+	private char[] buf;
+	private int count;
+	private boolean pooled;
+
+	public ReusableStringWriter()
+	{
+		this(INITIAL_CAPACITY);
+	}
+
+	public ReusableStringWriter(int initialCapacity)
+	{
+		buf = new char[initialCapacity];
+	}
+
+	/**
+	 * Gives an empty buffer from the current thread's pool (or a new one if none is available).
+	 */
+	public static ReusableStringWriter acquire()
+	{
+		ReusableStringWriter b = POOL.get().pollFirst();
+		if (b == null) return new ReusableStringWriter();
+
+		b.pooled = false;
+		return b;
+	}
+
+	/**
+	 * Gives back a buffer that was previously obtained via {@link #acquire()}. It must be called on the same thread; the buffer must not be used afterwards.
+	 */
+	public static void release(ReusableStringWriter b)
+	{
+		if (b == null || b.pooled) return;
+
+		b.reset();
+		if (b.buf.length <= MAX_RETAINED_CAPACITY)
+		{
+			ArrayDeque<ReusableStringWriter> threadPool = POOL.get();
+			if (threadPool.size() < MAX_POOLED_PER_THREAD)
+			{
+				b.pooled = true;
+				threadPool.addFirst(b);
+			}
+		}
+	}
+
+	private void ensureCapacity(int minCapacity)
+	{
+		if (minCapacity > buf.length)
+		{
+			buf = Arrays.copyOf(buf, Math.max(buf.length << 1, minCapacity));
+		}
+	}
+
+	@Override
+	public void write(int c)
+	{
+		ensureCapacity(count + 1);
+		buf[count++] = (char)c;
+	}
+
+	@Override
+	public void write(char[] cbuf, int off, int len)
+	{
+		if (len == 0) return;
+		ensureCapacity(count + len);
+		System.arraycopy(cbuf, off, buf, count, len);
+		count += len;
+	}
+
+	@Override
+	public void write(String str)
+	{
+		write(str, 0, str.length());
+	}
+
+	@Override
+	public void write(String str, int off, int len)
+	{
+		if (len == 0) return;
+		ensureCapacity(count + len);
+		str.getChars(off, off + len, buf, count);
+		count += len;
+	}
+
+	@Override
+	public ReusableStringWriter append(CharSequence csq)
+	{
+		String s = String.valueOf(csq);
+		write(s, 0, s.length());
+		return this;
+	}
+
+	@Override
+	public ReusableStringWriter append(CharSequence csq, int start, int end)
+	{
+		return append(csq == null ? "null" : csq.subSequence(start, end)); //$NON-NLS-1$
+	}
+
+	@Override
+	public ReusableStringWriter append(char c)
+	{
+		write(c);
+		return this;
+	}
+
+	/**
+	 * Returns the number of chars written so far.
+	 */
+	public int length()
+	{
+		return count;
+	}
+
+	/**
+	 * Checks if what was written so far contains the given string - without copying the buffer into a new String.
+	 */
+	public boolean contains(String str)
+	{
+		int strLength = str.length();
+		if (strLength == 0) return true;
+
+		char first = str.charAt(0);
+		int max = count - strLength;
+		for (int i = 0; i <= max; i++)
+		{
+			if (buf[i] == first)
+			{
+				int j = 1;
+				while (j < strLength && buf[i + j] == str.charAt(j))
+					j++;
+				if (j == strLength) return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Clears the contents so that it can be reused. The allocated char array is kept.
+	 */
+	public void reset()
+	{
+		count = 0;
+	}
+
+	@Override
+	public String toString()
+	{
+		return new String(buf, 0, count);
+	}
+
+	@Override
+	public void flush()
+	{
+	}
+
+	@Override
+	public void close()
+	{
+	}
+
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2026 Servoy BV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.sablo.util;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * A {@link JSONEngine} that parses JSON objects directly from the String, without the Reader/JSONTokener that org.json uses (so no per char synchronized
+ * reads, no StringBuilder for each string or number).<br/>
+ * The resulting JSONObjects are the same as the ones that org.json creates (numbers are converted by org.json as well). Anything that is not strictly valid JSON
+ * (org.json accepts some more, like unquoted strings) is given to org.json to parse so the result (or the exception) is always the same.
+ *
+ * @author agent
+ */
+public class StreamingJSONEngine extends JSONEngine
+{
+
+	@Override
+	public JSONObject parseObject(String text) throws JSONException
+	{
+		JSONObject parsed = StreamingJSONParser.parseObject(text);
+		return parsed != null ? parsed : super.parseObject(text);
+	}
+
+}
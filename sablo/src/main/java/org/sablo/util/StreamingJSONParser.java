@@ -0,0 +1,252 @@
+/*
+ * Copyright (C) 2026 Servoy BV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.sablo.util;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Parses strictly valid JSON objects directly from a String (see {@link StreamingJSONEngine}).<br/>
+ * It gives up (returns null) as soon as it finds something that is not strictly valid JSON or that org.json would handle in a different way (duplicate keys,
+ * unusual escapes, unquoted strings...); the caller then lets org.json parse that text instead.
+ *
+ * @author agent
+ */
+final class StreamingJSONParser
+{
+
+	/**
+	 * Thrown internally to abort parsing; it is never seen outside of this class.
+	 */
+	@SuppressWarnings("serial")
+	private static final RuntimeException NOT_STRICT_JSON = new RuntimeException(null, null, false, false)
+	{
+	};
+
+	private final String text;
+	private final int length;
+	private int pos;
+	private StringBuilder escapedStringBuilder;
+
+	private StreamingJSONParser(String text)
+	{
+		this.text = text;
+		this.length = text.length();
+	}
+
+	/**
+	 * @return the parsed object or null if the given text is not strictly valid JSON object (in which case org.json should decide what to do with it).
+	 */
+	static JSONObject parseObject(String text)
+	{
+		if (text == null) return null;
+
+		StreamingJSONParser parser = new StreamingJSONParser(text);
+		try
+		{
+			if (parser.nextNonWhitespace() != '{') return null;
+			JSONObject result = parser.readObject();
+			if (parser.pos < parser.length && parser.nextNonWhitespace() != 0) return null; // something after the object
+			return result;
+		}
+		catch (RuntimeException e)
+		{
+			// NOT_STRICT_JSON or anything that org.json would complain about as well; let org.json parse it and throw it's own exception if needed
+			return null;
+		}
+	}
+
+	/**
+	 * Skips whitespace (as org.json does, anything up to and including ' ') and consumes the next char.
+	 * @return the next char or 0 if the end was reached.
+	 */
+	private char nextNonWhitespace()
+	{
+		while (pos < length)
+		{
+			char c = text.charAt(pos++);
+			if (c == 0) throw NOT_STRICT_JSON; // org.json would see that as end of input
+			if (c > ' ') return c;
+		}
+		return 0;
+	}
+
+	/**
+	 * Reads an object; the '{' was already consumed.
+	 */
+	private JSONObject readObject()
+	{
+		JSONObject obj = new JSONObject();
+		char c = nextNonWhitespace();
+		if (c == '}') return obj;
+
+		while (true)
+		{
+			if (c != '"') throw NOT_STRICT_JSON;
+			String key = readString();
+			if (nextNonWhitespace() != ':') throw NOT_STRICT_JSON;
+			if (obj.has(key)) throw NOT_STRICT_JSON; // org.json will report the duplicate key
+
+			obj.put(key, readValue(nextNonWhitespace()));
+
+			c = nextNonWhitespace();
+			if (c == '}') return obj;
+			if (c != ',') throw NOT_STRICT_JSON;
+			c = nextNonWhitespace();
+		}
+	}
+
+	/**
+	 * Reads an array; the '[' was already consumed.
+	 */
+	private JSONArray readArray()
+	{
+		JSONArray arr = new JSONArray();
+		char c = nextNonWhitespace();
+		if (c == ']') return arr;
+
+		while (true)
+		{
+			arr.put(readValue(c));
+
+			c = nextNonWhitespace();
+			if (c == ']') return arr;
+			if (c != ',') throw NOT_STRICT_JSON;
+			c = nextNonWhitespace();
+		}
+	}
+
+	/**
+	 * Reads a value; it's first char was already consumed.
+	 */
+	private Object readValue(char firstChar)
+	{
+		switch (firstChar)
+		{
+			case '{' :
+				return readObject();
+			case '[' :
+				return readArray();
+			case '"' :
+				return readString();
+			default :
+				if ((firstChar >= '0' && firstChar <= '9') || firstChar == '-' || firstChar == 't' || firstChar == 'f' || firstChar == 'n')
+				{
+					return readUnquoted();
+				}
+				throw NOT_STRICT_JSON;
+		}
+	}
+
+	/**
+	 * Reads a number, true, false or null; it's first char was already consumed. The conversion is done by org.json so it gives the same (Integer, Long,
+	 * BigDecimal...) values.
+	 */
+	private Object readUnquoted()
+	{
+		int start = pos - 1;
+		while (pos < length)
+		{
+			char c = text.charAt(pos);
+			if ((c >= '0' && c <= '9') || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '.' || c == '-' || c == '+') pos++;
+			else break;
+		}
+		Object value = JSONObject.stringToValue(text.substring(start, pos));
+		if (value instanceof String) throw NOT_STRICT_JSON; // so not a number, true, false or null
+		return value;
+	}
+
+	/**
+	 * Reads a string; the opening quote was already consumed.
+	 */
+	private String readString()
+	{
+		int start = pos;
+		while (pos < length)
+		{
+			char c = text.charAt(pos++);
+			if (c == '"') return text.substring(start, pos - 1);
+			if (c == '\\') return readEscapedString(start);
+			if (c == 0 || c == '\n' || c == '\r') throw NOT_STRICT_JSON;
+		}
+		throw NOT_STRICT_JSON;
+	}
+
+	/**
+	 * Continues reading a string that has escapes; the first backslash was just consumed.
+	 */
+	private String readEscapedString(int start)
+	{
+		StringBuilder sb = escapedStringBuilder;
+		if (sb == null) escapedStringBuilder = sb = new StringBuilder(Math.max(16, pos - start + 16));
+		else sb.setLength(0);
+
+		sb.append(text, start, pos - 1);
+		char c = '\\';
+		while (true)
+		{
+			if (c == '\\')
+			{
+				if (pos >= length) throw NOT_STRICT_JSON;
+				char escaped = text.charAt(pos++);
+				switch (escaped)
+				{
+					case 'b' :
+						sb.append('\b');
+						break;
+					case 't' :
+						sb.append('\t');
+						break;
+					case 'n' :
+						sb.append('\n');
+						break;
+					case 'f' :
+						sb.append('\f');
+						break;
+					case 'r' :
+						sb.append('\r');
+						break;
+					case '"' :
+					case '\\' :
+					case '/' :
+						sb.append(escaped);
+						break;
+					case 'u' :
+						if (pos + 4 > length) throw NOT_STRICT_JSON;
+						int code = 0;
+						for (int i = 0; i < 4; i++)
+						{
+							int digit = Character.digit(text.charAt(pos++), 16);
+							if (digit < 0) throw NOT_STRICT_JSON;
+							code = (code << 4) | digit;
+						}
+						sb.append((char)code);
+						break;
+					default :
+						throw NOT_STRICT_JSON;
+				}
+			}
+			else if (c == '"') return sb.toString();
+			else if (c == 0 || c == '\n' || c == '\r') throw NOT_STRICT_JSON;
+			else sb.append(c);
+
+			if (pos >= length) throw NOT_STRICT_JSON;
+			c = text.charAt(pos++);
+		}
+	}
+
+}
@@ -38,6 +38,7 @@ import org.json.JSONStringer;
 import org.json.JSONWriter;
 import org.sablo.Container;
 import org.sablo.WebComponent;
+import org.sablo.services.server.FormServiceHandler;
 import org.sablo.specification.IFunctionParameters;
 import org.sablo.specification.PropertyDescription;
 import org.sablo.specification.PropertyDescriptionBuilder;
@@ -47,7 +48,8 @@ import org.sablo.specification.WebObjectSpecification.PushToServerEnum;
 import org.sablo.specification.property.BrowserConverterContext;
 import org.sablo.specification.property.IBrowserConverterContext;
 import org.sablo.specification.property.types.AggregatedPropertyType;
-import org.sablo.util.DebugFriendlyJSONStringer;
+import org.sablo.util.CloseableJSONStringer;
+import org.sablo.util.JSONEngine;
 import org.sablo.websocket.impl.ClientService;
 import org.sablo.websocket.utils.JSONUtils;
 import org.sablo.websocket.utils.JSONUtils.ChangesToJSONConverter;
@@ -329,6 +331,7 @@ public class BaseWindow implements IWindow
 		Map<String, String> msg = new HashMap<>();
 		msg.put("clientnr", String.valueOf(getSession().getSessionKey().getClientnr()));
 		msg.put("windownr", String.valueOf(windowNr));
+		if (FormServiceHandler.DATA_PUSH_BATCH_ENABLED) msg.put("dataPushBatch", "true");
 		sendAsyncMessage(msg, null, FullValueToJSONConverter.INSTANCE);
 	}
 
@@ -401,6 +404,18 @@ public class BaseWindow implements IWindow
 		getClientSideWindowState().removeUsedContainer(container);
 	}
 
+	@Override
+	public synchronized void markContainerAsChanged(Container container)
+	{
+		getClientSideWindowState().markUsedContainerAsChanged(container);
+	}
+
+	@Override
+	public LastSentValueDigests getLastSentValueDigests()
+	{
+		return getClientSideWindowState().getLastSentValueDigests();
+	}
+
 	/**
 	 * Sends a message to the client/browser, containing the given data (transformed into JSON based on give dataTypes).
 	 *
@@ -519,11 +534,10 @@ public class BaseWindow implements IWindow
 			throw new IOException("Endpoint was closed"); //$NON-NLS-1$
 		}
 
-		try
+		boolean hasContentToSend = false;
+		try (CloseableJSONStringer w = JSONEngine.getEngine().newWriter())
 		{
-			boolean hasContentToSend = false;
 			boolean containsModelChanges = false;
-			JSONStringer w = new DebugFriendlyJSONStringer();
 			w.object();
 
 			if (dataWriter != null)
@@ -572,7 +586,7 @@ public class BaseWindow implements IWindow
 				{
 					w.endArray();
 				}
-				if (!containsModelChanges && callObjectStarted && asyncAPIs && !w.toString().contains("\"msg\":"))
+				if (!containsModelChanges && callObjectStarted && asyncAPIs && !w.contentContains("\"msg\":"))
 				{
 					// if we execute some async api and model is not already sent, we have to send it before execution, like we do for sync api
 					w.key("msg");
@@ -603,22 +617,21 @@ public class BaseWindow implements IWindow
 				serviceCalls.clear();
 				clientToServerCallReturnValue = null;
 			}
-
-			hasContentToSend = checkForAndSendAnyUnexpectedRemainingChangesOfDataWriter(dataWriter, converter) || hasContentToSend;
-
-			return hasContentToSend;
 		}
 		catch (JSONException e)
 		{
 			throw new IOException(e);
 		}
+
+		// the pooled writer of the message above is released by now, so the buffer can be reused by this (normally no-op) check
+		hasContentToSend = checkForAndSendAnyUnexpectedRemainingChangesOfDataWriter(dataWriter, converter) || hasContentToSend;
+
+		return hasContentToSend;
 	}
 
 	private boolean checkForAndSendAnyUnexpectedRemainingChangesOfDataWriter(IToJSONWriter<IBrowserConverterContext> dataWriter,
 		IToJSONConverter<IBrowserConverterContext> converter) throws IOException
 	{
-		JSONStringer w;
-
 		boolean hasContentToSend = false;
 		if (dataWriter != null)
 		{
@@ -627,21 +640,22 @@ public class BaseWindow implements IWindow
 			boolean keepGoing = true;
 			while (keepGoing && i-- > 0)
 			{
-				w = new DebugFriendlyJSONStringer();
-
-				w.object();
-				keepGoing = dataWriter.checkForAndWriteAnyUnexpectedRemainingChanges(w, "msg", converter);
-				if (keepGoing) // it did write stuff to JSON
+				try (CloseableJSONStringer w = JSONEngine.getEngine().newWriter())
 				{
-					if (i == MAX_ALLOWED_TO_JSON_GENERATING_UNEXPECTED_CHANGE_ITERATIONS - 1) log.debug(
-						"A new change was registered on window while previous changes were being written; probably one property's toJSON ends up marking another property (in any form and any component in the same window) as dirty. This should be avoided. If you see this message without a stacktrace that explains it further it means that the properties that interact unexpectedly could be from different components/services.");
-					// we do log above the warning but BaseWebObject, custom obj and array types also have code that will print stack traces as well when the unexpected interaction happens between child properties
-					// if that does not appear in log and you can't debug, you could enable full websocket logging to see what exactly the messages being sent to client were (could help make an idea which properties from which base objects interact with other)
+					w.object();
+					keepGoing = dataWriter.checkForAndWriteAnyUnexpectedRemainingChanges(w, "msg", converter);
+					if (keepGoing) // it did write stuff to JSON
+					{
+						if (i == MAX_ALLOWED_TO_JSON_GENERATING_UNEXPECTED_CHANGE_ITERATIONS - 1) log.debug(
+							"A new change was registered on window while previous changes were being written; probably one property's toJSON ends up marking another property (in any form and any component in the same window) as dirty. This should be avoided. If you see this message without a stacktrace that explains it further it means that the properties that interact unexpectedly could be from different components/services.");
+						// we do log above the warning but BaseWebObject, custom obj and array types also have code that will print stack traces as well when the unexpected interaction happens between child properties
+						// if that does not appear in log and you can't debug, you could enable full websocket logging to see what exactly the messages being sent to client were (could help make an idea which properties from which base objects interact with other)
 
-					hasContentToSend = true;
-					w.endObject();
+						hasContentToSend = true;
+						w.endObject();
 
-					sendMessageText(w.toString());
+						sendMessageText(w.toString());
+					}
 				}
 			}
 			if (keepGoing) log.error("The maximum number (" + MAX_ALLOWED_TO_JSON_GENERATING_UNEXPECTED_CHANGE_ITERATIONS +
@@ -664,10 +678,9 @@ public class BaseWindow implements IWindow
 			throw new IOException("Endpoint was closed"); //$NON-NLS-1$
 		}
 
-		try
+		try (CloseableJSONStringer w = JSONEngine.getEngine().newWriter())
 		{
 			boolean hasContentToSend = false;
-			JSONStringer w = new DebugFriendlyJSONStringer();
 			w.object();
 
 			if (dataWriter != null)
@@ -900,9 +913,16 @@ public class BaseWindow implements IWindow
 	{
 		boolean contentHasBeenWritten = false;
 
-		for (Container fc : getClientSideWindowState().getUsedContainers())
+		// only look at the containers that were marked as changed, not at all used containers
+		ClientSideWindowState clientSideWindowState = getClientSideWindowState();
+		for (Container fc : clientSideWindowState.getChangedUsedContainers())
 		{
-			if (fc.isChanged() && shouldSendChangesToClientWhenAvailable(fc))
+			if (!fc.isChanged())
+			{
+				// for example it only has changes in properties that are not visible; if those become visible it will be marked as changed again
+				clientSideWindowState.removeChangedUsedContainer(fc);
+			}
+			else if (shouldSendChangesToClientWhenAvailable(fc))
 			{
 				if (!contentHasBeenWritten)
 				{
@@ -910,9 +930,11 @@ public class BaseWindow implements IWindow
 					w.object();
 					contentHasBeenWritten = true;
 				}
+				// remove it before writing; if writing triggers new changes then it will be marked as changed again
+				clientSideWindowState.removeChangedUsedContainer(fc);
 				String containerName = fc.getName();
 				fc.writeAllComponentsChanges(w, containerName, converter);
-			}
+			} // else keep it as changed; it's changes will be sent when shouldSendChangesToClientWhenAvailable(...) allows it
 		}
 		if (contentHasBeenWritten) w.endObject();
 		return contentHasBeenWritten;
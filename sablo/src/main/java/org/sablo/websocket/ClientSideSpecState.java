@@ -16,10 +16,16 @@
 
 package org.sablo.websocket;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 
 import org.sablo.Container;
 import org.sablo.WebComponent;
+import org.sablo.specification.ClientSideTypeBundle;
+import org.sablo.specification.ClientSideTypeCache;
+import org.sablo.specification.SpecProviderState;
 import org.sablo.specification.WebComponentSpecProvider;
 import org.sablo.specification.WebObjectSpecification;
 import org.sablo.specification.WebServiceSpecProvider;
@@ -52,6 +58,16 @@ public class ClientSideSpecState
 	 */
 	public void sendAllServiceClientSideSpecs()
 	{
+		if (ClientSideTypeBundle.ENABLED)
+		{
+			ClientSideTypeBundle bundle = WebServiceSpecProvider.getInstance().getClientSideSpecsBundle();
+			if (bundle != null && window.getSession() != null)
+			{
+				window.getSession().getTypesRegistryService().loadClientSideSpecBundles(Collections.singletonList(bundle));
+			}
+			return;
+		}
+
 		EmbeddableJSONWriter clSideSpecs = WebServiceSpecProvider.getInstance().getClientSideSpecs();
 		if (clSideSpecs != null)
 		{
@@ -68,9 +84,19 @@ public class ClientSideSpecState
 	public void handleNewContainerToBeSentToClient(Container container)
 	{
 		// as a note - container.getComponents() in case of Servoy will also already contain all simple form component component child components (not the ones in list form component component)
-		boolean hasClientSideSpecs = false;
-		EmbeddableJSONWriter toBeSent = new EmbeddableJSONWriter();
-		toBeSent.object(); // keys are spec names, values are objects so: { compNameFromSpec: { /* see comment from ClientSideTypeCache.getClientSideTypesFor() */ } , ... }
+		if (ClientSideTypeBundle.ENABLED)
+		{
+			List<ClientSideTypeBundle> bundlesToBeLoaded = new ArrayList<>(1);
+			addBundlesToBeLoaded(container, bundlesToBeLoaded);
+			if (bundlesToBeLoaded.size() > 0 && window.getSession() != null)
+			{
+				window.getSession().getTypesRegistryService().loadClientSideSpecBundles(bundlesToBeLoaded);
+			}
+			return;
+		}
+
+		// it is only created when there is something to send; most of the times all component types of a container were already sent to this window
+		EmbeddableJSONWriter toBeSent = null;
 		for (WebComponent component : container.getComponents())
 		{
 			WebObjectSpecification componentSpec = component.getSpecification();
@@ -84,17 +110,22 @@ public class ClientSideSpecState
 					componentSpec);
 				if (clSideSpecForThisComponent != null)
 				{
+					if (toBeSent == null)
+					{
+						toBeSent = new EmbeddableJSONWriter();
+						toBeSent.object(); // keys are spec names, values are objects so: { compNameFromSpec: { /* see comment from ClientSideTypeCache.getClientSideTypesFor() */ } , ... }
+					}
 					toBeSent.key(componentType).value(clSideSpecForThisComponent);
-					hasClientSideSpecs = true;
 				}
 			}
 
 			if (component instanceof Container) handleNewContainerToBeSentToClient((Container)component); // for components that have child components through component prop. type
 		}
-		toBeSent.endObject();
 
-		if (hasClientSideSpecs)
+		if (toBeSent != null)
 		{
+			toBeSent.endObject();
+
 			if (window.getSession() != null)
 			{
 				window.getSession().getTypesRegistryService().addComponentClientSideSpecs(toBeSent);
@@ -103,6 +134,40 @@ public class ClientSideSpecState
 
 	}
 
+	private void addBundlesToBeLoaded(Container container, List<ClientSideTypeBundle> bundlesToBeLoaded)
+	{
+		for (WebComponent component : container.getComponents())
+		{
+			WebObjectSpecification componentSpec = component.getSpecification();
+			if (componentsWhosClientSpecsWereAlreadySentToClient.put(componentSpec.getName(), DUMMY_O) == null)
+			{
+				// the browser window does not have yet the bundle of this component's package; all components from that package will be there once it is loaded
+				ClientSideTypeBundle bundle = getClientSideSpecBundleFor(componentSpec);
+				if (bundle != null)
+				{
+					for (String specName : bundle.getSpecNames())
+						componentsWhosClientSpecsWereAlreadySentToClient.put(specName, DUMMY_O);
+					bundlesToBeLoaded.add(bundle);
+				}
+			}
+
+			if (component instanceof Container) addBundlesToBeLoaded((Container)component, bundlesToBeLoaded); // for components that have child components through component prop. type
+		}
+	}
+
+	private static ClientSideTypeBundle getClientSideSpecBundleFor(WebObjectSpecification componentSpec)
+	{
+		while (true)
+		{
+			SpecProviderState componentSpecs = WebComponentSpecProvider.getSpecProviderState();
+			ClientSideTypeCache clientSideTypeCache = componentSpecs.getClientSideTypeCache();
+			ClientSideTypeBundle bundle = clientSideTypeCache.getClientSideSpecBundleFor(componentSpec, componentSpecs);
+
+			// if the specs were reloaded meanwhile, the previous generation no longer gives (serves) bundles; use the new one
+			if (bundle != null || !clientSideTypeCache.isDisposed()) return bundle;
+		}
+	}
+
 	public void dispose()
 	{
 		componentsWhosClientSpecsWereAlreadySentToClient.clear();
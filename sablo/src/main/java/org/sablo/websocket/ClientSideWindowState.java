@@ -16,6 +16,7 @@
 
 package org.sablo.websocket;
 
+import java.util.Collections;
 import java.util.Set;
 import java.util.WeakHashMap;
 
@@ -41,7 +42,9 @@ public class ClientSideWindowState
 
 	private String currentFormUrl;
 	private final WeakHashMap<Container, Object> usedContainers = new WeakHashMap<>(3); // set of used container browser-side - in order to collect all changes and send them when needed
+	private final Set<Container> changedUsedContainers = Collections.newSetFromMap(new WeakHashMap<>(3)); // the used containers that marked themselves as changed since they were last written
 	private final ClientSideSpecState clientSideTypesWithConversionsState;
+	private final LastSentValueDigests lastSentValueDigests = createLastSentValueDigests();
 	protected final IWindow window;
 
 	public ClientSideWindowState(IWindow window)
@@ -87,9 +90,46 @@ public class ClientSideWindowState
 		clientSideTypesWithConversionsState.handleNewContainerToBeSentToClient(container);
 	}
 
+	/**
+	 * Returns a copy of the used containers that were marked as changed (see {@link #markUsedContainerAsChanged(Container)}) and not removed since via {@link #removeChangedUsedContainer(Container)}.
+	 */
+	public Container[] getChangedUsedContainers()
+	{
+		return changedUsedContainers.toArray(new Container[changedUsedContainers.size()]);
+	}
+
+	public void markUsedContainerAsChanged(Container container)
+	{
+		if (usedContainers.containsKey(container)) changedUsedContainers.add(container);
+	}
+
+	public void removeChangedUsedContainer(Container container)
+	{
+		changedUsedContainers.remove(container);
+	}
+
+	/**
+	 * Gives the opportunity to subclasses to always (or never) track the values that were last sent to the client.
+	 *
+	 * @return null if the "sablo.changes.skip.values.already.on.client" system property is not true.
+	 */
+	protected LastSentValueDigests createLastSentValueDigests()
+	{
+		return LastSentValueDigests.ENABLED ? new LastSentValueDigests() : null;
+	}
+
+	/**
+	 * @return null if values last sent to the client are not tracked (see {@link #createLastSentValueDigests()}).
+	 */
+	public LastSentValueDigests getLastSentValueDigests()
+	{
+		return lastSentValueDigests;
+	}
+
 	public void removeUsedContainer(Container container)
 	{
 		usedContainers.remove(container);
+		changedUsedContainers.remove(container);
 		// clientSideTypesWithConversionsState.containerRemoved(container); // we could do this and remove types that are no longer used... but custom components are a limited number and future forms might want to reuse them
 		// so it's not a memory leak; we just keep them there on client to not need to re-send them later if they are needed again; a browser refresh will clear them anyway
 	}
@@ -112,6 +152,8 @@ public class ClientSideWindowState
 			c.clearRegisteredToWindow();
 		});
 		usedContainers.clear();
+		changedUsedContainers.clear();
+		if (lastSentValueDigests != null) lastSentValueDigests.clear();
 
 		clientSideTypesWithConversionsState.handleFreshBrowserWindowConnected();
 	}
@@ -120,6 +162,8 @@ public class ClientSideWindowState
 	{
 		currentFormUrl = null;
 		usedContainers.clear();
+		changedUsedContainers.clear();
+		if (lastSentValueDigests != null) lastSentValueDigests.clear();
 		clientSideTypesWithConversionsState.dispose();
 	}
 
@@ -72,6 +72,26 @@ public interface IWindow
 	 */
 	void unregisterContainer(Container container);
 
+	/**
+	 * Called by a container that was registered to this window (see {@link #registerContainer(Container)}) when it or any of it's children get changes that need to be sent to the client.
+	 * Implementations can use this to only look at changed containers in {@link #writeAllComponentsChanges(JSONWriter, String, IToJSONConverter)}.
+	 *
+	 * @param container the registered container that has changes.
+	 */
+	default void markContainerAsChanged(Container container)
+	{
+	}
+
+	/**
+	 * Gives what was last sent to the client for simple typed component properties, if the "sablo.changes.skip.values.already.on.client" system property is true.
+	 *
+	 * @return null if that is not tracked for this window.
+	 */
+	default LastSentValueDigests getLastSentValueDigests()
+	{
+		return null;
+	}
+
 	int getNr();
 
 	String getName();
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2026 Servoy BV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.sablo.websocket;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.sablo.BaseWebObject;
+import org.sablo.specification.PropertyDescription;
+import org.sablo.specification.property.IPropertyConverterForBrowserWithDynamicClientType;
+import org.sablo.specification.property.IPropertyType;
+import org.sablo.specification.property.IPropertyWithClientSideConversions;
+import org.sablo.specification.property.ISupportsGranularUpdates;
+import org.sablo.specification.property.IWrapperType;
+
+/**
+ * Remembers - per browser window - a compact digest of the JSON that was last sent to the client for simple typed properties (strings, numbers, booleans, colors, dimensions)
+ * of components. Component changes whose JSON is identical to what the client already has can then be left out of the message.<br/><br/>
+ *
+ * It is only used when the "sablo.changes.skip.values.already.on.client" system property is true. It assumes that the client side components do not change
+ * these properties client side without sending the new value to the server (values received from the client are forgotten, see {@link #forget(BaseWebObject, String)}).<br/><br/>
+ *
+ * The JSON of short values is kept as is; for longer values only their length and a 64 bit hash of the JSON is kept.
+ *
+ * @author agent
+ */
+public class LastSentValueDigests
+{
+
+	public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("sablo.changes.skip.values.already.on.client", "false")); //$NON-NLS-1$ //$NON-NLS-2$
+
+	private static final int MAX_JSON_LENGTH_KEPT_AS_IS = 64;
+
+	private final WeakHashMap<BaseWebObject, Map<String, Object>> digestsPerWebObject = new WeakHashMap<>();
+
+	/**
+	 * @return true if the value of that property is of a simple type (that writes the same JSON for the same value and has no client side state or conversions) so that
+	 * it's JSON can be compared to the last one sent.
+	 */
+	public static boolean isSimpleValue(PropertyDescription pd, Object value)
+	{
+		if (!(value instanceof String || value instanceof Number || value instanceof Boolean || value instanceof Color || value instanceof Dimension)) return false;
+		if (pd == null) return false;
+
+		IPropertyType< ? > type = pd.getType();
+		return !(type instanceof IWrapperType || type instanceof ISupportsGranularUpdates || type instanceof IPropertyConverterForBrowserWithDynamicClientType ||
+			type instanceof IPropertyWithClientSideConversions);
+	}
+
+	/**
+	 * Gives the digest of the JSON of a value.
+	 */
+	public static Object digest(String json)
+	{
+		if (json.length() <= MAX_JSON_LENGTH_KEPT_AS_IS) return json;
+
+		// FNV-1a
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < json.length(); i++)
+		{
+			hash ^= json.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		return new LongDigest(json.length(), hash);
+	}
+
+	/**
+	 * Checks if the given digest is the one that was last sent to the client for the given property and, if it is not, remembers it as the last one sent.
+	 *
+	 * @return true if the client already has that value.
+	 */
+	public synchronized boolean checkAlreadySentOrRemember(BaseWebObject webObject, String propertyName, Object digest)
+	{
+		Map<String, Object> digests = digestsPerWebObject.get(webObject);
+		if (digests == null)
+		{
+			digests = new HashMap<>();
+			digestsPerWebObject.put(webObject, digests);
+		}
+		return digest.equals(digests.put(propertyName, digest));
+	}
+
+	/**
+	 * Forgets what was sent for that property; for example when a different kind of value is sent or when the client sends a new value for it.
+	 */
+	public synchronized void forget(BaseWebObject webObject, String propertyName)
+	{
+		Map<String, Object> digests = digestsPerWebObject.get(webObject);
+		if (digests != null) digests.remove(propertyName);
+	}
+
+	public synchronized void clear()
+	{
+		digestsPerWebObject.clear();
+	}
+
+	private static final class LongDigest
+	{
+		private final int length;
+		private final long hash;
+
+		private LongDigest(int length, long hash)
+		{
+			this.length = length;
+			this.hash = hash;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Long.hashCode(hash);
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			return obj instanceof LongDigest && ((LongDigest)obj).hash == hash && ((LongDigest)obj).length == length;
+		}
+	}
+
+}
@@ -21,10 +21,15 @@ import java.util.Set;
 
 import org.sablo.BaseWebObject;
 import org.sablo.specification.PropertyDescription;
+import org.sablo.specification.WebObjectSpecification;
 
 /**
  * Data and types representing root properties of a {@link BaseWebObject}.<br/>
- * It has information as well about which of the properties are changed by reference (fully changed) or just by content (so they could sent granular updates only).
+ * It has information as well about which of the properties are changed by reference (fully changed) or just by content (so they could sent granular updates only).<br/><br/>
+ *
+ * The {@link #contentType} can describe more properties than the ones that are present in {@link #content} (for example it is the {@link WebObjectSpecification}
+ * of the web object when it holds the changes of that web object - so that no new PropertyDescription has to be created for each set of changes); so only use
+ * contentType.getProperty(name) for the keys in {@link #content}, do not iterate over its properties.
  *
  * @author acostescu
  */
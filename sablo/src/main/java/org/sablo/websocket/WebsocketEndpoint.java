@@ -37,6 +37,7 @@ import org.json.JSONObject;
 import org.sablo.IllegalChangeFromClientException;
 import org.sablo.eventthread.EventDispatcher;
 import org.sablo.eventthread.IEventDispatcher;
+import org.sablo.util.JSONEngine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -364,7 +365,7 @@ public abstract class WebsocketEndpoint implements IWebsocketEndpoint
 		try
 		{
 			if (messageLogger != null) messageLogger.messageReceived(message);
-			final JSONObject obj = new JSONObject(message);
+			final JSONObject obj = JSONEngine.getEngine().parseObject(message);
 
 			if (obj.has("smsgid"))
 			{
@@ -29,11 +29,14 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.json.JSONString;
-import org.json.JSONStringer;
 import org.json.JSONWriter;
 import org.sablo.WebComponent;
 import org.sablo.specification.PropertyDescription;
 import org.sablo.specification.property.BrowserConverterContext;
+import org.sablo.specification.property.ChangeAwareList;
+import org.sablo.specification.property.ChangeAwareMap;
+import org.sablo.specification.property.CustomJSONArrayType;
+import org.sablo.specification.property.CustomJSONObjectType;
 import org.sablo.specification.property.IBrowserConverterContext;
 import org.sablo.specification.property.IClassPropertyType;
 import org.sablo.specification.property.IPropertyConverterForBrowser;
@@ -45,7 +48,10 @@ import org.sablo.specification.property.ISupportsGranularUpdatesWithDynamicClien
 import org.sablo.specification.property.IWrapperType;
 import org.sablo.specification.property.types.ObjectPropertyType;
 import org.sablo.specification.property.types.TypesRegistry;
+import org.sablo.util.CloseableJSONStringer;
 import org.sablo.util.DebugFriendlyJSONStringer;
+import org.sablo.util.JSONEngine;
+import org.sablo.util.ReusableStringWriter;
 import org.sablo.util.ValueReference;
 import org.sablo.websocket.TypedData;
 import org.slf4j.Logger;
@@ -64,6 +70,11 @@ public class JSONUtils
 	public static final String CONVERSION_CL_SIDE_TYPE_KEY = "_T";
 	public static final String VALUE_KEY = "_V";
 
+	/**
+	 * See {@link IToJSONConverter#getClientSideTypeBeforeWriting(Object, PropertyDescription, Object, boolean)}. Compare it by reference.
+	 */
+	public static final JSONString CLIENT_SIDE_TYPE_UNKNOWN_BEFORE_WRITING = new JSONStringWrapper();
+
 	private static final Logger log = LoggerFactory.getLogger(JSONUtils.class.getCanonicalName());
 	private static ObjectPropertyType objectPropertyType;
 
@@ -97,16 +108,24 @@ public class JSONUtils
 	public static <ContextT> String writeData(IToJSONConverter<ContextT> converter, Map<String, ? > data, PropertyDescription dataTypes, ContextT contextObject)
 		throws JSONException
 	{
-		JSONWriter writer = new JSONStringer().object();
-		writeData(converter, writer, data, dataTypes, contextObject);
-		return writer.endObject().toString();
+		try (CloseableJSONStringer writer = JSONEngine.getEngine().newWriter())
+		{
+			writer.object();
+			writeData(converter, writer, data, dataTypes, contextObject);
+			writer.endObject();
+			return writer.toString();
+		}
 	}
 
 	public static <ContextT> String writeComponentChanges(WebComponent component, ChangesToJSONConverter converter) throws JSONException
 	{
-		JSONWriter writer = new JSONStringer().object();
-		if (component.writeOwnChanges(writer, "comp", component.getName(), converter)) writer.endObject();
-		return writer.endObject().toString();
+		try (CloseableJSONStringer writer = JSONEngine.getEngine().newWriter())
+		{
+			writer.object();
+			if (component.writeOwnChanges(writer, "comp", component.getName(), converter)) writer.endObject();
+			writer.endObject();
+			return writer.toString();
+		}
 	}
 
 	/**
@@ -176,6 +195,34 @@ public class JSONUtils
 		return objectPropertyType.getJSONAndClientSideType(toJSONConverter, value, valueType, context);
 	}
 
+	/**
+	 * Same as {@link IToJSONConverter#toJSONValueWithClientType(JSONWriter, String, Object, PropertyDescription, Object, boolean)} but for default conversions.
+	 */
+	public static <ContextObject> boolean defaultToJSONValueWithClientType(IToJSONConverter<ContextObject> toJSONConverter, JSONWriter w, String key,
+		Object value, PropertyDescription valueType, ContextObject context) throws JSONException
+	{
+		if (objectPropertyType == null)
+		{
+			objectPropertyType = (ObjectPropertyType)TypesRegistry.getType(ObjectPropertyType.TYPE_NAME); // this will throw an exception if not found
+		}
+
+		return objectPropertyType.writeJSONAndClientSideType(toJSONConverter, w, key, value, valueType, context);
+	}
+
+	/**
+	 * Same as {@link IToJSONConverter#getClientSideTypeBeforeWriting(Object, PropertyDescription, Object, boolean)} but for default conversions.
+	 */
+	public static <ContextObject> JSONString getDefaultClientSideTypeBeforeWriting(IToJSONConverter<ContextObject> toJSONConverter, Object value,
+		PropertyDescription valueType, ContextObject context)
+	{
+		if (objectPropertyType == null)
+		{
+			objectPropertyType = (ObjectPropertyType)TypesRegistry.getType(ObjectPropertyType.TYPE_NAME); // this will throw an exception if not found
+		}
+
+		return objectPropertyType.getClientSideTypeBeforeWriting(toJSONConverter, value, valueType, context);
+	}
+
 	public static Object defaultFromJSON(Object newJSONValue, Object previousSabloValue, PropertyDescription propertyDescription,
 		IBrowserConverterContext context,
 		ValueReference<Boolean> returnValueAdjustedIncommingValue)
@@ -241,6 +288,26 @@ public class JSONUtils
 		else writeConvertedValueWithClientType(w, key, (JSONString)typeOfValue, valueWriter);
 	}
 
+	/**
+	 * Writes a value that was already converted to JSON (see {@link IToJSONConverter#getConvertedValueWithClientType(Object, PropertyDescription, Object, boolean)}) - including it's client side type
+	 * if it has one (see {@link #writeConvertedValueWithClientType(JSONWriter, String, JSONString, Callable)}).
+	 */
+	public static void writeValueWithClientType(JSONWriter w, String key, IJSONStringWithClientSideType valueAndType) throws JSONException
+	{
+		if (valueAndType.getClientSideType() != null)
+		{
+			writeConvertedValueWithClientType(w, key, valueAndType.getClientSideType(), () -> {
+				w.value(valueAndType);
+				return null;
+			});
+		}
+		else
+		{
+			addKeyIfPresent(w, key);
+			w.value(valueAndType);
+		}
+	}
+
 	public static EmbeddableJSONWriter getClientSideTypeJSONString(PropertyDescription pd)
 	{
 		if (!(pd.getType() instanceof IPropertyWithClientSideConversions)) return null;
@@ -311,7 +378,7 @@ public class JSONUtils
 	{
 		if (json == null) return null;
 
-		return new JSONObject(json).toString(); // just to validate - can we do this nicer with available lib (we might not need the "normalize" part)?
+		return JSONEngine.getEngine().parseObject(json).toString(); // just to validate - can we do this nicer with available lib (we might not need the "normalize" part)?
 	}
 
 //	/**
@@ -365,6 +432,39 @@ public class JSONUtils
 		IJSONStringWithClientSideType getConvertedValueWithClientType(Object value, PropertyDescription valueType,
 			ContextType context, boolean returnOnlyDynamicTypes);
 
+		/**
+		 * Writes to "writer" the same thing that writing the result of {@link #getConvertedValueWithClientType(Object, PropertyDescription, Object, boolean)}
+		 * would write (so including the client side type of the value - if it has one - as { _T: ..., _V: ... }).<br/><br/>
+		 *
+		 * When the client side type of the value can be decided before writing the value (see {@link #getClientSideTypeBeforeWriting(Object, PropertyDescription, Object, boolean)})
+		 * implementations should write the value directly into "writer" instead of first writing it separately and then copying it. This default implementation always writes it separately.
+		 *
+		 * @param key see {@link #toJSONValue(JSONWriter, String, Object, PropertyDescription, Object)}.
+		 * @param returnOnlyDynamicTypes see {@link #getConvertedValueWithClientType(Object, PropertyDescription, Object, boolean)}.
+		 * @return true if something was written, false otherwise (nothing, not even the key was written then).
+		 */
+		default boolean toJSONValueWithClientType(JSONWriter writer, String key, Object value, PropertyDescription valueType, ContextType context,
+			boolean returnOnlyDynamicTypes) throws JSONException
+		{
+			IJSONStringWithClientSideType valueAndType = getConvertedValueWithClientType(value, valueType, context, returnOnlyDynamicTypes);
+			if (valueAndType == null) return false;
+
+			writeValueWithClientType(writer, key, valueAndType);
+			return true;
+		}
+
+		/**
+		 * Gives - without writing anything - the client side type that {@link #getConvertedValueWithClientType(Object, PropertyDescription, Object, boolean)} would
+		 * give for the value (can be null).
+		 *
+		 * @return {@link JSONUtils#CLIENT_SIDE_TYPE_UNKNOWN_BEFORE_WRITING} if the client side type can only be known while writing the value (for example for
+		 * {@link IPropertyConverterForBrowserWithDynamicClientType} types). This default implementation always returns that.
+		 */
+		default JSONString getClientSideTypeBeforeWriting(Object value, PropertyDescription valueType, ContextType context, boolean returnOnlyDynamicTypes)
+		{
+			return CLIENT_SIDE_TYPE_UNKNOWN_BEFORE_WRITING;
+		}
+
 	}
 
 	public static class FullValueToJSONConverter implements IToJSONConverter<IBrowserConverterContext>
@@ -376,13 +476,12 @@ public class JSONUtils
 		public JSONWriter toJSONValue(JSONWriter writer, String key, Object value, PropertyDescription valueType, IBrowserConverterContext context)
 			throws JSONException, IllegalArgumentException
 		{
-			ValueReference<Boolean> typeDeterminedBasedOnClassOfValue = new ValueReference<Boolean>(Boolean.FALSE);
-			IPropertyConverterForBrowser convertingTypeToUse = findConvertingTypeToBrowser(value, valueType, typeDeterminedBasedOnClassOfValue);
+			IPropertyConverterForBrowser convertingTypeToUse = findConvertingTypeToBrowser(value, valueType);
 			if (convertingTypeToUse != null)
 			{
 				try
 				{
-					if (typeDeterminedBasedOnClassOfValue.value.booleanValue() && convertingTypeToUse instanceof IPropertyWithClientSideConversions)
+					if (isTypeDeterminedBasedOnClassOfValue(convertingTypeToUse, valueType) && convertingTypeToUse instanceof IPropertyWithClientSideConversions)
 					{
 						// so the IPropertyType that will be used when writing toJSON was initially unknown and then determined based on the java class of 'value' to be a IPropertyWithClientSideConversions...
 						// (for example if it's a Date)
@@ -415,43 +514,61 @@ public class JSONUtils
 			return writer;
 		}
 
+		/**
+		 * @deprecated use {@link #findConvertingTypeToBrowser(Object, PropertyDescription)} and {@link #isTypeDeterminedBasedOnClassOfValue(Object, PropertyDescription)};
+		 * this is no longer called by the converter itself, so overriding it has no effect - override {@link #findConvertingTypeToBrowser(Object, PropertyDescription)} instead.
+		 */
+		@Deprecated
 		protected IPropertyConverterForBrowser< ? > findConvertingTypeToBrowser(Object value, PropertyDescription valueType,
 			ValueReference<Boolean> typeDeterminedBasedOnClassOfValue)
 		{
-			if (value != null && valueType != null)
+			IPropertyConverterForBrowser< ? > convertingType = findConvertingTypeToBrowser(value, valueType);
+			if (typeDeterminedBasedOnClassOfValue != null && isTypeDeterminedBasedOnClassOfValue(convertingType, valueType))
 			{
-				IPropertyType< ? > type = valueType.getType();
+				typeDeterminedBasedOnClassOfValue.value = Boolean.TRUE;
+			}
+			return convertingType;
+		}
 
-				if (type instanceof ObjectPropertyType)
+		/**
+		 * Finds the type that should convert the given value to JSON. See {@link #isTypeDeterminedBasedOnClassOfValue(Object, PropertyDescription)} if you need to know
+		 * whether it is the type of the given PropertyDescription or it was determined based on the java class of the value.
+		 */
+		protected IPropertyConverterForBrowser< ? > findConvertingTypeToBrowser(Object value, PropertyDescription valueType)
+		{
+			// the PropertyDescription already knows (resolved once from it's type) how it's values should be converted
+			if (value != null && valueType != null)
+			{
+				if (valueType.isConvertedByClassOfValueFirst())
 				{
 					// for 'object' defined in .spec, which does implement IPropertyConverterForBrowser
 					// but it is just a default conversion actually, we will give precedence to
 					// any IClassPropertyType implementations
-					IPropertyConverterForBrowser< ? > classType = findClassPropertyType(value, typeDeterminedBasedOnClassOfValue);
+					IPropertyConverterForBrowser< ? > classType = findClassPropertyType(value);
 					if (classType != null) return classType;
 					// else go to next if and return the ObjectPropertyType
 				}
 
-				if (type instanceof IPropertyConverterForBrowser) // this includes IWrapperType
-				{
-					return (IPropertyConverterForBrowser< ? >)type;
-				}
+				IPropertyConverterForBrowser< ? > converter = valueType.getBrowserConverter(); // this includes IWrapperType
+				if (converter != null) return converter;
 			}
 
-			return findClassPropertyType(value, typeDeterminedBasedOnClassOfValue);
+			return findClassPropertyType(value);
 		}
 
-		private IPropertyConverterForBrowser< ? > findClassPropertyType(Object value, ValueReference<Boolean> typeDeterminedBasedOnClassOfValue)
+		/**
+		 * Tells (without having to allocate a ValueReference per value) if the type that {@link #findConvertingTypeToBrowser(Object, PropertyDescription)} returned
+		 * was determined based on the java class of the value instead of being the type of the given PropertyDescription.
+		 */
+		protected static boolean isTypeDeterminedBasedOnClassOfValue(Object convertingType, PropertyDescription valueType)
 		{
-			// best-effort to still find a way to write data and convert if needed follows
-			IClassPropertyType< ? > classType = value == null ? null : TypesRegistry.getType(value.getClass());
-			if (classType != null)
-			{
-				if (typeDeterminedBasedOnClassOfValue != null) typeDeterminedBasedOnClassOfValue.value = Boolean.TRUE;
-				return classType;
-			} // else we have no usable converting type; caller should use default conversion
+			return convertingType != null && (valueType == null || convertingType != valueType.getType());
+		}
 
-			return null;
+		private IPropertyConverterForBrowser< ? > findClassPropertyType(Object value)
+		{
+			// best-effort to still find a way to write data and convert if needed follows; if there is no usable converting type, caller should use default conversion
+			return value == null ? null : TypesRegistry.getType(value.getClass());
 		}
 
 		/**
@@ -477,12 +594,12 @@ public class JSONUtils
 		public IJSONStringWithClientSideType getConvertedValueWithClientType(Object value, PropertyDescription valueType, IBrowserConverterContext context,
 			boolean returnOnlyDynamicTypes)
 		{
-			ValueReference<Boolean> typeDeterminedBasedOnClassOfValue = new ValueReference<Boolean>(Boolean.FALSE);
-			IPropertyType< ? > type = (IPropertyType< ? >)findConvertingTypeToBrowser(value, valueType, typeDeterminedBasedOnClassOfValue);
+			IPropertyType< ? > type = (IPropertyType< ? >)findConvertingTypeToBrowser(value, valueType);
 
 			if (type instanceof IPropertyConverterForBrowserWithDynamicClientType)
 			{
-				EmbeddableJSONWriter ejw = new EmbeddableJSONWriter(true); // that 'true' is a workaround for allowing directly a value instead of object or array
+				ReusableStringWriter buffer = ReusableStringWriter.acquire(); // the content is copied out via toJSONString() below, so the buffer can be reused
+				EmbeddableJSONWriter ejw = new EmbeddableJSONWriter(true, buffer); // that 'true' is a workaround for allowing directly a value instead of object or array
 				JSONString clientSideConversionType;
 				try
 				{
@@ -496,16 +613,21 @@ public class JSONUtils
 						" current json: " + ejw.toString(), ex);
 					return null;
 				}
+				finally
+				{
+					ReusableStringWriter.release(buffer);
+				}
 			}
 			else if (type instanceof IPropertyConverterForBrowser)
 			{
 				JSONString clientSideConversionType;
-				EmbeddableJSONWriter ejw = new EmbeddableJSONWriter(true); // that 'true' is a workaround for allowing directly a value instead of object or array
+				ReusableStringWriter buffer = ReusableStringWriter.acquire(); // the content is copied out via toJSONString() below, so the buffer can be reused
+				EmbeddableJSONWriter ejw = new EmbeddableJSONWriter(true, buffer); // that 'true' is a workaround for allowing directly a value instead of object or array
 				try
 				{
 					((IPropertyConverterForBrowser)type).toJSON(ejw, null, value, valueType, context);
-					// in the condition below, typeDeterminedBasedOnClassOfValue.value.booleanValue() can be assimilated to a dynamic type scenario as the type was determined based on java class of value, it was not known initially
-					if ((!returnOnlyDynamicTypes || typeDeterminedBasedOnClassOfValue.value.booleanValue()) &&
+					// in the condition below, isTypeDeterminedBasedOnClassOfValue(type, valueType) can be assimilated to a dynamic type scenario as the type was determined based on java class of value, it was not known initially
+					if ((!returnOnlyDynamicTypes || isTypeDeterminedBasedOnClassOfValue(type, valueType)) &&
 						type instanceof IPropertyWithClientSideConversions)
 					{
 						clientSideConversionType = JSONUtils.getClientSideTypeJSONString((IPropertyWithClientSideConversions)type,
@@ -521,6 +643,10 @@ public class JSONUtils
 						" current json: " + ejw.toString(), ex);
 					return null;
 				}
+				finally
+				{
+					ReusableStringWriter.release(buffer);
+				}
 			}
 			else
 			{
@@ -529,6 +655,77 @@ public class JSONUtils
 			}
 		}
 
+		@Override
+		public boolean toJSONValueWithClientType(JSONWriter writer, String key, Object value, PropertyDescription valueType, IBrowserConverterContext context,
+			boolean returnOnlyDynamicTypes) throws JSONException
+		{
+			IPropertyType< ? > type = (IPropertyType< ? >)findConvertingTypeToBrowser(value, valueType);
+
+			if (type instanceof ObjectPropertyType)
+			{
+				// 'object' can write directly to writer most of the time; it uses FullValueToJSONConverter just like getConvertedValueWithClientType(...) does for it
+				try
+				{
+					return ((ObjectPropertyType)type).writeJSONAndClientSideType(FullValueToJSONConverter.INSTANCE, writer, key, value, valueType, context);
+				}
+				catch (Exception ex)
+				{
+					log.error("Error while converting value (with dynamic type) (toJSON with type): " + safeToString(value) + " to type: " + type +
+						" current json: " + writer.toString(), ex);
+					return false;
+				}
+			}
+			else if (type == null)
+			{
+				// default conversion
+				return defaultToJSONValueWithClientType(this, writer, key, value, valueType, context);
+			}
+
+			// other types might write nothing (then the key must not be written either) so write them separately first
+			return toJSONValueWithClientTypeSeparately(writer, key, value, valueType, context, returnOnlyDynamicTypes);
+		}
+
+		protected boolean toJSONValueWithClientTypeSeparately(JSONWriter writer, String key, Object value, PropertyDescription valueType,
+			IBrowserConverterContext context, boolean returnOnlyDynamicTypes) throws JSONException
+		{
+			IJSONStringWithClientSideType valueAndType = getConvertedValueWithClientType(value, valueType, context, returnOnlyDynamicTypes);
+			if (valueAndType == null) return false;
+
+			writeValueWithClientType(writer, key, valueAndType);
+			return true;
+		}
+
+		@Override
+		public JSONString getClientSideTypeBeforeWriting(Object value, PropertyDescription valueType, IBrowserConverterContext context,
+			boolean returnOnlyDynamicTypes)
+		{
+			IPropertyType< ? > type = (IPropertyType< ? >)findConvertingTypeToBrowser(value, valueType);
+
+			if (type instanceof ObjectPropertyType)
+			{
+				return ((ObjectPropertyType)type).getClientSideTypeBeforeWriting(FullValueToJSONConverter.INSTANCE, value, valueType, context);
+			}
+			else if (type instanceof IPropertyConverterForBrowserWithDynamicClientType)
+			{
+				return CLIENT_SIDE_TYPE_UNKNOWN_BEFORE_WRITING;
+			}
+			else if (type instanceof IPropertyConverterForBrowser)
+			{
+				// same as in getConvertedValueWithClientType(...)
+				if ((!returnOnlyDynamicTypes || isTypeDeterminedBasedOnClassOfValue(type, valueType)) && type instanceof IPropertyWithClientSideConversions)
+				{
+					return JSONUtils.getClientSideTypeJSONString((IPropertyWithClientSideConversions)type,
+						valueType != null && valueType.getType() == type ? valueType : null);
+				}
+				return null;
+			}
+			else
+			{
+				// default conversion
+				return getDefaultClientSideTypeBeforeWriting(this, value, valueType, context);
+			}
+		}
+
 	}
 
 	public static class ChangesToJSONConverter extends FullValueToJSONConverter
@@ -540,23 +737,20 @@ public class JSONUtils
 		public JSONWriter toJSONValue(JSONWriter writer, String key, Object value, PropertyDescription valueType, IBrowserConverterContext context)
 			throws JSONException, IllegalArgumentException
 		{
-			if (value != null && valueType != null)
+			if (value != null && valueType != null && valueType.supportsGranularUpdates())
 			{
+				// good, we now know that it can send changes only
 				IPropertyType< ? > type = valueType.getType();
-				if (type instanceof ISupportsGranularUpdates)
+				try
 				{
-					// good, we now know that it can send changes only
-					try
-					{
-						return ((ISupportsGranularUpdates)type).changesToJSON(writer, key, value, valueType, context);
-						// if type is ISupportsGranularUpdatesWithDynamicClientType it would write the dynamic type to JSON as well if needed
-					}
-					catch (Exception ex)
-					{
-						log.error("Error while writing changes for value (changesToJSON): " + safeToString(value) + " to type: " + type + " current json: " +
-							writer.toString(), ex);
-						return writer;
-					}
+					return ((ISupportsGranularUpdates)type).changesToJSON(writer, key, value, valueType, context);
+					// if type is ISupportsGranularUpdatesWithDynamicClientType it would write the dynamic type to JSON as well if needed
+				}
+				catch (Exception ex)
+				{
+					log.error("Error while writing changes for value (changesToJSON): " + safeToString(value) + " to type: " + type + " current json: " +
+						writer.toString(), ex);
+					return writer;
 				}
 			}
 
@@ -570,12 +764,12 @@ public class JSONUtils
 		public IJSONStringWithClientSideType getConvertedValueWithClientType(Object value, PropertyDescription valueType, IBrowserConverterContext context,
 			boolean returnOnlyDynamicTypes)
 		{
-			ValueReference<Boolean> typeDeterminedBasedOnClassOfValue = new ValueReference<Boolean>(Boolean.FALSE);
-			IPropertyType< ? > type = (IPropertyType< ? >)findConvertingTypeToBrowser(value, valueType, typeDeterminedBasedOnClassOfValue);
+			IPropertyType< ? > type = (IPropertyType< ? >)findConvertingTypeToBrowser(value, valueType);
 
 			if (type instanceof ISupportsGranularUpdatesWithDynamicClientType)
 			{
-				EmbeddableJSONWriter ejw = new EmbeddableJSONWriter(true); // that 'true' is a workaround for allowing directly a value instead of object or array
+				ReusableStringWriter buffer = ReusableStringWriter.acquire(); // the content is copied out via toJSONString() below, so the buffer can be reused
+				EmbeddableJSONWriter ejw = new EmbeddableJSONWriter(true, buffer); // that 'true' is a workaround for allowing directly a value instead of object or array
 				JSONString clientSideConversionType;
 				try
 				{
@@ -589,17 +783,22 @@ public class JSONUtils
 						safeToString(value) + " to type: " + type + " current json: " + ejw.toString(), ex);
 					return null;
 				}
+				finally
+				{
+					ReusableStringWriter.release(buffer);
+				}
 			}
 			else if (type instanceof ISupportsGranularUpdates)
 			{
 				// good, we now know that it can send changes only
 				JSONString clientSideConversionType;
-				EmbeddableJSONWriter ejw = new EmbeddableJSONWriter(true); // that 'true' is a workaround for allowing directly a value instead of object or array
+				ReusableStringWriter buffer = ReusableStringWriter.acquire(); // the content is copied out via toJSONString() below, so the buffer can be reused
+				EmbeddableJSONWriter ejw = new EmbeddableJSONWriter(true, buffer); // that 'true' is a workaround for allowing directly a value instead of object or array
 				try
 				{
 					((ISupportsGranularUpdates)type).changesToJSON(ejw, null, value, valueType, context);
-					// in the condition below, typeDeterminedBasedOnClassOfValue.value.booleanValue() can be assimilated to a dynamic type scenario as the type was determined based on java class of value, it was not known initially
-					if ((!returnOnlyDynamicTypes || typeDeterminedBasedOnClassOfValue.value.booleanValue()) &&
+					// in the condition below, isTypeDeterminedBasedOnClassOfValue(type, valueType) can be assimilated to a dynamic type scenario as the type was determined based on java class of value, it was not known initially
+					if ((!returnOnlyDynamicTypes || isTypeDeterminedBasedOnClassOfValue(type, valueType)) &&
 						type instanceof IPropertyWithClientSideConversions)
 					{
 						clientSideConversionType = JSONUtils.getClientSideTypeJSONString(valueType);
@@ -616,10 +815,46 @@ public class JSONUtils
 						ex);
 					return null;
 				}
+				finally
+				{
+					ReusableStringWriter.release(buffer);
+				}
 			}
 			else return super.getConvertedValueWithClientType(value, valueType, context, returnOnlyDynamicTypes);
 		}
 
+		@Override
+		public boolean toJSONValueWithClientType(JSONWriter writer, String key, Object value, PropertyDescription valueType, IBrowserConverterContext context,
+			boolean returnOnlyDynamicTypes) throws JSONException
+		{
+			IPropertyType< ? > type = (IPropertyType< ? >)findConvertingTypeToBrowser(value, valueType);
+
+			if (type instanceof ISupportsGranularUpdates) return toJSONValueWithClientTypeSeparately(writer, key, value, valueType, context, returnOnlyDynamicTypes);
+			else return super.toJSONValueWithClientType(writer, key, value, valueType, context, returnOnlyDynamicTypes);
+		}
+
+		@Override
+		public JSONString getClientSideTypeBeforeWriting(Object value, PropertyDescription valueType, IBrowserConverterContext context,
+			boolean returnOnlyDynamicTypes)
+		{
+			IPropertyType< ? > type = (IPropertyType< ? >)findConvertingTypeToBrowser(value, valueType);
+
+			if (type instanceof ISupportsGranularUpdatesWithDynamicClientType)
+			{
+				return CLIENT_SIDE_TYPE_UNKNOWN_BEFORE_WRITING;
+			}
+			else if (type instanceof ISupportsGranularUpdates)
+			{
+				// same as in getConvertedValueWithClientType(...)
+				if ((!returnOnlyDynamicTypes || isTypeDeterminedBasedOnClassOfValue(type, valueType)) && type instanceof IPropertyWithClientSideConversions)
+				{
+					return JSONUtils.getClientSideTypeJSONString(valueType);
+				}
+				return null;
+			}
+			else return super.getClientSideTypeBeforeWriting(value, valueType, context, returnOnlyDynamicTypes);
+		}
+
 	}
 
 	/**
@@ -644,6 +879,16 @@ public class JSONUtils
 			if (hackForValueOnly) this.mode = 'o'; // simulate being in an object already without anything written to char buffer
 		}
 
+		/**
+		 * Same as {@link #EmbeddableJSONWriter(boolean)} but it writes to the given buffer. Use this only when the content is copied (via {@link #toJSONString()})
+		 * before the (pooled) buffer is released, never when this writer instance itself is kept/returned as a JSONString.
+		 */
+		public EmbeddableJSONWriter(boolean hackForValueOnly, ReusableStringWriter buffer)
+		{
+			super(buffer);
+			if (hackForValueOnly) this.mode = 'o'; // simulate being in an object already without anything written to char buffer
+		}
+
 		/**
 		 * If 'hackForValueOnly' is used this method should be called only once!
 		 */
@@ -658,9 +903,11 @@ public class JSONUtils
 		 */
 		public boolean isEmpty()
 		{
-			// writer should always be StringWriter here because this class extends JSONStringer that gives the writer; but check anyway
+			// writer should always be StringWriter or ReusableStringWriter here because this class extends JSONStringer that gives the writer; but check anyway
 			if (writer instanceof StringWriter)
 				return ((StringWriter)writer).getBuffer().length() == 0;
+			else if (writer instanceof ReusableStringWriter)
+				return ((ReusableStringWriter)writer).length() == 0;
 			else
 			{
 				String str = writer.toString();
@@ -832,4 +1079,130 @@ public class JSONUtils
 
 	// END -------------------------
 
+	/**
+	 * Deep-compares two values, each of which can be either a JSON value (JSONObject, JSONArray, JSONObject.NULL or a JSON primitive) or a sablo runtime value
+	 * (Map - including {@link ChangeAwareMap}, List - including {@link ChangeAwareList}, Object[], null or anything else that is compared via equals).<br/>
+	 * It walks both sides directly, without creating intermediate maps/lists; numbers are compared by their double value (so an Integer that the browser sent
+	 * is equal to a Long or Double runtime value that has the same value).
+	 *
+	 * @return true if the two values have the same structure and content (ignoring key order in objects/maps).
+	 */
+	public static boolean areStructurallyEqual(Object value1, Object value2)
+	{
+		Object v1 = (value1 == JSONObject.NULL ? null : value1);
+		Object v2 = (value2 == JSONObject.NULL ? null : value2);
+
+		if (v1 == v2) return true;
+		if (v1 == null || v2 == null) return false;
+
+		if (v1 instanceof Number && v2 instanceof Number) return ((Number)v1).doubleValue() == ((Number)v2).doubleValue();
+
+		if (v1 instanceof JSONObject || v1 instanceof Map || v2 instanceof JSONObject || v2 instanceof Map)
+		{
+			// lookup in the JSONObject or in the plain base map, as ChangeAwareMap (AbstractMap) lookups iterate over all entries
+			if (v1 instanceof JSONObject) return isJSONObjectEqualTo((JSONObject)v1, v2);
+			if (v2 instanceof JSONObject) return isJSONObjectEqualTo((JSONObject)v2, v1);
+			if (!(v1 instanceof Map) || !(v2 instanceof Map)) return false;
+			Map< ? , ? > map1 = (Map< ? , ? >)v1;
+			Map< ? , ? > map2 = (v2 instanceof ChangeAwareMap ? ((ChangeAwareMap< ? , ? >)v2).getBaseMap() : (Map< ? , ? >)v2);
+			if (map1.size() != map2.size()) return false;
+			for (Entry< ? , ? > e : map1.entrySet())
+			{
+				Object otherValue = map2.get(e.getKey());
+				if ((otherValue == null && !map2.containsKey(e.getKey())) || !areStructurallyEqual(e.getValue(), otherValue)) return false;
+			}
+			return true;
+		}
+
+		if (isArrayLike(v1) || isArrayLike(v2))
+		{
+			if (!isArrayLike(v1) || !isArrayLike(v2)) return false;
+			int length = arrayLikeLength(v1);
+			if (length != arrayLikeLength(v2)) return false;
+			for (int i = 0; i < length; i++)
+			{
+				if (!areStructurallyEqual(arrayLikeElement(v1, i), arrayLikeElement(v2, i))) return false;
+			}
+			return true;
+		}
+
+		return v1.equals(v2);
+	}
+
+	/**
+	 * Compares a value that the browser sent for a property (for example the old value of a dataPush) to the current (unwrapped) value of that property.<br/>
+	 * Custom arrays/objects compare their full value JSON directly to the current ChangeAwareList/ChangeAwareMap, going down with the element/child property
+	 * descriptions; only values of other types that convert browser JSON (for example dates) go through fromJSON. Everything else is compared
+	 * via {@link #areStructurallyEqual(Object, Object)}, without copying.
+	 *
+	 * @return false only if the values are known to be different; so true as well if the browser value cannot be compared (for example it is a custom
+	 * array no-op or granular update, or fromJSON does not give a value for it).
+	 */
+	public static boolean isBrowserValueEqualTo(Object browserJSONValue, Object currentValue, PropertyDescription pd, IBrowserConverterContext dataConverterContext)
+	{
+		Object browserValue = (browserJSONValue == JSONObject.NULL ? null : browserJSONValue);
+		if (browserValue == null || currentValue == null) return browserValue == currentValue;
+
+		IPropertyType< ? > type = (pd != null ? pd.getType() : null);
+		if (type instanceof CustomJSONArrayType || type instanceof CustomJSONObjectType)
+		{
+			Boolean equal = (type instanceof CustomJSONArrayType)
+				? ((CustomJSONArrayType< ? , ? >)type).isFullValueFromBrowserEqualTo(browserValue, currentValue, dataConverterContext)
+				: ((CustomJSONObjectType< ? , ? >)type).isFullValueFromBrowserEqualTo(browserValue, currentValue, dataConverterContext);
+			return equal == null || equal.booleanValue();
+		}
+
+		if (pd != null && pd.getBrowserConverter() != null)
+		{
+			browserValue = fromJSONUnwrapped(null, browserValue, pd, dataConverterContext, null);
+			if (browserValue == null) return true;
+		}
+		return areStructurallyEqual(browserValue, currentValue);
+	}
+
+	private static boolean isJSONObjectEqualTo(JSONObject jsonObject, Object other)
+	{
+		if (other instanceof JSONObject)
+		{
+			JSONObject otherJSONObject = (JSONObject)other;
+			if (jsonObject.length() != otherJSONObject.length()) return false;
+			for (String key : jsonObject.keySet())
+			{
+				if (!otherJSONObject.has(key) || !areStructurallyEqual(jsonObject.opt(key), otherJSONObject.opt(key))) return false;
+			}
+			return true;
+		}
+		else if (other instanceof Map)
+		{
+			Map< ? , ? > map = (Map< ? , ? >)other;
+			if (jsonObject.length() != map.size()) return false;
+			for (Entry< ? , ? > e : map.entrySet())
+			{
+				if (!(e.getKey() instanceof String) || !jsonObject.has((String)e.getKey()) ||
+					!areStructurallyEqual(jsonObject.opt((String)e.getKey()), e.getValue())) return false;
+			}
+			return true;
+		}
+		return false;
+	}
+
+	private static boolean isArrayLike(Object value)
+	{
+		return value instanceof JSONArray || value instanceof List || value instanceof Object[];
+	}
+
+	private static int arrayLikeLength(Object arrayLike)
+	{
+		if (arrayLike instanceof JSONArray) return ((JSONArray)arrayLike).length();
+		if (arrayLike instanceof List) return ((List< ? >)arrayLike).size();
+		return ((Object[])arrayLike).length;
+	}
+
+	private static Object arrayLikeElement(Object arrayLike, int i)
+	{
+		if (arrayLike instanceof JSONArray) return ((JSONArray)arrayLike).opt(i);
+		if (arrayLike instanceof List) return ((List< ? >)arrayLike).get(i);
+		return ((Object[])arrayLike)[i];
+	}
+
 }
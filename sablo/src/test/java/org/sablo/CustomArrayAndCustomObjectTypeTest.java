@@ -18,30 +18,47 @@ package org.sablo;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.skyscreamer.jsonassert.JSONAssert.assertEquals;
 
 import java.awt.Color;
+import java.beans.PropertyChangeEvent;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.json.JSONException;
 import org.json.JSONObject;
+import org.json.JSONStringer;
+import org.json.JSONWriter;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.sablo.specification.Package.IPackageReader;
 import org.sablo.specification.PropertyDescription;
+import org.sablo.specification.PropertyDescription.PDAndComputedPushToServer;
+import org.sablo.specification.PropertyDescriptionBuilder;
 import org.sablo.specification.WebComponentSpecProvider;
+import org.sablo.specification.WebObjectSpecification;
 import org.sablo.specification.WebObjectSpecification.PushToServerEnum;
 import org.sablo.specification.property.ArrayOperation;
 import org.sablo.specification.property.BrowserConverterContext;
 import org.sablo.specification.property.ChangeAwareList;
 import org.sablo.specification.property.ChangeAwareMap;
 import org.sablo.specification.property.CustomJSONArrayType;
+import org.sablo.specification.property.CustomJSONObjectType;
+import org.sablo.specification.property.IBrowserConverterContext;
+import org.sablo.specification.property.IPropertyConverterForBrowser;
 import org.sablo.specification.property.ListTest;
+import org.sablo.specification.property.PrimitiveList;
+import org.sablo.specification.property.types.DefaultPropertyType;
+import org.sablo.specification.property.types.TypesRegistry;
+import org.sablo.util.ValueReference;
 import org.sablo.websocket.TypedData;
 import org.sablo.websocket.utils.JSONUtils;
 import org.sablo.websocket.utils.JSONUtils.ChangesToJSONConverter;
@@ -370,6 +387,40 @@ public class CustomArrayAndCustomObjectTypeTest extends Log4JToConsoleTest
 		assertEquals(new JSONObject("{\"simpleArrayAllow\":{\"vEr\":3,\"v\":[5,150,3,2,1]},\"name\":\"test\"}"), new JSONObject(msg), true);
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	public void shouldKeepNumberArraysUnboxedAndWriteThemTheSame() throws Exception
+	{
+		WebComponent component = new WebComponent("mycomponent", "test");
+		BrowserConverterContext allowDataConverterContext = new BrowserConverterContext(component, PushToServerEnum.allow);
+
+		assertTrue(component.setProperty("simpleArrayAllow", new int[] { 1, 2, 3 }));
+		ChangeAwareList<Object, Object> array = (ChangeAwareList<Object, Object>)component.getProperty("simpleArrayAllow");
+		assertTrue((Object)array.getBaseList() instanceof PrimitiveList.OfInt);
+		assertEquals(Arrays.asList(1, 2, 3), array);
+		JSONUtils.writeComponentChanges(component, ChangesToJSONConverter.INSTANCE);
+
+		array.add(1, null);
+		array.add(Integer.valueOf(-5));
+		JSONAssert.assertEquals("{\"comp\":{\"test\":{\"simpleArrayAllow\":{\"vEr\":2,\"g\":[{\"op\":[1,1,1],\"d\":[null]},{\"op\":[4,4,1],\"d\":[-5]}]}}}}",
+			JSONUtils.writeComponentChanges(component, ChangesToJSONConverter.INSTANCE), JSONCompareMode.NON_EXTENSIBLE);
+
+		// a full value from the browser; 2.5 is adjusted by the int type, so it has to be sent back
+		component.putBrowserProperty("simpleArrayAllow", new JSONObject("{\"vEr\":0,\"v\":[ 7, 2.5, null, 4 ]}"));
+		array = (ChangeAwareList<Object, Object>)component.getProperty("simpleArrayAllow");
+		assertTrue((Object)array.getBaseList() instanceof PrimitiveList.OfInt);
+		assertEquals(Arrays.asList(7, 2, null, 4), array);
+		JSONAssert.assertEquals("{\"comp\":{\"test\":{\"simpleArrayAllow\":{\"vEr\":1,\"g\":[{\"op\":[1,1,0],\"d\":[2]}]}}}}",
+			JSONUtils.writeComponentChanges(component, ChangesToJSONConverter.INSTANCE), JSONCompareMode.NON_EXTENSIBLE);
+
+		// a value that an int[] cannot keep exactly is kept as it is
+		array.set(0, Double.valueOf(1.5));
+		assertEquals(Arrays.asList(1.5, 2, null, 4), array);
+		TypedData<Map<String, Object>> properties = component.getProperties();
+		assertEquals(new JSONObject("{\"simpleArrayAllow\":{\"vEr\":2,\"v\":[1.5,2,null,4]},\"name\":\"test\"}"),
+			new JSONObject(JSONUtils.writeDataAsFullToJSON(properties.content, properties.contentType, allowDataConverterContext)), true);
+	}
+
 	@Test
 	public void shouldAllowSetValueWhenRejectDumbElementsOnElementConfig() throws Exception
 	{
@@ -512,6 +563,100 @@ public class CustomArrayAndCustomObjectTypeTest extends Log4JToConsoleTest
 			JSONUtils.writeComponentChanges(component, ChangesToJSONConverter.INSTANCE), JSONCompareMode.NON_EXTENSIBLE);
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	public void shouldCompareUnboxedArrayElementsByValueAndWriteThroughToObjectArrays() throws Exception
+	{
+		WebComponent component = new WebComponent("mycomponent", "test");
+		component.setProperty("simpleArrayAllow", new int[] { 1000, 2 });
+		ChangeAwareList<Object, Object> array = (ChangeAwareList<Object, Object>)component.getProperty("simpleArrayAllow");
+		JSONUtils.writeComponentChanges(component, ChangesToJSONConverter.INSTANCE);
+
+		// elements of an unboxed array are boxed again on each get(), so setting an equal value must not be seen as a change
+		array.set(0, Integer.valueOf(1000));
+		assertFalse(component.hasChanges());
+		array.set(0, Integer.valueOf(1001));
+		assertTrue(component.hasChanges());
+		JSONUtils.writeComponentChanges(component, ChangesToJSONConverter.INSTANCE);
+
+		// arrays of objects are used as they are, so changes are written through to them (as Arrays.asList(...) does)
+		Integer[] objectArray = new Integer[] { Integer.valueOf(1), Integer.valueOf(2) };
+		component.setProperty("simpleArrayAllow", objectArray);
+		array = (ChangeAwareList<Object, Object>)component.getProperty("simpleArrayAllow");
+		array.set(1, Integer.valueOf(5));
+		assertEquals(Integer.valueOf(5), objectArray[1]);
+	}
+
+	@Test
+	public void shouldSendOnlyDifferentKeysWhenReplacingCustomObjectContents() throws Exception
+	{
+		WebComponent component = new WebComponent("mycomponent", "test");
+		Map<String, Object> map = new HashMap<>();
+		map.put("name", "myname");
+		map.put("active", Boolean.TRUE);
+		map.put("foreground", Color.black);
+		component.setProperty("atype", map);
+		JSONUtils.writeComponentChanges(component, ChangesToJSONConverter.INSTANCE);
+
+		ChangeAwareMap< ? , ? > atype = (ChangeAwareMap< ? , ? >)component.getProperty("atype");
+		Map<String, Object> newMap = new HashMap<>(map);
+		assertTrue(ChangeAwareMap.canReplaceContents(atype, newMap));
+		assertFalse(ChangeAwareMap.replaceContentsOf(atype, newMap));
+
+		newMap.put("name", "othername");
+		newMap.put("foreground", new Color(0, 0, 0));
+		assertTrue(ChangeAwareMap.replaceContentsOf(atype, newMap));
+		assertSame(atype, component.getProperty("atype"));
+		JSONAssert.assertEquals("{\"comp\":{\"test\":{\"atype\":{\"vEr\":2,\"u\":[{\"k\":\"name\",\"v\":\"othername\"}]}}}}",
+			JSONUtils.writeComponentChanges(component, ChangesToJSONConverter.INSTANCE), JSONCompareMode.NON_EXTENSIBLE);
+
+		// a removed key can only be sent as a full value
+		newMap.remove("active");
+		assertTrue(ChangeAwareMap.replaceContentsOf(atype, newMap));
+		JSONAssert.assertEquals("{\"comp\":{\"test\":{\"atype\":{\"vEr\":3,\"v\":{\"name\":\"othername\",\"foreground\":\"#000000\"}}}}}",
+			JSONUtils.writeComponentChanges(component, ChangesToJSONConverter.INSTANCE), JSONCompareMode.NON_EXTENSIBLE);
+	}
+
+	@Test
+	public void shouldOnlyUpdateDifferentKeysWhenSettingCustomObjectPropertyWithKeyDiffEnabled() throws Exception
+	{
+		WebComponent component = new WebComponent("mycomponent", "test")
+		{
+			@Override
+			protected boolean isKeyDiffOnReplaceEnabled(String propertyName)
+			{
+				return true;
+			}
+		};
+		List<PropertyChangeEvent> events = new ArrayList<>();
+		component.addPropertyChangeListener("atype", events::add);
+
+		Map<String, Object> map = new HashMap<>();
+		map.put("name", "myname");
+		map.put("active", Boolean.TRUE);
+		component.setProperty("atype", map);
+		JSONUtils.writeComponentChanges(component, ChangesToJSONConverter.INSTANCE);
+		Object atype = component.getProperty("atype");
+		events.clear();
+
+		Map<String, Object> newMap = new HashMap<>(map);
+		assertFalse(component.setProperty("atype", newMap));
+		assertEquals(0, events.size());
+
+		newMap.put("name", "othername");
+		assertTrue(component.setProperty("atype", newMap));
+		assertSame(atype, component.getProperty("atype"));
+		assertEquals(1, events.size());
+		assertSame(atype, events.get(0).getNewValue());
+		JSONAssert.assertEquals("{\"comp\":{\"test\":{\"atype\":{\"vEr\":2,\"u\":[{\"k\":\"name\",\"v\":\"othername\"}]}}}}",
+			JSONUtils.writeComponentChanges(component, ChangesToJSONConverter.INSTANCE), JSONCompareMode.NON_EXTENSIBLE);
+
+		// maps with keys that are not Strings are not used for diffing
+		Map<Object, Object> mapWithOtherKeys = new HashMap<>();
+		mapWithOtherKeys.put(Integer.valueOf(1), "x");
+		assertFalse(ChangeAwareMap.canReplaceContents(atype, mapWithOtherKeys));
+	}
+
 	@Test
 	public void shouldOnlyAttachDetachAsNeededAndKeepIndexesUpToDateInChangeHandlersWhenDoingArraySplice() throws Exception
 	{
@@ -622,4 +767,99 @@ public class CustomArrayAndCustomObjectTypeTest extends Log4JToConsoleTest
 
 	};
 
+	@Test
+	public void resolvedPropertyPathsAreCachedRegardlessOfArrayIndex()
+	{
+		WebObjectSpecification spec = WebComponentSpecProvider.getSpecProviderState().getWebObjectSpecification("mycomponent");
+
+		PDAndComputedPushToServer resolved = spec.computePushToServerForPropertyPathAndGetPD("types[17].subtypearray[2].caption");
+		assertEquals("caption", resolved.pd.getName());
+		assertEquals(PushToServerEnum.allow, resolved.pushToServer);
+		assertSame(resolved, spec.computePushToServerForPropertyPathAndGetPD("types[3].subtypearray[0].caption"));
+		assertSame(resolved, spec.computePushToServerForPropertyPathAndGetPD("types[17].subtypearray[2].caption"));
+
+		assertEquals(PushToServerEnum.reject, spec.computePushToServerForPropertyPathAndGetPD("types[1].rejectedString").pushToServer);
+		assertNull(spec.computePushToServerForPropertyPathAndGetPD("types[x].name").pd);
+		assertNull(spec.computePushToServerForPropertyPathAndGetPD("types[1].unknown").pd);
+	}
+
+
+	@Test
+	public void customObjectChildrenGetTheirOwnComputedPushToServer() throws Exception
+	{
+		PushToServerRecordingType recordingType = new PushToServerRecordingType();
+		CustomJSONObjectType<Object, Object> type = (CustomJSONObjectType<Object, Object>)TypesRegistry.createNewType(CustomJSONObjectType.TYPE_NAME,
+			"mixedPushToServerType");
+		PropertyDescription definition = new PropertyDescriptionBuilder().withName("mixedPushToServerType").withType(type) //
+			.withProperty("rejected", new PropertyDescriptionBuilder().withName("rejected").withType(recordingType).withPushToServer(PushToServerEnum.reject).build()) //
+			.withProperty("noPushToServer1", new PropertyDescriptionBuilder().withName("noPushToServer1").withType(recordingType).build()) //
+			.withProperty("noPushToServer2", new PropertyDescriptionBuilder().withName("noPushToServer2").withType(recordingType).build()) //
+			.withProperty("allowed", new PropertyDescriptionBuilder().withName("allowed").withType(recordingType).withPushToServer(PushToServerEnum.allow).build()) //
+			.withProperty("deep", new PropertyDescriptionBuilder().withName("deep").withType(recordingType).withPushToServer(PushToServerEnum.deep).build()) //
+			.build();
+		type.setCustomJSONDefinition(definition);
+
+		Map<String, Object> values = new HashMap<>();
+		for (String key : definition.getProperties().keySet())
+			values.put(key, key);
+		ChangeAwareMap<Object, Object> value = new ChangeAwareMap<Object, Object>(values, null, definition);
+		WebComponent component = new WebComponent("mycomponent", "test");
+
+		// full value; children that do not declare a push to server take the one of the parent
+		type.toJSON(new JSONStringer(), null, value, definition, new BrowserConverterContext(component, PushToServerEnum.shallow));
+		assertEquals(PushToServerEnum.reject, recordingType.contexts.get("rejected").getComputedPushToServerValue());
+		assertEquals(PushToServerEnum.shallow, recordingType.contexts.get("noPushToServer1").getComputedPushToServerValue());
+		assertEquals(PushToServerEnum.allow, recordingType.contexts.get("allowed").getComputedPushToServerValue());
+		assertEquals(PushToServerEnum.deep, recordingType.contexts.get("deep").getComputedPushToServerValue());
+		assertSame("children with the same computed push to server share the context", recordingType.contexts.get("noPushToServer1"),
+			recordingType.contexts.get("noPushToServer2"));
+
+		// a rejecting parent makes all children reject
+		recordingType.contexts.clear();
+		type.toJSON(new JSONStringer(), null, value, definition, new BrowserConverterContext(component, PushToServerEnum.reject));
+		for (String key : definition.getProperties().keySet())
+			assertEquals(key, PushToServerEnum.reject, recordingType.contexts.get(key).getComputedPushToServerValue());
+
+		// changes are written with the same computed push to server levels
+		recordingType.contexts.clear();
+		value.put("allowed", "allowedChanged");
+		value.put("noPushToServer2", "noPushToServer2Changed");
+		type.changesToJSON(new JSONStringer(), null, value, definition, new BrowserConverterContext(component, PushToServerEnum.shallow));
+		assertEquals(2, recordingType.contexts.size());
+		assertEquals(PushToServerEnum.allow, recordingType.contexts.get("allowedChanged").getComputedPushToServerValue());
+		assertEquals(PushToServerEnum.shallow, recordingType.contexts.get("noPushToServer2Changed").getComputedPushToServerValue());
+	}
+
+	/**
+	 * Writes String values as they are and remembers, per written value, the context that it got.
+	 */
+	private static class PushToServerRecordingType extends DefaultPropertyType<Object> implements IPropertyConverterForBrowser<Object>
+	{
+
+		private final Map<Object, IBrowserConverterContext> contexts = new HashMap<>();
+
+		@Override
+		public String getName()
+		{
+			return "pushToServerRecording";
+		}
+
+		@Override
+		public Object fromJSON(Object newJSONValue, Object previousSabloValue, PropertyDescription propertyDescription, IBrowserConverterContext context,
+			ValueReference<Boolean> returnValueAdjustedIncommingValue)
+		{
+			return newJSONValue;
+		}
+
+		@Override
+		public JSONWriter toJSON(JSONWriter writer, String key, Object sabloValue, PropertyDescription propertyDescription,
+			IBrowserConverterContext dataConverterContext) throws JSONException
+		{
+			contexts.put(sabloValue, dataConverterContext);
+			JSONUtils.addKeyIfPresent(writer, key);
+			return writer.value(sabloValue);
+		}
+
+	}
+
 }
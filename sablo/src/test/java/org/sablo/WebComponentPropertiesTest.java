@@ -162,6 +162,9 @@ public class WebComponentPropertiesTest
 		assertEquals(1, specialComponents.size());
 		assertEquals("tagged", specialComponents.iterator().next().getName());
 		assertEquals(new Integer(42), specialComponents.iterator().next().getTag("special"));
+
+		// the result is computed only once
+		assertSame(specialComponents, testcomponent.getSpecification().getTaggedProperties("special"));
 	}
 
 	@Test
@@ -32,6 +32,8 @@ import org.junit.Test;
 import org.sablo.specification.Package.IPackageReader;
 import org.sablo.specification.PropertyDescription;
 import org.sablo.specification.PropertyDescriptionBuilder;
+import org.sablo.specification.VisibilityAndProtectionIndex;
+import org.sablo.specification.VisibilityAndProtectionIndex.ProtectingProperty;
 import org.sablo.specification.WebComponentSpecProvider;
 import org.sablo.specification.WebObjectSpecification;
 import org.sablo.specification.WebObjectSpecificationBuilder;
@@ -688,6 +690,89 @@ public class WebComponentSecurityPropertiesTest
 		assertEquals(new Integer(33), testcomponent.getProperty("aint3"));
 	}
 
+	/*
+	 * Test that the protection index gives general and specific protecting properties, in declaration order, and that they block updates from client
+	 */
+	@Test
+	public void testComponentProtectingPropertiesFromIndexBlockUpdates() throws Exception
+	{
+		String testcomponentspec = "{" + //
+			"\n\"name\": \"testcomponent\"," + //
+			"\n\"displayName\": \"Test Component\"," + //
+			"\n\"definition\": \"testcomponent.js\"," + //
+			"\n\"libraries\": []," + //
+			"\n\"model\":" + //
+			"\n{" + //
+			"\n   \"aint1\": { \"type\": \"int\", \"pushToServer\": \"allow\" }" + //
+			"\n  ,\"aint2\": { \"type\": \"int\", \"pushToServer\": \"allow\" }" + //
+			"\n  ,\"prot\": \"protected\"" + //
+			"\n  ,\"protforaint1\": { \"type\": \"protected\", \"default\": true, \"blockingOn\": false, \"for\": \"aint1\" }" + //
+			"\n}" + //
+			"\n}"; //
+
+		WebComponentSpecProvider.init(
+			new IPackageReader[] { new InMemPackageReader(MANIFEST, Collections.singletonMap(TESTCOMPONENT_SPEC, testcomponentspec)) }, null);
+
+		WebComponent testcomponent = new WebComponent("testcomponent", "test");
+
+		VisibilityAndProtectionIndex index = testcomponent.getSpecification().getVisibilityAndProtectionIndex();
+		ProtectingProperty[] forAint1 = index.getProtectingPropertiesFor("aint1");
+		assertEquals(2, forAint1.length);
+		assertEquals("prot", forAint1[0].propertyDescription.getName());
+		assertEquals(Boolean.TRUE, forAint1[0].blockingOn);
+		assertEquals("protforaint1", forAint1[1].propertyDescription.getName());
+		assertEquals(Boolean.FALSE, forAint1[1].blockingOn);
+		ProtectingProperty[] forAint2 = index.getProtectingPropertiesFor("aint2");
+		assertEquals(1, forAint2.length);
+		assertEquals("prot", forAint2[0].propertyDescription.getName());
+
+		testcomponent.putBrowserProperty("aint1", Integer.valueOf(11));
+		testcomponent.putBrowserProperty("aint2", Integer.valueOf(21));
+
+		// the specific one blocks only aint1
+		testcomponent.setProperty("protforaint1", Boolean.FALSE);
+		try
+		{
+			testcomponent.putBrowserProperty("aint1", Integer.valueOf(12));
+			fail("can set protected property from client!");
+		}
+		catch (IllegalChangeFromClientException e)
+		{
+			// expected
+			assertEquals("aint1", e.getBlockedProperty());
+			assertEquals("protforaint1", e.getBlockedByProperty());
+		}
+		testcomponent.putBrowserProperty("aint2", Integer.valueOf(22));
+
+		// the general one blocks both and is reported first, as it is declared first
+		testcomponent.setProperty("prot", Boolean.TRUE);
+		try
+		{
+			testcomponent.putBrowserProperty("aint1", Integer.valueOf(13));
+			fail("can set protected property from client!");
+		}
+		catch (IllegalChangeFromClientException e)
+		{
+			// expected
+			assertEquals("aint1", e.getBlockedProperty());
+			assertEquals("prot", e.getBlockedByProperty());
+		}
+		try
+		{
+			testcomponent.putBrowserProperty("aint2", Integer.valueOf(23));
+			fail("can set protected property from client!");
+		}
+		catch (IllegalChangeFromClientException e)
+		{
+			// expected
+			assertEquals("aint2", e.getBlockedProperty());
+			assertEquals("prot", e.getBlockedByProperty());
+		}
+
+		assertEquals(Integer.valueOf(11), testcomponent.getProperty("aint1")); // not modified
+		assertEquals(Integer.valueOf(22), testcomponent.getProperty("aint2")); // modified only while not protected
+	}
+
 	/*
 	 * Test protected property for specific handler
 	 */
@@ -9,6 +9,7 @@
 	        "size": { "type": "dimension", "pushToServer": "allow" },
 	        "location": { "type": "point", "pushToServer": "allow" },
 	        "font": { "type": "font", "pushToServer": "allow" },
+	        "text": "string",
 	        "atype": { "type": "mytype", "pushToServer": "allow" },
 	        "types": { "type": "mytype[]", "pushToServer": "allow" },
 	        "atypeReject": "mytype",
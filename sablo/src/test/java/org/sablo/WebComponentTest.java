@@ -33,6 +33,7 @@ import java.util.Map;
 
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.json.JSONStringer;
 import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.BeforeClass;
@@ -41,6 +42,8 @@ import org.sablo.services.server.FormServiceHandler;
 import org.sablo.specification.Package.IPackageReader;
 import org.sablo.specification.PropertyDescription;
 import org.sablo.specification.PropertyDescriptionBuilder;
+import org.sablo.specification.SharedToJSONValueCache;
+import org.sablo.specification.SharedToJSONValueCache.DesignValueJSON;
 import org.sablo.specification.WebComponentSpecProvider;
 import org.sablo.specification.WebObjectSpecification;
 import org.sablo.specification.WebObjectSpecification.PushToServerEnum;
@@ -51,10 +54,15 @@ import org.sablo.specification.property.types.DimensionPropertyType;
 import org.sablo.specification.property.types.VisiblePropertyType;
 import org.sablo.util.TestBaseWebsocketSession;
 import org.sablo.websocket.BaseWindow;
+import org.sablo.websocket.ClientSideSpecState;
+import org.sablo.websocket.ClientSideWindowState;
 import org.sablo.websocket.CurrentWindow;
+import org.sablo.websocket.LastSentValueDigests;
 import org.sablo.websocket.TypedData;
+import org.sablo.websocket.TypedDataWithChangeInfo;
 import org.sablo.websocket.WebsocketSessionKey;
 import org.sablo.websocket.utils.JSONUtils;
+import org.sablo.websocket.utils.JSONUtils.ChangesToJSONConverter;
 
 /**
  * @author jcompagner
@@ -103,6 +111,42 @@ public class WebComponentTest
 		assertEquals("test", component.getProperty("doesnotexisits"));
 	}
 
+	@Test
+	public void propertiesOfSpecAndOtherPropertiesAreKeptAndChangeTrackedTheSame()
+	{
+		WebComponent component = new WebComponent("mycomponent", "test");
+		WebObjectSpecification spec = component.getSpecification();
+		assertTrue(spec.getPropertySlot("background") >= 0);
+		assertEquals("background", spec.getPropertyNameForSlot(spec.getPropertySlot("background")));
+		assertEquals(-1, spec.getPropertySlot("doesnotexisits"));
+		component.getAndClearChanges();
+
+		component.setProperty("background", Color.red);
+		component.setProperty("doesnotexisits", "test");
+		Map<String, Object> properties = component.getRawPropertiesWithoutDefaults();
+		assertEquals(Color.red, properties.get("background"));
+		assertEquals("test", properties.get("doesnotexisits"));
+		assertEquals(3, properties.size()); // "name" as well
+
+		properties.put("background", null);
+		assertTrue(properties.containsKey("background"));
+		assertNull(properties.get("background"));
+		assertEquals(3, properties.size());
+
+		TypedDataWithChangeInfo changesWithInfo = component.getAndClearChanges();
+		assertSame(spec, changesWithInfo.contentType); // no PropertyDescription is created for each set of changes
+		Map<String, Object> changes = changesWithInfo.content;
+		assertEquals(2, changes.size());
+		assertTrue(changes.containsKey("background"));
+		assertEquals("test", changes.get("doesnotexisits"));
+		assertFalse(component.hasChanges());
+
+		properties.keySet().removeIf(key -> !"name".equals(key));
+		assertEquals(1, properties.size());
+		assertFalse(properties.containsKey("background"));
+		assertEquals(new HashMap<>(Map.of("name", "test")), properties);
+	}
+
 	@Test
 	public void testDimension() throws JSONException
 	{
@@ -161,6 +205,44 @@ public class WebComponentTest
 		assertEquals(Color.red, component.getProperty("background"));
 	}
 
+	@Test
+	public void designValuesJSONIsSharedByComponentsOfSameDesign() throws JSONException
+	{
+		WebComponent component1 = new WebComponent("mycomponent", "test1");
+		WebComponent component2 = new WebComponent("mycomponent", "test2");
+		WebComponent componentWithoutDesign = new WebComponent("mycomponent", "test3");
+		for (WebComponent component : new WebComponent[] { component1, component2, componentWithoutDesign })
+		{
+			component.setDefaultProperty("background", Color.black);
+			component.setDefaultProperty("text", "design text");
+		}
+		String designKey = "form1.element1";
+		component1.setDesignKey(designKey);
+		component2.setDesignKey(designKey);
+		component2.setProperty("text", "runtime text");
+
+		JSONStringer w = new JSONStringer();
+		w.object();
+		component1.writeComponentProperties(w, JSONUtils.FullValueToJSONConverter.INSTANCE, "c1");
+		component2.writeComponentProperties(w, JSONUtils.FullValueToJSONConverter.INSTANCE, "c2");
+		componentWithoutDesign.writeComponentProperties(w, JSONUtils.FullValueToJSONConverter.INSTANCE, "c3");
+		w.endObject();
+
+		assertEquals(new JSONObject("{\"c1\":{\"name\":\"test1\",\"text\":\"design text\",\"background\":\"#000000\"}," +
+			"\"c2\":{\"name\":\"test2\",\"text\":\"runtime text\",\"background\":\"#000000\"}," + "\"c3\":{\"name\":\"test3\"}}"),
+			new JSONObject(w.toString()), true);
+
+		SharedToJSONValueCache cache = component1.getSpecification().getSharedToJSONValueCache();
+		Map<String, DesignValueJSON> designValuesJSON = cache.getDesignValuesJSON(designKey, () -> {
+			throw new AssertionError("the design values should only be written once");
+		});
+		assertEquals("\"design text\"", designValuesJSON.get("text").getJSONFor("design text").toJSONString());
+		assertNull(designValuesJSON.get("text").getJSONFor("runtime text"));
+		assertSame(designValuesJSON, component2.getSpecification().getSharedToJSONValueCache().getDesignValuesJSON(designKey, () -> {
+			throw new AssertionError("the design values should only be written once");
+		}));
+	}
+
 	@Test
 	public void testFont() throws JSONException
 	{
@@ -481,6 +563,96 @@ public class WebComponentTest
 		});
 	}
 
+	@Test
+	public void setPropertiesOfMultipleComponentsWithDataPushBatch()
+	{
+		WebObjectSpecification formSpec = new WebObjectSpecificationBuilder().withName("form_spec").withPackageType(
+			IPackageReader.WEB_COMPONENT).build();
+		final Container form = new Container("form", formSpec)
+		{
+		};
+
+		final WebComponent component1 = new WebComponent("mycomponent", "test1");
+		final WebComponent component2 = new WebComponent("mycomponent", "test2");
+		component1.setProperty("changeintallow", Integer.valueOf(1));
+		component2.setProperty("changeintallow", Integer.valueOf(1));
+		form.add(component1);
+		form.add(component2);
+
+		CurrentWindow.runForWindow(new BaseWindow(new TestBaseWebsocketSession(new WebsocketSessionKey("1", 42)), 99, "test")
+		{
+			@Override
+			public Container getForm(String formName)
+			{
+				return "test".equals(formName) ? form : null;
+			}
+		}, () -> {
+			try
+			{
+				JSONObject batch = new JSONObject(
+					"{pushes: [{formname: 'test', beanname: 'test1', changes: {changeintallow: 2}}, {formname: 'test', beanname: 'test2', changes: {changeintallow: 3}}," +
+						"{formname: 'test', beanname: 'test1', changes: {changeintallow: 4}, oldvalues: {changeintallow: 2}}," +
+						"{formname: 'test', beanname: 'test2', changes: {changeintallow: 5}, oldvalues: {changeintallow: 1}}," +
+						"{formname: 'unknown', beanname: 'test1', changes: {changeintallow: 6}}]}");
+
+				FormServiceHandler.INSTANCE.executeMethod("dataPushBatch", batch);
+
+				// applied in order; the last push to test2 is ignored because its old value is no longer the current one
+				assertEquals(Integer.valueOf(4), component1.getProperty("changeintallow"));
+				assertEquals(Integer.valueOf(3), component2.getProperty("changeintallow"));
+			}
+			catch (Exception e)
+			{
+				throw new RuntimeException(e);
+			}
+		});
+	}
+
+	@Test
+	public void dataPushBatchAppliesThePushesAfterOneThatIsRejected()
+	{
+		WebObjectSpecification formSpec = new WebObjectSpecificationBuilder().withName("form_spec").withPackageType(
+			IPackageReader.WEB_COMPONENT).build();
+		final Container form = new Container("form", formSpec)
+		{
+		};
+
+		final WebComponent component1 = new WebComponent("mycomponent", "test1");
+		final WebComponent component2 = new WebComponent("mycomponent", "test2");
+		component1.setProperty("changeintallow", Integer.valueOf(1));
+		component1.setProperty("nochangeint1", Integer.valueOf(1));
+		component2.setProperty("changeintallow", Integer.valueOf(1));
+		form.add(component1);
+		form.add(component2);
+
+		CurrentWindow.runForWindow(new BaseWindow(new TestBaseWebsocketSession(new WebsocketSessionKey("1", 42)), 99, "test")
+		{
+			@Override
+			public Container getForm(String formName)
+			{
+				return "test".equals(formName) ? form : null;
+			}
+		}, () -> {
+			try
+			{
+				JSONObject batch = new JSONObject(
+					"{pushes: [{formname: 'test', beanname: 'test1', changes: {changeintallow: 2}}, {formname: 'test', beanname: 'test1', changes: {nochangeint1: 3}}," +
+						"{formname: 'test', beanname: 'test2', changes: {changeintallow: 4}}]}");
+
+				FormServiceHandler.INSTANCE.executeMethod("dataPushBatch", batch);
+
+				// the middle push is rejected (protected property); the other ones are still applied
+				assertEquals(Integer.valueOf(2), component1.getProperty("changeintallow"));
+				assertEquals(Integer.valueOf(1), component1.getProperty("nochangeint1"));
+				assertEquals(Integer.valueOf(4), component2.getProperty("changeintallow"));
+			}
+			catch (Exception e)
+			{
+				throw new RuntimeException(e);
+			}
+		});
+	}
+
 	@Test(expected = IllegalChangeFromClientException.class)
 	public void shouldNotAllowSetValueByDefault() throws Exception
 	{
@@ -535,4 +707,188 @@ public class WebComponentTest
 		assertEquals(Integer.valueOf(42), webComponent.getProperty("changeintdeep"));
 	}
 
+	@Test
+	public void onlyChangedContainersAndComponentsAreWritten() throws JSONException
+	{
+		Map<String, PropertyDescription> properties = new HashMap<>();
+		properties.put("visible", new PropertyDescriptionBuilder().withName("visible").withType(VisiblePropertyType.INSTANCE).build());
+		WebObjectSpecification formSpec = new WebObjectSpecificationBuilder().withName("form_spec").withPackageType(
+			IPackageReader.WEB_COMPONENT).withProperties(properties).build();
+
+		final Container form1 = new Container("form1", formSpec)
+		{
+		};
+		final Container form2 = new Container("form2", formSpec)
+		{
+		};
+		final WebComponent comp1 = new WebComponent("mycomponent", "comp1");
+		final WebComponent comp2 = new WebComponent("mycomponent", "comp2");
+		form1.add(comp1);
+		form1.add(comp2);
+		form2.add(new WebComponent("mycomponent", "comp3"));
+
+		BaseWindow window = createWindowWithoutClientSideSpecs(false);
+		CurrentWindow.runForWindow(window, () -> {
+			try
+			{
+				JSONStringer w = new JSONStringer();
+				w.object();
+				form1.writeAllComponentsProperties(w, JSONUtils.FullValueToJSONConverter.INSTANCE);
+				form2.writeAllComponentsProperties(w, JSONUtils.FullValueToJSONConverter.INSTANCE);
+				w.endObject();
+
+				w = new JSONStringer();
+				w.object();
+				Assert.assertFalse("nothing changed yet", window.writeAllComponentsChanges(w, "forms", ChangesToJSONConverter.INSTANCE));
+				w.endObject();
+
+				comp2.setProperty("background", Color.RED);
+				Assert.assertTrue(form1.isChanged());
+				Assert.assertFalse(form2.isChanged());
+
+				w = new JSONStringer();
+				w.object();
+				Assert.assertTrue(window.writeAllComponentsChanges(w, "forms", ChangesToJSONConverter.INSTANCE));
+				w.endObject();
+				assertEquals("{\"forms\":{\"form1\":{\"comp2\":{\"background\":\"#ff0000\"}}}}", w.toString(), true);
+
+				w = new JSONStringer();
+				w.object();
+				Assert.assertFalse("changes were already written", window.writeAllComponentsChanges(w, "forms", ChangesToJSONConverter.INSTANCE));
+				w.endObject();
+			}
+			catch (JSONException e)
+			{
+				throw new RuntimeException(e);
+			}
+		});
+	}
+
+	@Test
+	public void allComponentsAreAskedForChangesWhenContainerIsMarkedAsChangedWithoutChild() throws JSONException
+	{
+		WebObjectSpecification formSpec = new WebObjectSpecificationBuilder().withName("form_spec").withPackageType(IPackageReader.WEB_COMPONENT).build();
+
+		final Container form = new Container("form", formSpec)
+		{
+			@Override
+			protected void markAsChanged(WebComponent changedChild)
+			{
+				// like a subclass that only knows about the no-arg markAsChanged()
+				markAsChanged();
+			}
+		};
+		final WebComponent comp1 = new WebComponent("mycomponent", "comp1");
+		final WebComponent comp2 = new WebComponent("mycomponent", "comp2");
+		form.add(comp1);
+		form.add(comp2);
+
+		BaseWindow window = createWindowWithoutClientSideSpecs(false);
+		CurrentWindow.runForWindow(window, () -> {
+			try
+			{
+				JSONStringer w = new JSONStringer();
+				w.object();
+				form.writeAllComponentsProperties(w, JSONUtils.FullValueToJSONConverter.INSTANCE);
+				w.endObject();
+
+				comp1.setProperty("background", Color.RED);
+				comp2.setProperty("background", Color.BLUE);
+				Assert.assertTrue(form.isChanged());
+
+				w = new JSONStringer();
+				w.object();
+				Assert.assertTrue(window.writeAllComponentsChanges(w, "forms", ChangesToJSONConverter.INSTANCE));
+				w.endObject();
+				assertEquals("{\"forms\":{\"form\":{\"comp1\":{\"background\":\"#ff0000\"},\"comp2\":{\"background\":\"#0000ff\"}}}}", w.toString(), true);
+
+				w = new JSONStringer();
+				w.object();
+				Assert.assertFalse("changes were already written", window.writeAllComponentsChanges(w, "forms", ChangesToJSONConverter.INSTANCE));
+				w.endObject();
+			}
+			catch (JSONException e)
+			{
+				throw new RuntimeException(e);
+			}
+		});
+	}
+
+	@Test
+	public void changesToValuesThatTheClientAlreadyHasAreNotSent() throws JSONException
+	{
+		Map<String, PropertyDescription> properties = new HashMap<>();
+		properties.put("visible", new PropertyDescriptionBuilder().withName("visible").withType(VisiblePropertyType.INSTANCE).build());
+		WebObjectSpecification formSpec = new WebObjectSpecificationBuilder().withName("form_spec").withPackageType(
+			IPackageReader.WEB_COMPONENT).withProperties(properties).build();
+
+		final Container form = new Container("form", formSpec)
+		{
+		};
+		final WebComponent comp = new WebComponent("mycomponent", "comp");
+		comp.setProperty("background", Color.RED);
+		form.add(comp);
+
+		BaseWindow window = createWindowWithoutClientSideSpecs(true);
+		CurrentWindow.runForWindow(window, () -> {
+			try
+			{
+				JSONStringer w = new JSONStringer();
+				w.object();
+				form.writeAllComponentsProperties(w, JSONUtils.FullValueToJSONConverter.INSTANCE);
+				w.endObject();
+				assertEquals("{\"comp\":{\"name\":\"comp\",\"background\":\"#ff0000\"}}", w.toString(), true);
+
+				// it changes on server but it gets back to what the client has before changes are sent
+				comp.setProperty("background", Color.BLUE);
+				comp.setProperty("background", Color.RED);
+				comp.setProperty("size", new Dimension(10, 10));
+				w = new JSONStringer();
+				w.object();
+				window.writeAllComponentsChanges(w, "forms", ChangesToJSONConverter.INSTANCE);
+				w.endObject();
+				assertEquals("{\"forms\":{\"form\":{\"comp\":{\"size\":{\"width\":10,\"height\":10}}}}}", w.toString(), true);
+
+				// the client sends a new value; then the server changes it back to what it sent last time
+				comp.putBrowserProperty("background", "#0000ff");
+				comp.setProperty("background", Color.RED);
+				w = new JSONStringer();
+				w.object();
+				window.writeAllComponentsChanges(w, "forms", ChangesToJSONConverter.INSTANCE);
+				w.endObject();
+				assertEquals("{\"forms\":{\"form\":{\"comp\":{\"background\":\"#ff0000\"}}}}", w.toString(), true);
+			}
+			catch (JSONException e)
+			{
+				throw new RuntimeException(e);
+			}
+		});
+	}
+
+	private static BaseWindow createWindowWithoutClientSideSpecs(boolean skipValuesAlreadyOnClient)
+	{
+		return new BaseWindow(new TestBaseWebsocketSession(new WebsocketSessionKey("1", 42)), 99, "test")
+		{
+			@Override
+			protected ClientSideWindowState createClientSideWindowState()
+			{
+				// no need to send client side specs of components in these tests
+				return new ClientSideWindowState(this, new ClientSideSpecState(this)
+				{
+					@Override
+					public void handleNewContainerToBeSentToClient(Container container)
+					{
+					}
+				})
+				{
+					@Override
+					protected LastSentValueDigests createLastSentValueDigests()
+					{
+						return skipValuesAlreadyOnClient ? new LastSentValueDigests() : null;
+					}
+				};
+			}
+		};
+	}
+
 }
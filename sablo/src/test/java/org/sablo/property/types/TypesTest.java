@@ -22,28 +22,47 @@ import static org.junit.Assert.assertSame;
 
 import java.awt.Color;
 import java.awt.Dimension;
+import java.awt.Font;
 import java.awt.Point;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.Locale;
+import java.util.Map;
 
 import javax.swing.plaf.ColorUIResource;
 
+import org.json.JSONException;
 import org.json.JSONObject;
 import org.json.JSONStringer;
+import org.json.JSONWriter;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.sablo.specification.PropertyDescription;
+import org.sablo.specification.PropertyDescriptionBuilder;
+import org.sablo.specification.property.IBrowserConverterContext;
 import org.sablo.specification.property.IClassPropertyType;
+import org.sablo.specification.property.types.ColorPropertyType;
+import org.sablo.specification.property.types.DatePropertyType;
+import org.sablo.specification.property.types.DefaultPropertyType;
 import org.sablo.specification.property.types.DimensionPropertyType;
 import org.sablo.specification.property.types.DoublePropertyType;
 import org.sablo.specification.property.types.FloatPropertyType;
+import org.sablo.specification.property.types.FontPropertyType;
 import org.sablo.specification.property.types.IntPropertyType;
 import org.sablo.specification.property.types.LongPropertyType;
+import org.sablo.specification.property.types.ObjectPropertyType;
 import org.sablo.specification.property.types.PointPropertyType;
 import org.sablo.specification.property.types.TypesRegistry;
 import org.sablo.util.TestBaseWebsocketSession;
+import org.sablo.util.ValueReference;
 import org.sablo.websocket.BaseWindow;
 import org.sablo.websocket.CurrentWindow;
 import org.sablo.websocket.WebsocketSessionKey;
+import org.sablo.websocket.utils.JSONUtils;
+import org.sablo.websocket.utils.JSONUtils.FullValueToJSONConverter;
+import org.sablo.websocket.utils.JSONUtils.IJSONStringWithClientSideType;
 
 /**
  * @author jcompagner
@@ -131,6 +150,57 @@ public class TypesTest
 		assertSame(type, type2);
 	}
 
+	@Test
+	public void testClassTypeLookupIsUpdatedByNewRegistrations() throws Exception
+	{
+		// nothing registered for it yet (that result is cached as well)
+		assertNull(TypesRegistry.getType(RegisteredLaterSubclass.class));
+
+		// this type stays registered; it only applies to the private classes of this test, so it does not affect other tests
+		TypesRegistry.addType(new RegisteredLaterType());
+		assertEquals("registeredLater", TypesRegistry.getType(RegisteredLaterSubclass.class).getName());
+		assertSame(TypesRegistry.getType(RegisteredLater.class), TypesRegistry.getType(RegisteredLaterSubclass.class));
+	}
+
+	private static class RegisteredLater
+	{
+	}
+
+	private static class RegisteredLaterSubclass extends RegisteredLater
+	{
+	}
+
+	private static class RegisteredLaterType extends DefaultPropertyType<RegisteredLater> implements IClassPropertyType<RegisteredLater>
+	{
+
+		@Override
+		public String getName()
+		{
+			return "registeredLater";
+		}
+
+		@Override
+		public Class<RegisteredLater> getTypeClass()
+		{
+			return RegisteredLater.class;
+		}
+
+		@Override
+		public RegisteredLater fromJSON(Object newJSONValue, RegisteredLater previousSabloValue, PropertyDescription propertyDescription,
+			IBrowserConverterContext context, ValueReference<Boolean> returnValueAdjustedIncommingValue)
+		{
+			return null;
+		}
+
+		@Override
+		public JSONWriter toJSON(JSONWriter writer, String key, RegisteredLater sabloValue, PropertyDescription propertyDescription,
+			IBrowserConverterContext dataConverterContext) throws JSONException
+		{
+			return writer;
+		}
+
+	}
+
 	@Test
 	public void testNumberTypesToNullConversion()
 	{
@@ -232,4 +302,80 @@ public class TypesTest
 		assertEquals(1111, LongPropertyType.INSTANCE.fromJSON("1,111.11", null, null, null, null).intValue());
 
 	}
+
+	@Test
+	public void testObjectTypeWritesDirectlyTheSameAsSeparately() throws Exception
+	{
+		Map<String, Object> nested = new LinkedHashMap<>();
+		nested.put("s", "a \"quoted\" </string>");
+		nested.put("d", Double.valueOf(1.5));
+		nested.put("nan", Double.valueOf(Double.NaN));
+		nested.put("n", null);
+		nested.put("arr", new Object[] { Integer.valueOf(1), Boolean.TRUE, Arrays.asList("x", null) });
+
+		Map<String, Object> withDate = new LinkedHashMap<>(nested);
+		withDate.put("date", new Date(1234567890000L));
+		withDate.put("color", Color.RED);
+		withDate.put("list", Arrays.asList(new Date(0), nested));
+
+		for (Object value : new Object[] { nested, withDate, Arrays.asList(nested, withDate), new Date(0), "str", null })
+		{
+			ObjectPropertyType type = (ObjectPropertyType)TypesRegistry.getType(ObjectPropertyType.TYPE_NAME);
+
+			JSONStringer separately = new JSONStringer();
+			separately.object();
+			IJSONStringWithClientSideType valueAndType = type.getJSONAndClientSideType(FullValueToJSONConverter.INSTANCE, value, null, null);
+			JSONUtils.writeValueWithClientType(separately, "v", valueAndType);
+			separately.endObject();
+
+			JSONStringer directly = new JSONStringer();
+			directly.object();
+			type.toJSONValueImpl(FullValueToJSONConverter.INSTANCE, directly, "v", value, null, null);
+			directly.endObject();
+
+			assertEquals(separately.toString(), directly.toString());
+		}
+	}
+
+	@Test
+	public void testObjectPropertyWithDateValueWritesDateClientSideType() throws Exception
+	{
+		PropertyDescription objectPD = new PropertyDescriptionBuilder().withName("o").withType(ObjectPropertyType.INSTANCE).build();
+		Date date = new Date(1234567890000L);
+		String dateClientSideType = JSONUtils.getClientSideTypeJSONString(DatePropertyType.INSTANCE, null).toJSONString();
+
+		// the type of the value is only known from it's class, so it is written together with the value
+		JSONStringer writer = new JSONStringer();
+		writer.object();
+		FullValueToJSONConverter.INSTANCE.toJSONValue(writer, "v", date, objectPD, null);
+		writer.endObject();
+		JSONObject written = new JSONObject(writer.toString()).getJSONObject("v");
+		assertEquals(dateClientSideType, JSONObject.valueToString(written.get(JSONUtils.CONVERSION_CL_SIDE_TYPE_KEY)));
+
+		// and it is a dynamic client side type, as the property itself is just 'object'
+		assertEquals(dateClientSideType, FullValueToJSONConverter.INSTANCE.getClientSideTypeBeforeWriting(date, objectPD, null, true).toJSONString());
+		assertEquals(dateClientSideType,
+			FullValueToJSONConverter.INSTANCE.getConvertedValueWithClientType(date, objectPD, null, true).getClientSideType().toJSONString());
+	}
+
+	@Test
+	public void colorsAndFontsAreInternedAndWriteTheSameJSON() throws Exception
+	{
+		Color red = ColorPropertyType.INSTANCE.fromJSON("#ff0000", null, null, null, null);
+		assertSame(red, ColorPropertyType.INSTANCE.fromJSON("#f00", null, null, null, null));
+		assertSame(red, ColorPropertyType.INSTANCE.intern(new Color(255, 0, 0)));
+		Color semiTransparent = new Color(1, 2, 3, 128);
+		assertEquals("{\"a\":\"#ff0000\",\"b\":\"rgba(1,2,3,0.5)\"}", ColorPropertyType.INSTANCE.toJSON(
+			ColorPropertyType.INSTANCE.toJSON(new JSONStringer().object(), "a", red, null, null), "b", semiTransparent, null, null).endObject().toString());
+		assertSame(semiTransparent, ColorPropertyType.INSTANCE.intern(semiTransparent));
+		assertEquals("{\"b\":\"rgba(1,2,3,0.5)\"}",
+			ColorPropertyType.INSTANCE.toJSON(new JSONStringer().object(), "b", semiTransparent, null, null).endObject().toString());
+
+		JSONObject fontJSON = new JSONObject("{fontFamily: 'Dialog', fontSize: '13px', fontWeight: 'bold', fontStyle: 'normal'}");
+		Font font = FontPropertyType.INSTANCE.fromJSON(fontJSON, null, null, null, null);
+		assertSame(font, FontPropertyType.INSTANCE.fromJSON(fontJSON, null, null, null, null));
+		String notInternedJSON = new JSONStringer().object().key("fontWeight").value("bold").key("fontStyle").value("normal").key("fontSize").value(
+			"13px").key("fontFamily").value(font.getFamily() + ", Verdana, Arial").endObject().toString();
+		assertEquals("[" + notInternedJSON + "]", FontPropertyType.INSTANCE.toJSON(new JSONStringer().array(), null, font, null, null).endArray().toString());
+	}
 }
@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2026 Servoy BV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.sablo.specification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Test;
+import org.sablo.InMemPackageReader;
+import org.sablo.specification.Package.IPackageReader;
+
+/**
+ * @author agent
+ */
+@SuppressWarnings("nls")
+public class ClientSideTypeBundleTest
+{
+
+	private static final String CONTENT = "{\"pkg-comp1\":{\"p\":{\"d\":\"date\"}},\"pkg-comp2\":{\"p\":{\"x\":{\"s\":1}}}}";
+
+	@Test
+	public void urlDependsOnlyOnContent()
+	{
+		ClientSideTypeBundle b1 = ClientSideTypeBundle.create("pkg", false, CONTENT, Arrays.asList("pkg-comp1", "pkg-comp2"));
+		ClientSideTypeBundle b2 = ClientSideTypeBundle.create("pkg", false, CONTENT, Arrays.asList("pkg-comp1", "pkg-comp2"));
+		ClientSideTypeBundle b3 = ClientSideTypeBundle.create("pkg", false, CONTENT.replace("date", "object"), Arrays.asList("pkg-comp1", "pkg-comp2"));
+
+		assertEquals(b1.getURL(), b2.getURL());
+		assertNotEquals(b1.getURL(), b3.getURL());
+		assertTrue(b1.getURL().startsWith(ClientSideTypeBundle.URL_PATH));
+		assertTrue(b1.containsSpec("pkg-comp2"));
+		assertFalse(b1.containsSpec("pkg-comp3"));
+
+		b1.dispose();
+		b2.dispose();
+		b3.dispose();
+	}
+
+	@Test
+	public void servesBundlesWithLongLivedCacheHeaders() throws Exception
+	{
+		ClientSideTypeBundle bundle = ClientSideTypeBundle.create("pkg", false, CONTENT, Arrays.asList("pkg-comp1", "pkg-comp2"));
+		String uri = "/ctx/solutions/x/" + bundle.getURL();
+
+		// full content
+		HttpServletRequest request = request(uri, null);
+		HttpServletResponse response = mock(HttpServletResponse.class);
+		ByteArrayOutputStream written = new ByteArrayOutputStream();
+		when(response.getOutputStream()).thenReturn(new ServletOutputStream()
+		{
+			@Override
+			public void write(int b)
+			{
+				written.write(b);
+			}
+
+			@Override
+			public boolean isReady()
+			{
+				return true;
+			}
+
+			@Override
+			public void setWriteListener(WriteListener writeListener)
+			{
+			}
+		});
+		assertTrue(ClientSideTypeBundle.serve(request, response));
+		assertEquals(CONTENT, new String(written.toByteArray(), StandardCharsets.UTF_8));
+		verify(response).setHeader("Cache-Control", "public, max-age=31536000, immutable");
+
+		// the browser already has it
+		response = mock(HttpServletResponse.class);
+		assertTrue(ClientSideTypeBundle.serve(request(uri, '"' + bundle.getHash() + '"'), response));
+		verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+		verify(response, never()).getOutputStream();
+
+		// not a bundle
+		assertFalse(ClientSideTypeBundle.serve(request("/ctx/index.html", null), mock(HttpServletResponse.class)));
+
+		// no longer valid
+		bundle.dispose();
+		response = mock(HttpServletResponse.class);
+		assertTrue(ClientSideTypeBundle.serve(request(uri, null), response));
+		verify(response).sendError(HttpServletResponse.SC_NOT_FOUND);
+	}
+
+	@Test
+	public void bundlesWithTheSameContentAreServedUntilAllOfThemAreDisposed() throws Exception
+	{
+		ClientSideTypeBundle b1 = ClientSideTypeBundle.create("pkg", false, CONTENT, Arrays.asList("pkg-comp1", "pkg-comp2"));
+		ClientSideTypeBundle b2 = ClientSideTypeBundle.create("pkg", false, CONTENT, Arrays.asList("pkg-comp1", "pkg-comp2"));
+		String uri = "/ctx/" + b1.getURL();
+
+		b1.dispose();
+		assertTrue(ClientSideTypeBundle.serve(request(uri, '"' + b1.getHash() + '"'), mock(HttpServletResponse.class))); // still served for b2
+		HttpServletResponse response = mock(HttpServletResponse.class);
+		ClientSideTypeBundle.serve(request(uri, '"' + b1.getHash() + '"'), response);
+		verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+
+		b2.dispose();
+		response = mock(HttpServletResponse.class);
+		ClientSideTypeBundle.serve(request(uri, null), response);
+		verify(response).sendError(HttpServletResponse.SC_NOT_FOUND);
+	}
+
+	@Test
+	public void bundlesBuiltWhileTheCacheIsClearedOrDisposedAreNotServed() throws Exception
+	{
+		Map<String, String> specs = new HashMap<>();
+		specs.put("mycomp.spec", "{ name: 'mycomp', displayName: 'mycomp', definition: 'mycomp.js', model: { d: 'date' } }");
+		WebSpecReader reader = new WebSpecReader(
+			new IPackageReader[] { new InMemPackageReader("Manifest-Version: 1.0\n\nName: mycomp.spec\nWeb-Component: True\n", specs) }, "Web-Component",
+			new SpecReloadSubject(), null);
+		SpecProviderState state = reader.getSpecProviderState();
+		WebObjectSpecification spec = state.getWebObjectSpecification("mycomp");
+		ClientSideTypeCache cache = state.getClientSideTypeCache();
+
+		// the cache is cleared (specs changed) while the bundle is being built; that one is not cached and it is built again
+		SpecProviderState clearingState = spy(state);
+		AtomicInteger builds = new AtomicInteger();
+		doAnswer(invocation -> {
+			if (builds.incrementAndGet() == 1) cache.clear();
+			return invocation.callRealMethod();
+		}).when(clearingState).getWebObjectsInPackage("inmem");
+
+		ClientSideTypeBundle bundle = cache.getClientSideSpecBundleFor(spec, clearingState);
+		assertEquals(2, builds.get());
+		assertSame(bundle, cache.getClientSideSpecBundleFor(spec, state));
+		assertTrue(bundle.containsSpec("mycomp"));
+
+		// a newer spec generation replaced this cache; it stops serving what it created (the first build above was disposed as well)
+		cache.dispose();
+		assertTrue(cache.isDisposed());
+		assertNull(cache.getClientSideSpecBundleFor(spec, state));
+		HttpServletResponse response = mock(HttpServletResponse.class);
+		ClientSideTypeBundle.serve(request("/ctx/" + bundle.getURL(), null), response);
+		verify(response).sendError(HttpServletResponse.SC_NOT_FOUND);
+	}
+
+	private static HttpServletRequest request(String uri, String ifNoneMatch)
+	{
+		HttpServletRequest request = mock(HttpServletRequest.class);
+		when(request.getMethod()).thenReturn("GET");
+		when(request.getRequestURI()).thenReturn(uri);
+		when(request.getHeader("If-None-Match")).thenReturn(ifNoneMatch);
+		return request;
+	}
+
+}
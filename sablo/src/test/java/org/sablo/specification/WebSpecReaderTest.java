@@ -0,0 +1,339 @@
+/*
+ * Copyright (C) 2026 Servoy BV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.sablo.specification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.jar.Manifest;
+
+import org.junit.Test;
+import org.sablo.InMemPackageReader;
+import org.sablo.specification.Package.IPackageReader;
+import org.sablo.specification.property.types.StringPropertyType;
+import org.sablo.websocket.utils.JSONUtils.EmbeddableJSONWriter;
+
+/**
+ * @author agent
+ */
+@SuppressWarnings("nls")
+public class WebSpecReaderTest
+{
+
+	private static class NamedInMemPackageReader extends InMemPackageReader
+	{
+		private final String packageName;
+		private final List<String> reportedErrors = new ArrayList<>();
+		private final Set<String> readingThreads = Collections.synchronizedSet(new HashSet<>());
+
+		private NamedInMemPackageReader(String packageName, String... specNames)
+		{
+			super(manifest(specNames), specs(packageName, specNames));
+			this.packageName = packageName;
+		}
+
+		private static String manifest(String... specNames)
+		{
+			StringBuilder manifest = new StringBuilder("Manifest-Version: 1.0\n");
+			for (String specName : specNames)
+				manifest.append("\nName: ").append(specName).append(".spec\nWeb-Component: True\n");
+			return manifest.toString();
+		}
+
+		private static Map<String, String> specs(String packageName, String... specNames)
+		{
+			Map<String, String> specs = new HashMap<>();
+			for (String specName : specNames)
+				specs.put(specName + ".spec", "{ name: '" + specName + "', displayName: '" + packageName + "', definition: '" + packageName + "/" + specName +
+					".js', model: { text: 'string', date: 'date' } }");
+			return specs;
+		}
+
+		@Override
+		public String getName()
+		{
+			return packageName;
+		}
+
+		@Override
+		public String getPackageName()
+		{
+			return packageName;
+		}
+
+		@Override
+		public String getPackageDisplayname()
+		{
+			return packageName;
+		}
+
+		@Override
+		public String getPackageType()
+		{
+			return IPackageReader.WEB_COMPONENT; // so that the manifest is only read once for the component specs and once for the layout specs
+		}
+
+		@Override
+		public String readTextFile(String path, Charset charset) throws IOException
+		{
+			readingThreads.add(Thread.currentThread().getName());
+			return super.readTextFile(path, charset);
+		}
+
+		@Override
+		public URL getUrlForPath(String path)
+		{
+			try
+			{
+				return new URL("file:/" + packageName + "/" + path);
+			}
+			catch (MalformedURLException e)
+			{
+				throw new RuntimeException(e);
+			}
+		}
+
+		@Override
+		public void reportError(String specpath, Exception e)
+		{
+			synchronized (reportedErrors)
+			{
+				reportedErrors.add(e.getMessage());
+			}
+		}
+	}
+
+	private static NamedInMemPackageReader failingReader(String packageName, String specName, int failingManifestRead, Exception exception)
+	{
+		return new NamedInMemPackageReader(packageName, specName)
+		{
+			private int manifestReads;
+
+			@Override
+			public Manifest getManifest() throws IOException
+			{
+				if (++manifestReads == failingManifestRead)
+				{
+					if (exception instanceof IOException) throw (IOException)exception;
+					throw (RuntimeException)exception;
+				}
+				return super.getManifest();
+			}
+		};
+	}
+
+	@Test
+	public void packagesLoadedInParallelAreMergedInOrder()
+	{
+		for (int threads : new int[] { 1, 4 })
+		{
+			List<NamedInMemPackageReader> readers = new ArrayList<>();
+			for (int i = 0; i < 20; i++)
+				readers.add(new NamedInMemPackageReader("pkg" + i, "comp" + i, "shared"));
+
+			WebSpecReader reader = new WebSpecReader(readers.toArray(new IPackageReader[readers.size()]), "Web-Component", new SpecReloadSubject(), null,
+				threads);
+			SpecProviderState state = reader.getSpecProviderState();
+
+			for (int i = 0; i < 20; i++)
+			{
+				assertNotNull(state.getWebObjectSpecification("comp" + i));
+				assertEquals(i == 0 ? 0 : 1, readers.get(i).reportedErrors.size()); // each package after the first one redefines "shared"
+				for (String readingThread : readers.get(i).readingThreads)
+					assertEquals(threads > 1, readingThread.startsWith("sablo-package-loader-"));
+			}
+			// just like when loading them one after the other, the last package wins
+			assertEquals("pkg19", state.getWebObjectSpecification("shared").getPackageName());
+			assertEquals(20, state.getWebObjectSpecifications().size());
+			assertTrue(readers.get(5).reportedErrors.get(0).contains("'pkg4'"));
+		}
+	}
+
+	@Test
+	public void packagesThatFailWhileParsedInParallelFailAsWhenLoadedOneByOne()
+	{
+		for (int threads : new int[] { 1, 4 })
+		{
+			IPackageReader[] readers = new IPackageReader[] { new NamedInMemPackageReader("pkg0", "comp0"), //
+				failingReader("pkg1", "comp1", 1, new IOException("cannot read manifest")), // fails while reading the component specs
+				failingReader("pkg2", "comp2", 2, new IllegalStateException("cannot read manifest")), // fails while reading the layout specs, after the component specs
+				new NamedInMemPackageReader("pkg3", "comp3") };
+			SpecProviderState state = new WebSpecReader(readers, "Web-Component", new SpecReloadSubject(), null, threads).getSpecProviderState();
+
+			assertNotNull(state.getWebObjectSpecification("comp0"));
+			assertNull(state.getWebObjectSpecification("comp1"));
+			assertNotNull(state.getWebObjectSpecification("comp2"));
+			assertNotNull(state.getWebObjectSpecification("comp3"));
+			assertEquals(3, state.getWebObjectSpecifications().size());
+		}
+	}
+
+	@Test
+	public void defaultComponentPropertiesAreOnlyAskedForOnTheLoadingThread()
+	{
+		List<String> askingThreads = Collections.synchronizedList(new ArrayList<>());
+		PropertyDescription defaultProperty = new PropertyDescriptionBuilder().withName("defaultprop").withType(StringPropertyType.INSTANCE).build();
+		IDefaultComponentPropertiesProvider defaultComponentPropertiesProvider = () -> {
+			askingThreads.add(Thread.currentThread().getName());
+			return Collections.singletonMap("defaultprop", defaultProperty);
+		};
+
+		List<NamedInMemPackageReader> readers = new ArrayList<>();
+		for (int i = 0; i < 5; i++)
+			readers.add(new NamedInMemPackageReader("pkg" + i, "comp" + i));
+		SpecProviderState state = new WebSpecReader(readers.toArray(new IPackageReader[readers.size()]), "Web-Component", new SpecReloadSubject(),
+			defaultComponentPropertiesProvider, 4).getSpecProviderState();
+
+		for (int i = 0; i < 5; i++)
+		{
+			assertSame(defaultProperty, state.getWebObjectSpecification("comp" + i).getProperty("defaultprop"));
+			assertTrue(readers.get(i).readingThreads.iterator().next().startsWith("sablo-package-loader-"));
+		}
+		assertEquals(Collections.singletonList(Thread.currentThread().getName()), askingThreads); // once, for all packages that were parsed in parallel
+	}
+
+	@Test
+	public void getSpecProviderStateGivesThePreviousGenerationWhileReloading() throws Exception
+	{
+		AtomicBoolean blockNextRead = new AtomicBoolean();
+		CountDownLatch reading = new CountDownLatch(1);
+		CountDownLatch canContinue = new CountDownLatch(1);
+		NamedInMemPackageReader blockingReader = new NamedInMemPackageReader("pkg1", "comp1")
+		{
+			@Override
+			public String readTextFile(String path, Charset charset) throws IOException
+			{
+				if (blockNextRead.compareAndSet(true, false))
+				{
+					reading.countDown();
+					try
+					{
+						canContinue.await();
+					}
+					catch (InterruptedException e)
+					{
+						Thread.currentThread().interrupt();
+					}
+				}
+				return super.readTextFile(path, charset);
+			}
+		};
+		WebSpecReader reader = new WebSpecReader(new IPackageReader[] { blockingReader, new NamedInMemPackageReader("pkg2", "comp2") }, "Web-Component",
+			new SpecReloadSubject(), null);
+		SpecProviderState previousState = reader.getSpecProviderState();
+
+		blockNextRead.set(true);
+		Thread reloading = new Thread(reader::load);
+		reloading.start();
+		try
+		{
+			assertTrue(reading.await(10, TimeUnit.SECONDS));
+
+			// the reload holds the lock of the reader and already cleared it's caches; others still get the complete previous state, without waiting
+			assertSame(previousState, reader.getSpecProviderState());
+			assertSame(previousState.getClientSideTypeCache(), reader.getClientSideTypeCache());
+			assertNotNull(previousState.getWebObjectSpecification("comp1"));
+			assertNotNull(previousState.getWebObjectSpecification("comp2"));
+			assertFalse(previousState.getClientSideTypeCache().isDisposed());
+		}
+		finally
+		{
+			canContinue.countDown();
+			reloading.join(10000);
+		}
+
+		SpecProviderState newState = reader.getSpecProviderState();
+		assertNotSame(previousState, newState);
+		assertNotNull(newState.getWebObjectSpecification("comp1"));
+		assertNotNull(newState.getWebObjectSpecification("comp2"));
+		assertSame(newState.getClientSideTypeCache(), reader.getClientSideTypeCache());
+		assertTrue(previousState.getClientSideTypeCache().isDisposed());
+	}
+
+	@Test
+	public void clientSideSpecsArePrecomputedAndReusedForUnchangedSpecs()
+	{
+		WebSpecReader reader = new WebSpecReader(new IPackageReader[] { new NamedInMemPackageReader("pkg1", "comp1", "comp2") }, "Web-Component",
+			new SpecReloadSubject(), null);
+		SpecProviderState state = reader.getSpecProviderState();
+		WebObjectSpecification comp1 = state.getWebObjectSpecification("comp1");
+		EmbeddableJSONWriter clientSideSpec = state.getClientSideTypeCache().getClientSideSpecFor(comp1);
+		assertNotNull(clientSideSpec);
+
+		// a new generation where comp1 did not change
+		ClientSideTypeCache nextGeneration = new ClientSideTypeCache(Arrays.asList(comp1), state.getClientSideTypeCache());
+		assertSame(clientSideSpec, nextGeneration.getClientSideSpecFor(comp1));
+
+		// after a reload all specs are new instances, so their client side specs are computed again
+		reader.load();
+		WebObjectSpecification reloadedComp1 = reader.getSpecProviderState().getWebObjectSpecification("comp1");
+		assertNotSame(comp1, reloadedComp1);
+		EmbeddableJSONWriter reloadedClientSideSpec = reader.getClientSideTypeCache().getClientSideSpecFor(reloadedComp1);
+		assertNotSame(clientSideSpec, reloadedClientSideSpec);
+		assertEquals(clientSideSpec.toJSONString(), reloadedClientSideSpec.toJSONString());
+	}
+
+
+	@Test
+	public void previousGenerationCacheEntriesAreDisposedAndRebuiltOnReload()
+	{
+		WebSpecReader reader = new WebSpecReader(new IPackageReader[] { new NamedInMemPackageReader("pkg1", "comp1", "comp2") }, "Web-Component",
+			new SpecReloadSubject(), null);
+		SpecProviderState previousState = reader.getSpecProviderState();
+		ClientSideTypeCache previousCache = previousState.getClientSideTypeCache();
+		WebObjectSpecification comp1 = previousState.getWebObjectSpecification("comp1");
+		ClientSideTypeBundle previousBundle = previousCache.getClientSideSpecBundleFor(comp1, previousState);
+		assertNotNull(previousBundle);
+		assertSame(previousBundle, previousCache.getClientSideSpecBundleFor(comp1, previousState));
+
+		reader.load();
+
+		// the previous generation no longer gives bundles and it's bundle is no longer served (so the same content gives a new bundle)
+		assertTrue(previousCache.isDisposed());
+		assertNull(previousCache.getClientSideSpecBundleFor(comp1, previousState));
+		SpecProviderState newState = reader.getSpecProviderState();
+		ClientSideTypeCache newCache = newState.getClientSideTypeCache();
+		assertNotSame(previousCache, newCache);
+		WebObjectSpecification reloadedComp1 = newState.getWebObjectSpecification("comp1");
+		ClientSideTypeBundle newBundle = newCache.getClientSideSpecBundleFor(reloadedComp1, newState);
+		assertNotNull(newBundle);
+		assertNotSame(previousBundle, newBundle);
+		assertEquals(previousBundle.getHash(), newBundle.getHash());
+		assertSame(newBundle, newCache.getClientSideSpecBundleFor(reloadedComp1, newState));
+	}
+
+}
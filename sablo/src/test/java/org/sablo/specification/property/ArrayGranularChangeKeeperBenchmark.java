@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2026 Servoy BV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.sablo.specification.property;
+
+import java.util.Collections;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Not a unit test; run it's main method manually to see how the time needed by {@link ArrayGranularChangeKeeper} to process lots of small
+ * operations scales with the size of the array (and with the number of unchanged intervals that those operations create).
+ *
+ * @author agent
+ */
+@SuppressWarnings("nls")
+public class ArrayGranularChangeKeeperBenchmark
+{
+
+	private static final int OPERATIONS = 20000;
+	private static final int WARMUP = 3;
+	private static final int ITERATIONS = 5;
+
+	public static void main(String[] args)
+	{
+		for (int arraySize : new int[] { 1000, 10000, 100000 })
+		{
+			for (int i = 0; i < WARMUP; i++)
+				run(arraySize);
+
+			long start = System.nanoTime();
+			int equivalentOps = 0;
+			for (int i = 0; i < ITERATIONS; i++)
+				equivalentOps += run(arraySize);
+			long time = (System.nanoTime() - start) / ITERATIONS;
+
+			System.out.println("array of " + arraySize + " rows: " + (time / OPERATIONS) + " ns / operation, " + (time / 1000000) + " ms for " + OPERATIONS +
+				" operations + getEquivalentSequenceOfOperations() (" + (equivalentOps / ITERATIONS) + " equivalent operations)");
+		}
+	}
+
+	private static int run(int arraySize)
+	{
+		Random random = new Random(arraySize);
+		Set<String> someColumn = Collections.singleton("someColumn");
+		ArrayGranularChangeKeeper changeKeeper = new ArrayGranularChangeKeeper();
+		changeKeeper.reset(0, arraySize - 1);
+
+		int size = arraySize;
+		for (int k = 0; k < OPERATIONS; k++)
+		{
+			// many small edits spread all over the array; the size of the array stays about the same
+			int type = random.nextInt(3);
+			if (type == ArrayOperation.DELETE && size <= arraySize / 2) type = ArrayOperation.INSERT;
+			int start = random.nextInt(size);
+			int end = (type == ArrayOperation.INSERT ? start : Math.min(size - 1, start + random.nextInt(2)));
+
+			changeKeeper.processOperation(new ArrayOperation(start, end, type, type == ArrayOperation.CHANGE && random.nextBoolean() ? someColumn : null));
+			if (type == ArrayOperation.INSERT) size += end - start + 1;
+			else if (type == ArrayOperation.DELETE) size -= end - start + 1;
+		}
+
+		return changeKeeper.getEquivalentSequenceOfOperations().length;
+	}
+
+}
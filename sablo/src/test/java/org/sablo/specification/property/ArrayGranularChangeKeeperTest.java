@@ -21,9 +21,12 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
 
 import org.junit.Before;
@@ -558,4 +561,47 @@ public class ArrayGranularChangeKeeperTest
 		assertChangeOpEquals(3, 3, null, ArrayOperation.CHANGE, equivalentOps[3]);
 	}
 
+	@Test
+	public void randomOperationsOnABigArrayGiveAnEquivalentSequence()
+	{
+		int initialSize = 2000;
+		Random random = new Random(42);
+		List<Integer> initial = new ArrayList<>(initialSize);
+		for (int i = 0; i < initialSize; i++)
+			initial.add(Integer.valueOf(i));
+		List<Integer> current = new ArrayList<>(initial);
+		int nextNewValue = initialSize; // values < initialSize are the untouched initial ones
+
+		changeKeeper.reset(0, initialSize - 1);
+		for (int k = 0; k < 5000; k++)
+		{
+			int type = current.isEmpty() ? ArrayOperation.INSERT : random.nextInt(3);
+			int start = random.nextInt(current.size() + (type == ArrayOperation.INSERT ? 1 : 0));
+			int end = (type == ArrayOperation.INSERT ? start + random.nextInt(3) : Math.min(current.size() - 1, start + random.nextInt(3)));
+			Set<String> columns = (type == ArrayOperation.CHANGE && random.nextBoolean()) ? Collections.singleton("column" + random.nextInt(3)) : null;
+
+			changeKeeper.processOperation(new ArrayOperation(start, end, type, columns));
+			for (int i = start; i <= end; i++)
+			{
+				if (type == ArrayOperation.INSERT) current.add(i, Integer.valueOf(nextNewValue++));
+				else if (type == ArrayOperation.DELETE) current.remove(start);
+				else current.set(i, Integer.valueOf(nextNewValue++));
+			}
+		}
+
+		// applying the equivalent operations (with data from the final array) on the initial array must give the final array
+		List<Integer> replayed = new ArrayList<>(initial);
+		for (ArrayOperation op : changeKeeper.getEquivalentSequenceOfOperations())
+		{
+			for (int i = op.startIndex; i <= op.endIndex; i++)
+			{
+				if (op.type == ArrayOperation.INSERT) replayed.add(i, current.get(i));
+				else if (op.type == ArrayOperation.DELETE) replayed.remove(op.startIndex);
+				else replayed.set(i, current.get(i));
+			}
+		}
+		assertEquals(current, replayed);
+		assertEquals(current.stream().filter(v -> v.intValue() < initialSize).count(), changeKeeper.getNumberOfUnchangedRows());
+	}
+
 }
\ No newline at end of file
@@ -16,12 +16,20 @@
 
 package org.sablo.specification.property;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.Random;
 import java.util.Set;
 
 import org.junit.Test;
@@ -314,6 +322,111 @@ public class ListTest
 		assertGranularOpIs(1, 1, ArrayOperation.CHANGE, ChangeAwareList.GRANULAR_UPDATE_OP, opSeq[0]);
 	}
 
+	@Test
+	public void elementChangesUseCurrentIndexAfterInsertsAndRemoves() throws Exception
+	{
+		ChangeAwareList<ChangeAwareMap<String, Object>, Object> lst = new ChangeAwareList<ChangeAwareMap<String, Object>, Object>(
+			new ArrayList<ChangeAwareMap<String, Object>>());
+		lst.attachToBaseObject(() -> {
+		}, null);
+		for (int i = 0; i < 10; i++)
+			lst.add(new ChangeAwareMap<String, Object>(new HashMap<String, String>(), null, getDummyCustomObjectPD()));
+		ChangeAwareMap<String, Object> watched = lst.get(5);
+		ChangeAwareMap<String, Object> removedWithIterator = lst.get(0);
+
+		// insert before it, then remove (via a list iterator) before it
+		lst.add(0, new ChangeAwareMap<String, Object>(new HashMap<String, String>(), null, getDummyCustomObjectPD()));
+		lst.add(0, new ChangeAwareMap<String, Object>(new HashMap<String, String>(), null, getDummyCustomObjectPD()));
+		ListIterator<ChangeAwareMap<String, Object>> it = lst.listIterator();
+		while (it.next() != removedWithIterator);
+		it.remove();
+		assertSame(watched, lst.get(6));
+		assertEquals(11, lst.changeHandlers.size()); // 12 added, one of them removed
+
+		lst.getChangesImmutableAndPrepareForReset().doneHandling();
+		watched.getChangesImmutableAndPrepareForReset().doneHandling();
+		watched.put("test", "test");
+
+		ArrayOperation[] opSeq = lst.getChangesImmutableAndPrepareForReset().getGranularUpdatesKeeper().getEquivalentSequenceOfOperations();
+		assertEquals(1, opSeq.length);
+		assertGranularOpIs(6, 6, ArrayOperation.CHANGE, ChangeAwareList.GRANULAR_UPDATE_OP, opSeq[0]);
+	}
+
+	@Test
+	public void replaceContentsSendsOnlyTheDifferences() throws Exception
+	{
+		ChangeAwareList<String, String> lst = new ChangeAwareList<String, String>(new ArrayList<String>(Arrays.asList("a", "b", "c", "d", "e", "f")));
+		final boolean[] changed = new boolean[1];
+		lst.attachToBaseObject(() -> changed[0] = true, null);
+
+		assertFalse(lst.replaceContents(Arrays.asList("a", "b", "c", "d", "e", "f")));
+		assertFalse(changed[0]);
+
+		assertTrue(lst.replaceContents(Arrays.asList("a", "x", "c", "d", "f", "g", "h")));
+		assertTrue(changed[0]);
+		assertEquals(Arrays.asList("a", "x", "c", "d", "f", "g", "h"), lst);
+
+		ChangeAwareList<String, String>.Changes ch = lst.getChangesImmutableAndPrepareForReset();
+		assertFalse(ch.mustSendAll());
+		ArrayOperation[] opSeq = ch.getGranularUpdatesKeeper().getEquivalentSequenceOfOperations();
+		assertEquals(3, opSeq.length);
+		assertGranularOpIs(1, 1, ArrayOperation.CHANGE, null, opSeq[0]);
+		assertGranularOpIs(4, 4, ArrayOperation.DELETE, null, opSeq[1]);
+		assertGranularOpIs(5, 6, ArrayOperation.INSERT, null, opSeq[2]);
+		ch.doneHandling();
+
+		// bulk removes are registered as range operations
+		lst.removeAll(Arrays.asList("c", "d", "h"));
+		assertEquals(Arrays.asList("a", "x", "f", "g"), lst);
+		opSeq = lst.getChangesImmutableAndPrepareForReset().getGranularUpdatesKeeper().getEquivalentSequenceOfOperations();
+		assertEquals(2, opSeq.length);
+		assertGranularOpIs(2, 3, ArrayOperation.DELETE, null, opSeq[0]);
+		assertGranularOpIs(4, 4, ArrayOperation.DELETE, null, opSeq[1]);
+	}
+
+	@Test
+	public void replaceContentsUsesAMinimalEditScript() throws Exception
+	{
+		Random r = new Random(7);
+		for (int test = 0; test < 300; test++)
+		{
+			List<String> oldContent = randomList(r);
+			List<String> newContent = randomList(r);
+			ChangeAwareList<String, String> lst = new ChangeAwareList<String, String>(new ArrayList<String>(oldContent));
+			lst.replaceContents(newContent);
+			assertEquals(newContent, lst);
+
+			int[] hunks = ListDiff.computeHunks(oldContent, newContent, Objects::equals, Integer.MAX_VALUE);
+			int edits = 0;
+			for (int h = 0; h < hunks.length; h += ListDiff.HUNK_SIZE)
+				edits += (hunks[h + 1] - hunks[h]) + (hunks[h + 3] - hunks[h + 2]);
+			assertEquals(oldContent.size() + newContent.size() - 2 * longestCommonSubsequence(oldContent, newContent), edits);
+		}
+
+		// a single insert or delete (after the common prefix and suffix) is returned even if it is above maxEdits; anything else above maxEdits is not
+		assertArrayEquals(new int[] { 1, 1, 1, 4 }, ListDiff.computeHunks(Arrays.asList("a", "b"), Arrays.asList("a", "x", "y", "z", "b"), Objects::equals, 2));
+		assertArrayEquals(new int[] { 1, 4, 1, 1 }, ListDiff.computeHunks(Arrays.asList("a", "x", "y", "z", "b"), Arrays.asList("a", "b"), Objects::equals, 2));
+		assertNull(ListDiff.computeHunks(Arrays.asList("a", "x", "y", "b"), Arrays.asList("a", "z", "b"), Objects::equals, 2));
+	}
+
+	private static List<String> randomList(Random r)
+	{
+		List<String> l = new ArrayList<>();
+		int size = r.nextInt(20);
+		for (int i = 0; i < size; i++)
+			l.add(String.valueOf((char)('a' + r.nextInt(4))));
+		return l;
+	}
+
+	private static int longestCommonSubsequence(List<String> a, List<String> b)
+	{
+		int[][] lcs = new int[a.size() + 1][b.size() + 1];
+		for (int i = 1; i <= a.size(); i++)
+			for (int j = 1; j <= b.size(); j++)
+				lcs[i][j] = a.get(i - 1).equals(b.get(j - 1)) ? lcs[i - 1][j - 1] + 1 : Math.max(lcs[i - 1][j], lcs[i][j - 1]);
+		return lcs[a.size()][b.size()];
+	}
+
 	/*
 	 * @Test public void sameValueRemoveIndexTest() { ChangeAwareList<ChangeAwareMap<String, Object>, Object> lst = new ChangeAwareList<ChangeAwareMap<String,
 	 * Object>, Object>( new ArrayList<ChangeAwareMap<String, Object>>());
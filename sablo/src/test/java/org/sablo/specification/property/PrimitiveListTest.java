@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2026 Servoy BV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.sablo.specification.property;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.sablo.specification.property.types.DoublePropertyType;
+
+/**
+ * @author agent
+ */
+public class PrimitiveListTest
+{
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void randomOperationsGiveTheSameResultAsAnArrayList() throws Exception
+	{
+		Random r = new Random(11);
+		List<Double> expected = new ArrayList<>();
+		List<Double> actual = (List<Double>)PrimitiveList.newInstanceFor(DoublePropertyType.INSTANCE, 0);
+
+		for (int op = 0; op < 5000; op++)
+		{
+			Double value = (r.nextInt(5) == 0 ? null : Double.valueOf(r.nextInt(100)));
+			int choice = r.nextInt(4);
+			if (choice == 0 || expected.isEmpty())
+			{
+				int idx = r.nextInt(expected.size() + 1);
+				expected.add(idx, value);
+				actual.add(idx, value);
+			}
+			else if (choice == 1)
+			{
+				int idx = r.nextInt(expected.size());
+				assertEquals(expected.remove(idx), actual.remove(idx));
+			}
+			else
+			{
+				int idx = r.nextInt(expected.size());
+				assertEquals(expected.set(idx, value), actual.set(idx, value));
+			}
+			assertEquals(expected, actual);
+		}
+	}
+
+}
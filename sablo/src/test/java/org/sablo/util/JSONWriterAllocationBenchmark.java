@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2026 Servoy BV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.sablo.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+import org.json.JSONStringer;
+
+/**
+ * Not a unit test; run it's main method manually to compare the allocation rate of writing a big (initial form data like) message
+ * with a normal JSONStringer and with a {@link PooledJSONStringer}.
+ *
+ * @author agent
+ */
+@SuppressWarnings("nls")
+public class JSONWriterAllocationBenchmark
+{
+
+	private static final int COMPONENTS = 500;
+	private static final int WARMUP = 200;
+	private static final int ITERATIONS = 1000;
+
+	public static void main(String[] args)
+	{
+		com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+
+		run("JSONStringer", threadBean, () -> new JSONStringer());
+		run("DebugFriendlyJSONStringer", threadBean, () -> new DebugFriendlyJSONStringer());
+		run("PooledJSONStringer", threadBean, () -> new PooledJSONStringer());
+	}
+
+	private static void run(String name, com.sun.management.ThreadMXBean threadBean, Supplier<JSONStringer> writerFactory)
+	{
+		long totalChars = 0;
+		for (int i = 0; i < WARMUP; i++)
+			totalChars += writeMessage(writerFactory.get()).length();
+
+		long threadId = Thread.currentThread().getId();
+		long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++)
+			totalChars += writeMessage(writerFactory.get()).length();
+		long time = System.nanoTime() - start;
+		long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+		System.out.println(name + ": " + (allocated / ITERATIONS) + " bytes allocated / message, " + (time / ITERATIONS / 1000) + " us / message (" +
+			totalChars + ")");
+	}
+
+	private static String writeMessage(JSONStringer w)
+	{
+		try
+		{
+			w.object().key("msg").object().key("forms").object().key("someForm").object();
+			for (int c = 0; c < COMPONENTS; c++)
+			{
+				w.key("component_" + c).object();
+				w.key("text").value("Some label text of component " + c);
+				w.key("styleClass").value("form-control btn btn-default");
+				w.key("visible").value(true);
+				w.key("enabled").value(true);
+				w.key("tabSeq").value(c);
+				w.key("size").object().key("width").value(140).key("height").value(30).endObject();
+				w.key("location").object().key("x").value(c * 2).key("y").value(c * 3).endObject();
+				w.endObject();
+			}
+			w.endObject().endObject().endObject().endObject();
+			return w.toString(); // this is what would be sent through the websocket
+		}
+		finally
+		{
+			if (w instanceof PooledJSONStringer) ((PooledJSONStringer)w).close();
+		}
+	}
+
+}
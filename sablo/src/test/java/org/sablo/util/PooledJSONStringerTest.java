@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2026 Servoy BV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.sablo.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONStringer;
+import org.json.JSONWriter;
+import org.junit.Test;
+import org.sablo.websocket.utils.JSONUtils.EmbeddableJSONWriter;
+import org.sablo.websocket.utils.JSONUtils.JSONStringWrapper;
+
+/**
+ * @author agent
+ */
+@SuppressWarnings("nls")
+public class PooledJSONStringerTest
+{
+
+	private static void writeSomething(JSONWriter w)
+	{
+		w.object().key("msg").object().key("forms").object().key("f1").object().key("").object();
+		w.key("text").value("some \"quoted\" text\n").key("size").value(12).key("visible").value(true).key("nothing").value(null);
+		w.key("arr").array().value(1.5).value(2.0d).value(Long.MAX_VALUE).value("x").value(JSONObject.NULL).object().endObject().array().endArray().endArray();
+		w.key("escapes").value("</script> \t\u0001\u0085\u2028 \\ /");
+		w.key("embedded").value(new JSONStringWrapper("{\"a\":[1,2]}"));
+		w.key("map").value(Collections.singletonMap("k", "v"));
+		w.endObject().endObject().endObject().endObject().endObject();
+	}
+
+	@Test
+	public void writesSameContentAsJSONStringer()
+	{
+		JSONStringer expected = new JSONStringer();
+		writeSomething(expected);
+
+		try (PooledJSONStringer w = new PooledJSONStringer())
+		{
+			writeSomething(w);
+			assertEquals(expected.toString(), w.toString());
+			assertTrue(w.contentContains("\"msg\":"));
+			assertFalse(w.contentContains("\"msgs\":"));
+		}
+	}
+
+	@Test(expected = JSONException.class)
+	public void misplacedValueIsStillDetected()
+	{
+		try (PooledJSONStringer w = new PooledJSONStringer())
+		{
+			w.object().value("no key before it");
+		}
+	}
+
+	@Test(expected = JSONException.class)
+	public void misplacedEndIsStillDetected()
+	{
+		try (PooledJSONStringer w = new PooledJSONStringer())
+		{
+			w.object().key("a").array().endObject();
+		}
+	}
+
+	@Test
+	public void buffersAreReusedOnTheSameThread()
+	{
+		ReusableStringWriter b1 = ReusableStringWriter.acquire();
+		b1.write("some content");
+		ReusableStringWriter nested = ReusableStringWriter.acquire();
+		assertNotSame(b1, nested);
+
+		ReusableStringWriter.release(nested);
+		ReusableStringWriter.release(b1);
+		ReusableStringWriter.release(b1); // double release should not put it in the pool twice
+
+		ReusableStringWriter b2 = ReusableStringWriter.acquire();
+		ReusableStringWriter b3 = ReusableStringWriter.acquire();
+		assertSame(b1, b2);
+		assertSame(nested, b3);
+		assertEquals(0, b2.length());
+		assertEquals("", b2.toString());
+
+		ReusableStringWriter.release(b3);
+		ReusableStringWriter.release(b2);
+	}
+
+	@Test
+	public void embeddableWriterWithPooledBuffer()
+	{
+		ReusableStringWriter buffer = ReusableStringWriter.acquire();
+		try
+		{
+			EmbeddableJSONWriter ejw = new EmbeddableJSONWriter(true, buffer);
+			assertTrue(ejw.isEmpty());
+			ejw.value(15);
+			assertFalse(ejw.isEmpty());
+			assertEquals("15", ejw.toJSONString());
+		}
+		finally
+		{
+			ReusableStringWriter.release(buffer);
+		}
+	}
+
+}
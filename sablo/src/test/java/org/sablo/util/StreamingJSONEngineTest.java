@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2026 Servoy BV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.sablo.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.util.Iterator;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+@SuppressWarnings("nls")
+public class StreamingJSONEngineTest
+{
+
+	private static final String[] MESSAGES = new String[] { //
+		"{}", //
+		" { \"smsgid\" : 12, \"ret\": null }\n", //
+		"{\"service\":\"formService\",\"methodname\":\"dataPush\",\"args\":{\"formname\":\"f1\",\"beanname\":\"b1\",\"changes\":{\"text\":\"a\\\"b\\\\c\\/d\\n\\t\\u00e9\\u20AC\"},\"oldvalues\":{\"text\":\"\"}},\"cmsgid\":3,\"prio\":1}", //
+		"{\"numbers\":[0,-1,2147483647,2147483648,-9223372036854775808,92233720368547758070,1.5,-0.0,1e3,1E-7,3.141592653589793238462643383279]}", //
+		"{\"b\":[true,false,null,[],[[{}]],{\"x\":{\"y\":[1,\"2\",{\"z\":null}]}}]}", //
+		"{\"unicode\":\"\u00e9\u4e2d\ud83d\ude00\",\"tab\":\"\t\"}", //
+		"{\"trailing\":1,}", // org.json accepts some things that are not strict JSON
+		"{\"unquoted\":abc, \"sq\":\"\\'\"}", //
+		"{\"x\":1} garbage", //
+		"{\"nested\":[1,,2]}" //
+	};
+
+	private static final String[] INVALID_MESSAGES = new String[] { "", "[]", "{\"a\":1,\"a\":2}", "{\"a\":\"unterminated}", "{\"a\":\"\\u12g4\"}", "{\"a\":[1,2}" };
+
+	@Test
+	public void parsesTheSameAsOrgJSON()
+	{
+		JSONEngine orgJSON = JSONEngine.createEngine(JSONEngine.DEFAULT);
+		JSONEngine streaming = JSONEngine.createEngine(JSONEngine.STREAMING);
+
+		for (String message : MESSAGES)
+		{
+			assertSameContent(message, orgJSON.parseObject(message), streaming.parseObject(message));
+		}
+	}
+
+	@Test
+	public void givesInvalidJSONToOrgJSON()
+	{
+		JSONEngine streaming = JSONEngine.createEngine(JSONEngine.STREAMING);
+		for (String message : INVALID_MESSAGES)
+		{
+			assertNull(message, StreamingJSONParser.parseObject(message));
+
+			String expectedError = null;
+			try
+			{
+				new JSONObject(message);
+			}
+			catch (JSONException e)
+			{
+				expectedError = e.getMessage();
+			}
+			assertNotNull(message, expectedError);
+
+			try
+			{
+				streaming.parseObject(message);
+				fail("should have thrown for " + message);
+			}
+			catch (JSONException e)
+			{
+				assertEquals(expectedError, e.getMessage());
+			}
+		}
+	}
+
+	@Test
+	public void parsesValidJSONWithoutOrgJSON()
+	{
+		assertNotNull(StreamingJSONParser.parseObject(MESSAGES[2]));
+		assertNotNull(StreamingJSONParser.parseObject(MESSAGES[3]));
+		assertNotNull(StreamingJSONParser.parseObject(MESSAGES[4]));
+	}
+
+	private static void assertSameContent(String message, Object expected, Object actual)
+	{
+		if (expected == null || actual == null)
+		{
+			assertEquals(message, expected, actual);
+			return;
+		}
+		assertEquals(message, expected.getClass(), actual.getClass());
+		if (expected instanceof JSONObject)
+		{
+			JSONObject e = (JSONObject)expected;
+			JSONObject a = (JSONObject)actual;
+			assertEquals(message, e.keySet(), a.keySet());
+			Iterator<String> it = e.keys();
+			while (it.hasNext())
+			{
+				String key = it.next();
+				assertSameContent(message, e.get(key), a.get(key));
+			}
+		}
+		else if (expected instanceof JSONArray)
+		{
+			JSONArray e = (JSONArray)expected;
+			JSONArray a = (JSONArray)actual;
+			assertEquals(message, e.length(), a.length());
+			for (int i = 0; i < e.length(); i++)
+				assertSameContent(message, e.opt(i), a.opt(i));
+		}
+		else assertEquals(message, expected, actual);
+	}
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2026 Servoy BV
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.sablo.websocket.utils;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.sablo.specification.PropertyDescription;
+import org.sablo.specification.PropertyDescriptionBuilder;
+import org.sablo.specification.property.ChangeAwareList;
+import org.sablo.specification.property.ChangeAwareMap;
+import org.sablo.specification.property.CustomJSONArrayType;
+import org.sablo.specification.property.CustomJSONObjectType;
+import org.sablo.specification.property.types.DatePropertyType;
+import org.sablo.specification.property.types.StringPropertyType;
+
+/**
+ * @author agent
+ */
+@SuppressWarnings("nls")
+public class JSONUtilsTest
+{
+
+	@Test
+	public void structuralEqualityBetweenJSONAndRuntimeValues()
+	{
+		Map<String, Object> nested = new HashMap<>();
+		nested.put("a", Long.valueOf(1));
+		nested.put("b", null);
+		List<Object> runtime = new ArrayList<>(Arrays.asList("x", nested, new Object[] { Boolean.TRUE, Double.valueOf(2.5) }));
+
+		JSONArray json = new JSONArray("['x', {a: 1, b: null}, [true, 2.5]]");
+
+		assertTrue(JSONUtils.areStructurallyEqual(json, runtime));
+		assertTrue(JSONUtils.areStructurallyEqual(runtime, json));
+		assertTrue(JSONUtils.areStructurallyEqual(json, new JSONArray(json.toString())));
+		assertTrue(JSONUtils.areStructurallyEqual(JSONObject.NULL, null));
+
+		nested.put("b", "y");
+		assertFalse(JSONUtils.areStructurallyEqual(json, runtime));
+		nested.remove("b");
+		assertFalse(JSONUtils.areStructurallyEqual(json, runtime));
+		nested.put("b", null);
+		runtime.add("z");
+		assertFalse(JSONUtils.areStructurallyEqual(json, runtime));
+		assertFalse(JSONUtils.areStructurallyEqual(new JSONObject("{a: 1}"), new JSONArray("[1]")));
+		assertFalse(JSONUtils.areStructurallyEqual("1", Integer.valueOf(1)));
+	}
+
+
+	@Test
+	public void customArrayOldValuesFromBrowserAreComparedWithoutCreatingNewValues()
+	{
+		PropertyDescription datePD = new PropertyDescriptionBuilder().withName("d").withType(DatePropertyType.INSTANCE).build();
+		CustomJSONObjectType<Object, Object> objectType = spy(new CustomJSONObjectType<Object, Object>("obj", null));
+		PropertyDescription objectPD = new PropertyDescriptionBuilder().withName("obj").withType(objectType).withProperty("d", datePD)
+			.withProperty("s", new PropertyDescriptionBuilder().withName("s").withType(StringPropertyType.INSTANCE).build()).build();
+		objectType.setCustomJSONDefinition(objectPD);
+		CustomJSONArrayType<Object, Object> arrayType = spy(new CustomJSONArrayType<Object, Object>(objectPD));
+		PropertyDescription arrayPD = new PropertyDescriptionBuilder().withName("objs").withType(arrayType).build();
+
+		List<Object> elements = new ArrayList<>();
+		for (int i = 1; i <= 2; i++)
+		{
+			Map<String, Object> element = new HashMap<>();
+			element.put("d", new Date(i * 1000));
+			element.put("s", "s" + i);
+			elements.add(new ChangeAwareMap<Object, Object>(element, null, objectPD));
+		}
+		ChangeAwareList<Object, Object> current = new ChangeAwareList<>(elements);
+
+		// dates are still converted (as leaf values), the rest is compared directly
+		assertTrue(JSONUtils.isBrowserValueEqualTo(
+			new JSONObject("{vEr: 1, v: [{vEr: 1, v: {d: 1000, s: 's1'}}, {vEr: 1, v: {d: 2000, s: 's2'}}]}"), current, arrayPD, null));
+		assertFalse(JSONUtils.isBrowserValueEqualTo(
+			new JSONObject("{vEr: 1, v: [{vEr: 1, v: {d: 1000, s: 's1'}}, {vEr: 1, v: {d: 3000, s: 's2'}}]}"), current, arrayPD, null));
+		assertFalse(JSONUtils.isBrowserValueEqualTo(
+			new JSONObject("{vEr: 1, v: [{vEr: 1, v: {d: 1000, s: 's1'}}, {vEr: 1, v: {d: 2000, s: 'other'}}]}"), current, arrayPD, null));
+		assertFalse(JSONUtils.isBrowserValueEqualTo(new JSONObject("{vEr: 1, v: [{vEr: 1, v: {d: 1000}}, {vEr: 1, v: {d: 2000, s: 's2'}}]}"), current,
+			arrayPD, null));
+		assertFalse(JSONUtils.isBrowserValueEqualTo(new JSONObject("{vEr: 1, v: [{vEr: 1, v: {d: 1000, s: 's1'}}]}"), current, arrayPD, null));
+		assertFalse(JSONUtils.isBrowserValueEqualTo(new JSONObject("{vEr: 1, v: [null, {vEr: 1, v: {d: 2000, s: 's2'}}]}"), current, arrayPD, null));
+
+		// a no-op cannot be compared, so it does not block anything
+		assertTrue(JSONUtils.isBrowserValueEqualTo(new JSONObject("{n: true}"), current, arrayPD, null));
+
+		// no list/map was created from the browser values
+		verify(arrayType, never()).fromJSON(any(), any(), any(), any(), any());
+		verify(objectType, never()).fromJSON(any(), any(), any(), any(), any());
+	}
+
+}